@@ -5,6 +5,7 @@ import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -16,6 +17,8 @@ import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 import org.springframework.stereotype.Component;
@@ -26,12 +29,18 @@ import org.springframework.stereotype.Component;
  * first, then records the audit — so a thrown method exits without an audit
  * row (correct: only completed actions are audited).
  * <p>
- * The audit write joins the caller's transaction (see
- * {@link AuditEventService}); on rollback of the caller's tx the audit row
- * rolls back with it.
+ * The row is not written on the caller's thread: it is queued once the
+ * caller's transaction commits and batch-inserted by the background writer
+ * (see {@link AuditEventService#recordAfterCommit}). On rollback nothing is
+ * queued.
+ * <p>
+ * Parsed {@code targetIdExpression}s are cached per expression string and
+ * compiled to bytecode by SpEL once they have run ({@code MIXED} mode, which
+ * falls back to interpretation whenever the compiled form does not fit);
+ * parameter names are cached per method.
  * <p>
  * Audit-side failures NEVER mask the method's return value: any exception
- * from {@code AuditEventService.record} is caught and logged at ERROR. The
+ * from {@code AuditEventService} is caught and logged at ERROR. The
  * compliance trade-off is deliberate — a stuck audit subsystem must not
  * break the platform. For environments where audit must be hard-required,
  * remove the catch and let it propagate.
@@ -43,8 +52,12 @@ public class AuditAspect {
     private static final Logger LOG = LoggerFactory.getLogger(AuditAspect.class);
 
     private final AuditEventService auditEventService;
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ExpressionParser parser = new SpelExpressionParser(
+        new SpelParserConfiguration(SpelCompilerMode.MIXED, AuditAspect.class.getClassLoader())
+    );
     private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+    private final Map<Method, String[]> parameterNames = new ConcurrentHashMap<>();
 
     public AuditAspect(AuditEventService auditEventService) {
         this.auditEventService = auditEventService;
@@ -56,7 +69,7 @@ public class AuditAspect {
         try {
             String targetId = evaluateTargetId(joinPoint, auditable, result);
             Map<String, Object> payload = buildPayload(joinPoint, result);
-            auditEventService.record(auditable.action(), auditable.targetType(), targetId, payload);
+            auditEventService.recordAfterCommit(auditable.action(), auditable.targetType(), targetId, payload);
         } catch (RuntimeException e) {
             LOG.error(
                 "Failed to record audit_event for action={} targetType={} method={}: {}",
@@ -83,7 +96,7 @@ public class AuditAspect {
         }
         try {
             EvaluationContext context = buildContext(joinPoint, result);
-            Expression compiled = parser.parseExpression(expression);
+            Expression compiled = expressions.computeIfAbsent(expression, parser::parseExpression);
             Object value = compiled.getValue(context);
             return value != null ? value.toString() : null;
         } catch (RuntimeException e) {
@@ -116,13 +129,15 @@ public class AuditAspect {
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
         Method method = signature.getMethod();
         Object[] args = joinPoint.getArgs();
-        String[] names = parameterNameDiscoverer.getParameterNames(method);
+        // Empty array, not null, caches "no names available" too (ConcurrentHashMap holds no nulls).
+        String[] names = parameterNames.computeIfAbsent(method, m -> {
+            String[] discovered = parameterNameDiscoverer.getParameterNames(m);
+            return discovered != null ? discovered : new String[0];
+        });
         Map<String, Object> argMap = new HashMap<>();
-        if (names != null) {
-            for (int i = 0; i < names.length && i < args.length; i++) {
-                context.setVariable(names[i], args[i]);
-                argMap.put(names[i], args[i]);
-            }
+        for (int i = 0; i < names.length && i < args.length; i++) {
+            context.setVariable(names[i], args[i]);
+            argMap.put(names[i], args[i]);
         }
         context.setVariable("args", args);
         context.setVariable("result", result);
@@ -8,9 +8,9 @@ import java.lang.annotation.Target;
 /**
  * Marks a service method whose successful invocation should produce an
  * {@code audit_event} row. The {@link AuditAspect} runs after the method
- * commits (the audit row joins the caller's transaction) and uses the
- * declared values + a SpEL evaluation against the method's args and return
- * value to populate the audit fields.
+ * returns (the row is written asynchronously once the caller's transaction
+ * commits) and uses the declared values + a SpEL evaluation against the
+ * method's args and return value to populate the audit fields.
  * <p>
  * Use this for actions where the "after" state is sufficient — payroll
  * postings, role assignments, tenant-status changes. For actions that
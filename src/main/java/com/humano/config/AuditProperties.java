@@ -0,0 +1,92 @@
+package com.humano.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the asynchronous audit pipeline behind {@code @Auditable}, bound from
+ * {@code humano.audit.*}.
+ *
+ * @author Humano Team
+ */
+@Component
+@ConfigurationProperties(prefix = "humano.audit")
+public class AuditProperties {
+
+    private final Pipeline pipeline = new Pipeline();
+
+    public Pipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * What a caller does when the audit buffer is full.
+     */
+    public enum Overflow {
+        /** Write the event synchronously on the calling thread: slower, but nothing is lost. */
+        CALLER_WRITES,
+        /** Discard the event and count it in {@code audit.pipeline.events{outcome=dropped}}. */
+        DROP,
+    }
+
+    /**
+     * Buffering and batching of {@code AuditEventPipeline}.
+     */
+    public static class Pipeline {
+
+        /** When false, {@code @Auditable} writes synchronously inside the caller's transaction. */
+        private boolean enabled = true;
+
+        /** Events buffered in memory before {@link #overflow} applies. */
+        private int capacity = 10_000;
+
+        /** Most events written in one insert batch. */
+        private int maxBatchSize = 200;
+
+        private Overflow overflow = Overflow.CALLER_WRITES;
+
+        /** How long shutdown waits for the buffer to drain. */
+        private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public Overflow getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(Overflow overflow) {
+            this.overflow = overflow;
+        }
+
+        public Duration getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(Duration shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+    }
+}
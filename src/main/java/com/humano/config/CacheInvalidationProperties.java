@@ -0,0 +1,61 @@
+package com.humano.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the cross-node cache invalidation bus ({@code CacheInvalidationBus}), bound from
+ * {@code humano.cache.invalidation.*}.
+ *
+ * @author Humano Team
+ */
+@Component
+@ConfigurationProperties(prefix = "humano.cache.invalidation")
+public class CacheInvalidationProperties {
+
+    /**
+     * How invalidations reach the other nodes.
+     */
+    public enum Transport {
+        /** Through the {@code cache_version} table of the master database, polled by every node. */
+        DATABASE,
+        /** Within this JVM only; for tests and single-node setups. */
+        IN_PROCESS,
+    }
+
+    private Transport transport = Transport.DATABASE;
+
+    /** How often each node polls {@code cache_version} for changes. */
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    /**
+     * How far back each poll looks before the newest change already seen, so a change whose
+     * transaction committed late is still picked up.
+     */
+    private Duration commitGrace = Duration.ofSeconds(30);
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getCommitGrace() {
+        return commitGrace;
+    }
+
+    public void setCommitGrace(Duration commitGrace) {
+        this.commitGrace = commitGrace;
+    }
+}
@@ -0,0 +1,66 @@
+package com.humano.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings of the in-memory employee search index ({@code EmployeeSearchIndex}), bound from
+ * {@code humano.employee-search.*}.
+ *
+ * @author Humano Team
+ */
+@Component
+@ConfigurationProperties(prefix = "humano.employee-search")
+public class EmployeeSearchProperties {
+
+    /** Least time between two syncs of a tenant's index with the employees modified since. */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+
+    /**
+     * How far back each sync looks before the newest modification already indexed, so a change
+     * stamped by another node's clock or committed late is still picked up.
+     */
+    private Duration syncOverlap = Duration.ofMinutes(2);
+
+    /** How often a tenant's index is rebuilt from scratch, which drops deleted employees. */
+    private Duration rebuildInterval = Duration.ofHours(1);
+
+    /**
+     * Most matches a text search returns, best first, once the other search filters are applied;
+     * lower-ranked matches are not returned.
+     */
+    private int maxResults = 1000;
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public Duration getSyncOverlap() {
+        return syncOverlap;
+    }
+
+    public void setSyncOverlap(Duration syncOverlap) {
+        this.syncOverlap = syncOverlap;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+}
@@ -0,0 +1,35 @@
+package com.humano.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated pool for the SMTP calls of {@code OutboundMailQueue}, so queued notification
+ * emails neither block the scheduler that paces them nor compete with the general
+ * {@code taskExecutor}. The queue holds one second's worth of sends; the rest waits in
+ * {@code OutboundMailQueue} itself, where it can still be coalesced.
+ */
+@Configuration
+public class NotificationExecutorConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationExecutorConfiguration.class);
+
+    @Bean(name = "notificationMailExecutor")
+    public ThreadPoolTaskExecutor notificationMailExecutor(NotificationProperties notificationProperties) {
+        NotificationProperties.Mail mail = notificationProperties.getMail();
+        int threads = Math.max(1, mail.getSenderThreads());
+        LOG.debug("Creating notification mail executor with {} threads", threads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(Math.max(1, mail.getRatePerSecond()));
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("humano-mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
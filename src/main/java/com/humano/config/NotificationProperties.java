@@ -0,0 +1,82 @@
+package com.humano.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbound notification settings, bound from {@code humano.notifications.*}.
+ *
+ * @author Humano Team
+ */
+@Component
+@ConfigurationProperties(prefix = "humano.notifications")
+public class NotificationProperties {
+
+    private final Mail mail = new Mail();
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    /**
+     * The coalescing, rate-limited email queue ({@code OutboundMailQueue}).
+     */
+    public static class Mail {
+
+        /** Emails handed to the mail server per second, node-wide. */
+        private int ratePerSecond = 10;
+
+        /** How long a queued email waits for more notifications to the same address. */
+        private Duration coalesceWindow = Duration.ofSeconds(30);
+
+        /** Most notifications merged into one email; later ones start a new email. */
+        private int maxItemsPerEmail = 20;
+
+        /** Distinct queued emails before new ones bypass the queue. */
+        private int maxPending = 50_000;
+
+        /** Threads talking to the mail server. */
+        private int senderThreads = 2;
+
+        public int getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public void setRatePerSecond(int ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+        }
+
+        public Duration getCoalesceWindow() {
+            return coalesceWindow;
+        }
+
+        public void setCoalesceWindow(Duration coalesceWindow) {
+            this.coalesceWindow = coalesceWindow;
+        }
+
+        public int getMaxItemsPerEmail() {
+            return maxItemsPerEmail;
+        }
+
+        public void setMaxItemsPerEmail(int maxItemsPerEmail) {
+            this.maxItemsPerEmail = maxItemsPerEmail;
+        }
+
+        public int getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(int maxPending) {
+            this.maxPending = maxPending;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.humano.config;
+
+import com.humano.config.multitenancy.TenantAwareTaskDecorator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated worker pools for payroll: the chunk workers of parallel calculation, and the
+ * orchestration threads of background run jobs.
+ *
+ * <p>Kept separate from the general {@code taskExecutor} so a month-end run cannot starve
+ * {@code @Async} listeners and mail, and not profile-gated like {@link AsyncConfiguration}
+ * so the payroll service wires identically in tests. The pool size is the node-wide ceiling;
+ * each run further caps itself per tenant (see {@link PayrollProperties.Calculation}).
+ *
+ * <p>Background jobs get their own pool rather than sharing the worker pool: a job thread
+ * blocks on its run's chunk workers, so jobs occupying every worker thread would deadlock.
+ * Payslip PDF rendering is CPU-bound rather than database-bound, so it gets a third pool sized
+ * to the cores instead of to the tenant connection pools.
+ */
+@Configuration
+public class PayrollExecutorConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PayrollExecutorConfiguration.class);
+
+    @Bean(name = "payrollCalculationExecutor")
+    public ThreadPoolTaskExecutor payrollCalculationExecutor(PayrollProperties payrollProperties) {
+        int threads = Math.max(1, payrollProperties.getCalculation().getMaxWorkerThreads());
+        LOG.debug("Creating payroll calculation executor with {} threads", threads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("humano-payroll-");
+        // Same propagation as the @Async pool: the worker inherits the submitting request's
+        // tenant + MDC, so REQUIRES_NEW transactions route to the right tenant database.
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    @Bean(name = "payrollJobExecutor")
+    public ThreadPoolTaskExecutor payrollJobExecutor(PayrollProperties payrollProperties) {
+        PayrollProperties.Jobs jobs = payrollProperties.getJobs();
+        int threads = Math.max(1, jobs.getMaxConcurrent());
+        LOG.debug("Creating payroll job executor with {} threads", threads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(Math.max(0, jobs.getQueueCapacity()));
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("humano-payroll-job-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        // A job interrupted by shutdown leaves its checkpoint behind; resubmitting resumes it.
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    @Bean(name = "payslipPdfExecutor")
+    public ThreadPoolTaskExecutor payslipPdfExecutor(PayrollProperties payrollProperties) {
+        int threads = Math.max(1, payrollProperties.getPdf().effectiveRenderThreads());
+        LOG.debug("Creating payslip PDF executor with {} threads", threads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("humano-payslip-pdf-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        // Unfinished payslips keep no PDF reference; resubmitting the run renders only those.
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,253 @@
+package com.humano.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tuning knobs for the payroll calculation pipeline, bound from {@code humano.payroll.*}.
+ *
+ * <p>Only the structured settings live here; single scalar settings such as
+ * {@code humano.payroll.max-exchange-rate-staleness-days} stay on {@code @Value} at their
+ * point of use.
+ *
+ * @author Humano Team
+ */
+@Component
+@ConfigurationProperties(prefix = "humano.payroll")
+public class PayrollProperties {
+
+    private final Calculation calculation = new Calculation();
+
+    private final Formula formula = new Formula();
+
+    private final Jobs jobs = new Jobs();
+
+    private final Pdf pdf = new Pdf();
+
+    public Calculation getCalculation() {
+        return calculation;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public Formula getFormula() {
+        return formula;
+    }
+
+    public Pdf getPdf() {
+        return pdf;
+    }
+
+    /**
+     * Parallel calculation settings for {@code PayrollProcessingService.calculatePayroll}.
+     */
+    public static class Calculation {
+
+        /**
+         * Default number of employee chunks a single run may calculate concurrently. {@code 1}
+         * keeps the historical sequential loop.
+         */
+        private int parallelism = 1;
+
+        /** Per-tenant (subdomain) override of {@link #parallelism}. */
+        private Map<String, Integer> tenantParallelism = new HashMap<>();
+
+        /** Employees per chunk handed to a worker in one go. */
+        private int chunkSize = 200;
+
+        /**
+         * Employees fetched per keyset page while resolving a run's scope. Calculation starts
+         * on the first page; a page is split into {@link #chunkSize} chunks.
+         */
+        private int scopePageSize = 1000;
+
+        /**
+         * Connections of the tenant pool that a parallel run must leave free for request
+         * traffic, on top of the one held by the orchestration transaction.
+         */
+        private int poolHeadroom = 2;
+
+        /** Size of the shared, node-wide payroll worker pool (across all tenants and runs). */
+        private int maxWorkerThreads = 16;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Map<String, Integer> getTenantParallelism() {
+            return tenantParallelism;
+        }
+
+        public void setTenantParallelism(Map<String, Integer> tenantParallelism) {
+            this.tenantParallelism = tenantParallelism;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getScopePageSize() {
+            return scopePageSize;
+        }
+
+        public void setScopePageSize(int scopePageSize) {
+            this.scopePageSize = scopePageSize;
+        }
+
+        public int getPoolHeadroom() {
+            return poolHeadroom;
+        }
+
+        public void setPoolHeadroom(int poolHeadroom) {
+            this.poolHeadroom = poolHeadroom;
+        }
+
+        public int getMaxWorkerThreads() {
+            return maxWorkerThreads;
+        }
+
+        public void setMaxWorkerThreads(int maxWorkerThreads) {
+            this.maxWorkerThreads = maxWorkerThreads;
+        }
+
+        /**
+         * Configured parallelism for a tenant: the per-tenant override when present, else the
+         * default. Never below {@code 1}.
+         */
+        public int parallelismFor(String tenantId) {
+            Integer override = tenantId != null ? tenantParallelism.get(tenantId) : null;
+            return Math.max(1, override != null ? override : parallelism);
+        }
+    }
+
+    /**
+     * Tenant formula evaluation settings for {@code PayrollFormulaEngine}.
+     */
+    public static class Formula {
+
+        /**
+         * Evaluate cached formulas through their pre-resolved compiled tree instead of a fresh
+         * SpEL evaluation context per call. Formulas outside the compiled subset are always
+         * interpreted, so switching this off only matters for troubleshooting.
+         */
+        private boolean compiled = true;
+
+        /**
+         * Parsed-formula cache cap, per tenant namespace. Formulas are reused per employee, so
+         * the working set is a tenant's pay-rule count; the cap only bites on formula churn.
+         */
+        private int cacheMaxEntriesPerTenant = 1000;
+
+        public boolean isCompiled() {
+            return compiled;
+        }
+
+        public void setCompiled(boolean compiled) {
+            this.compiled = compiled;
+        }
+
+        public int getCacheMaxEntriesPerTenant() {
+            return cacheMaxEntriesPerTenant;
+        }
+
+        public void setCacheMaxEntriesPerTenant(int cacheMaxEntriesPerTenant) {
+            this.cacheMaxEntriesPerTenant = cacheMaxEntriesPerTenant;
+        }
+    }
+
+    /**
+     * Background payroll run jobs ({@code PayrollRunJobService}).
+     */
+    public static class Jobs {
+
+        /** Runs calculated in the background at the same time on one node. */
+        private int maxConcurrent = 2;
+
+        /** Jobs that may wait for a free slot before submissions are refused. */
+        private int queueCapacity = 20;
+
+        /** How long a finished job stays queryable. */
+        private Duration retention = Duration.ofHours(1);
+
+        /** Lifetime of one progress event stream; clients reconnect past it. */
+        private Duration sseTimeout = Duration.ofMinutes(30);
+
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public Duration getSseTimeout() {
+            return sseTimeout;
+        }
+
+        public void setSseTimeout(Duration sseTimeout) {
+            this.sseTimeout = sseTimeout;
+        }
+    }
+
+    /**
+     * Bulk payslip PDF rendering for a run ({@code PayslipPdfBatchService}).
+     */
+    public static class Pdf {
+
+        /** Node-wide rendering threads; {@code 0} means one per available processor. */
+        private int renderThreads = 0;
+
+        /** Payslips loaded, rendered and marked as stored per unit of work. */
+        private int chunkSize = 50;
+
+        public int getRenderThreads() {
+            return renderThreads;
+        }
+
+        public void setRenderThreads(int renderThreads) {
+            this.renderThreads = renderThreads;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        /** {@link #renderThreads} with {@code 0} resolved against this machine. */
+        public int effectiveRenderThreads() {
+            return renderThreads > 0 ? renderThreads : Runtime.getRuntime().availableProcessors();
+        }
+    }
+}
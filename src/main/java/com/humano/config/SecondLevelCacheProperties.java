@@ -0,0 +1,88 @@
+package com.humano.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate second-level and query cache of the tenant persistence unit, bound from
+ * {@code humano.cache.second-level.*}. Every region is a bounded Caffeine cache; entries
+ * carry the tenant identifier, so one region safely holds every tenant's rows.
+ *
+ * @author Humano Team
+ */
+@Component
+@ConfigurationProperties(prefix = "humano.cache.second-level")
+public class SecondLevelCacheProperties {
+
+    private boolean enabled = true;
+
+    /** Bounds of every region without an entry in {@link #regions}. */
+    private final Region defaults = new Region();
+
+    /**
+     * Per-region bounds, keyed by region name or by its last segment: {@code Currency} for the
+     * {@code com.humano.domain.payroll.Currency} entity region, {@code default-query-results-region}
+     * for cached query results.
+     */
+    private Map<String, Region> regions = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Region getDefaults() {
+        return defaults;
+    }
+
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(Map<String, Region> regions) {
+        this.regions = regions;
+    }
+
+    /** The bounds of {@code regionName}. */
+    public Region regionFor(String regionName) {
+        Region region = regions.get(regionName);
+        if (region == null) {
+            region = regions.get(regionName.substring(regionName.lastIndexOf('.') + 1));
+        }
+        return region != null ? region : defaults;
+    }
+
+    /**
+     * Bounds of one region. Least-frequently/recently used entries are evicted past
+     * {@code maxEntries}; {@code timeToLive} caps staleness should an invalidation be missed.
+     */
+    public static class Region {
+
+        private long maxEntries = 10_000;
+
+        /** Zero keeps entries until evicted by size or invalidated. */
+        private Duration timeToLive = Duration.ofHours(1);
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+}
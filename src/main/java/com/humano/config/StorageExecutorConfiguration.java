@@ -0,0 +1,33 @@
+package com.humano.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Dedicated pool for the part uploads of multipart S3 transfers. Each upload bounds its own
+ * parts in flight ({@code humano.storage.s3.upload-parallelism}), so the queue only ever holds
+ * a few parts per concurrent upload and the pool never blocks request threads it does not own.
+ */
+@Configuration
+public class StorageExecutorConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StorageExecutorConfiguration.class);
+
+    @Bean(name = "storageTransferExecutor")
+    public ThreadPoolTaskExecutor storageTransferExecutor(StorageProperties storageProperties) {
+        int threads = Math.max(1, storageProperties.getS3().getTransferThreads());
+        LOG.debug("Creating storage transfer executor with {} threads", threads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1000);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("humano-storage-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
@@ -0,0 +1,115 @@
+package com.humano.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Node-wide storage backend tuning, bound from {@code humano.storage.*}. Per-tenant settings
+ * (bucket, region, credentials) live in the tenant's storage config, not here.
+ *
+ * @author Humano Team
+ */
+@Component
+@ConfigurationProperties(prefix = "humano.storage")
+public class StorageProperties {
+
+    private final S3 s3 = new S3();
+
+    public S3 getS3() {
+        return s3;
+    }
+
+    /**
+     * The S3-compatible backend ({@code S3StorageService}).
+     */
+    public static class S3 {
+
+        /** Uploads of at least this size go multipart; smaller ones are a single PUT. */
+        private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+
+        /** Multipart part size; S3 requires at least 5 MB for every part but the last. */
+        private DataSize partSize = DataSize.ofMegabytes(8);
+
+        /** Parts of one upload in flight at once; bounds its heap to (parallelism + 1) parts. */
+        private int uploadParallelism = 4;
+
+        /** Threads uploading parts, shared by every upload on the node. */
+        private int transferThreads = 8;
+
+        /** Pooled HTTP connections per tenant S3 client. */
+        private int maxConnections = 50;
+
+        private Duration connectionTimeout = Duration.ofSeconds(5);
+
+        private Duration socketTimeout = Duration.ofSeconds(60);
+
+        /** Validity of the pre-signed download URLs returned by {@code getUrl}. */
+        private Duration presignedUrlTtl = Duration.ofMinutes(15);
+
+        public DataSize getMultipartThreshold() {
+            return multipartThreshold;
+        }
+
+        public void setMultipartThreshold(DataSize multipartThreshold) {
+            this.multipartThreshold = multipartThreshold;
+        }
+
+        public DataSize getPartSize() {
+            return partSize;
+        }
+
+        public void setPartSize(DataSize partSize) {
+            this.partSize = partSize;
+        }
+
+        public int getUploadParallelism() {
+            return uploadParallelism;
+        }
+
+        public void setUploadParallelism(int uploadParallelism) {
+            this.uploadParallelism = uploadParallelism;
+        }
+
+        public int getTransferThreads() {
+            return transferThreads;
+        }
+
+        public void setTransferThreads(int transferThreads) {
+            this.transferThreads = transferThreads;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public Duration getSocketTimeout() {
+            return socketTimeout;
+        }
+
+        public void setSocketTimeout(Duration socketTimeout) {
+            this.socketTimeout = socketTimeout;
+        }
+
+        public Duration getPresignedUrlTtl() {
+            return presignedUrlTtl;
+        }
+
+        public void setPresignedUrlTtl(Duration presignedUrlTtl) {
+            this.presignedUrlTtl = presignedUrlTtl;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.humano.config.cache;
+
+/**
+ * One invalidation carried by a {@link CacheInvalidationTransport}.
+ *
+ * @param cache  the cache name subscribers registered under
+ * @param key    the entry to drop, typically a tenant id or subdomain
+ * @param origin the node that published it; null when the transport cannot tell, in which
+ *               case every node applies it
+ */
+public record CacheInvalidation(String cache, String key, String origin) {}
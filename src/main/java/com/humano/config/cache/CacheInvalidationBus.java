@@ -0,0 +1,92 @@
+package com.humano.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts evictions of node-local, per-tenant caches to every node of the deployment, so
+ * those caches can be long-lived without serving stale entries after a change made on
+ * another node.
+ * <p>
+ * A cache owner {@link #subscribe}s a handler under its cache name and routes its evictions
+ * through {@link #publish}: the handler runs at once on this node and, through the
+ * {@link CacheInvalidationTransport} ({@code humano.cache.invalidation.transport}), on every
+ * other node shortly after the publishing transaction commits. Handlers must be idempotent;
+ * a transport may deliver an invalidation more than once.
+ * <p>
+ * Metrics: {@code cache.invalidation.events{outcome}} (published, received, publish_failed).
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    /** Identifies this node's invalidations, so they are not applied twice here. */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+    private final CacheInvalidationTransport transport;
+    private final Counter published;
+    private final Counter received;
+    private final Counter publishFailed;
+
+    public CacheInvalidationBus(CacheInvalidationTransport transport, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.published = meterRegistry.counter("cache.invalidation.events", "outcome", "published");
+        this.received = meterRegistry.counter("cache.invalidation.events", "outcome", "received");
+        this.publishFailed = meterRegistry.counter("cache.invalidation.events", "outcome", "publish_failed");
+        transport.subscribe(this::receive);
+    }
+
+    /** Runs {@code handler} with the key of every invalidation of {@code cache}, from any node. */
+    public void subscribe(String cache, Consumer<String> handler) {
+        handlers.computeIfAbsent(cache, name -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Invalidates {@code key} of {@code cache} on this node now and on the other nodes once the
+     * caller's master transaction (if any) commits. A failure to broadcast is logged, not thrown:
+     * the local eviction has happened and the caller's change should not be rolled back for it.
+     */
+    public void publish(String cache, String key) {
+        apply(cache, key);
+        try {
+            transport.publish(new CacheInvalidation(cache, key, nodeId));
+            published.increment();
+        } catch (RuntimeException e) {
+            publishFailed.increment();
+            LOG.error("Could not broadcast invalidation of {} '{}'; other nodes keep their entry", cache, key, e);
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private void receive(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        received.increment();
+        apply(invalidation.cache(), invalidation.key());
+    }
+
+    private void apply(String cache, String key) {
+        for (Consumer<String> handler : handlers.getOrDefault(cache, List.of())) {
+            try {
+                handler.accept(key);
+            } catch (RuntimeException e) {
+                LOG.error("Invalidation handler of {} failed for '{}'", cache, key, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.humano.config.cache;
+
+import com.humano.config.CacheInvalidationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Selects the {@link CacheInvalidationTransport} of {@link CacheInvalidationBus} from
+ * {@code humano.cache.invalidation.transport}.
+ */
+@Configuration
+public class CacheInvalidationConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationConfiguration.class);
+
+    @Bean
+    public CacheInvalidationTransport cacheInvalidationTransport(
+        CacheInvalidationProperties properties,
+        @Qualifier("masterDataSource") DataSource masterDataSource,
+        MeterRegistry meterRegistry
+    ) {
+        LOG.debug("Using {} cache invalidation transport", properties.getTransport());
+        return switch (properties.getTransport()) {
+            case DATABASE -> new DatabaseInvalidationTransport(masterDataSource, properties, meterRegistry);
+            case IN_PROCESS -> new InProcessInvalidationTransport();
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package com.humano.config.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CacheInvalidation}s between the nodes of a deployment for
+ * {@link CacheInvalidationBus}. Delivery is at least once and may include the publishing
+ * node's own invalidations; the bus filters those by {@link CacheInvalidation#origin()}.
+ *
+ * @see DatabaseInvalidationTransport
+ * @see InProcessInvalidationTransport
+ */
+public interface CacheInvalidationTransport {
+    /**
+     * Broadcasts {@code invalidation}. Joins the caller's master transaction when there is one,
+     * so other nodes only see it once that transaction commits.
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /** Registers {@code receiver} for every invalidation published from now on, by any node. */
+    void subscribe(Consumer<CacheInvalidation> receiver);
+}
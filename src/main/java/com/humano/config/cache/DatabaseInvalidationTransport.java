@@ -0,0 +1,175 @@
+package com.humano.config.cache;
+
+import com.humano.config.CacheInvalidationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Invalidation transport over the {@code cache_version} table of the master database, which
+ * every node already connects to.
+ * <p>
+ * The table holds one row per invalidated {@code (cache_name, cache_key)} with a counter: a
+ * publish bumps it and stamps the row with the publishing node and the database clock, so the
+ * table stays as small as the set of keys ever invalidated. Each node polls it every
+ * {@code humano.cache.invalidation.poll-interval} for rows stamped since its newest seen change
+ * minus {@code commit-grace} (an index range scan that is usually empty) and delivers every row
+ * whose counter moved since it last looked. A counter that moved by more than one has also been
+ * bumped by another node, so it is delivered without an origin and applied everywhere.
+ * <p>
+ * The first poll only records the current counters: a node that just started has nothing
+ * cached to invalidate. Invalidations whose transaction takes longer than {@code commit-grace}
+ * to commit can be missed.
+ */
+public class DatabaseInvalidationTransport implements CacheInvalidationTransport, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatabaseInvalidationTransport.class);
+
+    private static final String BUMP =
+        "UPDATE cache_version SET version = version + 1, origin = ?, updated_at = CURRENT_TIMESTAMP(6) " +
+        "WHERE cache_name = ? AND cache_key = ?";
+    private static final String CREATE =
+        "INSERT INTO cache_version (cache_name, cache_key, version, origin, updated_at) VALUES (?, ?, 1, ?, CURRENT_TIMESTAMP(6))";
+    private static final String CHANGED_SINCE =
+        "SELECT cache_name, cache_key, version, origin, updated_at FROM cache_version WHERE updated_at >= ?";
+
+    private final DataSource masterDataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate ownTransaction;
+    private final CacheInvalidationProperties properties;
+    private final Timer pollTimer;
+    private final List<Consumer<CacheInvalidation>> receivers = new CopyOnWriteArrayList<>();
+
+    /** Counters last seen per key; touched by the poller thread only. */
+    private final Map<Key, Long> knownVersions = new HashMap<>();
+    /** Lower bound of the next poll; null until the first poll has recorded the counters. */
+    private Timestamp watermark;
+    private ScheduledExecutorService poller;
+
+    public DatabaseInvalidationTransport(DataSource masterDataSource, CacheInvalidationProperties properties, MeterRegistry meterRegistry) {
+        this.masterDataSource = masterDataSource;
+        this.jdbcTemplate = new JdbcTemplate(masterDataSource);
+        this.ownTransaction = new TransactionTemplate(new DataSourceTransactionManager(masterDataSource));
+        this.properties = properties;
+        this.pollTimer = meterRegistry.timer("cache.invalidation.poll");
+    }
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        if (TransactionSynchronizationManager.hasResource(masterDataSource)) {
+            bump(invalidation);
+        } else {
+            ownTransaction.executeWithoutResult(status -> bump(invalidation));
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<CacheInvalidation> receiver) {
+        receivers.add(receiver);
+        if (poller == null) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "humano-cache-invalidation");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(100, properties.getPollInterval().toMillis());
+            poller.scheduleWithFixedDelay(
+                () -> {
+                    try {
+                        pollTimer.record(this::poll);
+                    } catch (RuntimeException e) {
+                        // An exception would cancel the schedule; keep polling.
+                        LOG.error("Cache invalidation poll failed", e);
+                    }
+                },
+                interval,
+                interval,
+                TimeUnit.MILLISECONDS
+            );
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    private void bump(CacheInvalidation invalidation) {
+        if (jdbcTemplate.update(BUMP, invalidation.origin(), invalidation.cache(), invalidation.key()) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(CREATE, invalidation.cache(), invalidation.key(), invalidation.origin());
+        } catch (DuplicateKeyException e) {
+            // Another node created the row first.
+            jdbcTemplate.update(BUMP, invalidation.origin(), invalidation.cache(), invalidation.key());
+        }
+    }
+
+    private void poll() {
+        List<Row> rows;
+        try {
+            rows = jdbcTemplate.query(CHANGED_SINCE, (rs, rowNum) -> new Row(
+                new Key(rs.getString("cache_name"), rs.getString("cache_key")),
+                rs.getLong("version"),
+                rs.getString("origin"),
+                rs.getTimestamp("updated_at")
+            ), watermark != null ? watermark : new Timestamp(0));
+        } catch (DataAccessException e) {
+            // Master database unavailable, or the changelog has not run yet; retry next tick.
+            LOG.warn("Could not poll cache_version: {}", e.getMessage());
+            return;
+        }
+        boolean baseline = watermark == null;
+        Timestamp newest = null;
+        for (Row row : rows) {
+            if (newest == null || row.updatedAt().after(newest)) {
+                newest = row.updatedAt();
+            }
+            Long known = knownVersions.put(row.key(), row.version());
+            long moved = row.version() - (known != null ? known : 0);
+            if (baseline || moved <= 0) {
+                continue;
+            }
+            deliver(new CacheInvalidation(row.key().cache(), row.key().key(), moved == 1 ? row.origin() : null));
+        }
+        if (newest != null) {
+            Timestamp next = new Timestamp(newest.getTime() - properties.getCommitGrace().toMillis());
+            if (watermark == null || next.after(watermark)) {
+                watermark = next;
+            }
+        } else if (baseline) {
+            watermark = new Timestamp(0);
+        }
+    }
+
+    private void deliver(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> receiver : receivers) {
+            receiver.accept(invalidation);
+        }
+    }
+
+    private record Key(String cache, String key) {}
+
+    private record Row(Key key, long version, String origin, Timestamp updatedAt) {}
+}
@@ -0,0 +1,27 @@
+package com.humano.config.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations synchronously to every bus subscribed to this instance. In tests,
+ * several {@link CacheInvalidationBus}es sharing one instance behave like the nodes of a
+ * cluster; as the Spring bean it covers single-node setups.
+ */
+public class InProcessInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Consumer<CacheInvalidation>> receivers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> receiver : receivers) {
+            receiver.accept(invalidation);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> receiver) {
+        receivers.add(receiver);
+    }
+}
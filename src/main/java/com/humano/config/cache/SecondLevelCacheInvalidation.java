@@ -0,0 +1,120 @@
+package com.humano.config.cache;
+
+import com.humano.config.SecondLevelCacheProperties;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hibernate.Cache;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the second-level cache of the tenant persistence unit coherent across nodes.
+ * <p>
+ * Hibernate updates this node's regions itself when a cached entity is written here. Once
+ * such a write commits, its entity name is published on {@link CacheInvalidationBus}, and
+ * every node evicts that entity's region and the query result regions (another node's
+ * update timestamps cannot tell its cached queries that the table changed). Regions are
+ * shared by tenants, so the eviction covers every tenant's entries of the entity.
+ * <p>
+ * Writes are collected per transaction as they are flushed, and each written entity is
+ * published once after the commit: copying a table of a hundred rows evicts its region once,
+ * not a hundred times. Nothing is published when the transaction rolls back.
+ * <p>
+ * Bulk HQL updates of cached entities are not broadcast; the regions' time-to-live bounds
+ * their staleness on other nodes.
+ */
+@Component
+public class SecondLevelCacheInvalidation implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    public static final String CACHE_NAME = "hibernate-entity";
+
+    private final transient CacheInvalidationBus invalidationBus;
+    private final transient SessionFactoryImplementor sessionFactory;
+    /** Entities written by each session's current transaction, until it completes. */
+    private final transient Map<SharedSessionContractImplementor, WrittenEntities> pending = new ConcurrentHashMap<>();
+
+    public SecondLevelCacheInvalidation(
+        @Qualifier("tenantEntityManagerFactory") EntityManagerFactory entityManagerFactory,
+        CacheInvalidationBus invalidationBus,
+        SecondLevelCacheProperties properties
+    ) {
+        this.invalidationBus = invalidationBus;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (properties.isEnabled()) {
+            EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            listeners.appendListeners(EventType.POST_INSERT, this);
+            listeners.appendListeners(EventType.POST_UPDATE, this);
+            listeners.appendListeners(EventType.POST_DELETE, this);
+            invalidationBus.subscribe(CACHE_NAME, this::evict);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        written(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        written(event.getSession(), event.getPersister());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        written(event.getSession(), event.getPersister());
+    }
+
+    private void written(EventSource session, EntityPersister persister) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        pending
+            .computeIfAbsent(session, s -> {
+                WrittenEntities written = new WrittenEntities();
+                session.getActionQueue().registerProcess(written);
+                return written;
+            })
+            .entityNames.add(persister.getEntityName());
+    }
+
+    private void evict(String entityName) {
+        Cache cache = sessionFactory.getCache();
+        cache.evictEntityData(entityName);
+        cache.evictQueryRegions();
+    }
+
+    /** Runs once the transaction completes: publishes each entity it wrote, if it committed. */
+    private final class WrittenEntities implements AfterTransactionCompletionProcess {
+
+        private final Set<String> entityNames = new LinkedHashSet<>();
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            pending.remove(session);
+            if (success) {
+                entityNames.forEach(entityName -> invalidationBus.publish(CACHE_NAME, entityName));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.humano.config.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.humano.config.SecondLevelCacheProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import java.lang.management.ManagementFactory;
+import java.util.OptionalLong;
+import javax.cache.Cache;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hibernate region factory of the tenant persistence unit: every region (entity, query
+ * results, update timestamps) is created on first use as a Caffeine cache bounded by
+ * {@code humano.cache.second-level} ({@link SecondLevelCacheProperties#regionFor}), so a region
+ * nobody configured still cannot grow without limit.
+ * <p>
+ * Cache keys carry the session's tenant identifier ({@code TenantIdentifierResolver}), so
+ * tenants share a region's capacity but never each other's entries.
+ * <p>
+ * Metrics per region ({@code cache} tag, {@code layer=hibernate}): the JCache statistics
+ * ({@code cache.gets{result}}, {@code cache.puts}, {@code cache.evictions}, ...) and
+ * {@code cache.hit.ratio}.
+ */
+public class TenantCacheRegionFactory extends JCacheRegionFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantCacheRegionFactory.class);
+
+    private final SecondLevelCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public TenantCacheRegionFactory(SecondLevelCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Cache<Object, Object> createCache(String regionName) {
+        SecondLevelCacheProperties.Region region = properties.regionFor(regionName);
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+        if (!region.getTimeToLive().isZero()) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+        }
+        // Hibernate caches immutable, disassembled entries: no need to copy them on every access.
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+
+        Cache<Object, Object> cache = getCacheManager().createCache(regionName, configuration);
+        Tags tags = Tags.of("layer", "hibernate");
+        JCacheMetrics.monitor(meterRegistry, cache, tags);
+        Gauge.builder("cache.hit.ratio", cache, TenantCacheRegionFactory::hitRatio)
+            .tags(tags)
+            .tag("cache", regionName)
+            .description("Share of lookups served from the cache since startup")
+            .register(meterRegistry);
+        LOG.debug(
+            "Created second-level cache region {} (max {} entries, ttl {})",
+            regionName,
+            region.getMaxEntries(),
+            region.getTimeToLive()
+        );
+        return cache;
+    }
+
+    /** The region's hit ratio from its JCache statistics MBean, or NaN before the first lookup. */
+    private static double hitRatio(Cache<?, ?> cache) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,Cache=" + cache.getName() + ",*");
+            for (ObjectName name : server.queryNames(pattern, null)) {
+                float hits = (Long) server.getAttribute(name, "CacheHits");
+                float gets = (Long) server.getAttribute(name, "CacheGets");
+                return gets == 0 ? Double.NaN : hits / gets;
+            }
+        } catch (JMException e) {
+            LOG.debug("Could not read statistics of cache {}: {}", cache.getName(), e.getMessage());
+        }
+        return Double.NaN;
+    }
+}
@@ -1,8 +1,14 @@
 package com.humano.config.multitenancy;
 
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.humano.config.SecondLevelCacheProperties;
+import com.humano.config.cache.TenantCacheRegionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.HashMap;
 import java.util.Map;
 import javax.sql.DataSource;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
@@ -27,10 +33,19 @@ public class MultiTenantJpaConfig {
 
     private final JpaProperties jpaProperties;
     private final HibernateProperties hibernateProperties;
+    private final SecondLevelCacheProperties cacheProperties;
+    private final MeterRegistry meterRegistry;
 
-    public MultiTenantJpaConfig(JpaProperties jpaProperties, HibernateProperties hibernateProperties) {
+    public MultiTenantJpaConfig(
+        JpaProperties jpaProperties,
+        HibernateProperties hibernateProperties,
+        SecondLevelCacheProperties cacheProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.jpaProperties = jpaProperties;
         this.hibernateProperties = hibernateProperties;
+        this.cacheProperties = cacheProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -48,13 +63,19 @@ public class MultiTenantJpaConfig {
         em.setPackagesToScan("com.humano.domain.tenant", "com.humano.domain.billing");
         em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
         em.setPersistenceUnitName("master");
-        em.setJpaPropertyMap(jpaProperties());
+        Map<String, Object> properties = jpaProperties();
+        properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        properties.put(AvailableSettings.USE_QUERY_CACHE, false);
+        em.setJpaPropertyMap(properties);
         return em;
     }
 
     /**
      * Entity Manager Factory for TENANT database entities.
      * Handles User, HR, and Payroll entities in tenant-specific databases.
+     * With {@code humano.cache.second-level.enabled}, entities annotated {@code @Cache} and
+     * cacheable queries go through a second-level cache keyed by tenant. That switch alone
+     * decides whether this unit caches; the master unit never does.
      *
      * @param dataSource the tenant routing data source
      * @return the entity manager factory for tenant databases
@@ -72,7 +93,15 @@ public class MultiTenantJpaConfig {
         );
         em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
         em.setPersistenceUnitName("tenant");
-        em.setJpaPropertyMap(jpaProperties());
+        Map<String, Object> properties = jpaProperties();
+        properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, cacheProperties.isEnabled());
+        properties.put(AvailableSettings.USE_QUERY_CACHE, cacheProperties.isEnabled());
+        if (cacheProperties.isEnabled()) {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, new TenantCacheRegionFactory(cacheProperties, meterRegistry));
+            properties.put(ConfigSettings.PROVIDER, CaffeineCachingProvider.class.getName());
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, new TenantIdentifierResolver());
+        }
+        em.setJpaPropertyMap(properties);
         return em;
     }
 
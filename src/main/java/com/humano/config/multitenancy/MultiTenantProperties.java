@@ -1,5 +1,6 @@
 package com.humano.config.multitenancy;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -42,6 +43,12 @@ public class MultiTenantProperties {
     private int prepStmtCacheSize;
     private int prepStmtCacheSqlLimit;
 
+    /**
+     * MySQL Connector/J: collapse a JDBC batch into multi-row {@code INSERT}s. Without it
+     * Hibernate's {@code hibernate.jdbc.batch_size} still sends one statement per row.
+     */
+    private boolean rewriteBatchedStatements = true;
+
     // Default connection parameters
     private String defaultConnectionParams =
         "useSSL=true&allowPublicKeyRetrieval=true&serverTimezone=UTC&useUnicode=true&characterEncoding=UTF-8";
@@ -50,6 +57,9 @@ public class MultiTenantProperties {
     private String defaultDbHost = "localhost";
     private int defaultDbPort = 3306;
 
+    private final Pools pools = new Pools();
+    private final Iteration iteration = new Iteration();
+
     public boolean isEnabled() {
         return enabled;
     }
@@ -154,6 +164,14 @@ public class MultiTenantProperties {
         this.cachePrepStmts = cachePrepStmts;
     }
 
+    public boolean isRewriteBatchedStatements() {
+        return rewriteBatchedStatements;
+    }
+
+    public void setRewriteBatchedStatements(boolean rewriteBatchedStatements) {
+        this.rewriteBatchedStatements = rewriteBatchedStatements;
+    }
+
     public int getPrepStmtCacheSize() {
         return prepStmtCacheSize;
     }
@@ -177,4 +195,102 @@ public class MultiTenantProperties {
     public void setPlatformTenant(String platformTenant) {
         this.platformTenant = platformTenant;
     }
+
+    public Pools getPools() {
+        return pools;
+    }
+
+    public Iteration getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Lifecycle of the per-tenant Hikari pools held by {@link TenantDataSourceProvider}.
+     */
+    public static class Pools {
+
+        /** Tenant pools open at once on this node; past it the least recently used idle pools are closed. */
+        private int maxOpen = 200;
+
+        /** A pool unused for this long, with no connection checked out, is closed. */
+        private Duration idleEviction = Duration.ofMinutes(15);
+
+        /** How long a warmed-up pool is kept open even if unused. */
+        private Duration warmUpHold = Duration.ofMinutes(30);
+
+        public int getMaxOpen() {
+            return maxOpen;
+        }
+
+        public void setMaxOpen(int maxOpen) {
+            this.maxOpen = maxOpen;
+        }
+
+        public Duration getIdleEviction() {
+            return idleEviction;
+        }
+
+        public void setIdleEviction(Duration idleEviction) {
+            this.idleEviction = idleEviction;
+        }
+
+        public Duration getWarmUpHold() {
+            return warmUpHold;
+        }
+
+        public void setWarmUpHold(Duration warmUpHold) {
+            this.warmUpHold = warmUpHold;
+        }
+    }
+
+    /**
+     * Limits of {@link TenantIteration}'s adaptive fan-out, shared by every scheduled job that
+     * uses it on this node.
+     */
+    public static class Iteration {
+
+        /** Tenant units running at once on this node, across all jobs. */
+        private int maxConcurrency = 16;
+
+        /** Tenant units running at once against one database server ({@code db_host:db_port}). */
+        private int maxConcurrencyPerServer = 4;
+
+        /** Budget for one tenant unit; a unit still running after it is interrupted and counted as failed. */
+        private Duration tenantTimeout = Duration.ofMinutes(5);
+
+        /** Budget for a whole fan-out; units not started by then are skipped and counted as failed. */
+        private Duration tickTimeout = Duration.ofMinutes(55);
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getMaxConcurrencyPerServer() {
+            return maxConcurrencyPerServer;
+        }
+
+        public void setMaxConcurrencyPerServer(int maxConcurrencyPerServer) {
+            this.maxConcurrencyPerServer = maxConcurrencyPerServer;
+        }
+
+        public Duration getTenantTimeout() {
+            return tenantTimeout;
+        }
+
+        public void setTenantTimeout(Duration tenantTimeout) {
+            this.tenantTimeout = tenantTimeout;
+        }
+
+        public Duration getTickTimeout() {
+            return tickTimeout;
+        }
+
+        public void setTickTimeout(Duration tickTimeout) {
+            this.tickTimeout = tickTimeout;
+        }
+    }
 }
@@ -1,14 +1,28 @@
 package com.humano.config.multitenancy;
 
+import com.humano.config.cache.CacheInvalidationBus;
 import com.humano.domain.tenant.Tenant;
 import com.humano.domain.tenant.TenantDatabaseConfig;
 import com.humano.repository.tenant.TenantRepository;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +35,28 @@ import org.springframework.stereotype.Component;
  * Handles dynamic creation of tenant-specific database connections
  * to databases that may be on the SAME or DIFFERENT servers.
  *
+ * <h3>Pool lifecycle</h3>
+ *
+ * A pool is opened on a tenant's first connection request and closed again
+ * once it has been unused for {@code humano.multitenancy.pools.idle-eviction}
+ * with no connection checked out, so a node only holds connections for tenants
+ * with recent traffic. Past {@code max-open} pools, the least recently used
+ * idle pools are closed first. {@link #warmUp} opens pools ahead of expected
+ * traffic (a queued payroll run, an operator before a payroll day) and keeps
+ * them open for {@code warm-up-hold}.
+ *
+ * <p>Closing is two-phase: a pool is first retired (removed from the lookup
+ * map, so new requests open a fresh pool) and closed by a later sweep once it
+ * has no active connection, so a caller that resolved the pool just before it
+ * was retired can still finish its work.
+ *
+ * <p>{@link #refreshDataSource} goes through the {@link CacheInvalidationBus}, so every node
+ * that holds a pool for the tenant replaces it.
+ *
+ * <p>Metrics: {@code tenant.datasource.lookups{result=hit|miss}},
+ * {@code tenant.datasource.pools.opened}, {@code tenant.datasource.pools.closed{reason}}
+ * and the {@code tenant.datasource.pools.open} / {@code .retiring} gauges.
+ *
  * @author Humano Team
  */
 @Component
@@ -28,22 +64,46 @@ public class TenantDataSourceProvider {
 
     private static final Logger LOG = LoggerFactory.getLogger(TenantDataSourceProvider.class);
 
-    private final Map<String, HikariDataSource> tenantDataSources = new ConcurrentHashMap<>();
+    /** Name under which tenants' pools are refreshed on the {@link CacheInvalidationBus}. */
+    public static final String CACHE_NAME = "tenant-datasource";
+
+    /** Minimum interval between two last-used stamp writes on one pool (keeps hot lookups write-free). */
+    private static final long TOUCH_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<String, TenantPool> tenantDataSources = new ConcurrentHashMap<>();
+    private final Queue<RetiredPool> retiring = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
     private final TenantRepository tenantRepository;
     private final MultiTenantProperties properties;
     private final TenantPasswordCipher passwordCipher;
     private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus invalidationBus;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter opened;
 
     public TenantDataSourceProvider(
         TenantRepository tenantRepository,
         MultiTenantProperties properties,
         TenantPasswordCipher passwordCipher,
-        MeterRegistry meterRegistry
+        MeterRegistry meterRegistry,
+        CacheInvalidationBus invalidationBus
     ) {
         this.tenantRepository = tenantRepository;
         this.properties = properties;
         this.passwordCipher = passwordCipher;
         this.meterRegistry = meterRegistry;
+        this.invalidationBus = invalidationBus;
+        this.hits = meterRegistry.counter("tenant.datasource.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("tenant.datasource.lookups", "result", "miss");
+        this.opened = meterRegistry.counter("tenant.datasource.pools.opened");
+        Gauge.builder("tenant.datasource.pools.open", tenantDataSources, Map::size)
+            .description("Tenant connection pools open on this node")
+            .register(meterRegistry);
+        Gauge.builder("tenant.datasource.pools.retiring", retiring, Queue::size)
+            .description("Tenant connection pools retired and waiting for their last connection to return")
+            .register(meterRegistry);
+        invalidationBus.subscribe(CACHE_NAME, this::reopen);
     }
 
     /**
@@ -55,7 +115,61 @@ public class TenantDataSourceProvider {
      * @return the DataSource for the tenant
      */
     public DataSource getOrCreateDataSource(String tenantId) {
-        return tenantDataSources.computeIfAbsent(tenantId, this::createDataSource);
+        TenantPool pool = tenantDataSources.get(tenantId);
+        if (pool != null) {
+            pool.touch();
+            hits.increment();
+            return pool.dataSource;
+        }
+        misses.increment();
+        pool = tenantDataSources.computeIfAbsent(tenantId, id -> new TenantPool(createDataSource(id)));
+        pool.touch();
+        if (tenantDataSources.size() > properties.getPools().getMaxOpen()) {
+            trimToCapacity(tenantId);
+        }
+        return pool.dataSource;
+    }
+
+    /**
+     * Opens the pools of tenants about to see traffic and keeps them open for
+     * {@code humano.multitenancy.pools.warm-up-hold}, even if they stay unused. Hikari fills each
+     * new pool to its minimum idle size in the background, so the first real request does not
+     * pay for connection setup. Tenants whose pool cannot be opened are logged and skipped.
+     *
+     * @param tenantIds the tenant identifiers (subdomains)
+     * @return the number of pools that were not open yet
+     */
+    public int warmUp(Collection<String> tenantIds) {
+        return warmUp(tenantIds, properties.getPools().getWarmUpHold());
+    }
+
+    /**
+     * {@link #warmUp(Collection)} with an explicit hold.
+     *
+     * @param tenantIds the tenant identifiers (subdomains)
+     * @param hold      how long the pools are kept open even if unused
+     * @return the number of pools that were not open yet
+     */
+    public int warmUp(Collection<String> tenantIds, Duration hold) {
+        int newlyOpened = 0;
+        long pinnedUntil = System.nanoTime() + hold.toNanos();
+        for (String tenantId : tenantIds) {
+            try {
+                boolean wasOpen = tenantDataSources.containsKey(tenantId);
+                getOrCreateDataSource(tenantId);
+                TenantPool pool = tenantDataSources.get(tenantId);
+                if (pool != null) {
+                    pool.pinUntil(pinnedUntil);
+                }
+                if (!wasOpen) {
+                    newlyOpened++;
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Could not warm up DataSource for tenant {}: {}", tenantId, e.getMessage());
+            }
+        }
+        LOG.debug("Warmed up {} tenant DataSources ({} newly opened) for {}", tenantIds.size(), newlyOpened, hold);
+        return newlyOpened;
     }
 
     private HikariDataSource createDataSource(String tenantId) {
@@ -100,6 +214,8 @@ public class TenantDataSourceProvider {
         config.addDataSourceProperty("cachePrepStmts", properties.isCachePrepStmts());
         config.addDataSourceProperty("prepStmtCacheSize", properties.getPrepStmtCacheSize());
         config.addDataSourceProperty("prepStmtCacheSqlLimit", properties.getPrepStmtCacheSqlLimit());
+        // Lets Hibernate's JDBC batches (payroll result/line writes) reach MySQL as multi-row inserts.
+        config.addDataSourceProperty("rewriteBatchedStatements", properties.isRewriteBatchedStatements());
 
         LOG.info(
             "Created DataSource for tenant {} connecting to {}:{}/{}",
@@ -109,7 +225,9 @@ public class TenantDataSourceProvider {
             dbConfig.getDbName()
         );
 
-        return new HikariDataSource(config);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        opened.increment();
+        return dataSource;
     }
 
     /**
@@ -119,21 +237,28 @@ public class TenantDataSourceProvider {
      * @param tenantId the tenant identifier
      */
     public void evictDataSource(String tenantId) {
-        HikariDataSource dataSource = tenantDataSources.remove(tenantId);
-        if (dataSource != null) {
+        TenantPool pool = tenantDataSources.remove(tenantId);
+        if (pool != null) {
             LOG.info("Evicting DataSource for tenant: {}", tenantId);
-            dataSource.close();
+            close(pool.dataSource, "evicted");
         }
     }
 
     /**
-     * Refreshes a tenant's DataSource (e.g., after DB migration to new server).
+     * Refreshes a tenant's DataSource (e.g., after DB migration to new server) on every node
+     * that has one open; nodes without a pool open the new one on first use.
      *
      * @param tenantId the tenant identifier
      */
     public void refreshDataSource(String tenantId) {
-        evictDataSource(tenantId);
-        getOrCreateDataSource(tenantId);
+        invalidationBus.publish(CACHE_NAME, tenantId);
+    }
+
+    private void reopen(String tenantId) {
+        if (tenantDataSources.containsKey(tenantId)) {
+            evictDataSource(tenantId);
+            getOrCreateDataSource(tenantId);
+        }
     }
 
     /**
@@ -144,9 +269,9 @@ public class TenantDataSourceProvider {
     public void healthCheck() {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            tenantDataSources.forEach((tenantId, dataSource) -> {
+            tenantDataSources.forEach((tenantId, pool) -> {
                 try {
-                    if (!dataSource.isRunning()) {
+                    if (!pool.dataSource.isRunning()) {
                         LOG.warn("DataSource for tenant {} is not running, evicting", tenantId);
                         evictDataSource(tenantId);
                     }
@@ -159,6 +284,87 @@ public class TenantDataSourceProvider {
         }
     }
 
+    /**
+     * Closes idle pools: retires every pool unused for {@code idle-eviction} with no connection in
+     * use, and closes retired pools whose last connection has come back.
+     */
+    @Scheduled(fixedRate = 60000) // Every minute
+    public void evictIdlePools() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            closeDrainedPools();
+            long idleCutoff = System.nanoTime() - properties.getPools().getIdleEviction().toNanos();
+            tenantDataSources.forEach((tenantId, pool) -> {
+                if (pool.isEvictable(idleCutoff) && retire(tenantId, pool, "idle")) {
+                    LOG.debug("Retired idle DataSource for tenant {}", tenantId);
+                }
+            });
+        } finally {
+            sample.stop(meterRegistry.timer("scheduled.tick", "name", "tenantDataSourceEviction"));
+        }
+    }
+
+    /**
+     * Retires least recently used idle pools until at most {@code max-open} are open. Pools with
+     * connections in use, pinned pools and the pool just requested are never chosen, so the cap
+     * can be exceeded while every pool is busy.
+     */
+    private void trimToCapacity(String requestedTenantId) {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int excess = tenantDataSources.size() - properties.getPools().getMaxOpen();
+            if (excess <= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            List<Map.Entry<String, TenantPool>> candidates = new ArrayList<>(tenantDataSources.entrySet());
+            candidates.sort(Comparator.comparingLong(e -> e.getValue().lastUsed));
+            for (Iterator<Map.Entry<String, TenantPool>> it = candidates.iterator(); excess > 0 && it.hasNext();) {
+                Map.Entry<String, TenantPool> candidate = it.next();
+                if (!candidate.getKey().equals(requestedTenantId) && candidate.getValue().isEvictable(now)) {
+                    if (retire(candidate.getKey(), candidate.getValue(), "capacity")) {
+                        excess--;
+                    }
+                }
+            }
+            if (excess > 0) {
+                LOG.warn("{} tenant DataSources open, {} over the cap, all busy or pinned", tenantDataSources.size(), excess);
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private boolean retire(String tenantId, TenantPool pool, String reason) {
+        if (!tenantDataSources.remove(tenantId, pool)) {
+            return false;
+        }
+        retiring.add(new RetiredPool(tenantId, pool.dataSource, reason));
+        return true;
+    }
+
+    private void closeDrainedPools() {
+        for (Iterator<RetiredPool> it = retiring.iterator(); it.hasNext();) {
+            RetiredPool retired = it.next();
+            HikariPoolMXBean bean = retired.dataSource.getHikariPoolMXBean();
+            if (bean == null || bean.getActiveConnections() == 0) {
+                it.remove();
+                LOG.info("Closing {} DataSource for tenant {}", retired.reason, retired.tenantId);
+                close(retired.dataSource, retired.reason);
+            }
+        }
+    }
+
+    private void close(HikariDataSource dataSource, String reason) {
+        try {
+            dataSource.close();
+        } finally {
+            meterRegistry.counter("tenant.datasource.pools.closed", "reason", reason).increment();
+        }
+    }
+
     /**
      * Returns statistics about active tenant connections.
      *
@@ -166,7 +372,8 @@ public class TenantDataSourceProvider {
      */
     public Map<String, ConnectionPoolStats> getPoolStats() {
         Map<String, ConnectionPoolStats> stats = new ConcurrentHashMap<>();
-        tenantDataSources.forEach((tenantId, ds) -> {
+        tenantDataSources.forEach((tenantId, pool) -> {
+            HikariDataSource ds = pool.dataSource;
             try {
                 stats.put(
                     tenantId,
@@ -203,6 +410,54 @@ public class TenantDataSourceProvider {
         return tenantDataSources.containsKey(tenantId);
     }
 
+    /**
+     * Maximum pool size for a tenant: the live pool's setting when one is open, otherwise the
+     * configured default. Used by batch workloads to size their concurrency below the pool.
+     *
+     * @param tenantId the tenant identifier
+     * @return the maximum number of connections the tenant's pool will hand out
+     */
+    public int getMaximumPoolSize(String tenantId) {
+        TenantPool pool = tenantId != null ? tenantDataSources.get(tenantId) : null;
+        return pool != null ? pool.dataSource.getMaximumPoolSize() : properties.getDefaultMaxPoolSize();
+    }
+
+    /** An open pool and when it was last used; the stamps are racy by design, eviction is approximate. */
+    private static final class TenantPool {
+
+        final HikariDataSource dataSource;
+        volatile long lastUsed = System.nanoTime();
+        volatile long pinnedUntil = System.nanoTime();
+
+        TenantPool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void touch() {
+            long now = System.nanoTime();
+            if (now - lastUsed > TOUCH_GRANULARITY_NANOS) {
+                lastUsed = now;
+            }
+        }
+
+        void pinUntil(long nanos) {
+            if (nanos - pinnedUntil > 0) {
+                pinnedUntil = nanos;
+            }
+        }
+
+        /** Not pinned, unused since {@code cutoff}, and nothing checked out or waiting. */
+        boolean isEvictable(long cutoff) {
+            if (lastUsed - cutoff > 0 || System.nanoTime() - pinnedUntil < 0) {
+                return false;
+            }
+            HikariPoolMXBean bean = dataSource.getHikariPoolMXBean();
+            return bean == null || (bean.getActiveConnections() == 0 && bean.getThreadsAwaitingConnection() == 0);
+        }
+    }
+
+    private record RetiredPool(String tenantId, HikariDataSource dataSource, String reason) {}
+
     /**
      * Record for connection pool statistics.
      */
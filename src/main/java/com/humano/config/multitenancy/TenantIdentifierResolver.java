@@ -0,0 +1,25 @@
+package com.humano.config.multitenancy;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Stamps every tenant-unit Hibernate session with the subdomain in {@link TenantContext}.
+ * <p>
+ * Connections are still routed by {@link TenantRoutingDataSource}; the identifier exists so
+ * the second-level and query caches key their entries by tenant. Without it two tenants'
+ * {@code Currency} rows with the same id, or the same cached query, would share one entry.
+ * Sessions opened outside a tenant get {@link TenantContext#MASTER}, never null.
+ */
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String> {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenant = TenantContext.getCurrentTenant();
+        return tenant != null ? tenant : TenantContext.MASTER;
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
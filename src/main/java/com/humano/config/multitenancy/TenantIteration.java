@@ -1,15 +1,32 @@
 package com.humano.config.multitenancy;
 
 import com.humano.domain.enumeration.tenant.TenantStatus;
+import com.humano.repository.tenant.TenantDatabaseConfigRepository;
 import com.humano.repository.tenant.TenantRepository;
+import com.humano.repository.tenant.projection.TenantDatabaseServerRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -26,7 +43,7 @@ import org.springframework.transaction.support.TransactionTemplate;
  * submitter tenant to inherit, so the work has to drive the context loop
  * itself.
  *
- * <h3>Sequential vs parallel</h3>
+ * <h3>Sequential, parallel, adaptive</h3>
  *
  * Pick the mode by fleet size and per-tenant cost:
  *
@@ -38,6 +55,13 @@ import org.springframework.transaction.support.TransactionTemplate;
  *       {@code taskExecutor} pool (already decorated with
  *       {@link TenantAwareTaskDecorator}). Bounded by the pool's core/max size,
  *       not by tenant count. Good for thousands of tenants.</li>
+ *   <li><b>{@link #forEachActiveTenantAdaptive}</b> — parallel under
+ *       {@code humano.multitenancy.iteration} limits: a node-wide slot count
+ *       shared by every job, a slot count per database server (the tenant's
+ *       {@code TenantDatabaseConfig} {@code db_host:db_port}), and a per-tenant
+ *       timeout. The default for scheduled jobs. {@link #forEachAdaptive}
+ *       applies the same limits to master-DB rows keyed by tenant (billing,
+ *       dunning).</li>
  * </ul>
  *
  * <h3>Isolation guarantees</h3>
@@ -53,17 +77,45 @@ public class TenantIteration {
 
     private static final Logger log = LoggerFactory.getLogger(TenantIteration.class);
 
+    /** Longest the adaptive dispatcher sleeps while every slot it needs is held by other jobs. */
+    private static final long SLOT_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
     private final TenantRepository tenantRepository;
+    private final TenantDatabaseConfigRepository databaseConfigRepository;
     private final AsyncTaskExecutor taskExecutor;
+    private final Executor iterationExecutor;
     private final TransactionTemplate perTenantTx;
+    private final MultiTenantProperties.Iteration limits;
+    private final String defaultServer;
+    private final MeterRegistry meterRegistry;
+
+    /** Node-wide slots of the adaptive mode, shared by every job iterating concurrently. */
+    private final Semaphore nodeSlots;
+
+    /** Adaptive-mode slots per database server ({@code host:port}), created on first use. */
+    private final Map<String, Semaphore> serverSlots = new ConcurrentHashMap<>();
 
     public TenantIteration(
         TenantRepository tenantRepository,
+        TenantDatabaseConfigRepository databaseConfigRepository,
         @Qualifier("taskExecutor") AsyncTaskExecutor taskExecutor,
-        PlatformTransactionManager transactionManager
+        @Qualifier("tenantIterationExecutor") Executor iterationExecutor,
+        PlatformTransactionManager transactionManager,
+        MultiTenantProperties multiTenantProperties,
+        MeterRegistry meterRegistry
     ) {
         this.tenantRepository = tenantRepository;
+        this.databaseConfigRepository = databaseConfigRepository;
         this.taskExecutor = taskExecutor;
+        this.iterationExecutor = iterationExecutor;
+        this.limits = multiTenantProperties.getIteration();
+        this.defaultServer = multiTenantProperties.getDefaultDbHost() + ":" + multiTenantProperties.getDefaultDbPort();
+        this.meterRegistry = meterRegistry;
+        int maxConcurrency = Math.max(1, limits.getMaxConcurrency());
+        this.nodeSlots = new Semaphore(maxConcurrency);
+        Gauge.builder("tenant.iteration.active", nodeSlots, slots -> maxConcurrency - slots.availablePermits())
+            .description("Adaptive tenant iteration units running on this node, across all jobs")
+            .register(meterRegistry);
         // Each tenant unit runs in its own REQUIRES_NEW transaction. Important
         // because connections to the routing datasource are bound to the tenant
         // that was current when the tx started — sharing a tx across tenants
@@ -189,4 +241,254 @@ public class TenantIteration {
         log.info("Parallel tenant fan-out done: {} succeeded, {} failed", succeeded, failed);
         return new Result(subdomains.size(), succeeded, failed);
     }
+
+    /**
+     * Adaptive parallel iteration over every ACTIVE tenant; each tenant runs in
+     * its own transaction, as in the other modes. See {@link #forEachAdaptive}
+     * for how units are scheduled.
+     *
+     * @param job  name of the calling job, used as the {@code job} metric tag
+     * @param work consumer invoked once per tenant subdomain, with that
+     *             subdomain already set as the current tenant
+     */
+    public Result forEachActiveTenantAdaptive(String job, Consumer<String> work) {
+        List<String> subdomains = tenantRepository.findSubdomainsByStatus(TenantStatus.ACTIVE);
+        return forEachAdaptive(job, subdomains, Function.identity(), subdomain ->
+            perTenantTx.executeWithoutResult(status -> work.accept(subdomain))
+        );
+    }
+
+    /**
+     * Runs {@code work} once per item on the {@code tenantIterationExecutor}
+     * pool, with the item's tenant set as the current tenant. No transaction is
+     * opened: items here are usually master-DB rows, whose unit of work owns its
+     * own boundary.
+     *
+     * <p>The calling thread dispatches: it walks the pending items in order and
+     * starts each one as soon as a node-wide slot and a slot on the tenant's
+     * database server are both free, skipping past tenants whose server is
+     * saturated, so one slow server only delays its own tenants. A unit still
+     * running {@code tenant-timeout} after it started is interrupted and counted
+     * as failed; its slots are returned only when it actually stops. When
+     * {@code tick-timeout} runs out, running units are interrupted and items
+     * never started are skipped; both count as failed.
+     *
+     * <p>Metrics, all tagged {@code job}: {@code tenant.iteration.lag} (time from
+     * the start of the fan-out until a unit starts — how far behind the tick a
+     * tenant is served), {@code tenant.iteration.duration{outcome}},
+     * {@code tenant.iteration.timeouts} and {@code tenant.iteration.skipped};
+     * plus the node-wide {@code tenant.iteration.active} gauge.
+     *
+     * @param job      name of the calling job, used as the {@code job} metric tag
+     * @param items    units of work, dispatched in iteration order
+     * @param tenantOf subdomain of the tenant an item belongs to
+     * @param work     consumer invoked once per item
+     */
+    public <T> Result forEachAdaptive(String job, Collection<T> items, Function<T, String> tenantOf, Consumer<T> work) {
+        if (items.isEmpty()) {
+            return new Result(0, 0, 0);
+        }
+        Map<String, String> servers = databaseServers();
+        Deque<Unit<T>> pending = new ArrayDeque<>(items.size());
+        for (T item : items) {
+            String tenant = tenantOf.apply(item);
+            pending.add(new Unit<>(item, tenant, servers.getOrDefault(tenant, defaultServer)));
+        }
+        log.info(
+            "Adaptive fan-out '{}': {} units (max {} concurrent, {} per server, tenant timeout {}s)",
+            job,
+            items.size(),
+            limits.getMaxConcurrency(),
+            limits.getMaxConcurrencyPerServer(),
+            limits.getTenantTimeout().toSeconds()
+        );
+
+        long startNanos = System.nanoTime();
+        long tickDeadline = startNanos + limits.getTickTimeout().toNanos();
+        List<Unit<T>> running = new ArrayList<>();
+        BlockingQueue<Unit<T>> finished = new LinkedBlockingQueue<>();
+        int succeeded = 0, failed = 0;
+        try {
+            while (!pending.isEmpty() || hasLiveUnits(running)) {
+                long now = System.nanoTime();
+                if (now - tickDeadline >= 0) {
+                    log.warn("Adaptive fan-out '{}' exceeded its {}s budget", job, limits.getTickTimeout().toSeconds());
+                    break;
+                }
+                dispatch(job, pending, running, finished, work, startNanos);
+
+                long wakeAt = tickDeadline;
+                for (Unit<T> unit : running) {
+                    if (!unit.timedOut && unit.deadline - wakeAt < 0) {
+                        wakeAt = unit.deadline;
+                    }
+                }
+                if (!pending.isEmpty() && now + SLOT_POLL_NANOS - wakeAt < 0) {
+                    wakeAt = now + SLOT_POLL_NANOS;
+                }
+                Unit<T> done = finished.poll(Math.max(0, wakeAt - now), TimeUnit.NANOSECONDS);
+                for (; done != null; done = finished.poll()) {
+                    running.remove(done);
+                    if (done.succeeded) {
+                        succeeded++;
+                    } else {
+                        failed++;
+                    }
+                }
+
+                now = System.nanoTime();
+                for (Unit<T> unit : running) {
+                    if (!unit.timedOut && now - unit.deadline >= 0) {
+                        log.warn(
+                            "Tenant '{}' exceeded the {}s timeout of '{}'; interrupting",
+                            unit.tenant,
+                            limits.getTenantTimeout().toSeconds(),
+                            job
+                        );
+                        meterRegistry.counter("tenant.iteration.timeouts", "job", job).increment();
+                        unit.timeOut();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Adaptive fan-out '{}' interrupted; unfinished units counted as failed", job);
+        }
+
+        // Stragglers keep their slots until they actually stop; they are not waited for.
+        for (Unit<T> unit : running) {
+            unit.timeOut();
+            failed++;
+        }
+        if (!pending.isEmpty()) {
+            meterRegistry.counter("tenant.iteration.skipped", "job", job).increment(pending.size());
+            failed += pending.size();
+        }
+        log.info("Adaptive fan-out '{}' done: {} succeeded, {} failed", job, succeeded, failed);
+        return new Result(items.size(), succeeded, failed);
+    }
+
+    /** Starts every pending unit whose server has a free slot, while node-wide slots last. */
+    private <T> void dispatch(
+        String job,
+        Deque<Unit<T>> pending,
+        List<Unit<T>> running,
+        BlockingQueue<Unit<T>> finished,
+        Consumer<T> work,
+        long startNanos
+    ) {
+        int perServer = Math.max(1, limits.getMaxConcurrencyPerServer());
+        for (Iterator<Unit<T>> it = pending.iterator(); it.hasNext() && nodeSlots.availablePermits() > 0;) {
+            Unit<T> unit = it.next();
+            Semaphore server = serverSlots.computeIfAbsent(unit.server, key -> new Semaphore(perServer));
+            if (!server.tryAcquire()) {
+                continue;
+            }
+            if (!nodeSlots.tryAcquire()) {
+                server.release();
+                return;
+            }
+            unit.deadline = System.nanoTime() + limits.getTenantTimeout().toNanos();
+            try {
+                iterationExecutor.execute(() -> runUnit(job, unit, server, finished, work, startNanos));
+            } catch (RejectedExecutionException e) {
+                server.release();
+                nodeSlots.release();
+                return;
+            }
+            it.remove();
+            running.add(unit);
+        }
+    }
+
+    private <T> void runUnit(
+        String job,
+        Unit<T> unit,
+        Semaphore server,
+        BlockingQueue<Unit<T>> finished,
+        Consumer<T> work,
+        long startNanos
+    ) {
+        long begin = System.nanoTime();
+        meterRegistry.timer("tenant.iteration.lag", "job", job).record(begin - startNanos, TimeUnit.NANOSECONDS);
+        String previous = TenantContext.getCurrentTenant();
+        boolean ok = false;
+        unit.bind(Thread.currentThread());
+        try {
+            if (unit.tenant != null) {
+                TenantContext.setCurrentTenant(unit.tenant);
+            }
+            work.accept(unit.item);
+            ok = true;
+        } catch (Exception e) {
+            log.error("Tenant '{}' unit of '{}' failed: {}", unit.tenant, job, e.getMessage(), e);
+        } finally {
+            unit.unbind();
+            if (previous != null) TenantContext.setCurrentTenant(previous);
+            else TenantContext.clear();
+            server.release();
+            nodeSlots.release();
+            String outcome = unit.timedOut ? "timeout" : ok ? "success" : "failure";
+            meterRegistry
+                .timer("tenant.iteration.duration", "job", job, "outcome", outcome)
+                .record(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+            unit.succeeded = ok && !unit.timedOut;
+            finished.add(unit);
+        }
+    }
+
+    private Map<String, String> databaseServers() {
+        Map<String, String> servers = new HashMap<>();
+        for (TenantDatabaseServerRow row : databaseConfigRepository.findDatabaseServers()) {
+            servers.put(row.subdomain(), row.server());
+        }
+        return servers;
+    }
+
+    private static boolean hasLiveUnits(List<? extends Unit<?>> running) {
+        for (Unit<?> unit : running) {
+            if (!unit.timedOut) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** One item of an adaptive fan-out; {@code deadline} is only touched by the dispatcher. */
+    private static final class Unit<T> {
+
+        final T item;
+        final String tenant;
+        final String server;
+        long deadline;
+        volatile boolean timedOut;
+        volatile boolean succeeded;
+        private Thread worker;
+
+        Unit(T item, String tenant, String server) {
+            this.item = item;
+            this.tenant = tenant;
+            this.server = server;
+        }
+
+        synchronized void bind(Thread thread) {
+            worker = thread;
+            if (timedOut) {
+                thread.interrupt();
+            }
+        }
+
+        /** Called by the worker itself; clears an interrupt aimed at this unit before the thread is reused. */
+        synchronized void unbind() {
+            worker = null;
+            Thread.interrupted();
+        }
+
+        synchronized void timeOut() {
+            timedOut = true;
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
 }
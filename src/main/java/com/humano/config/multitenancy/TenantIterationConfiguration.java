@@ -0,0 +1,38 @@
+package com.humano.config.multitenancy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Worker pool of {@link TenantIteration}'s adaptive fan-out.
+ *
+ * <p>Sized to {@code humano.multitenancy.iteration.max-concurrency}: the iteration only submits
+ * a unit once it holds a node-wide slot, so the pool never queues more than a handful of tasks
+ * and never needs the general {@code taskExecutor}, whose two core threads would serialise the
+ * fan-out behind its 10 000-task queue. Not profile-gated, so scheduled jobs wire identically in
+ * tests.
+ */
+@Configuration
+public class TenantIterationConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TenantIterationConfiguration.class);
+
+    @Bean(name = "tenantIterationExecutor")
+    public ThreadPoolTaskExecutor tenantIterationExecutor(MultiTenantProperties multiTenantProperties) {
+        int threads = Math.max(1, multiTenantProperties.getIteration().getMaxConcurrency());
+        LOG.debug("Creating tenant iteration executor with {} threads", threads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // Slack for the instant between a unit releasing its slot and its thread returning to the pool.
+        executor.setQueueCapacity(threads);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("humano-tenant-iter-");
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
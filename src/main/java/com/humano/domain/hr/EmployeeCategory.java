@@ -1,12 +1,17 @@
 package com.humano.domain.hr;
 
 import com.humano.domain.shared.AbstractReferenceData;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Tenant-configurable employment category (e.g. STAFF, MANAGER, EXECUTIVE).
  */
 @Entity
 @Table(name = "employee_category")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class EmployeeCategory extends AbstractReferenceData {}
@@ -1,12 +1,17 @@
 package com.humano.domain.hr;
 
 import com.humano.domain.shared.AbstractReferenceData;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Tenant-configurable employment type (e.g. FULL_TIME, PART_TIME, CONTRACTOR).
  */
 @Entity
 @Table(name = "employment_type")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class EmploymentType extends AbstractReferenceData {}
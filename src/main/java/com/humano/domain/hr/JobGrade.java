@@ -1,12 +1,17 @@
 package com.humano.domain.hr;
 
 import com.humano.domain.shared.AbstractReferenceData;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Tenant-configurable job grade / pay band (e.g. G1, G2, G3).
  */
 @Entity
 @Table(name = "job_grade")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class JobGrade extends AbstractReferenceData {}
@@ -1,12 +1,17 @@
 package com.humano.domain.hr;
 
 import com.humano.domain.shared.AbstractReferenceData;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Tenant-configurable marital status (e.g. SINGLE, MARRIED, DIVORCED).
  */
 @Entity
 @Table(name = "marital_status")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class MaritalStatus extends AbstractReferenceData {}
@@ -7,6 +7,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import java.util.Objects;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 
 /**
@@ -26,6 +28,8 @@ import org.hibernate.annotations.UuidGenerator;
  */
 @Entity
 @Table(name = "currency")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Currency extends AbstractAuditingEntity<UUID> {
 
     @Id
@@ -10,6 +10,8 @@ import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 import java.util.Objects;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 
 /**
@@ -30,6 +32,8 @@ import org.hibernate.annotations.UuidGenerator;
  */
 @Entity
 @Table(name = "leave_type_rule", uniqueConstraints = @UniqueConstraint(columnNames = { "leave_type", "country_id" }))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class LeaveTypeRule extends AbstractAuditingEntity<UUID> {
 
     @Id
@@ -2,6 +2,7 @@ package com.humano.domain.payroll;
 
 import com.humano.domain.enumeration.payroll.Basis;
 import com.humano.domain.shared.AbstractAuditingEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -13,6 +14,8 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 
 /**
@@ -28,6 +31,8 @@ import org.hibernate.annotations.UuidGenerator;
  */
 @Entity
 @Table(name = "organization_settings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class OrganizationSettings extends AbstractAuditingEntity<UUID> {
 
     @Id
@@ -11,6 +11,8 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 
 /**
@@ -33,6 +35,8 @@ import org.hibernate.annotations.UuidGenerator;
  */
 @Entity
 @Table(name = "pay_component")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class PayComponent extends AbstractAuditingEntity<UUID> {
 
     @Id
@@ -145,6 +145,14 @@ public class PayrollResult extends AbstractAuditingEntity<UUID> {
     @Column(name = "exchange_rate_date")
     private java.time.LocalDate exchangeRateDate;
 
+    /**
+     * Fingerprint of every input this result was calculated from (rule/bracket versions, the
+     * employee's compensation, inputs, bonuses, deductions, benefits, withholdings, leave and
+     * reporting rate). A dirty-only recalculation skips employees whose fingerprint is unchanged.
+     */
+    @Column(name = "input_hash", length = 64)
+    private String inputHash;
+
     @Override
     public UUID getId() {
         return id;
@@ -306,6 +314,14 @@ public class PayrollResult extends AbstractAuditingEntity<UUID> {
         this.exchangeRateDate = exchangeRateDate;
     }
 
+    public String getInputHash() {
+        return inputHash;
+    }
+
+    public void setInputHash(String inputHash) {
+        this.inputHash = inputHash;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
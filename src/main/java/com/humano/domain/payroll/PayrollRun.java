@@ -6,6 +6,7 @@ import com.humano.domain.shared.Employee;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.Objects;
 import java.util.UUID;
@@ -24,6 +25,7 @@ import org.hibernate.annotations.UuidGenerator;
  *   <li><b>approvedAt</b>: The timestamp when the payroll run was approved.</li>
  *   <li><b>approvedBy</b>: The Employee who approved the payroll run.</li>
  *   <li><b>hash</b>: An idempotency marker to prevent duplicate processing.</li>
+ *   <li><b>checkpoint</b>: Progress of the calculation in flight, so it can resume after a crash.</li>
  * </ul>
  * <p>
  * PayrollRun is essential for orchestrating payroll calculations, tracking approval workflows, and ensuring
@@ -117,6 +119,36 @@ public class PayrollRun extends AbstractAuditingEntity<UUID> {
     @Version
     private Long version;
 
+    /**
+     * Calculation checkpoint: the last employee (in scope id order) up to which every chunk of
+     * the calculation in flight has committed.
+     * <p>
+     * Null when no calculation is in flight. A calculation that finds it set resumes after it
+     * instead of starting over. It is written in its own small transaction as chunks commit, so it
+     * never bumps {@link #version}.
+     */
+    @Column(name = "checkpoint_employee_id")
+    private UUID checkpointEmployeeId;
+
+    /**
+     * Employees processed (calculated, or skipped as unchanged) by the latest calculation, up
+     * to the checkpoint while it is in flight.
+     */
+    @Column(name = "processed_count")
+    private Integer processedCount;
+
+    /**
+     * Employees that failed in the latest calculation, up to the checkpoint while it is in flight.
+     */
+    @Column(name = "error_count")
+    private Integer errorCount;
+
+    /**
+     * When the checkpoint (or the final counts) were last written.
+     */
+    @Column(name = "checkpoint_at")
+    private Instant checkpointAt;
+
     @Override
     public UUID getId() {
         return id;
@@ -220,6 +252,38 @@ public class PayrollRun extends AbstractAuditingEntity<UUID> {
         this.version = version;
     }
 
+    public UUID getCheckpointEmployeeId() {
+        return checkpointEmployeeId;
+    }
+
+    public void setCheckpointEmployeeId(UUID checkpointEmployeeId) {
+        this.checkpointEmployeeId = checkpointEmployeeId;
+    }
+
+    public Integer getProcessedCount() {
+        return processedCount;
+    }
+
+    public void setProcessedCount(Integer processedCount) {
+        this.processedCount = processedCount;
+    }
+
+    public Integer getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(Integer errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public Instant getCheckpointAt() {
+        return checkpointAt;
+    }
+
+    public void setCheckpointAt(Instant checkpointAt) {
+        this.checkpointAt = checkpointAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -18,6 +18,7 @@ import org.hibernate.annotations.UuidGenerator;
  *   <li><b>result</b>: The PayrollResult containing all payroll calculations for the employee and period.</li>
  *   <li><b>number</b>: Human-readable payslip number (e.g., "PS-2025-08-001").</li>
  *   <li><b>pdfUrl</b>: URL to the generated payslip PDF artifact.</li>
+ *   <li><b>pdfChecksumSha256</b>: SHA-256 of the stored PDF, served as its download ETag.</li>
  * </ul>
  * <p>
  * Payslip is essential for providing employees with detailed payroll information, supporting legal and business
@@ -51,6 +52,15 @@ public class Payslip extends AbstractAuditingEntity<UUID> {
     @Size(max = 255, message = "PDF URL cannot exceed 255 characters")
     private String pdfUrl;
 
+    /**
+     * Hex SHA-256 of the stored PDF, computed while it is rendered.
+     * <p>
+     * Serves as the PDF's strong ETag, so re-downloads are answered {@code 304 Not Modified}.
+     * {@code null} for PDFs stored before checksums were recorded, or set by URL.
+     */
+    @Column(name = "pdf_checksum_sha256", length = 64)
+    private String pdfChecksumSha256;
+
     /**
      * The PayrollResult containing all payroll calculations for the employee and period.
      * <p>
@@ -95,6 +105,14 @@ public class Payslip extends AbstractAuditingEntity<UUID> {
         this.pdfUrl = pdfUrl;
     }
 
+    public String getPdfChecksumSha256() {
+        return pdfChecksumSha256;
+    }
+
+    public void setPdfChecksumSha256(String pdfChecksumSha256) {
+        this.pdfChecksumSha256 = pdfChecksumSha256;
+    }
+
     public PayrollResult getResult() {
         return result;
     }
@@ -0,0 +1,48 @@
+package com.humano.domain.payroll;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Next free payslip number of one numbering prefix (the pay month, {@code yyyy-MM}).
+ * <p>
+ * Numbers are handed out in blocks: a caller locks the row, advances {@link #nextValue} by the
+ * size of its block and commits straight away, then numbers its payslips from the block without
+ * touching the row again. A block whose transaction later rolls back leaves a gap, exactly like
+ * a database sequence; numbers are unique, not dense.
+ */
+@Entity
+@Table(name = "payslip_number_sequence")
+public class PayslipNumberSequence {
+
+    @Id
+    @Column(name = "prefix", length = 20, nullable = false, updatable = false)
+    private String prefix;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    protected PayslipNumberSequence() {}
+
+    public PayslipNumberSequence(String prefix, long nextValue) {
+        this.prefix = prefix;
+        this.nextValue = nextValue;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public long getNextValue() {
+        return nextValue;
+    }
+
+    /** Reserves {@code count} numbers and returns the first of them. */
+    public long reserve(int count) {
+        long first = nextValue;
+        nextValue += count;
+        return first;
+    }
+}
@@ -11,6 +11,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Objects;
 import java.util.UUID;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.UuidGenerator;
 
 /**
@@ -34,6 +36,8 @@ import org.hibernate.annotations.UuidGenerator;
  */
 @Entity
 @Table(name = "tax_bracket")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class TaxBracket extends AbstractAuditingEntity<UUID> {
 
     @Id
@@ -0,0 +1,21 @@
+package com.humano.domain.shared;
+
+import java.util.UUID;
+import org.hibernate.id.uuid.CustomVersionOneStrategy;
+
+/**
+ * Ids for rows inserted without going through {@code persist}, e.g. by a native bulk statement.
+ * Generated by the same strategy as {@code @UuidGenerator(style = UuidGenerator.Style.TIME)}, so
+ * these rows get time-based keys like the ones Hibernate assigns to the same table.
+ */
+public final class TimeBasedIds {
+
+    private static final CustomVersionOneStrategy STRATEGY = new CustomVersionOneStrategy();
+
+    private TimeBasedIds() {}
+
+    /** The next time-based id. Thread-safe. */
+    public static UUID next() {
+        return STRATEGY.generateUuid(null);
+    }
+}
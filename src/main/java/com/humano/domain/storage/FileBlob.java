@@ -1,25 +1,24 @@
 package com.humano.domain.storage;
 
-import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
 import java.util.Objects;
 import java.util.UUID;
 import org.hibernate.annotations.UuidGenerator;
 
 /**
- * Raw bytes for files stored by the DATABASE backend.
+ * A file stored by the DATABASE backend.
  * <p>
- * Kept deliberately minimal — one column for content, one for length, nothing else. All
- * metadata lives on {@link StoredFile}; the {@code id} here equals the {@code storage_key} on
- * the matching {@code StoredFile} row.
+ * Kept deliberately minimal — the length, nothing else. All metadata lives on
+ * {@link StoredFile}; the {@code id} here equals the {@code storage_key} on the matching
+ * {@code StoredFile} row.
  * <p>
- * The {@code content} column is {@link FetchType#LAZY} so listing/admin queries that don't
- * need bytes never pay the cost of loading them.
+ * The bytes are not mapped: they live in {@code file_blob_chunk} rows, keyed by this id and
+ * their starting offset, which {@code DatabaseStorageService} writes and reads one at a time
+ * through native queries on {@code FileBlobRepository}, so neither an upload nor a download
+ * holds more than one chunk in heap. Blobs stored before chunking are a single chunk.
  */
 @Entity
 @Table(name = "file_blob")
@@ -30,12 +29,7 @@ public class FileBlob {
     @Column(name = "id", nullable = false, updatable = false)
     private UUID id;
 
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "content", nullable = false, columnDefinition = "LONGBLOB")
-    private byte[] content;
-
-    /** Redundant with {@link StoredFile#getSizeBytes()} but lets us avoid loading the LOB to size-check. */
+    /** Redundant with {@link StoredFile#getSizeBytes()} but lets us size-check without reading any chunk. */
     @Column(name = "size_bytes", nullable = false)
     private long sizeBytes;
 
@@ -47,14 +41,6 @@ public class FileBlob {
         this.id = id;
     }
 
-    public byte[] getContent() {
-        return content;
-    }
-
-    public void setContent(byte[] content) {
-        this.content = content;
-    }
-
     public long getSizeBytes() {
         return sizeBytes;
     }
@@ -6,12 +6,13 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 
 /**
- * Config for the DATABASE storage backend (bytes live in {@code file_blob}).
+ * Config for the DATABASE storage backend (bytes live in {@code file_blob_chunk} rows).
  * <p>
- * Hard cap on {@link #maxFileSizeBytes()} is 16&nbsp;MiB by design: most MySQL deployments default
- * {@code max_allowed_packet} to 64&nbsp;MiB, and we leave headroom for protocol framing /
- * audit fields. If you need to store files larger than this, switch the tenant to
- * {@link FilesystemStorageDetails} or a cloud backend.
+ * Hard cap on {@link #maxFileSizeBytes()} is 16&nbsp;MiB by design. It is not a packet limit
+ * (every statement carries at most one 256&nbsp;KiB chunk, well under MySQL's
+ * {@code max_allowed_packet}) but a sizing one: file bytes grow the tenant database, its
+ * backups and its replication stream. If you need to store files larger than this, switch
+ * the tenant to {@link FilesystemStorageDetails} or a cloud backend.
  *
  * @param maxFileSizeBytes  per-file upper bound. Enforced by {@code FileService} before the
  *                          insert; the backend reports the same via {@code StorageCapabilities}.
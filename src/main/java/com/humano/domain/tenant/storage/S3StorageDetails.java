@@ -18,16 +18,21 @@ import jakarta.validation.constraints.Positive;
  * @param accessKeyId        IAM access key id; null/blank if the deployment uses an instance
  *                           profile or web-identity federation.
  * @param secretAccessKey    matching secret; null/blank when accessKeyId is null.
- * @param maxFileSizeBytes   per-file upper bound. S3 supports 5&nbsp;GiB single-PUT and 5&nbsp;TiB
- *                           via multipart — we cap at 5&nbsp;GiB by default; raise once multipart
- *                           upload is wired in.
+ * @param maxFileSizeBytes   per-file upper bound. Large uploads go multipart (up to 5&nbsp;TiB);
+ *                           the default cap is 5&nbsp;GiB.
+ * @param endpoint           endpoint of an S3-compatible service (MinIO, Ceph, ...); null/blank
+ *                           for AWS itself, resolved from {@code region}.
+ * @param pathStyleAccess    address buckets as {@code endpoint/bucket/key} instead of
+ *                           {@code bucket.endpoint/key}; most S3-compatible services need it.
  */
 public record S3StorageDetails(
     @NotBlank String bucket,
     @NotBlank String region,
     @JsonIgnore String accessKeyId,
     @JsonIgnore String secretAccessKey,
-    @Positive long maxFileSizeBytes
+    @Positive long maxFileSizeBytes,
+    String endpoint,
+    boolean pathStyleAccess
 )
     implements StorageConfigDetails {
     @Override
@@ -7,8 +7,9 @@ import java.util.UUID;
 /**
  * Request DTO for searching employees with multiple criteria.
  * All field-specific criteria are optional and combined with AND logic. {@code query}
- * is a single free-text term matched (OR) against first name, last name, and job title —
- * for single-box pickers/typeaheads.
+ * is free text for single-box pickers/typeaheads: each of its words must be the start of a
+ * word of the first name, last name or job title. The name, email and job title criteria
+ * match word starts of their own field the same way; results are then ranked by relevance.
  */
 public record EmployeeSearchRequest(
     String query,
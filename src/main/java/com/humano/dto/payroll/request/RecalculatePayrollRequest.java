@@ -6,6 +6,9 @@ import java.util.UUID;
 
 /**
  * Request DTO for recalculating payroll for specific employees or entire run.
+ * <p>
+ * {@code dirtyOnly} recalculates only employees whose payroll inputs changed since their
+ * stored result; everyone else keeps their result untouched.
  */
 public record RecalculatePayrollRequest(
     @NotNull(message = "Payroll run ID is required") UUID payrollRunId,
@@ -16,5 +19,7 @@ public record RecalculatePayrollRequest(
 
     List<String> componentsToRecalculate,
 
-    String reason
+    String reason,
+
+    boolean dirtyOnly
 ) {}
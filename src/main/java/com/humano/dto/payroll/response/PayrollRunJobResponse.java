@@ -0,0 +1,43 @@
+package com.humano.dto.payroll.response;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Response DTO for a background payroll run job: its state and progress.
+ * <p>
+ * {@code total} is the run's scope size, or its payslip count for a {@code PAYSLIP_PDFS} job
+ * ({@code -1} until the job has started); {@code processed} and {@code errors} include items
+ * handled before the job resumed. {@code throughput} (items per second) and {@code etaSeconds}
+ * cover this job only and are {@code null} until the first chunk completes. {@code result} is
+ * set once a calculation job has {@code SUCCEEDED}; PDF jobs never carry one.
+ */
+public record PayrollRunJobResponse(
+    UUID jobId,
+    UUID runId,
+    Kind kind,
+    Status status,
+    int total,
+    int processed,
+    int errors,
+    Double throughput,
+    Long etaSeconds,
+    Instant submittedAt,
+    Instant startedAt,
+    Instant finishedAt,
+    String failureMessage,
+    PayrollRunResponse result
+) {
+    public enum Kind {
+        CALCULATE,
+        RECALCULATE,
+        PAYSLIP_PDFS,
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED,
+    }
+}
@@ -34,6 +34,12 @@ public record CreateTenantStorageConfigRequest(
     /** S3 secret key for S3 backend. */
     String s3SecretKey,
 
+    /** Endpoint of an S3-compatible service (e.g. MinIO) for S3 backend; null = AWS. */
+    String s3Endpoint,
+
+    /** Path-style bucket addressing for S3 backend; most S3-compatible services need it. */
+    Boolean s3PathStyleAccess,
+
     /** Azure account name for AZURE backend. */
     String azureAccountName,
 
@@ -0,0 +1,19 @@
+package com.humano.events;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published when something that makes up employees' total compensation changed: a
+ * compensation row, a bonus, an employee benefit, or the employee itself (hired, moved to
+ * another department, removed).
+ *
+ * <p>Lets {@code CompensationStatistics} refresh just those employees once the change
+ * commits, instead of recomputing every employee's statement per percentile or department
+ * summary request. Listeners should run in
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so they read committed data.
+ *
+ * @param tenantSubdomain subdomain key for the tenant routing datasource
+ * @param employeeIds     the employees whose compensation inputs changed
+ */
+public record CompensationChangedEvent(String tenantSubdomain, Set<UUID> employeeIds) implements TenantScopedEvent {}
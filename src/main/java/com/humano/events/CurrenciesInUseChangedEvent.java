@@ -0,0 +1,15 @@
+package com.humano.events;
+
+/**
+ * Published when a currency came into use in a tenant: a compensation paid in a currency no
+ * other compensation used, a new default currency in the organization settings, or a payroll
+ * run reporting in a currency no other run used.
+ *
+ * <p>Lets {@code FxIngestionPairs} drop the tenant's cached set of rate pairs once the change
+ * commits, so the next FX ingestion prices the new pairs too. Listeners should run in
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so the next load reads committed
+ * rows.
+ *
+ * @param tenantSubdomain subdomain key for the tenant routing datasource
+ */
+public record CurrenciesInUseChangedEvent(String tenantSubdomain) implements TenantScopedEvent {}
@@ -0,0 +1,16 @@
+package com.humano.events;
+
+import java.util.UUID;
+
+/**
+ * Published when an employee profile is deleted.
+ *
+ * <p>Lets {@code EmployeeSearchIndex} drop the employee from this node's index once the
+ * deletion commits, ahead of the periodic rebuild; dropping it before would hide a live
+ * employee if the deletion rolled back. Listeners should run in
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ *
+ * @param tenantSubdomain subdomain key for the tenant routing datasource
+ * @param employeeId      the deleted employee
+ */
+public record EmployeeDeletedEvent(String tenantSubdomain, UUID employeeId) implements TenantScopedEvent {}
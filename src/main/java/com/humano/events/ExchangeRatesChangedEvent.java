@@ -0,0 +1,14 @@
+package com.humano.events;
+
+/**
+ * Published when exchange rates of a tenant were created, replaced or deleted through
+ * {@code ExchangeRateService}.
+ *
+ * <p>Lets {@code FxRateSeriesCache} drop the tenant's cached rate series once the change
+ * commits. Listeners should run in
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so the next load reads committed
+ * rows. Provider ingestion refreshes the cache itself and does not publish this event.
+ *
+ * @param tenantSubdomain subdomain key for the tenant routing datasource
+ */
+public record ExchangeRatesChangedEvent(String tenantSubdomain) implements TenantScopedEvent {}
@@ -0,0 +1,14 @@
+package com.humano.events;
+
+/**
+ * Published when tax brackets of a tenant were created, updated, expired or copied to a new
+ * year.
+ *
+ * <p>Lets {@code TaxBracketTables} drop the tenant's compiled bracket table once the change
+ * commits. Listeners should run in
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} so the next compile reads
+ * committed rows.
+ *
+ * @param tenantSubdomain subdomain key for the tenant routing datasource
+ */
+public record TaxBracketsChangedEvent(String tenantSubdomain) implements TenantScopedEvent {}
@@ -0,0 +1,53 @@
+package com.humano.events.listeners;
+
+import com.humano.events.CompensationChangedEvent;
+import com.humano.events.TransferExecutedEvent;
+import com.humano.service.payroll.CompensationStatistics;
+import java.util.Objects;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Marks employees stale in {@link CompensationStatistics} once a change to their
+ * compensation inputs, or a transfer to another department, commits.
+ *
+ * <p>Runs AFTER_COMMIT so the statistics reload committed rows; {@code fallbackExecution}
+ * covers publishers that run without a transaction. Only the cache is touched here, so no
+ * {@code TenantContext} switch is needed: the tenant travels in the invalidation key.
+ */
+@Component
+public class CompensationStatisticsListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CompensationStatisticsListener.class);
+
+    private final CompensationStatistics compensationStatistics;
+
+    public CompensationStatisticsListener(CompensationStatistics compensationStatistics) {
+        this.compensationStatistics = compensationStatistics;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleCompensationChanged(CompensationChangedEvent event) {
+        if (event.tenantSubdomain() == null) {
+            log.warn("CompensationChangedEvent for {} employees has no tenantSubdomain; skipping", event.employeeIds().size());
+            return;
+        }
+        compensationStatistics.employeesChanged(event.tenantSubdomain(), event.employeeIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleTransferExecuted(TransferExecutedEvent event) {
+        if (event.newDepartmentId() == null || Objects.equals(event.oldDepartmentId(), event.newDepartmentId())) {
+            return;
+        }
+        if (event.tenantSubdomain() == null) {
+            log.warn("TransferExecutedEvent for workflow {} has no tenantSubdomain; skipping", event.workflowId());
+            return;
+        }
+        compensationStatistics.employeesChanged(event.tenantSubdomain(), Set.of(event.employeeId()));
+    }
+}
@@ -0,0 +1,35 @@
+package com.humano.events.listeners;
+
+import com.humano.events.EmployeeDeletedEvent;
+import com.humano.service.hr.search.EmployeeSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops a deleted employee from {@link EmployeeSearchIndex} once the deletion commits. Like
+ * {@link CompensationStatisticsListener}, only the in-memory index is touched, so no
+ * {@code TenantContext} switch is needed.
+ */
+@Component
+public class EmployeeSearchIndexListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchIndexListener.class);
+
+    private final EmployeeSearchIndex employeeSearchIndex;
+
+    public EmployeeSearchIndexListener(EmployeeSearchIndex employeeSearchIndex) {
+        this.employeeSearchIndex = employeeSearchIndex;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleEmployeeDeleted(EmployeeDeletedEvent event) {
+        if (event.tenantSubdomain() == null) {
+            log.warn("EmployeeDeletedEvent for {} has no tenantSubdomain; skipping", event.employeeId());
+            return;
+        }
+        employeeSearchIndex.remove(event.tenantSubdomain(), event.employeeId());
+    }
+}
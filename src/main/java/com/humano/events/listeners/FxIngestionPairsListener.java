@@ -0,0 +1,34 @@
+package com.humano.events.listeners;
+
+import com.humano.events.CurrenciesInUseChangedEvent;
+import com.humano.service.payroll.fx.FxIngestionPairs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops the tenant's FX ingestion pairs in {@link FxIngestionPairs} once a currency coming into
+ * use commits. Only the cache is touched, so no {@code TenantContext} switch is needed.
+ */
+@Component
+public class FxIngestionPairsListener {
+
+    private static final Logger log = LoggerFactory.getLogger(FxIngestionPairsListener.class);
+
+    private final FxIngestionPairs ingestionPairs;
+
+    public FxIngestionPairsListener(FxIngestionPairs ingestionPairs) {
+        this.ingestionPairs = ingestionPairs;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleCurrenciesInUseChanged(CurrenciesInUseChangedEvent event) {
+        if (event.tenantSubdomain() == null) {
+            log.warn("CurrenciesInUseChangedEvent has no tenantSubdomain; skipping");
+            return;
+        }
+        ingestionPairs.currenciesChanged(event.tenantSubdomain());
+    }
+}
@@ -0,0 +1,34 @@
+package com.humano.events.listeners;
+
+import com.humano.events.ExchangeRatesChangedEvent;
+import com.humano.service.payroll.fx.FxRateSeriesCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops the tenant's rate series in {@link FxRateSeriesCache} once an exchange rate change
+ * commits. Only the cache is touched, so no {@code TenantContext} switch is needed.
+ */
+@Component
+public class FxRateSeriesListener {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateSeriesListener.class);
+
+    private final FxRateSeriesCache fxRateSeriesCache;
+
+    public FxRateSeriesListener(FxRateSeriesCache fxRateSeriesCache) {
+        this.fxRateSeriesCache = fxRateSeriesCache;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleExchangeRatesChanged(ExchangeRatesChangedEvent event) {
+        if (event.tenantSubdomain() == null) {
+            log.warn("ExchangeRatesChangedEvent has no tenantSubdomain; skipping");
+            return;
+        }
+        fxRateSeriesCache.ratesChanged(event.tenantSubdomain());
+    }
+}
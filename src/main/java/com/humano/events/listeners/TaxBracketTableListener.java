@@ -0,0 +1,35 @@
+package com.humano.events.listeners;
+
+import com.humano.events.TaxBracketsChangedEvent;
+import com.humano.service.payroll.TaxBracketTables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops the tenant's compiled table in {@link TaxBracketTables} once a tax bracket change
+ * commits. Like {@link CompensationStatisticsListener}, only the cache is touched, so no
+ * {@code TenantContext} switch is needed.
+ */
+@Component
+public class TaxBracketTableListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TaxBracketTableListener.class);
+
+    private final TaxBracketTables taxBracketTables;
+
+    public TaxBracketTableListener(TaxBracketTables taxBracketTables) {
+        this.taxBracketTables = taxBracketTables;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleTaxBracketsChanged(TaxBracketsChangedEvent event) {
+        if (event.tenantSubdomain() == null) {
+            log.warn("TaxBracketsChangedEvent has no tenantSubdomain; skipping");
+            return;
+        }
+        taxBracketTables.bracketsChanged(event.tenantSubdomain());
+    }
+}
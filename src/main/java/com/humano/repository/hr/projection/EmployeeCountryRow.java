@@ -0,0 +1,10 @@
+package com.humano.repository.hr.projection;
+
+import com.humano.domain.shared.Country;
+import java.util.UUID;
+
+/**
+ * Employee id paired with its country of employment, projected without materialising the
+ * (eager-heavy) {@code Employee} graph. Used by batch workloads that only need the country.
+ */
+public record EmployeeCountryRow(UUID employeeId, Country country) {}
@@ -0,0 +1,10 @@
+package com.humano.repository.hr.projection;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The searchable text of an employee, projected to build and sync the in-memory employee
+ * search index without materialising the {@code Employee} graph. Any field may be {@code null}.
+ */
+public record EmployeeSearchRow(UUID id, String firstName, String lastName, String email, String jobTitle, Instant lastModifiedDate) {}
@@ -0,0 +1,9 @@
+package com.humano.repository.hr.projection;
+
+import java.util.UUID;
+
+/**
+ * Employee id paired with its email address, projected for bulk notification dispatch
+ * without materialising the {@code Employee} graph. {@code email} may be {@code null}.
+ */
+public record NotificationRecipientRow(UUID employeeId, String email) {}
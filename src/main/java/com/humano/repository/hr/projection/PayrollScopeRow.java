@@ -0,0 +1,15 @@
+package com.humano.repository.hr.projection;
+
+import com.humano.domain.enumeration.CountryCode;
+import com.humano.domain.enumeration.CurrencyCode;
+import java.util.UUID;
+
+/**
+ * Lightweight in-scope employee for payroll runs: identity, display name, country of
+ * employment and the currency of the compensation active at the period end. Projected
+ * straight from JPQL so scope resolution never builds the (eager-heavy) {@code Employee} graph.
+ * <p>
+ * {@code countryCode} and {@code currencyCode} are {@code null} when the employee has no
+ * country or no active compensation; the calculation reports those as per-employee errors.
+ */
+public record PayrollScopeRow(UUID id, String firstName, String lastName, CountryCode countryCode, CurrencyCode currencyCode) {}
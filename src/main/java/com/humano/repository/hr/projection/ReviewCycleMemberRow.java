@@ -0,0 +1,9 @@
+package com.humano.repository.hr.projection;
+
+import java.util.UUID;
+
+/**
+ * An employee in a review cycle's scope and their manager ({@code null} when none): all a
+ * phase notification needs to address employees and their managers.
+ */
+public record ReviewCycleMemberRow(UUID employeeId, UUID managerId) {}
@@ -25,11 +25,9 @@ public class EmployeeSpecification {
 
     /**
      * Creates a specification for searching employees with multiple criteria.
+     * Name, email and job title are matched by the employee search index
+     * ({@code EmployeeSearchIndex}), not here.
      *
-     * @param firstName First name filter (partial match)
-     * @param lastName Last name filter (partial match)
-     * @param email Email filter (partial match)
-     * @param jobTitle Job title filter (partial match)
      * @param phone Phone number filter (partial match)
      * @param status Employee status filter
      * @param departmentId Department ID filter
@@ -43,10 +41,6 @@ public class EmployeeSpecification {
      * @return Specification for the given criteria
      */
     public static Specification<Employee> withCriteria(
-        String firstName,
-        String lastName,
-        String email,
-        String jobTitle,
         String phone,
         EmployeeStatus status,
         UUID departmentId,
@@ -61,26 +55,6 @@ public class EmployeeSpecification {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            // Filter by first name (partial match, case-insensitive)
-            if (firstName != null && !firstName.isEmpty()) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), "%" + firstName.toLowerCase() + "%"));
-            }
-
-            // Filter by last name (partial match, case-insensitive)
-            if (lastName != null && !lastName.isEmpty()) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), "%" + lastName.toLowerCase() + "%"));
-            }
-
-            // Filter by email (partial match, case-insensitive)
-            if (email != null && !email.isEmpty()) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), "%" + email.toLowerCase() + "%"));
-            }
-
-            // Filter by job title (partial match, case-insensitive)
-            if (jobTitle != null && !jobTitle.isEmpty()) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("jobTitle")), "%" + jobTitle.toLowerCase() + "%"));
-            }
-
             // Filter by phone (partial match)
             if (phone != null && !phone.isEmpty()) {
                 predicates.add(criteriaBuilder.like(root.get("phone"), "%" + phone + "%"));
@@ -135,27 +109,6 @@ public class EmployeeSpecification {
         };
     }
 
-    /**
-     * Single free-text term matched (case-insensitive, partial) against first name OR last
-     * name OR job title — for single-box pickers/typeaheads. Blank term matches everything.
-     *
-     * @param term the search term
-     * @return Specification
-     */
-    public static Specification<Employee> matchesNameOrJobTitle(String term) {
-        return (root, query, criteriaBuilder) -> {
-            if (term == null || term.isBlank()) {
-                return criteriaBuilder.conjunction();
-            }
-            String like = "%" + term.toLowerCase() + "%";
-            return criteriaBuilder.or(
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), like),
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), like),
-                criteriaBuilder.like(criteriaBuilder.lower(root.get("jobTitle")), like)
-            );
-        };
-    }
-
     /**
      * Filter employees by active status.
      *
@@ -17,4 +17,7 @@ public interface CompensationRepository extends JpaRepository<Compensation, UUID
     /** Distinct currencies employees are actually paid in — the source currencies FX ingestion needs. */
     @Query("select distinct c.currency from Compensation c")
     List<Currency> findDistinctCurrencies();
+
+    /** Whether any compensation is paid in {@code currency}; a new one brings a new FX ingestion source. */
+    boolean existsByCurrency(Currency currency);
 }
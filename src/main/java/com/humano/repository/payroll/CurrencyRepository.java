@@ -2,12 +2,16 @@ package com.humano.repository.payroll;
 
 import com.humano.domain.enumeration.CurrencyCode;
 import com.humano.domain.payroll.Currency;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CurrencyRepository extends JpaRepository<Currency, UUID> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Currency> findByCode(CurrencyCode code);
 }
@@ -3,10 +3,15 @@ package com.humano.repository.payroll;
 import com.humano.domain.enumeration.hr.LeaveType;
 import com.humano.domain.payroll.LeaveTypeRule;
 import com.humano.domain.shared.Country;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -14,5 +19,11 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface LeaveTypeRuleRepository extends JpaRepository<LeaveTypeRule, UUID>, JpaSpecificationExecutor<LeaveTypeRule> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<LeaveTypeRule> findByLeaveTypeAndCountry(LeaveType leaveType, Country country);
+
+    /** Served from the query cache: every payroll run reads the whole rule table. */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<LeaveTypeRule> findAll(Sort sort);
 }
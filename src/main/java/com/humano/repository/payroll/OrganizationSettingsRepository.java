@@ -1,8 +1,12 @@
 package com.humano.repository.payroll;
 
 import com.humano.domain.payroll.OrganizationSettings;
+import jakarta.persistence.QueryHint;
+import java.util.List;
 import java.util.UUID;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -10,4 +14,9 @@ import org.springframework.stereotype.Repository;
  * schema). Fetch the current settings with {@code findAll().stream().findFirst()}.
  */
 @Repository
-public interface OrganizationSettingsRepository extends JpaRepository<OrganizationSettings, UUID> {}
+public interface OrganizationSettingsRepository extends JpaRepository<OrganizationSettings, UUID> {
+    /** Served from the query cache: the settings are read by every payroll run. */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<OrganizationSettings> findAll();
+}
@@ -1,9 +1,14 @@
 package com.humano.repository.payroll;
 
 import com.humano.domain.payroll.PayrollLine;
+import com.humano.repository.payroll.projection.PayslipPdfLineRow;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,4 +18,16 @@ import org.springframework.stereotype.Repository;
  * {@code PayrollProcessingService}; no direct derived lookups are needed.
  */
 @Repository
-public interface PayrollLineRepository extends JpaRepository<PayrollLine, UUID>, JpaSpecificationExecutor<PayrollLine> {}
+public interface PayrollLineRepository extends JpaRepository<PayrollLine, UUID>, JpaSpecificationExecutor<PayrollLine> {
+    /** Lines of the given results with their components, grouped by result and in line sequence. */
+    @Query("SELECT l FROM PayrollLine l JOIN FETCH l.component WHERE l.result.id IN :resultIds ORDER BY l.result.id, l.sequence")
+    List<PayrollLine> findWithComponentByResultIds(@Param("resultIds") Collection<UUID> resultIds);
+
+    /** The printed lines of the given results, grouped by result and in line sequence. */
+    @Query(
+        "SELECT new com.humano.repository.payroll.projection.PayslipPdfLineRow(" +
+        "l.result.id, c.code, c.name, c.kind, l.quantity, l.rate, l.amount, l.explain) " +
+        "FROM PayrollLine l JOIN l.component c WHERE l.result.id IN :resultIds ORDER BY l.result.id, l.sequence"
+    )
+    List<PayslipPdfLineRow> findPdfLines(@Param("resultIds") Collection<UUID> resultIds);
+}
@@ -3,6 +3,8 @@ package com.humano.repository.payroll;
 import com.humano.domain.payroll.PayrollResult;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
@@ -14,4 +16,19 @@ import java.util.List;
 @Repository
 public interface PayrollResultRepository extends JpaRepository<PayrollResult, UUID>, JpaSpecificationExecutor<PayrollResult> {
     List<PayrollResult> findByEmployeeId(UUID employeeId);
+
+    /** Number of results of a run. */
+    @Query("SELECT COUNT(r) FROM PayrollResult r WHERE r.run.id = :runId")
+    long countByRunId(@Param("runId") UUID runId);
+
+    /**
+     * Results of a run that have no payslip yet (an anti-join), with everything a payslip
+     * response shows fetched in the same query.
+     */
+    @Query(
+        "SELECT r FROM PayrollResult r JOIN FETCH r.employee e LEFT JOIN FETCH e.department LEFT JOIN FETCH e.position " +
+        "JOIN FETCH r.currency JOIN FETCH r.payrollPeriod " +
+        "WHERE r.run.id = :runId AND NOT EXISTS (SELECT p.id FROM Payslip p WHERE p.result = r) ORDER BY r.id"
+    )
+    List<PayrollResult> findWithoutPayslipByRunId(@Param("runId") UUID runId);
 }
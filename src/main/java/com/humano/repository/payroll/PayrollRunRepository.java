@@ -2,11 +2,15 @@ package com.humano.repository.payroll;
 
 import com.humano.domain.payroll.Currency;
 import com.humano.domain.payroll.PayrollRun;
+import jakarta.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -17,4 +21,12 @@ public interface PayrollRunRepository extends JpaRepository<PayrollRun, UUID>, J
     /** Distinct reporting currencies configured on runs — extra target currencies FX ingestion needs. */
     @Query("select distinct r.reportingCurrency from PayrollRun r where r.reportingCurrency is not null")
     List<Currency> findDistinctReportingCurrencies();
+
+    /** Whether any run reports in {@code currency}; a new one brings a new FX ingestion target. */
+    boolean existsByReportingCurrency(Currency currency);
+
+    /** The run, write-locked until the calling transaction ends; serializes payslip generation per run. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from PayrollRun r where r.id = :id")
+    Optional<PayrollRun> findByIdForUpdate(@Param("id") UUID id);
 }
@@ -0,0 +1,21 @@
+package com.humano.repository.payroll;
+
+import com.humano.domain.payroll.PayslipNumberSequence;
+import jakarta.persistence.LockModeType;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the {@link PayslipNumberSequence} entity.
+ */
+@Repository
+public interface PayslipNumberSequenceRepository extends JpaRepository<PayslipNumberSequence, String> {
+    /** The prefix's row, write-locked until the calling transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PayslipNumberSequence s WHERE s.prefix = :prefix")
+    Optional<PayslipNumberSequence> findForUpdate(@Param("prefix") String prefix);
+}
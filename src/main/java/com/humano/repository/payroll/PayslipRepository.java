@@ -1,9 +1,16 @@
 package com.humano.repository.payroll;
 
 import com.humano.domain.payroll.Payslip;
+import com.humano.repository.payroll.projection.PayslipPdfRow;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,4 +20,35 @@ import org.springframework.stereotype.Repository;
  * via {@link JpaSpecificationExecutor} in {@code PayslipService}.
  */
 @Repository
-public interface PayslipRepository extends JpaRepository<Payslip, UUID>, JpaSpecificationExecutor<Payslip> {}
+public interface PayslipRepository extends JpaRepository<Payslip, UUID>, JpaSpecificationExecutor<Payslip> {
+    /** Number of payslips of a run. */
+    @Query("SELECT COUNT(p) FROM Payslip p WHERE p.result.run.id = :runId")
+    long countByRunId(@Param("runId") UUID runId);
+
+    /** Ids of a run's payslips that have no stored PDF yet, in id order. */
+    @Query("SELECT p.id FROM Payslip p WHERE p.result.run.id = :runId AND (p.pdfUrl IS NULL OR p.pdfUrl = '') ORDER BY p.id")
+    List<UUID> findIdsWithoutPdfByRunId(@Param("runId") UUID runId);
+
+    /** Numbers matching a {@code LIKE} pattern; seeds a payslip number sequence from existing payslips. */
+    @Query("SELECT p.number FROM Payslip p WHERE p.number LIKE :pattern")
+    List<String> findNumbersLike(@Param("pattern") String pattern);
+
+    /** Rendering data of the given payslips, one projection row each (lines excluded). */
+    @Query(
+        "SELECT new com.humano.repository.payroll.projection.PayslipPdfRow(" +
+        "p.id, p.number, r.id, run.id, e.firstName, e.lastName, e.login, d.name, pos.name, " +
+        "per.code, per.startDate, per.endDate, per.paymentDate, cur.code, r.gross, r.totalDeductions, r.net, " +
+        "rc.code, r.reportingGross, r.reportingTotalDeductions, r.reportingNet, r.exchangeRate, r.exchangeRateDate) " +
+        "FROM Payslip p JOIN p.result r JOIN r.employee e JOIN r.payrollPeriod per JOIN r.run run " +
+        "LEFT JOIN e.department d LEFT JOIN e.position pos LEFT JOIN r.currency cur LEFT JOIN run.reportingCurrency rc " +
+        "WHERE p.id IN :ids"
+    )
+    List<PayslipPdfRow> findPdfRows(@Param("ids") Collection<UUID> ids);
+
+    /** Records a stored PDF reference and its checksum without loading the payslip. */
+    @Modifying
+    @Query(
+        "UPDATE Payslip p SET p.pdfUrl = :pdfUrl, p.pdfChecksumSha256 = :checksum, p.audit.lastModifiedDate = :now WHERE p.id = :id"
+    )
+    int updatePdfUrl(@Param("id") UUID id, @Param("pdfUrl") String pdfUrl, @Param("checksum") String checksum, @Param("now") Instant now);
+}
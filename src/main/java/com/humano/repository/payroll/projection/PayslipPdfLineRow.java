@@ -0,0 +1,18 @@
+package com.humano.repository.payroll.projection;
+
+import com.humano.domain.enumeration.payroll.Kind;
+import com.humano.domain.enumeration.payroll.PayComponentCode;
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/** One payroll line as printed on a payslip, with its component's code, name and kind. */
+public record PayslipPdfLineRow(
+    UUID resultId,
+    PayComponentCode code,
+    String name,
+    Kind kind,
+    BigDecimal quantity,
+    BigDecimal rate,
+    BigDecimal amount,
+    String explain
+) {}
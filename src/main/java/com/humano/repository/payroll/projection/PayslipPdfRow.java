@@ -0,0 +1,40 @@
+package com.humano.repository.payroll.projection;
+
+import com.humano.domain.enumeration.CurrencyCode;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Everything a rendered payslip shows apart from its lines, projected in one query across
+ * payslip, result, employee, period and run so bulk rendering never builds the entity graph
+ * (whose eager {@code Employee} associations would cost several selects per payslip).
+ * <p>
+ * {@code reportingCurrencyCode} and the reporting amounts are {@code null} for
+ * single-currency runs.
+ */
+public record PayslipPdfRow(
+    UUID payslipId,
+    String number,
+    UUID resultId,
+    UUID runId,
+    String firstName,
+    String lastName,
+    String login,
+    String departmentName,
+    String positionName,
+    String periodCode,
+    LocalDate periodStart,
+    LocalDate periodEnd,
+    LocalDate paymentDate,
+    CurrencyCode currencyCode,
+    BigDecimal gross,
+    BigDecimal totalDeductions,
+    BigDecimal net,
+    CurrencyCode reportingCurrencyCode,
+    BigDecimal reportingGross,
+    BigDecimal reportingTotalDeductions,
+    BigDecimal reportingNet,
+    BigDecimal exchangeRate,
+    LocalDate exchangeRateDate
+) {}
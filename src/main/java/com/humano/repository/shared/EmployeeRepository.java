@@ -1,10 +1,19 @@
 package com.humano.repository.shared;
 
+import com.humano.domain.enumeration.hr.EmployeeStatus;
 import com.humano.domain.shared.Employee;
+import com.humano.repository.hr.projection.EmployeeCountryRow;
 import com.humano.repository.hr.projection.EmployeeHierarchyRow;
+import com.humano.repository.hr.projection.EmployeeSearchRow;
+import com.humano.repository.hr.projection.NotificationRecipientRow;
+import com.humano.repository.hr.projection.PayrollScopeRow;
+import com.humano.repository.hr.projection.ReviewCycleMemberRow;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -80,6 +89,115 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID>, JpaSp
     )
     List<EmployeeHierarchyRow> findHierarchyRowsByIds(@Param("ids") Collection<UUID> ids);
 
+    /**
+     * Country of employment for a fixed set of employees, in one IN-list query. Employees
+     * without a country are omitted (inner join).
+     */
+    @Query(
+        """
+        SELECT new com.humano.repository.hr.projection.EmployeeCountryRow(e.id, c)
+        FROM Employee e
+        JOIN e.country c
+        WHERE e.id IN :ids
+        """
+    )
+    List<EmployeeCountryRow> findCountriesByEmployeeIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Email addresses of a fixed set of employees, in one IN-list query; unknown ids are
+     * omitted. Used to resolve the recipients of a bulk notification.
+     */
+    @Query(
+        """
+        SELECT new com.humano.repository.hr.projection.NotificationRecipientRow(e.id, e.email)
+        FROM Employee e
+        WHERE e.id IN :ids
+        """
+    )
+    List<NotificationRecipientRow> findNotificationRecipients(@Param("ids") Collection<UUID> ids);
+
+    /** The searchable text of every employee, to build the tenant's employee search index. */
+    @Query(
+        """
+        SELECT new com.humano.repository.hr.projection.EmployeeSearchRow(
+            e.id, e.firstName, e.lastName, e.email, e.jobTitle, e.audit.lastModifiedDate
+        )
+        FROM Employee e
+        """
+    )
+    List<EmployeeSearchRow> findSearchRows();
+
+    /** The searchable text of employees modified at or after {@code since}, to sync the search index. */
+    @Query(
+        """
+        SELECT new com.humano.repository.hr.projection.EmployeeSearchRow(
+            e.id, e.firstName, e.lastName, e.email, e.jobTitle, e.audit.lastModifiedDate
+        )
+        FROM Employee e
+        WHERE e.audit.lastModifiedDate >= :since
+        """
+    )
+    List<EmployeeSearchRow> findSearchRowsModifiedSince(@Param("since") Instant since);
+
+    /** Every employee with their manager's id, for a review cycle that spans all departments. */
+    @Query(
+        """
+        SELECT new com.humano.repository.hr.projection.ReviewCycleMemberRow(e.id, m.id)
+        FROM Employee e
+        LEFT JOIN e.manager m
+        """
+    )
+    List<ReviewCycleMemberRow> findReviewCycleMembers();
+
+    /** Employees of the given departments with their manager's id. */
+    @Query(
+        """
+        SELECT new com.humano.repository.hr.projection.ReviewCycleMemberRow(e.id, m.id)
+        FROM Employee e
+        LEFT JOIN e.manager m
+        WHERE e.department.id IN :departmentIds
+        """
+    )
+    List<ReviewCycleMemberRow> findReviewCycleMembersByDepartmentIds(@Param("departmentIds") Collection<UUID> departmentIds);
+
+    /**
+     * One keyset page of a payroll scope: employees with a status in {@code statuses} and an id
+     * strictly after {@code afterId}, in id order. Pass the nil UUID for the first page and the
+     * last id of the previous page afterwards; the cost of a page does not grow with its offset.
+     * <p>
+     * The currency is that of the latest-starting compensation active on {@code asOf} (id
+     * tiebreak), the same pick the payroll snapshot makes.
+     */
+    @Query(
+        """
+        SELECT new com.humano.repository.hr.projection.PayrollScopeRow(
+            e.id, e.firstName, e.lastName, c.code,
+            (SELECT cur.code FROM Compensation comp JOIN comp.currency cur
+             WHERE comp.employee = e
+               AND comp.effectiveFrom <= :asOf
+               AND (comp.effectiveTo IS NULL OR comp.effectiveTo >= :asOf)
+             ORDER BY comp.effectiveFrom DESC, comp.id ASC
+             FETCH FIRST 1 ROWS ONLY)
+        )
+        FROM Employee e
+        LEFT JOIN e.country c
+        WHERE e.status IN :statuses AND e.id > :afterId
+        ORDER BY e.id
+        """
+    )
+    List<PayrollScopeRow> findPayrollScopePage(
+        @Param("statuses") Collection<EmployeeStatus> statuses,
+        @Param("asOf") LocalDate asOf,
+        @Param("afterId") UUID afterId,
+        Limit limit
+    );
+
+    /**
+     * Size of the payroll scope {@link #findPayrollScopePage} pages through.
+     */
+    @Query("SELECT COUNT(e) FROM Employee e WHERE e.status IN :statuses")
+    long countPayrollScope(@Param("statuses") Collection<EmployeeStatus> statuses);
+
     /**
      * Rewrites the materialized-path prefix on every descendant of an employee whose
      * own path has just changed (reorg under a new manager). One bulk UPDATE; no
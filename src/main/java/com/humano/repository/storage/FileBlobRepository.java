@@ -1,13 +1,43 @@
 package com.humano.repository.storage;
 
 import com.humano.domain.storage.FileBlob;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
- * Repository for {@link FileBlob} — the raw bytes table.
+ * Repository for {@link FileBlob} and its {@code file_blob_chunk} rows — the raw bytes.
  * Only exists to support the DATABASE storage backend.
+ * <p>
+ * Chunks are not an entity: they are written, read and deleted one statement at a time by the
+ * native queries below, so no chunk is ever held by the persistence context. A chunk is keyed by
+ * its blob and the offset of its first byte; chunks of a blob are contiguous.
  */
 @Repository
-public interface FileBlobRepository extends JpaRepository<FileBlob, UUID> {}
+public interface FileBlobRepository extends JpaRepository<FileBlob, UUID> {
+    /** Blob length without touching any chunk. */
+    @Query("SELECT b.sizeBytes FROM FileBlob b WHERE b.id = :id")
+    Optional<Long> findSizeById(@Param("id") UUID id);
+
+    /** Appends a chunk; its blob row must already be flushed. Needs a transaction. */
+    @Modifying
+    @Query(value = "INSERT INTO file_blob_chunk (blob_id, start_offset, content) VALUES (:id, :offset, :content)", nativeQuery = true)
+    void insertChunk(@Param("id") UUID id, @Param("offset") long offset, @Param("content") byte[] content);
+
+    /** The chunk starting exactly at {@code offset}, or {@code null}. One primary-key lookup. */
+    @Query(value = "SELECT content FROM file_blob_chunk WHERE blob_id = :id AND start_offset = :offset", nativeQuery = true)
+    byte[] readChunk(@Param("id") UUID id, @Param("offset") long offset);
+
+    /** Start of the chunk holding byte {@code offset}, for a read that begins mid-blob (a range request). */
+    @Query(value = "SELECT MAX(start_offset) FROM file_blob_chunk WHERE blob_id = :id AND start_offset <= :offset", nativeQuery = true)
+    Long findChunkStart(@Param("id") UUID id, @Param("offset") long offset);
+
+    /** Deletes a blob's chunks, ahead of the blob row itself. Needs a transaction. */
+    @Modifying
+    @Query(value = "DELETE FROM file_blob_chunk WHERE blob_id = :id", nativeQuery = true)
+    void deleteChunks(@Param("id") UUID id);
+}
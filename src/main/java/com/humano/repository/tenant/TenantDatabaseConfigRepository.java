@@ -1,9 +1,12 @@
 package com.humano.repository.tenant;
 
 import com.humano.domain.tenant.TenantDatabaseConfig;
+import com.humano.repository.tenant.projection.TenantDatabaseServerRow;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -37,6 +40,18 @@ public interface TenantDatabaseConfigRepository extends JpaRepository<TenantData
      */
     boolean existsByDbName(String dbName);
 
+    /**
+     * The database server of every tenant that has a configuration, as one projection query
+     * (credentials are never read).
+     *
+     * @return one row per configured tenant
+     */
+    @Query(
+        "SELECT new com.humano.repository.tenant.projection.TenantDatabaseServerRow(t.subdomain, c.dbHost, c.dbPort) " +
+        "FROM TenantDatabaseConfig c JOIN c.tenant t"
+    )
+    List<TenantDatabaseServerRow> findDatabaseServers();
+
     /**
      * Delete database configuration by tenant ID.
      *
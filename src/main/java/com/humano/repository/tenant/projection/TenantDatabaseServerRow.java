@@ -0,0 +1,12 @@
+package com.humano.repository.tenant.projection;
+
+/**
+ * Which database server a tenant lives on, as read by
+ * {@link com.humano.repository.tenant.TenantDatabaseConfigRepository#findDatabaseServers()}.
+ */
+public record TenantDatabaseServerRow(String subdomain, String dbHost, Integer dbPort) {
+    /** {@code host:port}, the key servers are throttled by. */
+    public String server() {
+        return dbHost + ":" + dbPort;
+    }
+}
@@ -14,6 +14,9 @@ public class AuthenticatedUser extends org.springframework.security.core.userdet
 
     private final UUID id;
 
+    /** Resolved by {@link SecurityExpressions} on first check; not kept in a serialized session. */
+    private transient volatile EffectivePermissions effectivePermissions;
+
     //TODO add more fields if needed
     public AuthenticatedUser(String username, String password, Collection<? extends GrantedAuthority> authorities, final UUID id) {
         super(username, password, authorities);
@@ -33,6 +36,14 @@ public class AuthenticatedUser extends org.springframework.security.core.userdet
         return id;
     }
 
+    public EffectivePermissions getEffectivePermissions() {
+        return effectivePermissions;
+    }
+
+    public void setEffectivePermissions(EffectivePermissions effectivePermissions) {
+        this.effectivePermissions = effectivePermissions;
+    }
+
     @Override
     public boolean equals(Object obj) {
         return super.equals(obj);
@@ -1,11 +1,13 @@
 package com.humano.security;
 
+import com.humano.config.cache.CacheInvalidationBus;
 import com.humano.config.multitenancy.TenantContext;
 import com.humano.domain.shared.Authority;
 import com.humano.domain.shared.Permission;
 import com.humano.repository.shared.AuthorityRepository;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,28 +27,42 @@ import org.springframework.transaction.annotation.Transactional;
  * <p>
  * Each tenant's map is loaded lazily on first access and cached as an immutable snapshot.
  * After mutating a tenant's authorities/permissions, call {@link #evictCurrentTenant()} (or
- * {@link #refreshPermissionCache()}) so the next read reflects the change. The cache is safe
+ * {@link #refreshPermissionCache()}) so the next read reflects the change; both go through the
+ * {@link CacheInvalidationBus}, so every node drops the tenant's snapshot. The cache is safe
  * for concurrent access and resolves correctly on {@code @Async} workers, since
  * {@code TenantAwareTaskDecorator} propagates {@link TenantContext}.
  * <p>
+ * Every snapshot carries a version stamp, new on each load, so evicting or refreshing a tenant
+ * also invalidates the {@link EffectivePermissions} that {@link #resolve} built from the old
+ * snapshot and {@link SecurityExpressions} keeps on the principal.
+ * <p>
  * This service does not seed — seeding is owned solely by {@code TenantInitializationService},
  * anchored to the same constants the {@code @RequirePermission} gates check.
  */
 @Service
 public class AuthorityPermissionService {
 
+    /** Name under which tenants' permission snapshots are invalidated on the {@link CacheInvalidationBus}. */
+    public static final String CACHE_NAME = "authority-permissions";
+
     private final Logger log = LoggerFactory.getLogger(AuthorityPermissionService.class);
 
     private final AuthorityRepository authorityRepository;
+    private final CacheInvalidationBus invalidationBus;
 
     /**
-     * Per-tenant cache: {@code tenantId -> (authorityName -> {permissionName})}. Inner maps
-     * and sets are immutable snapshots, so reads never need synchronization.
+     * Per-tenant cache: {@code tenantId -> (version, authorityName -> {permissionName})}. Inner
+     * maps and sets are immutable snapshots, so reads never need synchronization.
      */
-    private final Map<String, Map<String, Set<String>>> cache = new ConcurrentHashMap<>();
+    private final Map<String, TenantPermissions> cache = new ConcurrentHashMap<>();
+
+    /** Source of snapshot versions; unique across tenants, so a stale stamp can never match again. */
+    private final AtomicLong versions = new AtomicLong();
 
-    public AuthorityPermissionService(AuthorityRepository authorityRepository) {
+    public AuthorityPermissionService(AuthorityRepository authorityRepository, CacheInvalidationBus invalidationBus) {
         this.authorityRepository = authorityRepository;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(CACHE_NAME, cache::remove);
     }
 
     // ==================== cache resolution ====================
@@ -64,6 +80,10 @@ public class AuthorityPermissionService {
 
     /** Lazily resolve the calling tenant's authority→permission map. */
     private Map<String, Set<String>> tenantMap() {
+        return tenantPermissions().byAuthority();
+    }
+
+    private TenantPermissions tenantPermissions() {
         return cache.computeIfAbsent(currentTenantKey(), key -> loadForCurrentTenant());
     }
 
@@ -72,7 +92,7 @@ public class AuthorityPermissionService {
      * fetch-join query so the permission collections are materialized in one round-trip and
      * no open session is required when this runs from the {@code computeIfAbsent} lambda.
      */
-    private Map<String, Set<String>> loadForCurrentTenant() {
+    private TenantPermissions loadForCurrentTenant() {
         Map<String, Set<String>> map = new HashMap<>();
         for (Authority authority : authorityRepository.findAllWithPermissions()) {
             Set<String> permissionNames = authority
@@ -83,33 +103,64 @@ public class AuthorityPermissionService {
             map.put(authority.getName(), permissionNames);
         }
         log.debug("Loaded permission cache for tenant '{}' with {} authorities", currentTenantKey(), map.size());
-        return Map.copyOf(map);
+        return new TenantPermissions(versions.incrementAndGet(), Map.copyOf(map));
     }
 
     /**
-     * Evict the calling tenant's cached mapping; the next read reloads it. Call this after
-     * mutating authorities or permissions in the current tenant.
+     * Evict the calling tenant's cached mapping on every node; the next read reloads it. Call
+     * this after mutating authorities or permissions in the current tenant.
      */
     public void evictCurrentTenant() {
-        cache.remove(currentTenantKey());
+        invalidationBus.publish(CACHE_NAME, currentTenantKey());
     }
 
     /**
      * Rebuild the calling tenant's cached mapping immediately (evict + reload), so the new
-     * mapping is visible without waiting for the next read.
+     * mapping is visible without waiting for the next read. Other nodes evict theirs.
      */
     @Transactional(readOnly = true)
     public void refreshPermissionCache() {
-        cache.put(currentTenantKey(), loadForCurrentTenant());
+        String tenantKey = currentTenantKey();
+        invalidationBus.publish(CACHE_NAME, tenantKey);
+        cache.put(tenantKey, loadForCurrentTenant());
     }
 
-    /** Drop every tenant's cache (e.g. for tests). */
+    /** Drop every tenant's cache on this node (e.g. for tests). */
     public void clearAllCaches() {
         cache.clear();
     }
 
     // ==================== queries ====================
 
+    /**
+     * Resolve the union of permissions granted by {@code authorities} in the calling tenant as
+     * a bitset stamped with the current version of the tenant's cache.
+     *
+     * @param authorities the authority names, typically all of one authentication's
+     * @return the effective permissions; keep them until {@link #isCurrent} says otherwise
+     */
+    public EffectivePermissions resolve(Collection<String> authorities) {
+        TenantPermissions tenant = tenantPermissions();
+        List<String> granted = new ArrayList<>();
+        for (String authority : authorities) {
+            Set<String> permissions = tenant.byAuthority().get(authority);
+            if (permissions != null) {
+                granted.addAll(permissions);
+            }
+        }
+        return EffectivePermissions.of(currentTenantKey(), tenant.version(), granted);
+    }
+
+    /**
+     * Whether {@code permissions} were resolved in the calling tenant from its current cache
+     * snapshot, i.e. the tenant has not been evicted or refreshed since. Never loads.
+     */
+    public boolean isCurrent(EffectivePermissions permissions) {
+        String tenantKey = currentTenantKey();
+        TenantPermissions tenant = cache.get(tenantKey);
+        return tenant != null && tenant.version() == permissions.getVersion() && tenantKey.equals(permissions.getTenantKey());
+    }
+
     /**
      * Check if an authority grants a permission <em>in the calling tenant</em>.
      *
@@ -166,4 +217,6 @@ public class AuthorityPermissionService {
         }
         return authorities;
     }
+
+    private record TenantPermissions(long version, Map<String, Set<String>> byAuthority) {}
 }
@@ -0,0 +1,90 @@
+package com.humano.security;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The permissions one authentication holds in one tenant, resolved once from all of its
+ * authorities by {@link AuthorityPermissionService#resolve} and kept on the
+ * {@link AuthenticatedUser} principal, so {@link SecurityExpressions#hasPermission} is a bit test
+ * instead of a walk over the authorities.
+ * <p>
+ * Every constant of {@link PermissionsConstants} has a fixed bit (its declaration order); a
+ * permission that exists only in a tenant's database is kept in a small side set, so such
+ * grants still resolve. The snapshot carries the tenant and the version of the tenant's
+ * permission cache it was built from; {@link AuthorityPermissionService#isCurrent} compares
+ * them, so {@code evictCurrentTenant}/{@code refreshPermissionCache} invalidate it.
+ */
+public final class EffectivePermissions {
+
+    private static final Map<String, Integer> BIT_BY_PERMISSION = indexPermissionConstants();
+
+    private final String tenantKey;
+    private final long version;
+    private final long[] bits;
+    private final Set<String> unindexed;
+
+    private EffectivePermissions(String tenantKey, long version, long[] bits, Set<String> unindexed) {
+        this.tenantKey = tenantKey;
+        this.version = version;
+        this.bits = bits;
+        this.unindexed = unindexed;
+    }
+
+    /**
+     * @param tenantKey the tenant the permissions were resolved in
+     * @param version   the version of that tenant's permission cache
+     * @param permissions the permission names granted
+     */
+    public static EffectivePermissions of(String tenantKey, long version, Collection<String> permissions) {
+        long[] bits = new long[(BIT_BY_PERMISSION.size() + 63) / 64];
+        Set<String> unindexed = new HashSet<>();
+        for (String permission : permissions) {
+            Integer bit = BIT_BY_PERMISSION.get(permission);
+            if (bit != null) {
+                bits[bit >>> 6] |= 1L << bit;
+            } else {
+                unindexed.add(permission);
+            }
+        }
+        return new EffectivePermissions(tenantKey, version, bits, Set.copyOf(unindexed));
+    }
+
+    public boolean contains(String permission) {
+        Integer bit = BIT_BY_PERMISSION.get(permission);
+        if (bit != null) {
+            return (bits[bit >>> 6] & (1L << bit)) != 0;
+        }
+        return unindexed.contains(permission);
+    }
+
+    public String getTenantKey() {
+        return tenantKey;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /** The constants of {@link PermissionsConstants}, numbered in declaration order. */
+    private static Map<String, Integer> indexPermissionConstants() {
+        Map<String, Integer> index = new HashMap<>();
+        for (Field field : PermissionsConstants.class.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (field.getType() != String.class || !Modifier.isStatic(modifiers) || !Modifier.isPublic(modifiers)) {
+                continue;
+            }
+            try {
+                index.putIfAbsent((String) field.get(null), index.size());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot read permission constant " + field.getName(), e);
+            }
+        }
+        return Map.copyOf(index);
+    }
+}
@@ -6,7 +6,8 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Utility class for Spring Security expressions in method-level security annotations.
@@ -24,6 +25,11 @@ public class SecurityExpressions {
 
     /**
      * Check if the current user has a specific permission based on their roles.
+     * <p>
+     * The user's effective permissions are resolved once per authentication and kept on the
+     * {@link AuthenticatedUser} principal; later checks are a bit test, re-resolved only when
+     * the tenant's permission cache has been evicted or refreshed since. Other principals
+     * (tests, system contexts) resolve on every call.
      *
      * @param permission the permission to check for
      * @return true if the user has the permission, false otherwise
@@ -33,15 +39,7 @@ public class SecurityExpressions {
         if (authentication == null) {
             return false;
         }
-
-        Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        for (GrantedAuthority authority : authorities) {
-            if (authorityPermissionService.hasPermission(authority.getAuthority(), permission)) {
-                return true;
-            }
-        }
-
-        return false;
+        return effectivePermissions(authentication).contains(permission);
     }
 
     /**
@@ -73,4 +71,21 @@ public class SecurityExpressions {
         }
         return true;
     }
+
+    private EffectivePermissions effectivePermissions(Authentication authentication) {
+        AuthenticatedUser user = authentication.getPrincipal() instanceof AuthenticatedUser principal ? principal : null;
+        EffectivePermissions cached = user != null ? user.getEffectivePermissions() : null;
+        if (cached != null && authorityPermissionService.isCurrent(cached)) {
+            return cached;
+        }
+        List<String> authorities = new ArrayList<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        EffectivePermissions resolved = authorityPermissionService.resolve(authorities);
+        if (user != null) {
+            user.setEffectivePermissions(resolved);
+        }
+        return resolved;
+    }
 }
@@ -56,7 +56,13 @@ public class MailService {
         sendEmailSync(to, subject, content, isMultipart, isHtml);
     }
 
-    private void sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+    /**
+     * Sends on the calling thread. For callers that already run on their own sender thread,
+     * such as the notification mail queue; failures are logged, not thrown.
+     *
+     * @return whether the mail server accepted the email
+     */
+    public boolean sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         LOG.debug(
             "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
@@ -76,8 +82,10 @@ public class MailService {
             message.setText(content, isHtml);
             javaMailSender.send(mimeMessage);
             LOG.debug("Sent email to User '{}'", to);
+            return true;
         } catch (MailException | MessagingException e) {
             LOG.warn("Email could not be sent to user '{}'", to, e);
+            return false;
         }
     }
 
@@ -0,0 +1,231 @@
+package com.humano.service.audit;
+
+import com.humano.config.AuditProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.domain.audit.AuditEvent;
+import com.humano.repository.audit.AuditEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bounded in-memory buffer plus one background writer for audit events, so audited actions
+ * do not pay for the insert on their own request.
+ *
+ * <p>{@link #submit} captures the calling thread's tenant and offers the event to a fixed-size
+ * queue ({@code humano.audit.pipeline.capacity}). A full queue applies
+ * {@code humano.audit.pipeline.overflow}: the caller writes its own event synchronously
+ * ({@code CALLER_WRITES}, the default, which slows callers down instead of losing events) or the
+ * event is discarded ({@code DROP}).
+ *
+ * <p>The writer thread blocks for the first event, then drains whatever else is queued (up to
+ * {@code max-batch-size}), groups the batch by tenant and inserts each group with one
+ * {@code saveAll} in its own tenant transaction; ids are generated in memory, so Hibernate sends
+ * the group as JDBC batches. A group that fails is retried row by row so one bad event cannot
+ * take its neighbours down. On shutdown the writer drains the queue for up to
+ * {@code shutdown-timeout}.
+ *
+ * <p>Metrics: {@code audit.pipeline.events{outcome}} (written, caller_written, dropped, failed),
+ * the {@code audit.pipeline.queue.size} gauge, {@code audit.pipeline.lag} (submit to insert)
+ * and {@code audit.pipeline.batch} (one tenant group's insert).
+ */
+@Service
+public class AuditEventPipeline implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuditEventPipeline.class);
+    private static final long POLL_MILLIS = 200;
+
+    private final AuditEventRepository auditEventRepository;
+    private final AuditProperties.Pipeline properties;
+    private final TransactionTemplate requiresNew;
+    private final BlockingQueue<Pending> buffer;
+    private final Counter written;
+    private final Counter callerWritten;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer lag;
+    private final Timer batchTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditEventPipeline(
+        AuditEventRepository auditEventRepository,
+        AuditProperties auditProperties,
+        @Qualifier("tenantTransactionManager") PlatformTransactionManager tenantTransactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.auditEventRepository = auditEventRepository;
+        this.properties = auditProperties.getPipeline();
+        // Own transaction even when submitted from an afterCommit callback, where the finished
+        // transaction's resources are still bound to the thread.
+        this.requiresNew = new TransactionTemplate(tenantTransactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, properties.getCapacity()));
+        this.written = meterRegistry.counter("audit.pipeline.events", "outcome", "written");
+        this.callerWritten = meterRegistry.counter("audit.pipeline.events", "outcome", "caller_written");
+        this.dropped = meterRegistry.counter("audit.pipeline.events", "outcome", "dropped");
+        this.failed = meterRegistry.counter("audit.pipeline.events", "outcome", "failed");
+        this.lag = meterRegistry.timer("audit.pipeline.lag");
+        this.batchTimer = meterRegistry.timer("audit.pipeline.batch");
+        Gauge.builder("audit.pipeline.queue.size", buffer, BlockingQueue::size)
+            .description("Audit events waiting for the background writer")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queues {@code event} for the current tenant. Before the pipeline has started (or after it
+     * stopped) the event is written synchronously instead.
+     */
+    public void submit(AuditEvent event) {
+        Pending pending = new Pending(TenantContext.getCurrentTenant(), event, System.nanoTime());
+        if (!running) {
+            writeOne(pending, callerWritten);
+            return;
+        }
+        if (buffer.offer(pending)) {
+            return;
+        }
+        if (properties.getOverflow() == AuditProperties.Overflow.DROP) {
+            dropped.increment();
+            LOG.warn("Audit buffer full; dropped {} event for {} {}", event.getAction(), event.getTargetType(), event.getTargetId());
+            return;
+        }
+        writeOne(pending, callerWritten);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "humano-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            LOG.error("Audit writer stopped with {} events still buffered; they are lost", buffer.size());
+            dropped.increment(buffer.size());
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>();
+        int maxBatch = Math.max(1, properties.getMaxBatchSize());
+        while (running || !buffer.isEmpty()) {
+            try {
+                Pending first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Never let the writer die over one batch.
+                LOG.error("Audit writer failed on a batch of {} events", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Pending> batch) {
+        Map<String, List<Pending>> byTenant = new HashMap<>();
+        for (Pending pending : batch) {
+            byTenant.computeIfAbsent(pending.tenantId(), t -> new ArrayList<>()).add(pending);
+        }
+        byTenant.forEach((tenantId, group) -> {
+            bindTenant(tenantId);
+            try {
+                List<AuditEvent> events = group.stream().map(Pending::event).toList();
+                batchTimer.record(() -> requiresNew.executeWithoutResult(status -> auditEventRepository.saveAll(events)));
+                recordWritten(group, written);
+            } catch (RuntimeException e) {
+                LOG.warn("Batch insert of {} audit events for tenant {} failed; retrying one by one", group.size(), tenantId, e);
+                for (Pending pending : group) {
+                    writeOne(pending, written);
+                }
+            } finally {
+                TenantContext.clear();
+            }
+        });
+    }
+
+    /** Writes one event under its own tenant, restoring the caller's tenant afterwards. */
+    private void writeOne(Pending pending, Counter outcome) {
+        String previous = TenantContext.getCurrentTenant();
+        bindTenant(pending.tenantId());
+        try {
+            // A failed batch may have assigned an id already; a fresh id keeps this a plain insert.
+            pending.event().setId(null);
+            requiresNew.executeWithoutResult(status -> auditEventRepository.save(pending.event()));
+            recordWritten(List.of(pending), outcome);
+        } catch (RuntimeException e) {
+            failed.increment();
+            LOG.error(
+                "Failed to write audit_event action={} targetType={} targetId={}",
+                pending.event().getAction(),
+                pending.event().getTargetType(),
+                pending.event().getTargetId(),
+                e
+            );
+        } finally {
+            bindTenant(previous);
+        }
+    }
+
+    private void recordWritten(List<Pending> pendings, Counter outcome) {
+        long now = System.nanoTime();
+        for (Pending pending : pendings) {
+            lag.record(now - pending.submittedAt(), TimeUnit.NANOSECONDS);
+        }
+        outcome.increment(pendings.size());
+    }
+
+    private static void bindTenant(String tenantId) {
+        if (tenantId != null) {
+            TenantContext.setCurrentTenant(tenantId);
+        } else {
+            TenantContext.clear();
+        }
+    }
+
+    private record Pending(String tenantId, AuditEvent event, long submittedAt) {}
+}
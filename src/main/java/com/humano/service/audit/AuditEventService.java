@@ -1,5 +1,6 @@
 package com.humano.service.audit;
 
+import com.humano.config.AuditProperties;
 import com.humano.domain.audit.AuditEvent;
 import com.humano.repository.audit.AuditEventRepository;
 import com.humano.security.SecurityUtils;
@@ -10,6 +11,8 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
@@ -32,6 +35,10 @@ import org.springframework.web.context.request.ServletRequestAttributes;
  *       without the offending field. Off-thread invocations (scheduled
  *       jobs, async listeners) simply produce a row with no IP/UA.</li>
  * </ul>
+ * <p>
+ * {@link #recordAfterCommit} is the deferred variant used by {@code @Auditable}: the event is
+ * built on the calling thread, but only handed to the {@link AuditEventPipeline} once the
+ * caller's transaction has committed, and inserted by its background writer.
  */
 @Service
 public class AuditEventService {
@@ -40,9 +47,13 @@ public class AuditEventService {
     private static final int USER_AGENT_MAX_LEN = 512;
 
     private final AuditEventRepository auditEventRepository;
+    private final AuditEventPipeline pipeline;
+    private final boolean pipelineEnabled;
 
-    public AuditEventService(AuditEventRepository auditEventRepository) {
+    public AuditEventService(AuditEventRepository auditEventRepository, AuditEventPipeline pipeline, AuditProperties auditProperties) {
         this.auditEventRepository = auditEventRepository;
+        this.pipeline = pipeline;
+        this.pipelineEnabled = auditProperties.getPipeline().isEnabled();
     }
 
     /**
@@ -55,6 +66,37 @@ public class AuditEventService {
      * @param payload    free-form key/value snapshot — before/after values, decision metadata, etc.
      */
     public AuditEvent record(String action, String targetType, String targetId, Map<String, Object> payload) {
+        return auditEventRepository.save(buildEvent(action, targetType, targetId, payload));
+    }
+
+    /**
+     * Record a completed action without writing on the caller's thread. Actor, time and request
+     * context are captured now; the row is queued once the surrounding transaction commits (at
+     * once when there is none) and never written if it rolls back. Unlike {@link #record}, a
+     * committed action whose event is lost (node crash, {@code DROP} overflow) stays unaudited.
+     * With {@code humano.audit.pipeline.enabled=false} this is {@link #record}.
+     */
+    public void recordAfterCommit(String action, String targetType, String targetId, Map<String, Object> payload) {
+        if (!pipelineEnabled) {
+            record(action, targetType, targetId, payload);
+            return;
+        }
+        AuditEvent event = buildEvent(action, targetType, targetId, payload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        pipeline.submit(event);
+                    }
+                }
+            );
+        } else {
+            pipeline.submit(event);
+        }
+    }
+
+    private AuditEvent buildEvent(String action, String targetType, String targetId, Map<String, Object> payload) {
         if (action == null || action.isBlank()) {
             throw new IllegalArgumentException("action is required for audit_event");
         }
@@ -69,7 +111,7 @@ public class AuditEventService {
         event.setOccurredAt(Instant.now());
         event.setPayloadJson(payload != null ? new HashMap<>(payload) : new HashMap<>());
         applyRequestContext(event);
-        return auditEventRepository.save(event);
+        return event;
     }
 
     /**
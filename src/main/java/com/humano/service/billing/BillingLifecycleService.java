@@ -1,5 +1,6 @@
 package com.humano.service.billing;
 
+import com.humano.config.multitenancy.TenantIteration;
 import com.humano.domain.billing.Invoice;
 import com.humano.domain.billing.Subscription;
 import com.humano.domain.enumeration.billing.InvoiceStatus;
@@ -16,12 +17,17 @@ import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service for managing the billing lifecycle.
@@ -30,6 +36,12 @@ import org.springframework.transaction.annotation.Transactional;
  * - Trial expirations
  * - Overdue invoice handling
  * - Tenant suspension/reactivation
+ * <p>
+ * The daily crons fan out through {@link TenantIteration#forEachAdaptive}: the
+ * due rows are listed once, then each row is re-read and processed in its own
+ * master transaction on the tenant-iteration pool, so a slow payment or mail
+ * call for one tenant no longer holds up every tenant after it, and one failed
+ * row no longer rolls back the rows processed before it.
  */
 @Service
 public class BillingLifecycleService {
@@ -50,6 +62,8 @@ public class BillingLifecycleService {
     private final BillingMailService billingMailService;
     private final TenantAdminEmailResolver adminEmailResolver;
     private final CouponService couponService;
+    private final TenantIteration tenantIteration;
+    private final TransactionTemplate perItemTx;
     private final MeterRegistry meterRegistry;
 
     public BillingLifecycleService(
@@ -60,6 +74,8 @@ public class BillingLifecycleService {
         BillingMailService billingMailService,
         TenantAdminEmailResolver adminEmailResolver,
         CouponService couponService,
+        TenantIteration tenantIteration,
+        @Qualifier("masterTransactionManager") PlatformTransactionManager masterTransactionManager,
         MeterRegistry meterRegistry
     ) {
         this.subscriptionRepository = subscriptionRepository;
@@ -69,6 +85,8 @@ public class BillingLifecycleService {
         this.billingMailService = billingMailService;
         this.adminEmailResolver = adminEmailResolver;
         this.couponService = couponService;
+        this.tenantIteration = tenantIteration;
+        this.perItemTx = new TransactionTemplate(masterTransactionManager);
         this.meterRegistry = meterRegistry;
     }
 
@@ -88,7 +106,7 @@ public class BillingLifecycleService {
      * Generates invoices for subscriptions nearing their renewal date.
      */
     @Scheduled(cron = "0 0 2 * * *") // Run at 2 AM daily
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processSubscriptionRenewals() {
         timeTick("processSubscriptionRenewals", this::processSubscriptionRenewalsBody);
     }
@@ -102,20 +120,14 @@ public class BillingLifecycleService {
             renewalThreshold
         );
 
-        int processed = 0;
-        int failed = 0;
-
-        for (Subscription subscription : subscriptionsDue) {
-            try {
-                processRenewal(subscription);
-                processed++;
-            } catch (Exception e) {
-                log.error("Failed to process renewal for subscription: {}", subscription.getId(), e);
-                failed++;
-            }
-        }
+        TenantIteration.Result result = tenantIteration.forEachAdaptive(
+            "processSubscriptionRenewals",
+            subscriptionsDue,
+            BillingLifecycleService::subdomainOf,
+            due -> inItemTransaction(() -> subscriptionRepository.findById(due.getId()).ifPresent(this::processRenewal))
+        );
 
-        log.info("Subscription renewal processing completed. Processed: {}, Failed: {}", processed, failed);
+        log.info("Subscription renewal processing completed. Processed: {}, Failed: {}", result.succeeded(), result.failed());
     }
 
     /**
@@ -123,7 +135,7 @@ public class BillingLifecycleService {
      * Handles trials that are about to expire or have expired.
      */
     @Scheduled(cron = "0 0 3 * * *") // Run at 3 AM daily
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processTrialExpirations() {
         timeTick("processTrialExpirations", this::processTrialExpirationsBody);
     }
@@ -134,25 +146,27 @@ public class BillingLifecycleService {
         Instant now = Instant.now();
         List<Subscription> expiringTrials = subscriptionRepository.findExpiringTrials(now);
 
-        int expired = 0;
-        int warned = 0;
+        AtomicInteger expired = new AtomicInteger();
+        AtomicInteger warned = new AtomicInteger();
 
-        for (Subscription subscription : expiringTrials) {
-            try {
+        tenantIteration.forEachAdaptive("processTrialExpirations", expiringTrials, BillingLifecycleService::subdomainOf, trial ->
+            inItemTransaction(() -> {
+                Subscription subscription = subscriptionRepository.findById(trial.getId()).orElse(null);
+                if (subscription == null) {
+                    return;
+                }
                 if (subscription.getTrialEnd().isBefore(now)) {
                     expireTrial(subscription);
-                    expired++;
+                    expired.incrementAndGet();
                 } else {
                     // Trial expiring soon - send warning
                     sendTrialExpiryWarning(subscription);
-                    warned++;
+                    warned.incrementAndGet();
                 }
-            } catch (Exception e) {
-                log.error("Failed to process trial expiration for subscription: {}", subscription.getId(), e);
-            }
-        }
+            })
+        );
 
-        log.info("Trial expiration processing completed. Expired: {}, Warned: {}", expired, warned);
+        log.info("Trial expiration processing completed. Expired: {}, Warned: {}", expired.get(), warned.get());
     }
 
     /**
@@ -160,7 +174,7 @@ public class BillingLifecycleService {
      * Marks invoices as overdue and handles tenant suspension.
      */
     @Scheduled(cron = "0 0 4 * * *") // Run at 4 AM daily
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processOverdueInvoices() {
         timeTick("processOverdueInvoices", this::processOverdueInvoicesBody);
     }
@@ -171,33 +185,43 @@ public class BillingLifecycleService {
         Instant now = Instant.now();
         List<Invoice> pendingInvoices = invoiceRepository.findByStatus(InvoiceStatus.PENDING);
 
-        int markedOverdue = 0;
-        int suspended = 0;
-
-        for (Invoice invoice : pendingInvoices) {
-            try {
-                if (invoice.getDueDate().isBefore(now)) {
+        AtomicInteger markedOverdue = new AtomicInteger();
+        AtomicInteger suspended = new AtomicInteger();
+
+        // Only past-due rows are worth a worker slot; the rest are left untouched as before.
+        List<Invoice> overdue = pendingInvoices.stream().filter(invoice -> invoice.getDueDate().isBefore(now)).toList();
+        tenantIteration.forEachAdaptive(
+            "processOverdueInvoices",
+            overdue,
+            invoice -> invoice.getTenant() != null ? invoice.getTenant().getSubdomain() : null,
+            due ->
+                inItemTransaction(() -> {
+                    Invoice invoice = invoiceRepository.findById(due.getId()).orElse(null);
+                    if (invoice == null || invoice.getStatus() != InvoiceStatus.PENDING) {
+                        return;
+                    }
                     // Mark as overdue
                     invoice.setStatus(InvoiceStatus.OVERDUE);
                     invoiceRepository.save(invoice);
-                    markedOverdue++;
+                    markedOverdue.incrementAndGet();
 
                     // Check if past grace period - suspend tenant
                     Instant gracePeriodEnd = invoice.getDueDate().plus(GRACE_PERIOD_DAYS, ChronoUnit.DAYS);
                     if (gracePeriodEnd.isBefore(now)) {
                         suspendTenantForNonPayment(invoice.getTenant(), invoice.getSubscription());
-                        suspended++;
+                        suspended.incrementAndGet();
                     } else {
                         // Send payment reminder
                         sendPaymentReminder(invoice);
                     }
-                }
-            } catch (Exception e) {
-                log.error("Failed to process overdue invoice: {}", invoice.getId(), e);
-            }
-        }
+                })
+        );
 
-        log.info("Overdue invoice processing completed. Marked overdue: {}, Suspended: {}", markedOverdue, suspended);
+        log.info(
+            "Overdue invoice processing completed. Marked overdue: {}, Suspended: {}",
+            markedOverdue.get(),
+            suspended.get()
+        );
     }
 
     /**
@@ -205,7 +229,7 @@ public class BillingLifecycleService {
      * Cancels subscriptions that are marked for cancellation at period end.
      */
     @Scheduled(cron = "0 0 5 * * *") // Run at 5 AM daily
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void processPendingCancellations() {
         timeTick("processPendingCancellations", this::processPendingCancellationsBody);
     }
@@ -216,18 +240,26 @@ public class BillingLifecycleService {
         Instant now = Instant.now();
         List<Subscription> pendingCancellations = subscriptionRepository.findByCancelAtPeriodEndTrueAndCurrentPeriodEndBefore(now);
 
-        int cancelled = 0;
+        TenantIteration.Result result = tenantIteration.forEachAdaptive(
+            "processPendingCancellations",
+            pendingCancellations,
+            BillingLifecycleService::subdomainOf,
+            pending -> inItemTransaction(() -> subscriptionRepository.findById(pending.getId()).ifPresent(this::cancelSubscription))
+        );
 
-        for (Subscription subscription : pendingCancellations) {
-            try {
-                cancelSubscription(subscription);
-                cancelled++;
-            } catch (Exception e) {
-                log.error("Failed to process cancellation for subscription: {}", subscription.getId(), e);
-            }
-        }
+        log.info("Pending cancellation processing completed. Cancelled: {}", result.succeeded());
+    }
+
+    /**
+     * Runs one cron row in its own master transaction. The row is re-read inside
+     * it: the listed entity belongs to the listing query's (closed) session.
+     */
+    private void inItemTransaction(Runnable body) {
+        perItemTx.executeWithoutResult(status -> body.run());
+    }
 
-        log.info("Pending cancellation processing completed. Cancelled: {}", cancelled);
+    private static String subdomainOf(Subscription subscription) {
+        return subscription.getTenant() != null ? subscription.getTenant().getSubdomain() : null;
     }
 
     // ========== RENEWAL PROCESSING ==========
@@ -1,5 +1,6 @@
 package com.humano.service.billing;
 
+import com.humano.config.multitenancy.TenantIteration;
 import com.humano.domain.billing.Invoice;
 import com.humano.domain.billing.Payment;
 import com.humano.domain.billing.Subscription;
@@ -14,15 +15,21 @@ import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * P4.4 — Dunning state machine for failed payments.
@@ -65,6 +72,16 @@ import org.springframework.transaction.annotation.Transactional;
  * re-runs: if a row was already processed today the tick is a no-op for it.
  * Operators triggering a manual run via {@link #runDunningCycle()} get a
  * fresh pass.
+ * <p>
+ * <b>Fan-out.</b> Subscriptions are processed in parallel through
+ * {@link TenantIteration#forEachAdaptive}, under the same node-wide and
+ * per-database-server limits as the other scheduled jobs, so one tenant's slow
+ * payment-provider call does not delay every subscription after it. Each
+ * subscription is re-read by id in short master transactions before and after
+ * its payment retry, so changes made since the tick listed it (a payment
+ * completing meanwhile, say) are seen rather than overwritten, and no
+ * connection is held across the provider call; one no longer PAST_DUE is
+ * skipped.
  */
 @Service
 public class DunningService {
@@ -77,6 +94,8 @@ public class DunningService {
     private final BillingMailService billingMailService;
     private final TenantAdminEmailResolver adminEmailResolver;
     private final ApplicationEventPublisher eventPublisher;
+    private final TenantIteration tenantIteration;
+    private final TransactionTemplate perItemTx;
     private final MeterRegistry meterRegistry;
     private final int maxAttempts;
 
@@ -87,6 +106,8 @@ public class DunningService {
         BillingMailService billingMailService,
         TenantAdminEmailResolver adminEmailResolver,
         ApplicationEventPublisher eventPublisher,
+        TenantIteration tenantIteration,
+        @Qualifier("masterTransactionManager") PlatformTransactionManager masterTransactionManager,
         MeterRegistry meterRegistry,
         @Value("${humano.billing.dunning.max-attempts:3}") int maxAttempts
     ) {
@@ -96,6 +117,8 @@ public class DunningService {
         this.billingMailService = billingMailService;
         this.adminEmailResolver = adminEmailResolver;
         this.eventPublisher = eventPublisher;
+        this.tenantIteration = tenantIteration;
+        this.perItemTx = new TransactionTemplate(masterTransactionManager);
         this.meterRegistry = meterRegistry;
         this.maxAttempts = maxAttempts;
     }
@@ -117,84 +140,119 @@ public class DunningService {
     private void runDunningCycleBody() {
         log.info("Dunning cycle starting (maxAttempts={})", maxAttempts);
         List<Subscription> past = subscriptionRepository.findByStatus(SubscriptionStatus.PAST_DUE);
-        int advanced = 0, retried = 0, cancelled = 0;
-        for (Subscription sub : past) {
-            try {
-                Outcome outcome = processSubscription(sub);
-                switch (outcome) {
-                    case RETRIED_SUCCESS -> retried++;
-                    case ADVANCED -> advanced++;
-                    case CANCELLED -> cancelled++;
-                    case SKIPPED -> {
-                        // idempotent same-day no-op; not a failure.
-                    }
+        // SKIPPED is counted too but not reported: an idempotent same-day no-op, not a failure.
+        Map<Outcome, AtomicInteger> outcomes = new EnumMap<>(Outcome.class);
+        for (Outcome outcome : Outcome.values()) {
+            outcomes.put(outcome, new AtomicInteger());
+        }
+        tenantIteration.forEachAdaptive(
+            "runDunningCycle",
+            past,
+            sub -> sub.getTenant() != null ? sub.getTenant().getSubdomain() : null,
+            sub -> {
+                try {
+                    outcomes.get(processSubscription(sub.getId())).incrementAndGet();
+                } catch (RuntimeException e) {
+                    log.error("Dunning failed for subscription {}: {}", sub.getId(), e.getMessage(), e);
+                    throw e;
                 }
-            } catch (RuntimeException e) {
-                log.error("Dunning failed for subscription {}: {}", sub.getId(), e.getMessage(), e);
             }
-        }
+        );
         log.info(
             "Dunning cycle complete: scanned={} advanced={} retriedSuccess={} cancelled={}",
             past.size(),
-            advanced,
-            retried,
-            cancelled
+            outcomes.get(Outcome.ADVANCED).get(),
+            outcomes.get(Outcome.RETRIED_SUCCESS).get(),
+            outcomes.get(Outcome.CANCELLED).get()
         );
     }
 
-    @Transactional
-    public Outcome processSubscription(Subscription sub) {
+    /**
+     * Runs one dunning step for the subscription, in three parts so that no transaction spans
+     * the payment provider call: a short master transaction re-reads the subscription, applies
+     * the same-day gate and advances the counter; the payment is then retried outside it, in
+     * {@link PaymentService#retryPayment}'s own transaction; a second short transaction re-reads
+     * the subscription and settles the outcome (back to ACTIVE, cancelled, or just advanced).
+     * The counter is committed before the retry, so a crash during it cannot retry twice a day.
+     */
+    public Outcome processSubscription(UUID subscriptionId) {
+        Attempt attempt = perItemTx.execute(status ->
+            subscriptionRepository
+                .findById(subscriptionId)
+                .filter(sub -> sub.getStatus() == SubscriptionStatus.PAST_DUE)
+                .map(this::advance)
+                .orElse(null)
+        );
+        if (attempt == null) {
+            return Outcome.SKIPPED;
+        }
+
+        if (attempt.paymentId() != null) {
+            try {
+                // Re-using externalPaymentId as the next-token: Stripe's PaymentIntent
+                // can be re-confirmed with its saved payment_method. PaymentService
+                // bumps retryCount, calls provider.charge, publishes
+                // PaymentFailedEvent on failure (P4.2 already wires the failure path).
+                // On success it marks the payment COMPLETED and the invoice +
+                // subscription cascade follows via PaymentService.completePayment's
+                // existing wiring.
+                paymentService.retryPayment(attempt.paymentId(), attempt.token());
+            } catch (RuntimeException e) {
+                log.warn("Dunning retry threw for subscription {}: {}", subscriptionId, e.getMessage());
+                // fall through to the cap check; PaymentService already published
+                // PaymentFailedEvent on its end so the tenant gets an email.
+            }
+        }
+
+        return perItemTx.execute(status ->
+            subscriptionRepository.findById(subscriptionId).map(sub -> settle(sub, attempt)).orElse(Outcome.SKIPPED)
+        );
+    }
+
+    /** Advances the counter of a PAST_DUE subscription, or returns null if it already ran today. */
+    private Attempt advance(Subscription sub) {
         // Idempotency gate: same calendar day, skip.
         if (sub.getLastDunningAt() != null && isSameUtcDay(sub.getLastDunningAt(), Instant.now())) {
             log.debug("Subscription {} already processed today; skipping", sub.getId());
-            return Outcome.SKIPPED;
+            return null;
         }
 
         int currentAttempt = sub.getDunningAttempt() + 1;
         sub.setDunningAttempt(currentAttempt);
         sub.setLastDunningAt(Instant.now());
+        subscriptionRepository.save(sub);
 
         // Find the invoice + payment to retry.
         Optional<Payment> lastFailedPayment = findLatestFailedPayment(sub);
         if (lastFailedPayment.isPresent() && lookLikeProviderId(lastFailedPayment.get().getExternalPaymentId())) {
             Payment toRetry = lastFailedPayment.get();
             log.info("Dunning attempt {} for subscription {}: retrying payment {}", currentAttempt, sub.getId(), toRetry.getId());
-            try {
-                // Re-using externalPaymentId as the next-token: Stripe's PaymentIntent
-                // can be re-confirmed with its saved payment_method. PaymentService
-                // bumps retryCount, calls provider.charge, publishes
-                // PaymentFailedEvent on failure (P4.2 already wires the failure path).
-                paymentService.retryPayment(toRetry.getId(), toRetry.getExternalPaymentId());
-                // On success PaymentService.retryPayment marks the payment COMPLETED
-                // and the invoice + subscription cascade follows via
-                // PaymentService.completePayment's existing wiring.
-                // Re-load fresh row so we observe the updated status.
-                Subscription refreshed = subscriptionRepository.findById(sub.getId()).orElse(sub);
-                if (refreshed.getStatus() == SubscriptionStatus.ACTIVE) {
-                    log.info("Dunning succeeded for subscription {}: back to ACTIVE", sub.getId());
-                    refreshed.setDunningAttempt(0);
-                    subscriptionRepository.save(refreshed);
-                    return Outcome.RETRIED_SUCCESS;
-                }
-            } catch (RuntimeException e) {
-                log.warn("Dunning retry threw for subscription {}: {}", sub.getId(), e.getMessage());
-                // fall through to the cap check; PaymentService already published
-                // PaymentFailedEvent on its end so the tenant gets an email.
-            }
-        } else {
-            log.info(
-                "Dunning attempt {} for subscription {}: no retryable payment (token absent); counter advanced only",
-                currentAttempt,
-                sub.getId()
-            );
+            return new Attempt(currentAttempt, toRetry.getId(), toRetry.getExternalPaymentId());
         }
+        log.info(
+            "Dunning attempt {} for subscription {}: no retryable payment (token absent); counter advanced only",
+            currentAttempt,
+            sub.getId()
+        );
+        return new Attempt(currentAttempt, null, null);
+    }
 
-        if (currentAttempt >= maxAttempts) {
+    /** Settles an attempt against the subscription as it is after the retry. */
+    private Outcome settle(Subscription sub, Attempt attempt) {
+        if (sub.getStatus() == SubscriptionStatus.ACTIVE && attempt.paymentId() != null) {
+            log.info("Dunning succeeded for subscription {}: back to ACTIVE", sub.getId());
+            sub.setDunningAttempt(0);
+            subscriptionRepository.save(sub);
+            return Outcome.RETRIED_SUCCESS;
+        }
+        if (sub.getStatus() != SubscriptionStatus.PAST_DUE) {
+            // Paid or cancelled by other means while the attempt ran.
+            return Outcome.SKIPPED;
+        }
+        if (attempt.number() >= maxAttempts) {
             cancelExhausted(sub);
             return Outcome.CANCELLED;
         }
-
-        subscriptionRepository.save(sub);
         return Outcome.ADVANCED;
     }
 
@@ -239,6 +297,9 @@ public class DunningService {
         return a.truncatedTo(ChronoUnit.DAYS).equals(b.truncatedTo(ChronoUnit.DAYS));
     }
 
+    /** A committed dunning attempt: its number, and the payment to retry with its token, if any. */
+    private record Attempt(int number, UUID paymentId, String token) {}
+
     public enum Outcome {
         ADVANCED,
         RETRIED_SUCCESS,
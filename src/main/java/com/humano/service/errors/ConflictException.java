@@ -0,0 +1,36 @@
+package com.humano.service.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a request conflicts with work already in progress on the same resource.
+ * This exception is mapped to an HTTP 409 Conflict response.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String errorCode;
+
+    /**
+     * Constructs a new conflict exception with the specified error code and message.
+     *
+     * @param errorCode a machine-readable error code
+     * @param message the detail message
+     */
+    public ConflictException(String errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * Returns the error code associated with this exception.
+     *
+     * @return the error code
+     */
+    public String getErrorCode() {
+        return errorCode;
+    }
+}
@@ -1,5 +1,6 @@
 package com.humano.service.hr;
 
+import com.humano.config.multitenancy.TenantContext;
 import com.humano.domain.enumeration.hr.EmployeeStatus;
 import com.humano.domain.hr.Department;
 import com.humano.domain.hr.OrganizationalUnit;
@@ -18,6 +19,8 @@ import com.humano.dto.hr.responses.EmployeeProfileResponse;
 import com.humano.dto.hr.responses.GovernmentIdentification;
 import com.humano.dto.hr.responses.ReferenceDataRef;
 import com.humano.dto.hr.responses.SimpleEmployeeProfileResponse;
+import com.humano.events.CompensationChangedEvent;
+import com.humano.events.EmployeeDeletedEvent;
 import com.humano.repository.hr.DepartmentRepository;
 import com.humano.repository.hr.EmployeeCategoryRepository;
 import com.humano.repository.hr.EmploymentTypeRepository;
@@ -36,18 +39,25 @@ import com.humano.security.AuthoritiesConstants;
 import com.humano.service.MailService;
 import com.humano.service.admin.UserAccountService;
 import com.humano.service.errors.EntityNotFoundException;
+import com.humano.service.hr.search.EmployeeSearchIndex;
 import com.humano.web.rest.errors.BadRequestAlertException;
 import com.humano.web.rest.errors.EmailAlreadyUsedException;
 import com.humano.web.rest.errors.LoginAlreadyUsedException;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -82,6 +92,8 @@ public class EmployeeProfileService {
     private final TerminationReasonRepository terminationReasonRepository;
     private final UserAccountService userAccountService;
     private final MailService mailService;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -101,7 +113,9 @@ public class EmployeeProfileService {
         EmployeeCategoryRepository employeeCategoryRepository,
         TerminationReasonRepository terminationReasonRepository,
         UserAccountService userAccountService,
-        MailService mailService
+        MailService mailService,
+        EmployeeSearchIndex employeeSearchIndex,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.employeeRepository = employeeRepository;
         this.userRepository = userRepository;
@@ -118,6 +132,8 @@ public class EmployeeProfileService {
         this.terminationReasonRepository = terminationReasonRepository;
         this.userAccountService = userAccountService;
         this.mailService = mailService;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -179,6 +195,7 @@ public class EmployeeProfileService {
 
         Employee savedEmployee = employeeRepository.save(employee);
         log.debug("Created employee profile with ID: {}", savedEmployee.getId());
+        publishCompensationChanged(savedEmployee.getId());
 
         return mapToEmployeeProfileResponse(savedEmployee);
     }
@@ -213,6 +230,8 @@ public class EmployeeProfileService {
                     log.info("Rewrote {} descendant path(s) after reparenting employee {}", rewritten, id);
                 }
 
+                // The department may have changed, which moves the employee between department summaries.
+                publishCompensationChanged(id);
                 return mapToEmployeeProfileResponse(saved);
             })
             .orElseThrow(() -> new EntityNotFoundException("Employee not found with ID: " + id));
@@ -264,6 +283,8 @@ public class EmployeeProfileService {
                     // Remove EMPLOYEE role
                     removeEmployeeAuthority(employee);
                     employeeRepository.delete(employee);
+                    eventPublisher.publishEvent(new EmployeeDeletedEvent(TenantContext.getCurrentTenant(), id));
+                    publishCompensationChanged(id);
                 },
                 () -> {
                     throw new EntityNotFoundException("Employee not found with ID: " + id);
@@ -283,6 +304,8 @@ public class EmployeeProfileService {
 
     /**
      * Search employees using multiple criteria with pagination.
+     * Text criteria are matched by the employee search index and ranked by relevance, which
+     * then takes precedence over the pageable's sort.
      *
      * @param searchRequest the search criteria
      * @param pageable pagination information
@@ -293,10 +316,6 @@ public class EmployeeProfileService {
         log.debug("Request to search Employees with criteria: {}", searchRequest);
 
         Specification<Employee> specification = EmployeeSpecification.withCriteria(
-            searchRequest.firstName(),
-            searchRequest.lastName(),
-            searchRequest.email(),
-            searchRequest.jobTitle(),
             searchRequest.phone(),
             searchRequest.status(),
             searchRequest.departmentId(),
@@ -309,11 +328,35 @@ public class EmployeeProfileService {
             searchRequest.endDateTo()
         );
 
-        if (searchRequest.query() != null && !searchRequest.query().isBlank()) {
-            specification = specification.and(EmployeeSpecification.matchesNameOrJobTitle(searchRequest.query()));
+        EmployeeSearchIndex.TextQuery text = new EmployeeSearchIndex.TextQuery(
+            searchRequest.query(),
+            searchRequest.firstName(),
+            searchRequest.lastName(),
+            searchRequest.email(),
+            searchRequest.jobTitle()
+        );
+        if (text.isEmpty()) {
+            return employeeRepository.findAll(specification, pageable).map(this::mapToSimpleEmployeeProfileResponse);
+        }
+
+        List<UUID> matches = employeeSearchIndex.search(text, specification);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(loadInOrder(matches).stream().map(this::mapToSimpleEmployeeProfileResponse).toList());
         }
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<SimpleEmployeeProfileResponse> content = loadInOrder(matches.subList(from, to))
+            .stream()
+            .map(this::mapToSimpleEmployeeProfileResponse)
+            .toList();
+        return new PageImpl<>(content, pageable, matches.size());
+    }
 
-        return employeeRepository.findAll(specification, pageable).map(this::mapToSimpleEmployeeProfileResponse);
+    /** The employees with the given IDs, in the order of {@code ids}. */
+    private List<Employee> loadInOrder(List<UUID> ids) {
+        Map<UUID, Employee> byId = new HashMap<>();
+        employeeRepository.findAllById(ids).forEach(employee -> byId.put(employee.getId(), employee));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     /**
@@ -751,4 +794,8 @@ public class EmployeeProfileService {
             employee.getPosition().getName()
         );
     }
+
+    private void publishCompensationChanged(UUID employeeId) {
+        eventPublisher.publishEvent(new CompensationChangedEvent(TenantContext.getCurrentTenant(), Set.of(employeeId)));
+    }
 }
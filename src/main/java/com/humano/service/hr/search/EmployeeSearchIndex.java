@@ -0,0 +1,224 @@
+package com.humano.service.hr.search;
+
+import com.humano.config.EmployeeSearchProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.domain.shared.Employee;
+import com.humano.repository.hr.projection.EmployeeSearchRow;
+import com.humano.repository.shared.EmployeeRepository;
+import com.humano.service.hr.search.EmployeeTextIndex.Clause;
+import com.humano.service.hr.search.EmployeeTextIndex.Field;
+import com.humano.service.hr.search.EmployeeTextIndex.Ranking;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-tenant, in-memory prefix index over employee names, emails and job titles, serving the
+ * text part of employee search without a {@code LIKE '%term%'} scan of {@code app_user}.
+ * <p>
+ * An employee's text lives in two tables ({@code app_user} and {@code employee}, joined
+ * inheritance), so no single database full-text index can cover it. Instead each node keeps
+ * an {@link EmployeeTextIndex} per tenant, built on first search from a projection of every
+ * employee and then kept current by syncing, at most every
+ * {@code humano.employee-search.refresh-interval}, the employees whose
+ * {@code last_modified_date} moved (an index range scan). This sees changes from every node
+ * and every write path. A full rebuild every {@code rebuild-interval} drops employees deleted
+ * on other nodes; until then their ids stay in the index but are filtered out by
+ * {@link #search}'s database check.
+ * <p>
+ * Metrics: {@code employee.search.index.duration} (time in the index),
+ * {@code employee.search.index.sync} (time of a delta sync).
+ */
+@Service
+public class EmployeeSearchIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+
+    /** Most ranked ids checked against the database in one query. */
+    private static final int MAX_IDS_PER_QUERY = 10_000;
+
+    /** Text criteria of an employee search; blank values are ignored. */
+    public record TextQuery(String query, String firstName, String lastName, String email, String jobTitle) {
+        public boolean isEmpty() {
+            return isBlank(query) && isBlank(firstName) && isBlank(lastName) && isBlank(email) && isBlank(jobTitle);
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isBlank();
+        }
+    }
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeSearchProperties properties;
+    private final Map<String, TenantIndex> indexes = new ConcurrentHashMap<>();
+    private final Timer searchTimer;
+    private final Timer syncTimer;
+
+    @PersistenceContext(unitName = "tenant")
+    private EntityManager entityManager;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository, EmployeeSearchProperties properties, MeterRegistry meterRegistry) {
+        this.employeeRepository = employeeRepository;
+        this.properties = properties;
+        this.searchTimer = meterRegistry.timer("employee.search.index.duration");
+        this.syncTimer = meterRegistry.timer("employee.search.index.sync");
+    }
+
+    /**
+     * Ids of the current tenant's employees that match {@code text} and {@code filter}, best
+     * match first, at most {@code humano.employee-search.max-results}. Each token of
+     * {@code query} must prefix a token of the first name, last name or job title; each token
+     * of a field criterion must prefix a token of that field. Must run in a tenant transaction.
+     * <p>
+     * The filter is applied before the limit: the ranking is read in pages, each checked
+     * against the database in one query, until enough matches pass or none are left.
+     */
+    public List<UUID> search(TextQuery text, Specification<Employee> filter) {
+        TenantIndex tenantIndex = current();
+        List<Clause> clauses = new ArrayList<>();
+        clauses.add(Clause.in(text.query(), Field.FIRST_NAME, Field.LAST_NAME, Field.JOB_TITLE));
+        clauses.add(Clause.in(text.firstName(), Field.FIRST_NAME));
+        clauses.add(Clause.in(text.lastName(), Field.LAST_NAME));
+        clauses.add(Clause.in(text.email(), Field.EMAIL));
+        clauses.add(Clause.in(text.jobTitle(), Field.JOB_TITLE));
+        long start = System.nanoTime();
+        Ranking ranking = tenantIndex.index.search(clauses);
+        long inIndex = System.nanoTime() - start;
+
+        int limit = properties.getMaxResults();
+        List<UUID> results = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (int page = limit; results.size() < limit && !ranking.isExhausted(); page = Math.min(page * 2, MAX_IDS_PER_QUERY)) {
+            start = System.nanoTime();
+            List<UUID> ranked = ranking.next(page);
+            inIndex += System.nanoTime() - start;
+            Set<UUID> passing = matching(ranked, filter);
+            for (UUID id : ranked) {
+                if (passing.contains(id) && results.size() < limit) {
+                    results.add(id);
+                }
+            }
+        }
+        searchTimer.record(inIndex, TimeUnit.NANOSECONDS);
+        return results;
+    }
+
+    /**
+     * Drops {@code id} from {@code tenant}'s index on this node, ahead of the next rebuild.
+     * Call once the deletion has committed, so a rollback does not hide a live employee.
+     */
+    public void remove(String tenant, UUID id) {
+        TenantIndex tenantIndex = indexes.get(tenant);
+        if (tenantIndex != null) {
+            tenantIndex.index.remove(id);
+        }
+    }
+
+    /** Those of {@code ids} that still exist and satisfy {@code filter}, in one query by primary key. */
+    Set<UUID> matching(List<UUID> ids, Specification<Employee> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<Employee> root = query.from(Employee.class);
+        Predicate byId = root.get("id").in(ids);
+        Predicate byFilter = filter != null ? filter.toPredicate(root, query, cb) : null;
+        query.select(root.<UUID>get("id")).where(byFilter != null ? cb.and(byId, byFilter) : byId);
+        return new HashSet<>(entityManager.createQuery(query).getResultList());
+    }
+
+    private TenantIndex current() {
+        String tenant = tenantKey();
+        TenantIndex tenantIndex = indexes.get(tenant);
+        if (tenantIndex == null) {
+            // Built outside the map: computeIfAbsent would hold a map lock, shared with other
+            // tenants, for the whole query. Concurrent first searches may each build; one wins.
+            TenantIndex built = build();
+            TenantIndex raced = indexes.putIfAbsent(tenant, built);
+            tenantIndex = raced != null ? raced : built;
+        }
+        long now = System.currentTimeMillis();
+        if (now - tenantIndex.syncedAt < properties.getRefreshInterval().toMillis() || !tenantIndex.syncing.compareAndSet(false, true)) {
+            return tenantIndex;
+        }
+        // One search per tenant refreshes; concurrent ones use the index as it is.
+        try {
+            if (now - tenantIndex.builtAt >= properties.getRebuildInterval().toMillis()) {
+                TenantIndex rebuilt = build();
+                indexes.put(tenant, rebuilt);
+                return rebuilt;
+            }
+            syncTimer.record(() -> sync(tenantIndex));
+            return tenantIndex;
+        } finally {
+            tenantIndex.syncing.set(false);
+        }
+    }
+
+    private TenantIndex build() {
+        long start = System.currentTimeMillis();
+        TenantIndex tenantIndex = new TenantIndex(start);
+        for (EmployeeSearchRow row : employeeRepository.findSearchRows()) {
+            tenantIndex.put(row);
+        }
+        LOG.debug(
+            "Built employee search index of tenant {}: {} employees in {} ms",
+            tenantKey(),
+            tenantIndex.index.size(),
+            System.currentTimeMillis() - start
+        );
+        return tenantIndex;
+    }
+
+    private void sync(TenantIndex tenantIndex) {
+        long start = System.currentTimeMillis();
+        Instant since = tenantIndex.newestModification.minus(properties.getSyncOverlap());
+        for (EmployeeSearchRow row : employeeRepository.findSearchRowsModifiedSince(since)) {
+            tenantIndex.put(row);
+        }
+        tenantIndex.syncedAt = start;
+    }
+
+    private static String tenantKey() {
+        String tenant = TenantContext.getCurrentTenant();
+        return tenant != null ? tenant : TenantContext.MASTER;
+    }
+
+    private static final class TenantIndex {
+
+        final EmployeeTextIndex index = new EmployeeTextIndex();
+        final long builtAt;
+        final AtomicBoolean syncing = new AtomicBoolean();
+        volatile long syncedAt;
+        /** Newest {@code last_modified_date} indexed; written under {@link #syncing} or before publication. */
+        volatile Instant newestModification = Instant.EPOCH;
+
+        TenantIndex(long builtAt) {
+            this.builtAt = builtAt;
+            this.syncedAt = builtAt;
+        }
+
+        void put(EmployeeSearchRow row) {
+            index.put(row.id(), row.firstName(), row.lastName(), row.email(), row.jobTitle());
+            if (row.lastModifiedDate() != null && row.lastModifiedDate().isAfter(newestModification)) {
+                newestModification = row.lastModifiedDate();
+            }
+        }
+    }
+}
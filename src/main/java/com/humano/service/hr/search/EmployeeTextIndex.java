@@ -0,0 +1,345 @@
+package com.humano.service.hr.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the searchable text of one tenant's employees, for
+ * prefix (typeahead) queries ranked by where and how well they match.
+ * <p>
+ * Each field is normalised (lower case, accents stripped) and split into tokens on anything
+ * that is not a letter or digit; {@code "Renée O'Brien-Smith"} indexes {@code renee},
+ * {@code o}, {@code brien} and {@code smith}. A sorted term dictionary maps every token to
+ * its postings, so the tokens a query prefix matches are one contiguous sub-map.
+ * <p>
+ * A query is a list of {@link Clause}s, all of which must match: every token of a clause's
+ * text must be a prefix of some token of the employee in one of the clause's fields. Each
+ * clause token scores the best of its matches: the field's weight, doubled when the whole
+ * token matched. Results are ordered by total score, then by last and first name.
+ * <p>
+ * Thread-safe: searches share a read lock; {@link #put} and {@link #remove} take the write
+ * lock for the few postings of one employee.
+ */
+final class EmployeeTextIndex {
+
+    /** Indexed fields, with the weight of a match in each. */
+    enum Field {
+        FIRST_NAME(3),
+        LAST_NAME(3),
+        JOB_TITLE(2),
+        EMAIL(1);
+
+        private final int weight;
+
+        Field(int weight) {
+            this.weight = weight;
+        }
+
+        int mask() {
+            return 1 << ordinal();
+        }
+    }
+
+    /** Text that must match in at least one of {@code fieldMask}'s fields. */
+    record Clause(String text, int fieldMask) {
+        static Clause in(String text, Field... fields) {
+            int mask = 0;
+            for (Field field : fields) {
+                mask |= field.mask();
+            }
+            return new Clause(text, mask);
+        }
+    }
+
+    private static final Pattern NON_TOKEN = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int FIELD_BITS = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Token to postings, each posting {@code ordinal << FIELD_BITS | field}. */
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    /** By ordinal; null for a removed employee whose ordinal is free for reuse. */
+    private final List<Document> documents = new ArrayList<>();
+    private final List<Integer> freeOrdinals = new ArrayList<>();
+
+    /** Indexes {@code id} with the given text, replacing what was indexed for it before. */
+    void put(UUID id, String firstName, String lastName, String email, String jobTitle) {
+        String[][] tokens = new String[Field.values().length][];
+        tokens[Field.FIRST_NAME.ordinal()] = tokenize(firstName);
+        tokens[Field.LAST_NAME.ordinal()] = tokenize(lastName);
+        tokens[Field.JOB_TITLE.ordinal()] = tokenize(jobTitle);
+        tokens[Field.EMAIL.ordinal()] = tokenize(email);
+        String sortKey = normalize((lastName != null ? lastName : "") + " " + (firstName != null ? firstName : ""));
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinals.get(id);
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+                unindex(ordinal);
+            } else if (!freeOrdinals.isEmpty()) {
+                ordinal = freeOrdinals.remove(freeOrdinals.size() - 1);
+            } else {
+                ordinal = documents.size();
+                documents.add(null);
+            }
+            ordinals.put(id, ordinal);
+            documents.set(ordinal, new Document(id, sortKey, tokens));
+            for (Field field : Field.values()) {
+                for (String token : tokens[field.ordinal()]) {
+                    terms.computeIfAbsent(token, t -> new Postings()).add(ordinal << FIELD_BITS | field.ordinal());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(id);
+            if (ordinal != null) {
+                unindex(ordinal);
+                documents.set(ordinal, null);
+                freeOrdinals.add(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The ids of the employees matching every clause, best first, at most {@code limit}. */
+    List<UUID> search(List<Clause> clauses, int limit) {
+        return search(clauses).next(limit);
+    }
+
+    /**
+     * The employees matching every clause, to be read best first from the returned
+     * {@link Ranking}. Clauses with no token (blank text) are ignored; with none left, nothing
+     * matches.
+     */
+    Ranking search(List<Clause> clauses) {
+        lock.readLock().lock();
+        try {
+            int[] scores = null;
+            for (Clause clause : clauses) {
+                for (String token : tokenize(clause.text())) {
+                    scores = match(token, clause.fieldMask(), scores);
+                    if (scores == null) {
+                        return Ranking.EMPTY;
+                    }
+                }
+            }
+            if (scores == null) {
+                return Ranking.EMPTY;
+            }
+            int matches = 0;
+            for (int score : scores) {
+                if (score > 0) {
+                    matches++;
+                }
+            }
+            UUID[] ids = new UUID[matches];
+            String[] sortKeys = new String[matches];
+            int[] matchScores = new int[matches];
+            for (int ordinal = 0, i = 0; ordinal < scores.length; ordinal++) {
+                if (scores[ordinal] > 0) {
+                    Document document = documents.get(ordinal);
+                    ids[i] = document.id();
+                    sortKeys[i] = document.sortKey();
+                    matchScores[i++] = scores[ordinal];
+                }
+            }
+            return new Ranking(ids, sortKeys, matchScores);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores {@code token} as a prefix over the terms in {@code fieldMask}'s fields, by
+     * ordinal (0 for no match), or returns null if nothing matches. With {@code candidates},
+     * only those are kept, their scores accumulated.
+     */
+    private int[] match(String token, int fieldMask, int[] candidates) {
+        int[] best = new int[documents.size()];
+        boolean any = false;
+        for (Map.Entry<String, Postings> term : terms.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            int multiplier = term.getKey().length() == token.length() ? 2 : 1;
+            Postings postings = term.getValue();
+            for (int i = 0; i < postings.size; i++) {
+                int posting = postings.values[i];
+                int field = posting & ((1 << FIELD_BITS) - 1);
+                if ((fieldMask & (1 << field)) == 0) {
+                    continue;
+                }
+                int ordinal = posting >>> FIELD_BITS;
+                if (candidates != null && candidates[ordinal] == 0) {
+                    continue;
+                }
+                best[ordinal] = Math.max(best[ordinal], Field.values()[field].weight * multiplier);
+                any = true;
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        if (candidates != null) {
+            for (int ordinal = 0; ordinal < best.length; ordinal++) {
+                if (best[ordinal] > 0) {
+                    best[ordinal] += candidates[ordinal];
+                }
+            }
+        }
+        return best;
+    }
+
+    private void unindex(int ordinal) {
+        Document document = documents.get(ordinal);
+        for (Field field : Field.values()) {
+            int posting = ordinal << FIELD_BITS | field.ordinal();
+            for (String token : document.tokens()[field.ordinal()]) {
+                Postings postings = terms.get(token);
+                if (postings != null && postings.remove(posting) && postings.size == 0) {
+                    terms.remove(token);
+                }
+            }
+        }
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        return Arrays.stream(NON_TOKEN.split(normalize(text))).filter(token -> !token.isEmpty()).distinct().toArray(String[]::new);
+    }
+
+    private static String normalize(String text) {
+        return COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record Document(UUID id, String sortKey, String[][] tokens) {}
+
+    /**
+     * The matches of one search, detached from the index, handed out best first (by score,
+     * then by last and first name). Matches are kept in a binary heap and ranked as they are
+     * taken, so reading the first page of a broad prefix costs {@code O(n + page log n)}
+     * rather than a sort of every match. Not thread-safe; one per search.
+     */
+    static final class Ranking {
+
+        static final Ranking EMPTY = new Ranking(new UUID[0], new String[0], new int[0]);
+
+        private final UUID[] ids;
+        private final String[] sortKeys;
+        private final int[] scores;
+        /** Indexes into the arrays above; {@code heap[0, remaining)} is a heap, best on top. */
+        private final int[] heap;
+        private int remaining;
+
+        private Ranking(UUID[] ids, String[] sortKeys, int[] scores) {
+            this.ids = ids;
+            this.sortKeys = sortKeys;
+            this.scores = scores;
+            this.heap = new int[ids.length];
+            for (int i = 0; i < heap.length; i++) {
+                heap[i] = i;
+            }
+            this.remaining = heap.length;
+            for (int i = remaining / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        /** Number of matches in all. */
+        int size() {
+            return ids.length;
+        }
+
+        /** Whether every match has been handed out. */
+        boolean isExhausted() {
+            return remaining == 0;
+        }
+
+        /** The next at most {@code count} best matches. */
+        List<UUID> next(int count) {
+            List<UUID> page = new ArrayList<>(Math.min(count, remaining));
+            while (page.size() < count && remaining > 0) {
+                page.add(ids[heap[0]]);
+                heap[0] = heap[--remaining];
+                siftDown(0);
+            }
+            return page;
+        }
+
+        private void siftDown(int position) {
+            int entry = heap[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= remaining) {
+                    break;
+                }
+                if (child + 1 < remaining && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], entry)) {
+                    break;
+                }
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = entry;
+        }
+
+        private boolean before(int a, int b) {
+            return scores[a] != scores[b] ? scores[a] > scores[b] : sortKeys[a].compareTo(sortKeys[b]) < 0;
+        }
+    }
+
+    /** Growable, unordered int list; removal swaps the last value in. */
+    private static final class Postings {
+
+        int[] values = new int[2];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        boolean remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.humano.dto.hr.workflow.requests.SelfAssessmentRequest;
 import com.humano.dto.hr.workflow.responses.ReviewCycleResponse;
 import com.humano.repository.hr.DepartmentRepository;
 import com.humano.repository.hr.PerformanceReviewRepository;
+import com.humano.repository.hr.projection.ReviewCycleMemberRow;
 import com.humano.repository.hr.workflow.ReviewCycleRepository;
 import com.humano.repository.shared.EmployeeRepository;
 import com.humano.service.errors.EntityNotFoundException;
@@ -895,42 +896,28 @@ public class PerformanceReviewCycleService {
     }
 
     private void notifyEmployeesAboutSelfAssessment(ReviewCycle cycle) {
-        List<Employee> employees = getEmployeesInCycle(cycle);
-        for (Employee employee : employees) {
-            notificationService.notifyTaskAssignment(
-                employee.getId(),
-                "Self-Assessment Required",
-                "The " +
-                cycle.getName() +
-                " performance review cycle has started. " +
-                "Please complete your self-assessment by " +
-                cycle.getSelfAssessmentDeadline() +
-                ".",
-                cycle.getId(),
-                "ReviewCycle"
-            );
-        }
-        log.debug("Sent self-assessment notifications to {} employees", employees.size());
+        List<UUID> employeeIds = getCycleMembers(cycle).stream().map(ReviewCycleMemberRow::employeeId).toList();
+        notificationService.notifyTaskAssignment(
+            employeeIds,
+            "Self-Assessment Required",
+            "The " +
+            cycle.getName() +
+            " performance review cycle has started. " +
+            "Please complete your self-assessment by " +
+            cycle.getSelfAssessmentDeadline() +
+            ".",
+            cycle.getId(),
+            "ReviewCycle"
+        );
+        log.debug("Sent self-assessment notifications to {} employees", employeeIds.size());
     }
 
     private void notifyManagersAboutReviews(ReviewCycle cycle) {
-        Set<Employee> managers = new HashSet<>();
-        List<Employee> employees = getEmployeesInCycle(cycle);
-        for (Employee employee : employees) {
-            if (employee.getManager() != null) {
-                managers.add(employee.getManager());
-            }
-        }
-
-        for (Employee manager : managers) {
-            long directReportsCount = employees
-                .stream()
-                .filter(e -> e.getManager() != null && e.getManager().getId().equals(manager.getId()))
-                .count();
-
-            notificationService.notifyTaskAssignment(
-                manager.getId(),
-                "Manager Reviews Required",
+        Map<UUID, Long> directReportsByManager = countDirectReportsByManager(getCycleMembers(cycle));
+        Map<UUID, String> messages = new LinkedHashMap<>();
+        directReportsByManager.forEach((managerId, directReportsCount) ->
+            messages.put(
+                managerId,
                 "The manager review phase has started for " +
                 cycle.getName() +
                 ". " +
@@ -938,12 +925,11 @@ public class PerformanceReviewCycleService {
                 directReportsCount +
                 " employee(s) to review by " +
                 cycle.getManagerReviewDeadline() +
-                ".",
-                cycle.getId(),
-                "ReviewCycle"
-            );
-        }
-        log.debug("Sent manager review notifications to {} managers", managers.size());
+                "."
+            )
+        );
+        notificationService.notifyTaskAssignment(messages, "Manager Reviews Required", cycle.getId(), "ReviewCycle");
+        log.debug("Sent manager review notifications to {} managers", messages.size());
     }
 
     private void notifyAboutCalibration(ReviewCycle cycle) {
@@ -952,70 +938,69 @@ public class PerformanceReviewCycleService {
     }
 
     private void notifyManagersAboutFeedbackDelivery(ReviewCycle cycle) {
-        Set<Employee> managers = new HashSet<>();
-        List<Employee> employees = getEmployeesInCycle(cycle);
-        for (Employee employee : employees) {
-            if (employee.getManager() != null) {
-                managers.add(employee.getManager());
-            }
-        }
-
-        for (Employee manager : managers) {
-            notificationService.notifyTaskAssignment(
-                manager.getId(),
-                "Feedback Meetings Required",
-                "Please schedule feedback meetings with your team members for " +
-                cycle.getName() +
-                ". " +
-                "Complete by " +
-                cycle.getFeedbackDeadline() +
-                ".",
-                cycle.getId(),
-                "ReviewCycle"
-            );
-        }
-        log.debug("Sent feedback delivery notifications to {} managers", managers.size());
+        Set<UUID> managerIds = countDirectReportsByManager(getCycleMembers(cycle)).keySet();
+        notificationService.notifyTaskAssignment(
+            managerIds,
+            "Feedback Meetings Required",
+            "Please schedule feedback meetings with your team members for " +
+            cycle.getName() +
+            ". " +
+            "Complete by " +
+            cycle.getFeedbackDeadline() +
+            ".",
+            cycle.getId(),
+            "ReviewCycle"
+        );
+        log.debug("Sent feedback delivery notifications to {} managers", managerIds.size());
     }
 
     private void notifyEmployeesAboutGoalSetting(ReviewCycle cycle) {
-        List<Employee> employees = getEmployeesInCycle(cycle);
-        for (Employee employee : employees) {
-            notificationService.notifyTaskAssignment(
-                employee.getId(),
-                "Goal Setting Phase",
-                "The goal setting phase has started for " +
-                cycle.getName() +
-                ". " +
-                "Please work with your manager to set goals for the upcoming period.",
-                cycle.getId(),
-                "ReviewCycle"
-            );
-        }
-        log.debug("Sent goal setting notifications to {} employees", employees.size());
+        List<UUID> employeeIds = getCycleMembers(cycle).stream().map(ReviewCycleMemberRow::employeeId).toList();
+        notificationService.notifyTaskAssignment(
+            employeeIds,
+            "Goal Setting Phase",
+            "The goal setting phase has started for " +
+            cycle.getName() +
+            ". " +
+            "Please work with your manager to set goals for the upcoming period.",
+            cycle.getId(),
+            "ReviewCycle"
+        );
+        log.debug("Sent goal setting notifications to {} employees", employeeIds.size());
     }
 
     private void notifyAboutCycleCompletion(ReviewCycle cycle) {
-        List<Employee> employees = getEmployeesInCycle(cycle);
-        for (Employee employee : employees) {
-            notificationService.notifyWorkflowCompleted(
-                employee.getId(),
-                "Performance Review Cycle Completed",
-                "The " + cycle.getName() + " performance review cycle has been completed.",
-                cycle.getId(),
-                "ReviewCycle"
-            );
-        }
-        log.debug("Sent completion notifications to {} employees", employees.size());
+        List<UUID> employeeIds = getCycleMembers(cycle).stream().map(ReviewCycleMemberRow::employeeId).toList();
+        notificationService.notifyWorkflowCompleted(
+            employeeIds,
+            "Performance Review Cycle Completed",
+            "The " + cycle.getName() + " performance review cycle has been completed.",
+            cycle.getId(),
+            "ReviewCycle"
+        );
+        log.debug("Sent completion notifications to {} employees", employeeIds.size());
     }
 
-    private List<Employee> getEmployeesInCycle(ReviewCycle cycle) {
+    /**
+     * The cycle's employees with their manager ids, as one projection query: the notifiers only
+     * need ids, so no {@code Employee} (and none of its eager associations) is loaded.
+     */
+    private List<ReviewCycleMemberRow> getCycleMembers(ReviewCycle cycle) {
         if (cycle.getDepartmentIds() == null || cycle.getDepartmentIds().isEmpty()) {
-            return employeeRepository.findAll();
+            return employeeRepository.findReviewCycleMembers();
         }
+        return employeeRepository.findReviewCycleMembersByDepartmentIds(cycle.getDepartmentIds());
+    }
 
-        Specification<Employee> spec = (root, query, cb) -> root.get("department").get("id").in(cycle.getDepartmentIds());
-
-        return employeeRepository.findAll(spec);
+    /** Managers of the given members, each with their number of direct reports among them. */
+    private static Map<UUID, Long> countDirectReportsByManager(List<ReviewCycleMemberRow> members) {
+        Map<UUID, Long> counts = new LinkedHashMap<>();
+        for (ReviewCycleMemberRow member : members) {
+            if (member.managerId() != null) {
+                counts.merge(member.managerId(), 1L, Long::sum);
+            }
+        }
+        return counts;
     }
 
     private void updateCycleSelfAssessmentProgress(PerformanceReview review) {
@@ -1065,65 +1050,45 @@ public class PerformanceReviewCycleService {
     }
 
     private void sendSelfAssessmentReminders(ReviewCycle cycle) {
-        List<Employee> employees = getEmployeesInCycle(cycle);
+        List<UUID> employeeIds = getCycleMembers(cycle).stream().map(ReviewCycleMemberRow::employeeId).toList();
         Instant deadline = cycle.getSelfAssessmentDeadline().atStartOfDay(ZoneId.systemDefault()).toInstant();
 
-        for (Employee employee : employees) {
-            notificationService.notifyDeadlineApproaching(
-                employee.getId(),
-                "Self-Assessment Reminder",
-                "Your self-assessment for " + cycle.getName() + " is due soon.",
-                cycle.getId(),
-                "ReviewCycle",
-                deadline
-            );
-        }
+        notificationService.notifyDeadlineApproaching(
+            employeeIds,
+            "Self-Assessment Reminder",
+            "Your self-assessment for " + cycle.getName() + " is due soon.",
+            cycle.getId(),
+            "ReviewCycle",
+            deadline
+        );
     }
 
     private void sendManagerReviewReminders(ReviewCycle cycle) {
-        Set<Employee> managers = new HashSet<>();
-        List<Employee> employees = getEmployeesInCycle(cycle);
-        for (Employee employee : employees) {
-            if (employee.getManager() != null) {
-                managers.add(employee.getManager());
-            }
-        }
-
+        Set<UUID> managerIds = countDirectReportsByManager(getCycleMembers(cycle)).keySet();
         Instant deadline = cycle.getManagerReviewDeadline().atStartOfDay(ZoneId.systemDefault()).toInstant();
 
-        for (Employee manager : managers) {
-            notificationService.notifyDeadlineApproaching(
-                manager.getId(),
-                "Manager Review Reminder",
-                "Manager reviews for " + cycle.getName() + " are due soon.",
-                cycle.getId(),
-                "ReviewCycle",
-                deadline
-            );
-        }
+        notificationService.notifyDeadlineApproaching(
+            managerIds,
+            "Manager Review Reminder",
+            "Manager reviews for " + cycle.getName() + " are due soon.",
+            cycle.getId(),
+            "ReviewCycle",
+            deadline
+        );
     }
 
     private void sendFeedbackDeliveryReminders(ReviewCycle cycle) {
-        Set<Employee> managers = new HashSet<>();
-        List<Employee> employees = getEmployeesInCycle(cycle);
-        for (Employee employee : employees) {
-            if (employee.getManager() != null) {
-                managers.add(employee.getManager());
-            }
-        }
-
+        Set<UUID> managerIds = countDirectReportsByManager(getCycleMembers(cycle)).keySet();
         Instant deadline = cycle.getFeedbackDeadline().atStartOfDay(ZoneId.systemDefault()).toInstant();
 
-        for (Employee manager : managers) {
-            notificationService.notifyDeadlineApproaching(
-                manager.getId(),
-                "Feedback Delivery Reminder",
-                "Feedback meetings for " + cycle.getName() + " must be completed soon.",
-                cycle.getId(),
-                "ReviewCycle",
-                deadline
-            );
-        }
+        notificationService.notifyDeadlineApproaching(
+            managerIds,
+            "Feedback Delivery Reminder",
+            "Feedback meetings for " + cycle.getName() + " must be completed soon.",
+            cycle.getId(),
+            "ReviewCycle",
+            deadline
+        );
     }
 
     private ReviewCycleResponse mapToResponse(ReviewCycle cycle) {
@@ -178,15 +178,15 @@ public class DeadlineMonitorService {
 
     /**
      * Scheduled task to check for approaching deadlines (runs every hour).
-     * Fans out across every ACTIVE tenant; each tenant runs in its own
-     * transaction via {@link TenantIteration}.
+     * Fans out across every ACTIVE tenant in parallel, under the adaptive
+     * limits of {@link TenantIteration}; each tenant runs in its own transaction.
      */
     @Scheduled(fixedRate = 3600000) // Every hour
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void checkApproachingDeadlines() {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            tenantIteration.forEachActiveTenant(subdomain -> processApproachingDeadlinesForCurrentTenant());
+            tenantIteration.forEachActiveTenantAdaptive("checkApproachingDeadlines", subdomain -> processApproachingDeadlinesForCurrentTenant());
         } finally {
             sample.stop(meterRegistry.timer("scheduled.tick", "name", "checkApproachingDeadlines"));
         }
@@ -217,15 +217,15 @@ public class DeadlineMonitorService {
 
     /**
      * Scheduled task to check for overdue items (runs every hour).
-     * Fans out across every ACTIVE tenant; each tenant runs in its own
-     * transaction via {@link TenantIteration}.
+     * Fans out across every ACTIVE tenant in parallel, under the adaptive
+     * limits of {@link TenantIteration}; each tenant runs in its own transaction.
      */
     @Scheduled(fixedRate = 3600000) // Every hour
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void checkOverdueItems() {
         Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            tenantIteration.forEachActiveTenant(subdomain -> processOverdueItemsForCurrentTenant());
+            tenantIteration.forEachActiveTenantAdaptive("checkOverdueItems", subdomain -> processOverdueItemsForCurrentTenant());
         } finally {
             sample.stop(meterRegistry.timer("scheduled.tick", "name", "checkOverdueItems"));
         }
@@ -3,17 +3,24 @@ package com.humano.service.hr.workflow.infrastructure;
 import com.humano.domain.hr.EmployeeNotification;
 import com.humano.domain.shared.Employee;
 import com.humano.repository.hr.EmployeeNotificationRepository;
+import com.humano.repository.hr.projection.NotificationRecipientRow;
 import com.humano.repository.shared.EmployeeRepository;
 import com.humano.service.MailService;
 import com.humano.service.errors.EntityNotFoundException;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service for orchestrating notifications across all workflows.
@@ -23,6 +30,14 @@ import org.springframework.transaction.annotation.Transactional;
  * {@code employee_notification}, and an email dispatched through {@link MailService}
  * (which is {@code @Async}, so the SMTP call escapes the caller's transaction).
  * Push notifications are deferred until the mobile client lands.
+ *
+ * <p>The {@code Collection}/{@code Map} overloads are the bulk variants, for notifying a whole
+ * population at once (a review cycle phase, an announcement): recipients are resolved with one
+ * query per {@value #RECIPIENT_QUERY_BATCH} ids, the in-app rows are inserted as one JDBC-batched
+ * {@code saveAll}, and emails go through the {@link OutboundMailQueue} once the transaction
+ * commits, so they are rate-limited and coalesced per recipient instead of one {@code @Async}
+ * task each. Duplicate ids are notified once; unknown ids are logged and skipped rather than
+ * failing the whole batch.
  */
 @Service
 @Transactional
@@ -30,18 +45,24 @@ public class NotificationOrchestrationService {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationOrchestrationService.class);
 
+    /** Ids per recipient lookup; keeps the IN list well under every database's bind limit. */
+    static final int RECIPIENT_QUERY_BATCH = 1000;
+
     private final EmployeeNotificationRepository notificationRepository;
     private final EmployeeRepository employeeRepository;
     private final MailService mailService;
+    private final OutboundMailQueue mailQueue;
 
     public NotificationOrchestrationService(
         EmployeeNotificationRepository notificationRepository,
         EmployeeRepository employeeRepository,
-        MailService mailService
+        MailService mailService,
+        OutboundMailQueue mailQueue
     ) {
         this.notificationRepository = notificationRepository;
         this.employeeRepository = employeeRepository;
         this.mailService = mailService;
+        this.mailQueue = mailQueue;
     }
 
     /**
@@ -76,6 +97,25 @@ public class NotificationOrchestrationService {
         notify(employeeId, title, title + ": " + message);
     }
 
+    /**
+     * Notify many employees of the same task assignment; both channels.
+     */
+    public void notifyTaskAssignment(Collection<UUID> employeeIds, String title, String message, UUID relatedEntityId, String entityType) {
+        log.debug("Sending task assignment notification to {} employees", employeeIds.size());
+        dispatch(sameMessage(employeeIds, title + ": " + message), title, true);
+    }
+
+    /**
+     * Notify many employees of a task assignment whose message differs per recipient (keyed by
+     * employee id); both channels.
+     */
+    public void notifyTaskAssignment(Map<UUID, String> messagesByEmployee, String title, UUID relatedEntityId, String entityType) {
+        log.debug("Sending task assignment notification to {} employees", messagesByEmployee.size());
+        Map<UUID, String> inApp = new LinkedHashMap<>();
+        messagesByEmployee.forEach((employeeId, message) -> inApp.put(employeeId, title + ": " + message));
+        dispatch(inApp, title, true);
+    }
+
     /**
      * Notify an employee of an approaching deadline.
      */
@@ -91,6 +131,21 @@ public class NotificationOrchestrationService {
         notify(employeeId, title, title + ": " + message + " (Due: " + deadline + ")");
     }
 
+    /**
+     * Notify many employees of the same approaching deadline; both channels.
+     */
+    public void notifyDeadlineApproaching(
+        Collection<UUID> employeeIds,
+        String title,
+        String message,
+        UUID relatedEntityId,
+        String entityType,
+        Instant deadline
+    ) {
+        log.debug("Sending deadline approaching notification to {} employees", employeeIds.size());
+        dispatch(sameMessage(employeeIds, title + ": " + message + " (Due: " + deadline + ")"), title, true);
+    }
+
     /**
      * Notify an employee of an exceeded deadline.
      */
@@ -108,6 +163,20 @@ public class NotificationOrchestrationService {
         sendInAppNotification(employeeId, title + ": " + message);
     }
 
+    /**
+     * Notify many employees about a workflow completion; in-app only, like the single variant.
+     */
+    public void notifyWorkflowCompleted(
+        Collection<UUID> employeeIds,
+        String title,
+        String message,
+        UUID relatedEntityId,
+        String entityType
+    ) {
+        log.debug("Sending workflow completed notification to {} employees", employeeIds.size());
+        dispatch(sameMessage(employeeIds, title + ": " + message), title, false);
+    }
+
     /**
      * Notify about an escalation. Always emails — by definition someone failed to act
      * in time and the manager needs an out-of-band signal.
@@ -156,13 +225,72 @@ public class NotificationOrchestrationService {
      */
     public void sendBulkNotification(List<UUID> employeeIds, String title, String message) {
         log.debug("Sending bulk notification to {} employees", employeeIds.size());
-        for (UUID employeeId : employeeIds) {
-            try {
-                sendInAppNotification(employeeId, title + ": " + message);
-            } catch (Exception e) {
-                log.error("Failed to send notification to employee {}: {}", employeeId, e.getMessage());
+        dispatch(sameMessage(employeeIds, title + ": " + message), title, false);
+    }
+
+    /**
+     * Bulk core: one recipient query per {@link #RECIPIENT_QUERY_BATCH} ids, one batched insert
+     * of the in-app rows, and, when {@code email} is set, one queued email per recipient with an
+     * address, enqueued after commit so a rolled-back caller sends nothing.
+     */
+    private void dispatch(Map<UUID, String> inAppMessages, String subject, boolean email) {
+        if (inAppMessages.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = new ArrayList<>(inAppMessages.keySet());
+        LocalDateTime now = LocalDateTime.now();
+        List<EmployeeNotification> notifications = new ArrayList<>(ids.size());
+        List<QueuedEmail> emails = new ArrayList<>();
+        int withoutAddress = 0;
+        for (int from = 0; from < ids.size(); from += RECIPIENT_QUERY_BATCH) {
+            List<UUID> slice = ids.subList(from, Math.min(from + RECIPIENT_QUERY_BATCH, ids.size()));
+            for (NotificationRecipientRow recipient : employeeRepository.findNotificationRecipients(slice)) {
+                String message = inAppMessages.get(recipient.employeeId());
+                // A reference, not a load: the insert only needs the foreign key.
+                notifications.add(newNotification(employeeRepository.getReferenceById(recipient.employeeId()), message, now));
+                if (!email) {
+                    continue;
+                }
+                if (recipient.email() == null || recipient.email().isBlank()) {
+                    withoutAddress++;
+                } else {
+                    emails.add(new QueuedEmail(recipient.email(), subject, message));
+                }
             }
         }
+        if (notifications.size() < ids.size()) {
+            int missing = ids.size() - notifications.size();
+            log.warn("Bulk notification '{}': {} of {} employees not found, skipped", subject, missing, ids.size());
+        }
+        if (withoutAddress > 0) {
+            log.warn("Bulk notification '{}': {} employees have no email address on record", subject, withoutAddress);
+        }
+        notificationRepository.saveAll(notifications);
+        afterCommit(() -> emails.forEach(queued -> mailQueue.enqueue(queued.to(), queued.subject(), queued.body())));
+        log.info("Created {} in-app notifications and queued {} emails for '{}'", notifications.size(), emails.size(), subject);
+    }
+
+    private static Map<UUID, String> sameMessage(Collection<UUID> employeeIds, String message) {
+        Map<UUID, String> messages = new LinkedHashMap<>();
+        for (UUID employeeId : employeeIds) {
+            messages.put(employeeId, message);
+        }
+        return messages;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            }
+        );
     }
 
     /**
@@ -183,13 +311,17 @@ public class NotificationOrchestrationService {
     }
 
     private void persistInAppNotification(Employee employee, String message) {
+        notificationRepository.save(newNotification(employee, message, LocalDateTime.now()));
+        log.info("Created in-app notification for employee {}", employee.getId());
+    }
+
+    private static EmployeeNotification newNotification(Employee employee, String message, LocalDateTime createdAt) {
         EmployeeNotification notification = new EmployeeNotification();
         notification.setEmployee(employee);
         notification.setMessage(message);
         notification.setRead(false);
-        notification.setCreatedAt(LocalDateTime.now());
-        notificationRepository.save(notification);
-        log.info("Created in-app notification for employee {}", employee.getId());
+        notification.setCreatedAt(createdAt);
+        return notification;
     }
 
     /**
@@ -210,4 +342,6 @@ public class NotificationOrchestrationService {
     private Employee loadEmployee(UUID employeeId) {
         return employeeRepository.findById(employeeId).orElseThrow(() -> EntityNotFoundException.create("Employee", employeeId));
     }
+
+    private record QueuedEmail(String to, String subject, String body) {}
 }
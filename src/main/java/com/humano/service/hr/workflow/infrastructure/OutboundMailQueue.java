@@ -0,0 +1,211 @@
+package com.humano.service.hr.workflow.infrastructure;
+
+import com.humano.config.NotificationProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.service.MailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rate-limited, coalescing queue for notification emails.
+ *
+ * <p>An email is held for {@code humano.notifications.mail.coalesce-window} before it is sent;
+ * further notifications to the same address (within the same tenant) in the meantime are
+ * appended to it, so a recipient of several notifications gets one digest email instead of one
+ * each. A digest holds at most {@code max-items-per-email} notifications; a full one is sent on
+ * the next tick and the next notification starts a new email.
+ *
+ * <p>Once a second, at most {@code rate-per-second} emails are handed to the
+ * {@code notificationMailExecutor}, oldest first, whatever the number queued: a company-wide
+ * announcement drains at a steady pace instead of flooding the mail server and the general
+ * {@code @Async} pool. Past {@code max-pending} queued emails, new ones go straight to
+ * {@link MailService#sendEmail} as before.
+ *
+ * <p>The queue is in memory: emails still queued when the node stops are not sent (their in-app
+ * notifications are unaffected), and one the mail server refuses is not retried. Metrics:
+ * {@code notification.mail{outcome}} (queued, coalesced, sent, failed, bypassed, lost), the
+ * {@code notification.mail.pending} gauge and {@code notification.mail.delay} (first queued to
+ * sent).
+ */
+@Service
+public class OutboundMailQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundMailQueue.class);
+
+    private final Object lock = new Object();
+    /** Open emails still collecting notifications, in creation (so also age) order. */
+    private final Map<Key, PendingEmail> collecting = new LinkedHashMap<>();
+    /** Full emails, and sends a saturated executor refused, to go out before anything else. */
+    private final Deque<PendingEmail> ready = new ArrayDeque<>();
+
+    private final MailService mailService;
+    private final TaskExecutor mailExecutor;
+    private final NotificationProperties.Mail properties;
+    private final Counter queued;
+    private final Counter coalesced;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter bypassed;
+    private final Counter lost;
+    private final Timer delay;
+
+    public OutboundMailQueue(
+        MailService mailService,
+        @Qualifier("notificationMailExecutor") TaskExecutor mailExecutor,
+        NotificationProperties notificationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.mailService = mailService;
+        this.mailExecutor = mailExecutor;
+        this.properties = notificationProperties.getMail();
+        this.queued = meterRegistry.counter("notification.mail", "outcome", "queued");
+        this.coalesced = meterRegistry.counter("notification.mail", "outcome", "coalesced");
+        this.sent = meterRegistry.counter("notification.mail", "outcome", "sent");
+        this.failed = meterRegistry.counter("notification.mail", "outcome", "failed");
+        this.bypassed = meterRegistry.counter("notification.mail", "outcome", "bypassed");
+        this.lost = meterRegistry.counter("notification.mail", "outcome", "lost");
+        this.delay = meterRegistry.timer("notification.mail.delay");
+        Gauge.builder("notification.mail.pending", this, OutboundMailQueue::pendingCount)
+            .description("Notification emails waiting to be sent")
+            .register(meterRegistry);
+    }
+
+    /** Queues a plain-text email to {@code address} for the current tenant. */
+    public void enqueue(String address, String subject, String body) {
+        Key key = new Key(TenantContext.getCurrentTenant(), address.trim().toLowerCase(Locale.ROOT));
+        synchronized (lock) {
+            PendingEmail open = collecting.get(key);
+            if (open != null) {
+                open.items.add(new Item(subject, body));
+                coalesced.increment();
+                if (open.items.size() >= Math.max(1, properties.getMaxItemsPerEmail())) {
+                    collecting.remove(key);
+                    ready.add(open);
+                }
+                return;
+            }
+            if (collecting.size() + ready.size() < properties.getMaxPending()) {
+                PendingEmail email = new PendingEmail(address.trim(), Instant.now());
+                email.items.add(new Item(subject, body));
+                collecting.put(key, email);
+                queued.increment();
+                return;
+            }
+        }
+        bypassed.increment();
+        mailService.sendEmail(address, subject, body, false, false);
+    }
+
+    /** Hands this second's share of due emails to the mail executor. */
+    @Scheduled(fixedRate = 1000)
+    public void dispatch() {
+        Instant cutoff = Instant.now().minus(properties.getCoalesceWindow());
+        List<PendingEmail> due = new ArrayList<>();
+        synchronized (lock) {
+            int budget = Math.max(1, properties.getRatePerSecond());
+            while (budget > 0 && !ready.isEmpty()) {
+                due.add(ready.poll());
+                budget--;
+            }
+            Iterator<PendingEmail> oldestFirst = collecting.values().iterator();
+            while (budget > 0 && oldestFirst.hasNext()) {
+                PendingEmail email = oldestFirst.next();
+                if (email.firstQueuedAt.isAfter(cutoff)) {
+                    break;
+                }
+                oldestFirst.remove();
+                due.add(email);
+                budget--;
+            }
+        }
+        for (int i = 0; i < due.size(); i++) {
+            PendingEmail email = due.get(i);
+            try {
+                mailExecutor.execute(() -> send(email));
+            } catch (TaskRejectedException e) {
+                // The mail server is slower than the configured rate; retry on the next tick.
+                synchronized (lock) {
+                    for (int j = due.size() - 1; j >= i; j--) {
+                        ready.addFirst(due.get(j));
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    /** Emails queued and not yet handed to the executor. */
+    public int pendingCount() {
+        synchronized (lock) {
+            return collecting.size() + ready.size();
+        }
+    }
+
+    @PreDestroy
+    void reportUnsent() {
+        int unsent = pendingCount();
+        if (unsent > 0) {
+            lost.increment(unsent);
+            log.warn("Shutting down with {} notification emails still queued; they will not be sent", unsent);
+        }
+    }
+
+    private void send(PendingEmail email) {
+        List<Item> items = email.items;
+        String subject;
+        String body;
+        if (items.size() == 1) {
+            subject = items.get(0).subject();
+            body = items.get(0).body();
+        } else {
+            subject = "You have " + items.size() + " new notifications";
+            StringBuilder digest = new StringBuilder();
+            for (Item item : items) {
+                digest.append(item.subject()).append("\n").append(item.body()).append("\n\n");
+            }
+            body = digest.toString().trim();
+        }
+        if (!mailService.sendEmailSync(email.address, subject, body, false, false)) {
+            failed.increment();
+            return;
+        }
+        sent.increment();
+        delay.record(Duration.between(email.firstQueuedAt, Instant.now()));
+    }
+
+    private record Key(String tenantId, String address) {}
+
+    private record Item(String subject, String body) {}
+
+    private static final class PendingEmail {
+
+        final String address;
+        final Instant firstQueuedAt;
+        final List<Item> items = new ArrayList<>();
+
+        PendingEmail(String address, Instant firstQueuedAt) {
+            this.address = address;
+            this.firstQueuedAt = firstQueuedAt;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.humano.service.payroll;
 
+import com.humano.config.multitenancy.TenantContext;
 import com.humano.domain.enumeration.payroll.BonusType;
 import com.humano.domain.payroll.Bonus;
 import com.humano.domain.payroll.Currency;
@@ -9,6 +10,7 @@ import com.humano.dto.payroll.request.BonusSearchRequest;
 import com.humano.dto.payroll.request.BulkBonusRequest;
 import com.humano.dto.payroll.response.BonusResponse;
 import com.humano.dto.payroll.response.BonusSummaryResponse;
+import com.humano.events.CompensationChangedEvent;
 import com.humano.repository.payroll.BonusRepository;
 import com.humano.repository.payroll.CurrencyRepository;
 import com.humano.repository.payroll.specification.BonusSpecification;
@@ -25,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -41,11 +44,18 @@ public class BonusService {
     private final BonusRepository bonusRepository;
     private final EmployeeRepository employeeRepository;
     private final CurrencyRepository currencyRepository;
-
-    public BonusService(BonusRepository bonusRepository, EmployeeRepository employeeRepository, CurrencyRepository currencyRepository) {
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BonusService(
+        BonusRepository bonusRepository,
+        EmployeeRepository employeeRepository,
+        CurrencyRepository currencyRepository,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.bonusRepository = bonusRepository;
         this.employeeRepository = employeeRepository;
         this.currencyRepository = currencyRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -76,6 +86,7 @@ public class BonusService {
 
         bonus = bonusRepository.save(bonus);
         log.info("Awarded {} bonus of {} to employee {}", request.type(), request.amount(), employee.getId());
+        publishCompensationChanged(Set.of(employee.getId()));
 
         return toResponse(bonus);
     }
@@ -125,6 +136,7 @@ public class BonusService {
 
         List<Bonus> savedBonuses = bonusRepository.saveAll(bonuses);
         log.info("Awarded {} bulk bonuses of type {}", savedBonuses.size(), request.type());
+        publishCompensationChanged(employees.stream().map(Employee::getId).toList());
 
         return savedBonuses.stream().map(this::toResponse).toList();
     }
@@ -416,4 +428,10 @@ public class BonusService {
             bonus.getDescription()
         );
     }
+
+    private void publishCompensationChanged(Collection<UUID> employeeIds) {
+        if (!employeeIds.isEmpty()) {
+            eventPublisher.publishEvent(new CompensationChangedEvent(TenantContext.getCurrentTenant(), Set.copyOf(employeeIds)));
+        }
+    }
 }
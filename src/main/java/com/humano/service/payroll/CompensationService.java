@@ -1,5 +1,6 @@
 package com.humano.service.payroll;
 
+import com.humano.config.multitenancy.TenantContext;
 import com.humano.domain.hr.Position;
 import com.humano.domain.payroll.Compensation;
 import com.humano.domain.payroll.Currency;
@@ -9,6 +10,8 @@ import com.humano.dto.payroll.request.CreateCompensationRequest;
 import com.humano.dto.payroll.request.SalaryAdjustmentRequest;
 import com.humano.dto.payroll.response.CompensationResponse;
 import com.humano.dto.payroll.response.SalaryHistoryResponse;
+import com.humano.events.CompensationChangedEvent;
+import com.humano.events.CurrenciesInUseChangedEvent;
 import com.humano.repository.hr.PositionRepository;
 import com.humano.repository.payroll.CompensationRepository;
 import com.humano.repository.payroll.CurrencyRepository;
@@ -24,6 +27,7 @@ import java.util.*;
 import java.util.LinkedHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -47,19 +51,22 @@ public class CompensationService {
     private final PositionRepository positionRepository;
     private final CurrencyRepository currencyRepository;
     private final AuditEventService auditEventService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CompensationService(
         CompensationRepository compensationRepository,
         EmployeeRepository employeeRepository,
         PositionRepository positionRepository,
         CurrencyRepository currencyRepository,
-        AuditEventService auditEventService
+        AuditEventService auditEventService,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.compensationRepository = compensationRepository;
         this.employeeRepository = employeeRepository;
         this.positionRepository = positionRepository;
         this.currencyRepository = currencyRepository;
         this.auditEventService = auditEventService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -93,8 +100,13 @@ public class CompensationService {
         compensation.setEffectiveFrom(request.effectiveFrom());
         compensation.setEffectiveTo(request.effectiveTo());
 
+        boolean newCurrency = !compensationRepository.existsByCurrency(currency);
         compensation = compensationRepository.save(compensation);
         log.info("Created compensation {} for employee {}", compensation.getId(), employee.getId());
+        publishCompensationChanged(Set.of(employee.getId()));
+        if (newCurrency) {
+            publishCurrenciesInUseChanged();
+        }
 
         return toResponse(compensation);
     }
@@ -146,8 +158,15 @@ public class CompensationService {
         newCompensation.setEffectiveFrom(request.effectiveFrom());
 
         BigDecimal previousAmount = currentCompensation.getBaseAmount();
+        boolean newCurrency =
+            !newCompensation.getCurrency().getId().equals(currentCompensation.getCurrency().getId()) &&
+            !compensationRepository.existsByCurrency(newCompensation.getCurrency());
         newCompensation = compensationRepository.save(newCompensation);
         log.info("Adjusted salary for employee {} from {} to {}", request.employeeId(), previousAmount, newAmount);
+        publishCompensationChanged(Set.of(request.employeeId()));
+        if (newCurrency) {
+            publishCurrenciesInUseChanged();
+        }
 
         // P6.2 — explicit audit with before/after, since the aspect only sees
         // the after-state. Joins this @Transactional boundary; a rollback of
@@ -492,4 +511,14 @@ public class CompensationService {
             isActive
         );
     }
+
+    private void publishCompensationChanged(Collection<UUID> employeeIds) {
+        if (!employeeIds.isEmpty()) {
+            eventPublisher.publishEvent(new CompensationChangedEvent(TenantContext.getCurrentTenant(), Set.copyOf(employeeIds)));
+        }
+    }
+
+    private void publishCurrenciesInUseChanged() {
+        eventPublisher.publishEvent(new CurrenciesInUseChangedEvent(TenantContext.getCurrentTenant()));
+    }
 }
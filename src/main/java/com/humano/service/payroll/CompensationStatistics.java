@@ -0,0 +1,354 @@
+package com.humano.service.payroll;
+
+import com.humano.config.cache.CacheInvalidationBus;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.domain.enumeration.payroll.Basis;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Materialised per-tenant, per-year distribution of employees' total compensation (annual
+ * base salary + bonuses awarded in the year + annualised employer benefit cost), answering
+ * percentile and department summary requests without computing a statement per employee.
+ * <p>
+ * A year is loaded on first use with four set-based queries (employees with their department,
+ * compensation rows, bonus sums, benefit sums) into a sorted list of totals and per-department
+ * aggregates. A {@link com.humano.events.CompensationChangedEvent} marks its employees stale
+ * in every loaded year, on every node through {@link CacheInvalidationBus}; the next read
+ * reloads just those employees with the same queries restricted to their ids. Changes to more
+ * than {@value #MAX_EMPLOYEES_PER_BROADCAST} employees at once drop the tenant's statistics
+ * instead.
+ * <p>
+ * Totals add amounts as recorded, whatever their currency, like
+ * {@link TotalCompensationService#generateCompensationStatement}.
+ * <p>
+ * Metrics: {@code compensation.statistics.load{scope}} (scope: year, employees).
+ */
+@Service
+public class CompensationStatistics {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompensationStatistics.class);
+
+    public static final String CACHE_NAME = "compensation-statistics";
+
+    static final int MAX_EMPLOYEES_PER_BROADCAST = 100;
+    private static final int IDS_PER_QUERY = 500;
+
+    private static final String EMPLOYEES = "SELECT e.id, d.id FROM Employee e LEFT JOIN e.department d";
+    private static final String COMPENSATIONS =
+        "SELECT c.employee.id, c.baseAmount, c.basis FROM Compensation c WHERE c.effectiveFrom <= :end";
+    private static final String COMPENSATION_ORDER = " ORDER BY c.employee.id, c.effectiveFrom DESC, c.id DESC";
+    private static final String BONUSES = "SELECT b.employee.id, SUM(b.amount) FROM Bonus b WHERE b.awardDate BETWEEN :start AND :end";
+    private static final String BENEFITS =
+        "SELECT eb.employee.id, SUM(eb.employerCost) FROM EmployeeBenefit eb " +
+        "WHERE eb.effectiveFrom <= :end AND (eb.effectiveTo IS NULL OR eb.effectiveTo >= :start)";
+
+    /** An employee's compensation components for a year. */
+    public record EmployeeTotals(UUID departmentId, BigDecimal baseSalary, BigDecimal bonuses, BigDecimal benefits, BigDecimal total) {}
+
+    /** Where an employee's total falls among the other employees of the tenant. */
+    public record Percentile(BigDecimal total, long belowCount, int comparedTo) {
+        public double percentile() {
+            return comparedTo == 0 ? 50.0 : (belowCount * 100.0) / comparedTo;
+        }
+    }
+
+    /** Aggregates of a department's totals; min and max are zero for an empty department. */
+    public record DepartmentSummary(
+        int employeeCount,
+        BigDecimal totalBaseSalary,
+        BigDecimal totalBonuses,
+        BigDecimal totalBenefits,
+        BigDecimal totalCompensation,
+        BigDecimal minCompensation,
+        BigDecimal maxCompensation
+    ) {}
+
+    private final Map<String, Map<Integer, YearStatistics>> tenants = new ConcurrentHashMap<>();
+    private final CacheInvalidationBus invalidationBus;
+    private final Timer yearLoadTimer;
+    private final Timer employeeLoadTimer;
+
+    @PersistenceContext(unitName = "tenant")
+    private EntityManager entityManager;
+
+    public CompensationStatistics(CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        this.invalidationBus = invalidationBus;
+        this.yearLoadTimer = meterRegistry.timer("compensation.statistics.load", "scope", "year");
+        this.employeeLoadTimer = meterRegistry.timer("compensation.statistics.load", "scope", "employees");
+        invalidationBus.subscribe(CACHE_NAME, this::evict);
+    }
+
+    /** {@code employeeId}'s total and rank for {@code year}, or null if there is no such employee. */
+    public Percentile percentile(UUID employeeId, int year) {
+        return current(year).percentile(employeeId);
+    }
+
+    public DepartmentSummary departmentSummary(UUID departmentId, int year) {
+        return current(year).departmentSummary(departmentId);
+    }
+
+    /**
+     * Marks {@code employeeIds} of the tenant stale on every node. Call once the change that
+     * affects them has committed.
+     */
+    public void employeesChanged(String tenant, Collection<UUID> employeeIds) {
+        if (employeeIds.size() > MAX_EMPLOYEES_PER_BROADCAST) {
+            invalidationBus.publish(CACHE_NAME, tenant);
+            return;
+        }
+        for (UUID employeeId : employeeIds) {
+            invalidationBus.publish(CACHE_NAME, tenant + "/" + employeeId);
+        }
+    }
+
+    /** Handles {@code tenant} (drop everything) and {@code tenant/employeeId} (mark stale) keys. */
+    private void evict(String key) {
+        int slash = key.lastIndexOf('/');
+        if (slash < 0) {
+            tenants.remove(key);
+            return;
+        }
+        Map<Integer, YearStatistics> years = tenants.get(key.substring(0, slash));
+        if (years != null) {
+            UUID employeeId = UUID.fromString(key.substring(slash + 1));
+            years.values().forEach(statistics -> statistics.stale.add(employeeId));
+        }
+    }
+
+    private YearStatistics current(int year) {
+        String tenant = TenantContext.getCurrentTenant();
+        YearStatistics statistics = tenants
+            .computeIfAbsent(tenant != null ? tenant : TenantContext.MASTER, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(year, YearStatistics::new);
+        statistics.refresh();
+        return statistics;
+    }
+
+    /** The annual amount of a compensation's base pay. */
+    static BigDecimal annualBaseSalary(Basis basis, BigDecimal baseAmount) {
+        return switch (basis) {
+            case ANNUAL -> baseAmount;
+            case MONTHLY -> baseAmount.multiply(BigDecimal.valueOf(12));
+            case HOURLY -> baseAmount.multiply(BigDecimal.valueOf(2080)); // 40hrs * 52 weeks
+        };
+    }
+
+    /**
+     * The totals of the existing employees among {@code ids} (all when null), keyed by id.
+     */
+    Map<UUID, EmployeeTotals> load(int year, Collection<UUID> ids) {
+        LocalDate start = LocalDate.of(year, 1, 1);
+        LocalDate end = LocalDate.of(year, 12, 31);
+
+        Map<UUID, UUID> departments = new HashMap<>();
+        for (Object[] row : query(EMPLOYEES, " WHERE e.id IN :ids", "", ids).getResultList()) {
+            departments.put((UUID) row[0], (UUID) row[1]);
+        }
+        Map<UUID, BigDecimal> baseSalaries = new HashMap<>();
+        // Newest row first per employee; ties on effectiveFrom are broken by id, as in the statement.
+        for (Object[] row : query(COMPENSATIONS, " AND c.employee.id IN :ids", COMPENSATION_ORDER, ids)
+            .setParameter("end", end)
+            .getResultList()) {
+            baseSalaries.putIfAbsent((UUID) row[0], annualBaseSalary((Basis) row[2], (BigDecimal) row[1]));
+        }
+        Map<UUID, BigDecimal> bonuses = sums(
+            query(BONUSES, " AND b.employee.id IN :ids", " GROUP BY b.employee.id", ids)
+                .setParameter("start", start)
+                .setParameter("end", end)
+        );
+        Map<UUID, BigDecimal> benefits = sums(
+            query(BENEFITS, " AND eb.employee.id IN :ids", " GROUP BY eb.employee.id", ids)
+                .setParameter("start", start)
+                .setParameter("end", end)
+        );
+
+        Map<UUID, EmployeeTotals> totals = new HashMap<>();
+        departments.forEach((employeeId, departmentId) -> {
+            BigDecimal base = baseSalaries.getOrDefault(employeeId, BigDecimal.ZERO);
+            BigDecimal bonus = bonuses.getOrDefault(employeeId, BigDecimal.ZERO);
+            BigDecimal benefit = benefits.getOrDefault(employeeId, BigDecimal.ZERO).multiply(BigDecimal.valueOf(12));
+            totals.put(employeeId, new EmployeeTotals(departmentId, base, bonus, benefit, base.add(bonus).add(benefit)));
+        });
+        return totals;
+    }
+
+    private TypedQuery<Object[]> query(String select, String idFilter, String suffix, Collection<UUID> ids) {
+        TypedQuery<Object[]> query = entityManager.createQuery(select + (ids != null ? idFilter : "") + suffix, Object[].class);
+        return ids != null ? query.setParameter("ids", ids) : query;
+    }
+
+    private static Map<UUID, BigDecimal> sums(TypedQuery<Object[]> query) {
+        Map<UUID, BigDecimal> sums = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            if (row[1] != null) {
+                sums.put((UUID) row[0], (BigDecimal) row[1]);
+            }
+        }
+        return sums;
+    }
+
+    /** One tenant's distribution for one year; every method holds the instance lock. */
+    private final class YearStatistics {
+
+        private final int year;
+        /** Employees changed since they were loaded. */
+        final Set<UUID> stale = ConcurrentHashMap.newKeySet();
+
+        private Map<UUID, EmployeeTotals> employees;
+        private final List<BigDecimal> sortedTotals = new ArrayList<>();
+        private final Map<UUID, DepartmentAggregate> departments = new HashMap<>();
+
+        YearStatistics(int year) {
+            this.year = year;
+        }
+
+        synchronized void refresh() {
+            if (employees == null) {
+                // Employees changed while loading are reloaded just after.
+                employees = new HashMap<>();
+                yearLoadTimer.record(() -> loadAll(load(year, null)));
+                LOG.debug("Loaded compensation statistics for {}: {} employees", year, employees.size());
+            }
+            if (stale.isEmpty()) {
+                return;
+            }
+            List<UUID> ids = new ArrayList<>(stale);
+            stale.removeAll(ids);
+            employeeLoadTimer.record(() -> {
+                for (int from = 0; from < ids.size(); from += IDS_PER_QUERY) {
+                    List<UUID> chunk = ids.subList(from, Math.min(from + IDS_PER_QUERY, ids.size()));
+                    Map<UUID, EmployeeTotals> reloaded = load(year, chunk);
+                    for (UUID employeeId : chunk) {
+                        EmployeeTotals previous = employees.remove(employeeId);
+                        if (previous != null) {
+                            remove(previous);
+                        }
+                        EmployeeTotals current = reloaded.get(employeeId);
+                        if (current != null) {
+                            add(employeeId, current);
+                        }
+                    }
+                }
+            });
+        }
+
+        synchronized Percentile percentile(UUID employeeId) {
+            EmployeeTotals totals = employees.get(employeeId);
+            if (totals == null) {
+                return null;
+            }
+            return new Percentile(totals.total(), lowerBound(totals.total()), sortedTotals.size() - 1);
+        }
+
+        synchronized DepartmentSummary departmentSummary(UUID departmentId) {
+            DepartmentAggregate aggregate = departments.get(departmentId);
+            return aggregate != null ? aggregate.summary() : new DepartmentAggregate().summary();
+        }
+
+        /** The initial load: totals are appended, then sorted once, instead of inserted in order. */
+        private void loadAll(Map<UUID, EmployeeTotals> loaded) {
+            loaded.forEach((employeeId, totals) -> {
+                employees.put(employeeId, totals);
+                sortedTotals.add(totals.total());
+                addToDepartment(totals);
+            });
+            sortedTotals.sort(null);
+        }
+
+        /** An incremental update: one sorted insert. */
+        private void add(UUID employeeId, EmployeeTotals totals) {
+            employees.put(employeeId, totals);
+            sortedTotals.add(lowerBound(totals.total()), totals.total());
+            addToDepartment(totals);
+        }
+
+        private void addToDepartment(EmployeeTotals totals) {
+            if (totals.departmentId() != null) {
+                departments.computeIfAbsent(totals.departmentId(), id -> new DepartmentAggregate()).add(totals);
+            }
+        }
+
+        private void remove(EmployeeTotals totals) {
+            sortedTotals.remove(lowerBound(totals.total()));
+            if (totals.departmentId() != null) {
+                DepartmentAggregate aggregate = departments.get(totals.departmentId());
+                aggregate.remove(totals);
+                if (aggregate.count == 0) {
+                    departments.remove(totals.departmentId());
+                }
+            }
+        }
+
+        /** Number of totals strictly below {@code total}: its insertion point. */
+        private int lowerBound(BigDecimal total) {
+            int index = Collections.binarySearch(sortedTotals, total);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && sortedTotals.get(index - 1).compareTo(total) == 0) {
+                index--;
+            }
+            return index;
+        }
+    }
+
+    private static final class DepartmentAggregate {
+
+        int count;
+        BigDecimal baseSalary = BigDecimal.ZERO;
+        BigDecimal bonuses = BigDecimal.ZERO;
+        BigDecimal benefits = BigDecimal.ZERO;
+        BigDecimal total = BigDecimal.ZERO;
+        /** Multiset of the members' totals, for min and max. */
+        final TreeMap<BigDecimal, Integer> totals = new TreeMap<>();
+
+        void add(EmployeeTotals member) {
+            count++;
+            baseSalary = baseSalary.add(member.baseSalary());
+            bonuses = bonuses.add(member.bonuses());
+            benefits = benefits.add(member.benefits());
+            total = total.add(member.total());
+            totals.merge(member.total(), 1, Integer::sum);
+        }
+
+        void remove(EmployeeTotals member) {
+            count--;
+            baseSalary = baseSalary.subtract(member.baseSalary());
+            bonuses = bonuses.subtract(member.bonuses());
+            benefits = benefits.subtract(member.benefits());
+            total = total.subtract(member.total());
+            totals.computeIfPresent(member.total(), (value, occurrences) -> occurrences > 1 ? occurrences - 1 : null);
+        }
+
+        DepartmentSummary summary() {
+            return new DepartmentSummary(
+                count,
+                baseSalary,
+                bonuses,
+                benefits,
+                total,
+                totals.isEmpty() ? BigDecimal.ZERO : totals.firstKey(),
+                totals.isEmpty() ? BigDecimal.ZERO : totals.lastKey()
+            );
+        }
+    }
+}
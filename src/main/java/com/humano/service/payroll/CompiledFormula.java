@@ -0,0 +1,532 @@
+package com.humano.service.payroll;
+
+import com.humano.service.payroll.PayrollFormulaEngine.Functions;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.FunctionReference;
+import org.springframework.expression.spel.ast.InlineList;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpDivide;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpGE;
+import org.springframework.expression.spel.ast.OpGT;
+import org.springframework.expression.spel.ast.OpLE;
+import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.OpMinus;
+import org.springframework.expression.spel.ast.OpModulus;
+import org.springframework.expression.spel.ast.OpMultiply;
+import org.springframework.expression.spel.ast.OpNE;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OpPlus;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.Ternary;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.util.NumberUtils;
+
+/**
+ * Pre-resolved evaluation tree for a tenant formula, built once from its parsed SpEL AST and
+ * evaluated without an {@code EvaluationContext} (the compiled mode of {@link PayrollFormulaEngine}).
+ *
+ * <p>Compilation resolves everything the interpreter looks up per evaluation:
+ * <ul>
+ *   <li>{@code #fn(...)} calls become direct static calls into {@link Functions} (no
+ *       {@code Method.invoke}, no argument conversion service);</li>
+ *   <li>constants ({@code #WORKDAYS_IN_MONTH}, ...) are folded into the tree;</li>
+ *   <li>every other {@code #name} is checked against the engine's variable whitelist <em>at
+ *       compile time</em>: an allowed name gets a slot in a small frame array filled straight
+ *       from the caller's map, a disallowed one is compiled to {@code null} &mdash; exactly what
+ *       the interpreter sees once {@code filterToAllowed} has dropped it.</li>
+ * </ul>
+ *
+ * <p><strong>Parity with the interpreter.</strong> The tree covers the constructs real payroll
+ * formulas use (literals, variables, function calls, arithmetic, comparisons, boolean operators,
+ * ternary, inline lists) and implements them with SpEL's own operand-promotion rules for
+ * {@code BigDecimal}, {@code Double}, {@code Long} and {@code Integer}. Anything else is left to
+ * SpEL: {@link #compile} returns {@code null} for a formula using any other construct, and
+ * {@link #evaluate} throws {@link Fallback} when it meets an operand combination it does not
+ * model (strings in arithmetic, {@code null} to a primitive parameter, ...), upon which the
+ * engine re-evaluates the formula interpreted. Functions are pure, so the retry is safe.
+ *
+ * <p>The sandbox is unchanged: compilation only ever sees formulas the engine already accepted
+ * (length limit, no {@code T(} / {@code @}), and there is no node that can reach a type, bean,
+ * constructor, method or property.
+ */
+final class CompiledFormula {
+
+    /**
+     * Signals "not modelled here, evaluate interpreted". Pre-allocated and stackless: it is
+     * control flow, not an error.
+     */
+    static final class Fallback extends RuntimeException {
+
+        private static final Fallback INSTANCE = new Fallback();
+
+        private Fallback() {
+            super("formula needs interpreted evaluation", null, false, false);
+        }
+    }
+
+    /** One node of the tree, evaluated against the slot frame of the current call. */
+    @FunctionalInterface
+    private interface Node {
+        Object eval(Object[] frame);
+    }
+
+    /** A node whose value is known at compile time. */
+    private record Constant(Object value) implements Node {
+        @Override
+        public Object eval(Object[] frame) {
+            return value;
+        }
+    }
+
+    private static final Constant NULL = new Constant(null);
+
+    private final Node root;
+    private final String[] slotNames;
+
+    private CompiledFormula(Node root, String[] slotNames) {
+        this.root = root;
+        this.slotNames = slotNames;
+    }
+
+    /**
+     * Compiles {@code expression}, or returns {@code null} when it uses a construct the tree
+     * does not model (the engine then always interprets it).
+     *
+     * @param allowedVariable the engine's variable whitelist (static names + dynamic pattern)
+     * @param constants       named constants, folded into the tree
+     * @param functionNames   names of the registered {@link Functions}; never bindable as variables
+     */
+    static CompiledFormula compile(
+        Expression expression,
+        Predicate<String> allowedVariable,
+        Map<String, BigDecimal> constants,
+        Set<String> functionNames
+    ) {
+        if (!(expression instanceof SpelExpression spel)) {
+            return null;
+        }
+        Compiler compiler = new Compiler(allowedVariable, constants, functionNames);
+        Node root = compiler.compile(spel.getAST());
+        if (root == null) {
+            return null;
+        }
+        return new CompiledFormula(root, compiler.slots.keySet().toArray(new String[0]));
+    }
+
+    /** Number of variable slots; exposed for diagnostics and tests. */
+    int slotCount() {
+        return slotNames.length;
+    }
+
+    /**
+     * Evaluates against {@code variables} and coerces the result like
+     * {@code Expression.getValue(context, resultType)} does for numbers.
+     *
+     * @throws Fallback when the formula must be re-evaluated interpreted
+     */
+    <T extends Number> T evaluate(Map<String, Object> variables, Class<T> resultType) {
+        Object[] frame = new Object[slotNames.length];
+        if (variables != null) {
+            for (int i = 0; i < slotNames.length; i++) {
+                frame[i] = variables.get(slotNames[i]);
+            }
+        }
+        Object value = root.eval(frame);
+        if (value == null) {
+            return null;
+        }
+        if (resultType.isInstance(value)) {
+            return resultType.cast(value);
+        }
+        if (value instanceof Number number) {
+            return NumberUtils.convertNumberToTargetClass(number, resultType);
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Compilation
+    // ---------------------------------------------------------------------------------------
+
+    private static final class Compiler {
+
+        private final Predicate<String> allowedVariable;
+        private final Map<String, BigDecimal> constants;
+        private final Set<String> functionNames;
+        private final Map<String, Integer> slots = new LinkedHashMap<>();
+
+        Compiler(Predicate<String> allowedVariable, Map<String, BigDecimal> constants, Set<String> functionNames) {
+            this.allowedVariable = allowedVariable;
+            this.constants = constants;
+            this.functionNames = functionNames;
+        }
+
+        /** Compiles {@code node}, or returns {@code null} when any part of it is unsupported. */
+        Node compile(SpelNode node) {
+            if (node instanceof Literal literal) {
+                return new Constant(literal.getLiteralValue().getValue());
+            }
+            if (node instanceof VariableReference) {
+                return variable(node.toStringAST().substring(1));
+            }
+            if (node instanceof FunctionReference) {
+                String ast = node.toStringAST();
+                return function(ast.substring(1, ast.indexOf('(')), children(node));
+            }
+            if (node instanceof InlineList) {
+                return inlineList(children(node));
+            }
+            if (node instanceof OpPlus) {
+                return node.getChildCount() == 1 ? unary(node, CompiledFormula::plus) : binary(node, CompiledFormula::add);
+            }
+            if (node instanceof OpMinus) {
+                return node.getChildCount() == 1 ? unary(node, CompiledFormula::negate) : binary(node, CompiledFormula::subtract);
+            }
+            if (node instanceof OpMultiply) {
+                return binary(node, CompiledFormula::multiply);
+            }
+            if (node instanceof OpDivide) {
+                return binary(node, CompiledFormula::divide);
+            }
+            if (node instanceof OpModulus) {
+                return binary(node, CompiledFormula::modulus);
+            }
+            if (node instanceof OpLT) {
+                return binary(node, (l, r) -> compare(l, r) < 0);
+            }
+            if (node instanceof OpLE) {
+                return binary(node, (l, r) -> compare(l, r) <= 0);
+            }
+            if (node instanceof OpGT) {
+                return binary(node, (l, r) -> compare(l, r) > 0);
+            }
+            if (node instanceof OpGE) {
+                return binary(node, (l, r) -> compare(l, r) >= 0);
+            }
+            if (node instanceof OpEQ) {
+                return binary(node, CompiledFormula::equalityCheck);
+            }
+            if (node instanceof OpNE) {
+                return binary(node, (l, r) -> !equalityCheck(l, r));
+            }
+            if (node instanceof OpAnd) {
+                Node[] ops = children(node);
+                if (ops == null || ops.length != 2) return null;
+                Node left = ops[0];
+                Node right = ops[1];
+                return frame -> condition(left.eval(frame)) && condition(right.eval(frame));
+            }
+            if (node instanceof OpOr) {
+                Node[] ops = children(node);
+                if (ops == null || ops.length != 2) return null;
+                Node left = ops[0];
+                Node right = ops[1];
+                return frame -> condition(left.eval(frame)) || condition(right.eval(frame));
+            }
+            if (node instanceof OperatorNot) {
+                Node[] ops = children(node);
+                if (ops == null || ops.length != 1) return null;
+                Node operand = ops[0];
+                return frame -> !condition(operand.eval(frame));
+            }
+            if (node instanceof Ternary) {
+                Node[] ops = children(node);
+                if (ops == null || ops.length != 3) return null;
+                Node test = ops[0];
+                Node ifTrue = ops[1];
+                Node ifFalse = ops[2];
+                return frame -> condition(test.eval(frame)) ? ifTrue.eval(frame) : ifFalse.eval(frame);
+            }
+            // Property/method/type/bean/constructor references, indexers, selections, assignment,
+            // elvis, power, instanceof, matches, between, ... stay interpreted.
+            return null;
+        }
+
+        private Node[] children(SpelNode node) {
+            Node[] out = new Node[node.getChildCount()];
+            for (int i = 0; i < out.length; i++) {
+                Node child = compile(node.getChild(i));
+                if (child == null) return null;
+                out[i] = child;
+            }
+            return out;
+        }
+
+        private Node variable(String name) {
+            if ("this".equals(name) || "root".equals(name) || functionNames.contains(name)) {
+                return null;
+            }
+            BigDecimal constant = constants.get(name);
+            if (constant != null) {
+                return new Constant(constant);
+            }
+            if (!allowedVariable.test(name)) {
+                // filterToAllowed never binds it, so the interpreter reads null.
+                return NULL;
+            }
+            int slot = slots.computeIfAbsent(name, n -> slots.size());
+            return frame -> frame[slot];
+        }
+
+        private Node inlineList(Node[] elements) {
+            if (elements == null) return null;
+            if (Arrays.stream(elements).allMatch(Constant.class::isInstance)) {
+                List<Object> values = new ArrayList<>(elements.length);
+                for (Node element : elements) {
+                    values.add(((Constant) element).value());
+                }
+                return new Constant(Collections.unmodifiableList(values));
+            }
+            return frame -> {
+                List<Object> values = new ArrayList<>(elements.length);
+                for (Node element : elements) {
+                    values.add(element.eval(frame));
+                }
+                return values;
+            };
+        }
+
+        private Node unary(SpelNode node, java.util.function.UnaryOperator<Object> op) {
+            Node[] ops = children(node);
+            if (ops == null) return null;
+            Node operand = ops[0];
+            return frame -> op.apply(operand.eval(frame));
+        }
+
+        private Node binary(SpelNode node, java.util.function.BinaryOperator<Object> op) {
+            Node[] ops = children(node);
+            if (ops == null || ops.length != 2) return null;
+            Node left = ops[0];
+            Node right = ops[1];
+            return frame -> op.apply(left.eval(frame), right.eval(frame));
+        }
+
+        /** Direct call into {@link Functions}; {@code null} for an unknown name or wrong arity. */
+        private Node function(String name, Node[] a) {
+            if (a == null || !functionNames.contains(name)) {
+                return null;
+            }
+            return switch (name) {
+                case "min" -> a.length != 2 ? null : f -> Functions.min(decimal(a[0].eval(f)), decimal(a[1].eval(f)));
+                case "max" -> a.length != 2 ? null : f -> Functions.max(decimal(a[0].eval(f)), decimal(a[1].eval(f)));
+                case "abs" -> a.length != 1 ? null : f -> Functions.abs(decimal(a[0].eval(f)));
+                case "clamp" -> a.length != 3
+                    ? null
+                    : f -> Functions.clamp(decimal(a[0].eval(f)), decimal(a[1].eval(f)), decimal(a[2].eval(f)));
+                case "round" -> a.length != 2 ? null : f -> Functions.round(decimal(a[0].eval(f)), integer(a[1].eval(f)));
+                case "roundUp" -> a.length != 2 ? null : f -> Functions.roundUp(decimal(a[0].eval(f)), integer(a[1].eval(f)));
+                case "roundDown" -> a.length != 2 ? null : f -> Functions.roundDown(decimal(a[0].eval(f)), integer(a[1].eval(f)));
+                case "ceil" -> a.length != 1 ? null : f -> Functions.ceil(decimal(a[0].eval(f)));
+                case "floor" -> a.length != 1 ? null : f -> Functions.floor(decimal(a[0].eval(f)));
+                case "roundToIncrement" -> a.length != 2
+                    ? null
+                    : f -> Functions.roundToIncrement(decimal(a[0].eval(f)), decimal(a[1].eval(f)));
+                case "pct" -> a.length != 2 ? null : f -> Functions.pct(decimal(a[0].eval(f)), decimal(a[1].eval(f)));
+                case "iif" -> a.length != 3
+                    ? null
+                    : f -> Functions.iif(bool(a[0].eval(f)), decimal(a[1].eval(f)), decimal(a[2].eval(f)));
+                case "cap" -> a.length != 2 ? null : f -> Functions.cap(decimal(a[0].eval(f)), decimal(a[1].eval(f)));
+                case "threshold" -> a.length != 2 ? null : f -> Functions.threshold(decimal(a[0].eval(f)), decimal(a[1].eval(f)));
+                case "band" -> a.length != 2 ? null : f -> Functions.band(decimal(a[0].eval(f)), list(a[1].eval(f)));
+                case "yearsBetween" -> a.length != 2 ? null : f -> Functions.yearsBetween(date(a[0].eval(f)), date(a[1].eval(f)));
+                case "monthsBetween" -> a.length != 2 ? null : f -> Functions.monthsBetween(date(a[0].eval(f)), date(a[1].eval(f)));
+                case "daysBetween" -> a.length != 2 ? null : f -> Functions.daysBetween(date(a[0].eval(f)), date(a[1].eval(f)));
+                // Registered but not wired here: keep it interpreted rather than guess.
+                default -> null;
+            };
+        }
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Function argument coercion (the subset of the conversion service the formulas hit)
+    // ---------------------------------------------------------------------------------------
+
+    private static BigDecimal decimal(Object value) {
+        if (value == null || value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof Integer || value instanceof Long || value instanceof Double) {
+            // Same as NumberUtils.convertNumberToTargetClass(n, BigDecimal.class).
+            return new BigDecimal(value.toString());
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    private static int integer(Object value) {
+        if (value instanceof Integer i) {
+            return i;
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    private static boolean bool(Object value) {
+        if (value instanceof Boolean b) {
+            return b;
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    private static LocalDate date(Object value) {
+        if (value == null || value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    private static List<?> list(Object value) {
+        if (value == null || value instanceof List<?>) {
+            return (List<?>) value;
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    /** Condition operand of {@code and}/{@code or}/{@code not}/{@code ?:}; SpEL rejects null. */
+    private static boolean condition(Object value) {
+        return bool(value);
+    }
+
+    // ---------------------------------------------------------------------------------------
+    // Operators — SpEL's promotion order: BigDecimal, Double, (Float, BigInteger), Long, Integer
+    // ---------------------------------------------------------------------------------------
+
+    private enum Kind {
+        DECIMAL,
+        DOUBLE,
+        LONG,
+        INT,
+    }
+
+    private static boolean modelled(Object n) {
+        return n instanceof BigDecimal || n instanceof Double || n instanceof Long || n instanceof Integer;
+    }
+
+    /** Promotion kind of two numeric operands; {@link Fallback} for anything not modelled. */
+    private static Kind kind(Object l, Object r) {
+        if (!modelled(l) || !modelled(r)) {
+            throw Fallback.INSTANCE;
+        }
+        if (l instanceof BigDecimal || r instanceof BigDecimal) return Kind.DECIMAL;
+        if (l instanceof Double || r instanceof Double) return Kind.DOUBLE;
+        if (l instanceof Long || r instanceof Long) return Kind.LONG;
+        return Kind.INT;
+    }
+
+    private static Object add(Object l, Object r) {
+        return switch (kind(l, r)) {
+            case DECIMAL -> decimal(l).add(decimal(r));
+            case DOUBLE -> ((Number) l).doubleValue() + ((Number) r).doubleValue();
+            case LONG -> ((Number) l).longValue() + ((Number) r).longValue();
+            case INT -> ((Number) l).intValue() + ((Number) r).intValue();
+        };
+    }
+
+    private static Object subtract(Object l, Object r) {
+        return switch (kind(l, r)) {
+            case DECIMAL -> decimal(l).subtract(decimal(r));
+            case DOUBLE -> ((Number) l).doubleValue() - ((Number) r).doubleValue();
+            case LONG -> ((Number) l).longValue() - ((Number) r).longValue();
+            case INT -> ((Number) l).intValue() - ((Number) r).intValue();
+        };
+    }
+
+    private static Object multiply(Object l, Object r) {
+        return switch (kind(l, r)) {
+            case DECIMAL -> decimal(l).multiply(decimal(r));
+            case DOUBLE -> ((Number) l).doubleValue() * ((Number) r).doubleValue();
+            case LONG -> ((Number) l).longValue() * ((Number) r).longValue();
+            case INT -> ((Number) l).intValue() * ((Number) r).intValue();
+        };
+    }
+
+    private static Object divide(Object l, Object r) {
+        return switch (kind(l, r)) {
+            case DECIMAL -> {
+                BigDecimal left = decimal(l);
+                BigDecimal right = decimal(r);
+                yield left.divide(right, Math.max(left.scale(), right.scale()), RoundingMode.HALF_EVEN);
+            }
+            case DOUBLE -> ((Number) l).doubleValue() / ((Number) r).doubleValue();
+            case LONG -> ((Number) l).longValue() / ((Number) r).longValue();
+            case INT -> ((Number) l).intValue() / ((Number) r).intValue();
+        };
+    }
+
+    private static Object modulus(Object l, Object r) {
+        return switch (kind(l, r)) {
+            case DECIMAL -> decimal(l).remainder(decimal(r));
+            case DOUBLE -> ((Number) l).doubleValue() % ((Number) r).doubleValue();
+            case LONG -> ((Number) l).longValue() % ((Number) r).longValue();
+            case INT -> ((Number) l).intValue() % ((Number) r).intValue();
+        };
+    }
+
+    private static Object plus(Object operand) {
+        if (modelled(operand)) return operand;
+        throw Fallback.INSTANCE;
+    }
+
+    private static Object negate(Object operand) {
+        if (operand instanceof BigDecimal d) return d.negate();
+        if (operand instanceof Double d) return -d;
+        if (operand instanceof Long l) return -l;
+        if (operand instanceof Integer i) return -i;
+        throw Fallback.INSTANCE;
+    }
+
+    /** Relational comparison: numbers by promotion kind, nulls first, same-class comparables. */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static int compare(Object l, Object r) {
+        if (l instanceof Number && r instanceof Number) {
+            return switch (kind(l, r)) {
+                case DECIMAL -> decimal(l).compareTo(decimal(r));
+                case DOUBLE -> Double.compare(((Number) l).doubleValue(), ((Number) r).doubleValue());
+                case LONG -> Long.compare(((Number) l).longValue(), ((Number) r).longValue());
+                case INT -> Integer.compare(((Number) l).intValue(), ((Number) r).intValue());
+            };
+        }
+        if (l == null) return r == null ? 0 : -1;
+        if (r == null) return 1;
+        if (l instanceof CharSequence && r instanceof CharSequence) {
+            return l.toString().compareTo(r.toString());
+        }
+        if (l.getClass() == r.getClass() && l instanceof Comparable comparable) {
+            return comparable.compareTo(r);
+        }
+        throw Fallback.INSTANCE;
+    }
+
+    /** {@code ==}: numbers by promotion kind, text by content, otherwise same-class equality. */
+    private static boolean equalityCheck(Object l, Object r) {
+        if (l instanceof Number && r instanceof Number) {
+            return switch (kind(l, r)) {
+                case DECIMAL -> decimal(l).compareTo(decimal(r)) == 0;
+                case DOUBLE -> ((Number) l).doubleValue() == ((Number) r).doubleValue();
+                case LONG -> ((Number) l).longValue() == ((Number) r).longValue();
+                case INT -> ((Number) l).intValue() == ((Number) r).intValue();
+            };
+        }
+        if (l == null || r == null) return l == r;
+        if (l instanceof CharSequence && r instanceof CharSequence) {
+            return l.toString().equals(r.toString());
+        }
+        if (l.getClass() == r.getClass()) {
+            return l.equals(r);
+        }
+        throw Fallback.INSTANCE;
+    }
+}
@@ -1,5 +1,6 @@
 package com.humano.service.payroll;
 
+import com.humano.config.multitenancy.TenantContext;
 import com.humano.domain.enumeration.payroll.BenefitStatus;
 import com.humano.domain.enumeration.payroll.BenefitType;
 import com.humano.domain.payroll.Currency;
@@ -8,6 +9,7 @@ import com.humano.domain.shared.Employee;
 import com.humano.dto.payroll.request.EnrollBenefitRequest;
 import com.humano.dto.payroll.response.BenefitsSummaryResponse;
 import com.humano.dto.payroll.response.EmployeeBenefitResponse;
+import com.humano.events.CompensationChangedEvent;
 import com.humano.repository.payroll.CurrencyRepository;
 import com.humano.repository.payroll.EmployeeBenefitRepository;
 import com.humano.repository.shared.EmployeeRepository;
@@ -22,6 +24,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,15 +41,18 @@ public class EmployeeBenefitService {
     private final EmployeeBenefitRepository benefitRepository;
     private final EmployeeRepository employeeRepository;
     private final CurrencyRepository currencyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EmployeeBenefitService(
         EmployeeBenefitRepository benefitRepository,
         EmployeeRepository employeeRepository,
-        CurrencyRepository currencyRepository
+        CurrencyRepository currencyRepository,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.benefitRepository = benefitRepository;
         this.employeeRepository = employeeRepository;
         this.currencyRepository = currencyRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -81,6 +87,7 @@ public class EmployeeBenefitService {
 
         benefit = benefitRepository.save(benefit);
         log.info("Enrolled employee {} in {} benefit", employee.getId(), request.type());
+        publishCompensationChanged(Set.of(employee.getId()));
 
         return toResponse(benefit);
     }
@@ -107,6 +114,7 @@ public class EmployeeBenefitService {
         benefit = benefitRepository.save(benefit);
 
         log.info("Terminated benefit {} for employee {} effective {}", benefitId, benefit.getEmployee().getId(), effectiveTermination);
+        publishCompensationChanged(Set.of(benefit.getEmployee().getId()));
 
         return toResponse(benefit);
     }
@@ -132,6 +140,7 @@ public class EmployeeBenefitService {
 
         benefit = benefitRepository.save(benefit);
         log.info("Updated costs for benefit {}", benefitId);
+        publishCompensationChanged(Set.of(benefit.getEmployee().getId()));
 
         return toResponse(benefit);
     }
@@ -323,6 +332,7 @@ public class EmployeeBenefitService {
 
         List<EmployeeBenefit> savedBenefits = benefitRepository.saveAll(benefits);
         log.info("Enrolled {} employees in {} benefit", savedBenefits.size(), type);
+        publishCompensationChanged(savedBenefits.stream().map(benefit -> benefit.getEmployee().getId()).toList());
 
         return savedBenefits.stream().map(this::toResponse).toList();
     }
@@ -386,4 +396,10 @@ public class EmployeeBenefitService {
             null // coverageLevel - would come from additional field
         );
     }
+
+    private void publishCompensationChanged(Collection<UUID> employeeIds) {
+        if (!employeeIds.isEmpty()) {
+            eventPublisher.publishEvent(new CompensationChangedEvent(TenantContext.getCurrentTenant(), Set.copyOf(employeeIds)));
+        }
+    }
 }
@@ -1,14 +1,18 @@
 package com.humano.service.payroll;
 
+import com.humano.config.multitenancy.TenantContext;
 import com.humano.domain.payroll.Currency;
 import com.humano.domain.payroll.ExchangeRate;
 import com.humano.dto.payroll.request.CreateExchangeRateRequest;
 import com.humano.dto.payroll.response.CurrencyConversionResponse;
 import com.humano.dto.payroll.response.ExchangeRateResponse;
+import com.humano.events.ExchangeRatesChangedEvent;
 import com.humano.repository.payroll.CurrencyRepository;
 import com.humano.repository.payroll.ExchangeRateRepository;
 import com.humano.service.errors.BusinessRuleViolationException;
 import com.humano.service.errors.EntityNotFoundException;
+import com.humano.service.payroll.fx.FxRateSeries;
+import com.humano.service.payroll.fx.FxRateSeriesCache;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
@@ -16,6 +20,7 @@ import java.time.LocalDate;
 import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -27,6 +32,8 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * Service for managing exchange rates and currency conversions.
  * Supports multi-currency payroll calculations and financial reporting.
+ * Conversions read the tenant's rate series from {@link FxRateSeriesCache}; rate changes made
+ * here publish an {@link ExchangeRatesChangedEvent} so the series are reloaded once they commit.
  */
 @Service
 @Transactional
@@ -37,10 +44,19 @@ public class ExchangeRateService {
 
     private final ExchangeRateRepository exchangeRateRepository;
     private final CurrencyRepository currencyRepository;
-
-    public ExchangeRateService(ExchangeRateRepository exchangeRateRepository, CurrencyRepository currencyRepository) {
+    private final FxRateSeriesCache fxRateSeriesCache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ExchangeRateService(
+        ExchangeRateRepository exchangeRateRepository,
+        CurrencyRepository currencyRepository,
+        FxRateSeriesCache fxRateSeriesCache,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.exchangeRateRepository = exchangeRateRepository;
         this.currencyRepository = currencyRepository;
+        this.fxRateSeriesCache = fxRateSeriesCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -85,6 +101,7 @@ public class ExchangeRateService {
         rate.setRate(request.rate().setScale(RATE_SCALE, RoundingMode.HALF_UP));
 
         rate = exchangeRateRepository.save(rate);
+        publishRatesChanged();
         log.info("Created exchange rate {} -> {} = {} on {}", fromCurrency.getCode(), toCurrency.getCode(), rate.getRate(), rate.getDate());
 
         return toResponse(rate);
@@ -94,8 +111,10 @@ public class ExchangeRateService {
      * Idempotently upserts a provider-sourced rate for ({@code from}, {@code to}, {@code date}): updates
      * the existing row for that key or inserts a new one, stamping {@link ExchangeRate#getSource()} and
      * {@link ExchangeRate#getFetchedAt()} for provenance. Re-running a day's ingestion overwrites in place
-     * rather than duplicating. Used by {@code FxRateIngestionService}; manual CRUD is unaffected, and the
-     * business {@code date} the {@link #getReportingRate} staleness guard reads is preserved.
+     * rather than duplicating. The single-rate form of {@code FxRateWriter.upsert}, which scheduled
+     * ingestion uses; manual CRUD is unaffected, and the business {@code date} the
+     * {@link #getReportingRate} staleness guard reads is preserved. Publishes no
+     * {@link ExchangeRatesChangedEvent}: the caller refreshes {@link FxRateSeriesCache}.
      */
     public void upsertProviderRate(Currency from, Currency to, LocalDate date, BigDecimal rate, String source) {
         ExchangeRate er = findExactRate(from.getId(), to.getId(), date).orElseGet(() -> {
@@ -112,12 +131,15 @@ public class ExchangeRateService {
     }
 
     /**
-     * Creates exchange rates in bulk (e.g., daily rate imports).
+     * Creates exchange rates in bulk (e.g., daily rate imports). A pair has one rate per date:
+     * a rate already stored for it is replaced only when the request says so, and a second
+     * request for the same pair and date is skipped, like any other invalid row.
      */
     public List<ExchangeRateResponse> createBulkRates(List<CreateExchangeRateRequest> requests) {
         log.info("Creating {} bulk exchange rates", requests.size());
 
         List<ExchangeRate> rates = new ArrayList<>();
+        Set<RateKey> requested = new HashSet<>();
 
         for (CreateExchangeRateRequest request : requests) {
             try {
@@ -129,10 +151,18 @@ public class ExchangeRateService {
                     .findById(request.toCurrencyId())
                     .orElseThrow(() -> new EntityNotFoundException("Currency", request.toCurrencyId()));
 
-                ExchangeRate rate = new ExchangeRate();
-                rate.setFromCcy(fromCurrency);
-                rate.setToCcy(toCurrency);
-                rate.setDate(request.date());
+                if (!requested.add(new RateKey(fromCurrency.getId(), toCurrency.getId(), request.date()))) {
+                    throw new BusinessRuleViolationException("Duplicate exchange rate for this currency pair on " + request.date());
+                }
+                ExchangeRate rate = findExactRate(fromCurrency.getId(), toCurrency.getId(), request.date()).orElse(null);
+                if (rate == null) {
+                    rate = new ExchangeRate();
+                    rate.setFromCcy(fromCurrency);
+                    rate.setToCcy(toCurrency);
+                    rate.setDate(request.date());
+                } else if (!request.replaceExisting()) {
+                    throw new BusinessRuleViolationException("Exchange rate already exists for this currency pair on " + request.date());
+                }
                 rate.setRate(request.rate().setScale(RATE_SCALE, RoundingMode.HALF_UP));
 
                 rates.add(rate);
@@ -142,6 +172,7 @@ public class ExchangeRateService {
         }
 
         List<ExchangeRate> savedRates = exchangeRateRepository.saveAll(rates);
+        publishRatesChanged();
         log.info("Created {} exchange rates", savedRates.size());
 
         return savedRates.stream().map(this::toResponse).toList();
@@ -149,40 +180,36 @@ public class ExchangeRateService {
 
     /**
      * Gets the exchange rate for a currency pair on a specific date.
-     * Falls back to the most recent available rate if no exact match.
+     * Falls back to the most recent available rate if no exact match, then to the inverted
+     * most recent rate of the reverse pair.
      */
     @Transactional(readOnly = true)
     public ExchangeRateResponse getRate(UUID fromCurrencyId, UUID toCurrencyId, LocalDate date) {
         LocalDate effectiveDate = date != null ? date : LocalDate.now();
 
-        // Try exact match first
-        Optional<ExchangeRate> exactRate = findExactRate(fromCurrencyId, toCurrencyId, effectiveDate);
-        if (exactRate.isPresent()) {
-            return toResponse(exactRate.get());
-        }
-
-        // Fall back to most recent rate before the date
-        Optional<ExchangeRate> recentRate = findMostRecentRate(fromCurrencyId, toCurrencyId, effectiveDate);
-        if (recentRate.isPresent()) {
-            return toResponse(recentRate.get());
+        // Exact match, else most recent rate before the date
+        FxRateSeries.Rate rate = fxRateSeriesCache.series(fromCurrencyId, toCurrencyId).asOf(effectiveDate);
+        if (rate != null) {
+            return toResponse(rate, findCurrency(fromCurrencyId), findCurrency(toCurrencyId));
         }
 
         // Try reverse rate
-        Optional<ExchangeRate> reverseRate = findMostRecentRate(toCurrencyId, fromCurrencyId, effectiveDate);
-        if (reverseRate.isPresent()) {
-            ExchangeRate rate = reverseRate.get();
+        FxRateSeries.Rate reverseRate = fxRateSeriesCache.series(toCurrencyId, fromCurrencyId).asOf(effectiveDate);
+        if (reverseRate != null) {
+            Currency fromCurrency = findCurrency(fromCurrencyId);
+            Currency toCurrency = findCurrency(toCurrencyId);
             // Return inverted rate
             return new ExchangeRateResponse(
-                rate.getId(),
-                rate.getToCcy().getId(),
-                rate.getToCcy().getCode().name(),
-                rate.getToCcy().getName(),
-                rate.getFromCcy().getId(),
-                rate.getFromCcy().getCode().name(),
-                rate.getFromCcy().getName(),
-                BigDecimal.ONE.divide(rate.getRate(), RATE_SCALE, RoundingMode.HALF_UP),
-                rate.getRate(),
-                rate.getDate()
+                reverseRate.id(),
+                fromCurrency.getId(),
+                fromCurrency.getCode().name(),
+                fromCurrency.getName(),
+                toCurrency.getId(),
+                toCurrency.getCode().name(),
+                toCurrency.getName(),
+                BigDecimal.ONE.divide(reverseRate.rate(), RATE_SCALE, RoundingMode.HALF_UP),
+                reverseRate.rate(),
+                reverseRate.date()
             );
         }
 
@@ -236,11 +263,7 @@ public class ExchangeRateService {
             BigDecimal amount = entry.getValue();
 
             CurrencyConversionResponse conversion = convert(amount, currencyId, baseCurrencyId, date);
-            Currency currency = currencyRepository
-                .findById(currencyId)
-                .orElseThrow(() -> new EntityNotFoundException("Currency", currencyId));
-
-            result.put(currency.getCode().name(), conversion.convertedAmount());
+            result.put(conversion.fromCurrencyCode(), conversion.convertedAmount());
             total = total.add(conversion.convertedAmount());
         }
 
@@ -357,6 +380,7 @@ public class ExchangeRateService {
         ExchangeRate rate = exchangeRateRepository.findById(rateId).orElseThrow(() -> new EntityNotFoundException("ExchangeRate", rateId));
 
         exchangeRateRepository.delete(rate);
+        publishRatesChanged();
         log.info("Deleted exchange rate {}", rateId);
     }
 
@@ -433,6 +457,9 @@ public class ExchangeRateService {
      */
     public record ReportingRate(BigDecimal rate, LocalDate rateDate) {}
 
+    /** The key a pair has one rate per: source and target currency ids and the rate date. */
+    private record RateKey(UUID fromCurrencyId, UUID toCurrencyId, LocalDate date) {}
+
     /**
      * Resolves the rate to use for converting native-currency totals into a reporting
      * currency at {@code asOfDate}. Used by {@code PayrollProcessingService} (P3.4) to
@@ -450,6 +477,8 @@ public class ExchangeRateService {
      * <p>Same-currency conversions short-circuit to rate=1.0 / date={@code asOfDate}.
      * Reverse-rate inversion (used by {@link #getRate}) is intentionally NOT applied here:
      * payroll consolidation should not silently invert a stale reverse rate.
+     *
+     * <p>Answered from the pair's cached {@link FxRateSeries}: no query once it is loaded.
      */
     @Transactional(readOnly = true)
     public ReportingRate getReportingRate(UUID fromCurrencyId, UUID toCurrencyId, LocalDate asOfDate, int maxStalenessDays) {
@@ -457,35 +486,31 @@ public class ExchangeRateService {
         if (fromCurrencyId.equals(toCurrencyId)) {
             return new ReportingRate(BigDecimal.ONE, effectiveDate);
         }
-        Optional<ExchangeRate> exact = findExactRate(fromCurrencyId, toCurrencyId, effectiveDate);
-        if (exact.isPresent()) {
-            return new ReportingRate(exact.get().getRate(), exact.get().getDate());
+        FxRateSeries series = fxRateSeriesCache.series(fromCurrencyId, toCurrencyId);
+        FxRateSeries.Rate rate = series.asOf(effectiveDate);
+        if (rate == null) {
+            throw new BusinessRuleViolationException(
+                "No exchange rate found from currency " + fromCurrencyId + " to " + toCurrencyId + " on or before " + effectiveDate
+            );
         }
-        Optional<ExchangeRate> fallback = findMostRecentRate(fromCurrencyId, toCurrencyId, effectiveDate);
-        if (fallback.isPresent()) {
-            ExchangeRate r = fallback.get();
-            long staleDays = java.time.temporal.ChronoUnit.DAYS.between(r.getDate(), effectiveDate);
-            if (staleDays > maxStalenessDays) {
-                throw new BusinessRuleViolationException(
-                    "Exchange rate " +
-                    r.getFromCcy().getCode() +
-                    "→" +
-                    r.getToCcy().getCode() +
-                    " is " +
-                    staleDays +
-                    " days stale (max " +
-                    maxStalenessDays +
-                    "); last available on " +
-                    r.getDate() +
-                    ", asOf " +
-                    effectiveDate
-                );
-            }
-            return new ReportingRate(r.getRate(), r.getDate());
+        long staleDays = series.staleness(effectiveDate);
+        if (staleDays > maxStalenessDays) {
+            throw new BusinessRuleViolationException(
+                "Exchange rate " +
+                findCurrency(fromCurrencyId).getCode() +
+                "→" +
+                findCurrency(toCurrencyId).getCode() +
+                " is " +
+                staleDays +
+                " days stale (max " +
+                maxStalenessDays +
+                "); last available on " +
+                rate.date() +
+                ", asOf " +
+                effectiveDate
+            );
         }
-        throw new BusinessRuleViolationException(
-            "No exchange rate found from currency " + fromCurrencyId + " to " + toCurrencyId + " on or before " + effectiveDate
-        );
+        return new ReportingRate(rate.rate(), rate.date());
     }
 
     private Optional<ExchangeRate> findExactRate(UUID fromCurrencyId, UUID toCurrencyId, LocalDate date) {
@@ -497,40 +522,41 @@ public class ExchangeRateService {
                         cb.equal(root.get("toCcy").get("id"), toCurrencyId),
                         cb.equal(root.get("date"), date)
                     ),
-                // A currency pair should have one rate per date, but pin a deterministic
-                // pick + LIMIT 1 so a stray duplicate can't make the result arbitrary.
-                PageRequest.of(0, 1, Sort.by(Sort.Order.asc("id")))
+                // The unique key allows one rate per pair and date; should a duplicate exist, pick
+                // the row FxRateSeries and the dedupe migration keep: most recently modified first.
+                PageRequest.of(0, 1, Sort.by(Sort.Order.desc("audit.lastModifiedDate"), Sort.Order.desc("id")))
             )
             .stream()
             .findFirst();
     }
 
-    private Optional<ExchangeRate> findMostRecentRate(UUID fromCurrencyId, UUID toCurrencyId, LocalDate beforeDate) {
-        return exchangeRateRepository
-            .findAll(
-                (Specification<ExchangeRate>) (root, query, cb) ->
-                    cb.and(
-                        cb.equal(root.get("fromCcy").get("id"), fromCurrencyId),
-                        cb.equal(root.get("toCcy").get("id"), toCurrencyId),
-                        cb.lessThanOrEqualTo(root.get("date"), beforeDate)
-                    ),
-                // Most-recent rate on/before the date with LIMIT 1 pushed into SQL (was
-                // loading every prior row). The id tiebreak makes the pick deterministic when
-                // two rows share the latest date.
-                PageRequest.of(0, 1, Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id")))
-            )
-            .stream()
-            .findFirst();
+    private Currency findCurrency(UUID currencyId) {
+        return currencyRepository.findById(currencyId).orElseThrow(() -> new EntityNotFoundException("Currency", currencyId));
+    }
+
+    private void publishRatesChanged() {
+        eventPublisher.publishEvent(new ExchangeRatesChangedEvent(TenantContext.getCurrentTenant()));
+    }
+
+    private ExchangeRateResponse toResponse(FxRateSeries.Rate rate, Currency fromCurrency, Currency toCurrency) {
+        return new ExchangeRateResponse(
+            rate.id(),
+            fromCurrency.getId(),
+            fromCurrency.getCode().name(),
+            fromCurrency.getName(),
+            toCurrency.getId(),
+            toCurrency.getCode().name(),
+            toCurrency.getName(),
+            rate.rate(),
+            inverse(rate.rate()),
+            rate.date()
+        );
     }
 
     private ExchangeRateResponse toResponse(ExchangeRate rate) {
         Currency fromCurrency = rate.getFromCcy();
         Currency toCurrency = rate.getToCcy();
 
-        BigDecimal inverseRate = rate.getRate().compareTo(BigDecimal.ZERO) > 0
-            ? BigDecimal.ONE.divide(rate.getRate(), RATE_SCALE, RoundingMode.HALF_UP)
-            : BigDecimal.ZERO;
-
         return new ExchangeRateResponse(
             rate.getId(),
             fromCurrency.getId(),
@@ -540,8 +566,12 @@ public class ExchangeRateService {
             toCurrency.getCode().name(),
             toCurrency.getName(),
             rate.getRate(),
-            inverseRate,
+            inverse(rate.getRate()),
             rate.getDate()
         );
     }
+
+    private static BigDecimal inverse(BigDecimal rate) {
+        return rate.compareTo(BigDecimal.ZERO) > 0 ? BigDecimal.ONE.divide(rate, RATE_SCALE, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
 }
@@ -0,0 +1,84 @@
+package com.humano.service.payroll;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Tenant-namespaced, bounded cache for {@link PayrollFormulaEngine}'s parsed/compiled formulas.
+ *
+ * <p>Each tenant gets its own Caffeine cache capped at {@code maxEntriesPerTenant}, so one
+ * tenant's formula churn can never evict another tenant's hot set. Caffeine's reads take no
+ * lock, concurrent misses on the same formula parse it once, and its size-based eviction
+ * (W-TinyLFU) keeps frequently used formulas over a burst of one-off ones. Eviction runs on
+ * the calling thread: it is cheap, and the caps hold as soon as {@link #get} returns.
+ *
+ * <p>Hits, misses and evictions are exported as {@code payroll.formula.cache.requests{result}},
+ * {@code payroll.formula.cache.evictions} and the {@code payroll.formula.cache.size} gauge.
+ */
+final class FormulaCache<V> {
+
+    /** Namespace used when no tenant is bound to the thread (e.g. unit tests, master-side calls). */
+    private static final String NO_TENANT = "";
+
+    private final Map<String, Cache<String, V>> namespaces = new ConcurrentHashMap<>();
+    private final int maxEntriesPerTenant;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    FormulaCache(int maxEntriesPerTenant, MeterRegistry meterRegistry) {
+        this.maxEntriesPerTenant = Math.max(1, maxEntriesPerTenant);
+        this.hits = meterRegistry.counter("payroll.formula.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("payroll.formula.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("payroll.formula.cache.evictions");
+        Gauge.builder("payroll.formula.cache.size", this, FormulaCache::size)
+            .description("Cached payroll formulas across all tenant namespaces")
+            .register(meterRegistry);
+    }
+
+    /** Returns the cached value for {@code key} in {@code tenant}'s namespace, loading it on a miss. */
+    V get(String tenant, String key, Function<String, V> loader) {
+        Cache<String, V> namespace = namespaces.computeIfAbsent(tenant != null ? tenant : NO_TENANT, t -> newNamespace());
+        V value = namespace.getIfPresent(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        return namespace.get(key, loader);
+    }
+
+    /** Total entries across all namespaces. */
+    int size() {
+        long total = 0;
+        for (Cache<String, V> namespace : namespaces.values()) {
+            total += namespace.estimatedSize();
+        }
+        return (int) total;
+    }
+
+    /** Entries in one tenant's namespace. */
+    int size(String tenant) {
+        Cache<String, V> namespace = namespaces.get(tenant != null ? tenant : NO_TENANT);
+        return namespace != null ? (int) namespace.estimatedSize() : 0;
+    }
+
+    private Cache<String, V> newNamespace() {
+        return Caffeine.newBuilder()
+            .maximumSize(maxEntriesPerTenant)
+            .executor(Runnable::run)
+            .removalListener((String key, V value, RemovalCause cause) -> {
+                if (cause.wasEvicted()) {
+                    evictions.increment();
+                }
+            })
+            .build();
+    }
+}
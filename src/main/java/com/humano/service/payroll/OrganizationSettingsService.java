@@ -1,12 +1,17 @@
 package com.humano.service.payroll;
 
+import com.humano.config.multitenancy.TenantContext;
 import com.humano.domain.payroll.OrganizationSettings;
 import com.humano.dto.payroll.request.UpdateOrganizationSettingsRequest;
 import com.humano.dto.payroll.response.OrganizationSettingsResponse;
+import com.humano.events.CurrenciesInUseChangedEvent;
 import com.humano.repository.payroll.CurrencyRepository;
 import com.humano.repository.payroll.OrganizationSettingsRepository;
 import com.humano.repository.payroll.PayrollCalendarRepository;
 import jakarta.persistence.EntityNotFoundException;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,15 +27,18 @@ public class OrganizationSettingsService {
     private final OrganizationSettingsRepository repository;
     private final CurrencyRepository currencyRepository;
     private final PayrollCalendarRepository payrollCalendarRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public OrganizationSettingsService(
         OrganizationSettingsRepository repository,
         CurrencyRepository currencyRepository,
-        PayrollCalendarRepository payrollCalendarRepository
+        PayrollCalendarRepository payrollCalendarRepository,
+        ApplicationEventPublisher eventPublisher
     ) {
         this.repository = repository;
         this.currencyRepository = currencyRepository;
         this.payrollCalendarRepository = payrollCalendarRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -53,6 +61,7 @@ public class OrganizationSettingsService {
         settings.setDefaultOvertimeMultiplier(request.defaultOvertimeMultiplier());
         settings.setTimezone(request.timezone());
 
+        UUID previousCurrencyId = settings.getDefaultCurrency() == null ? null : settings.getDefaultCurrency().getId();
         settings.setDefaultCurrency(
             request.defaultCurrencyId() == null
                 ? null
@@ -68,7 +77,12 @@ public class OrganizationSettingsService {
                     .orElseThrow(() -> new EntityNotFoundException("Payroll calendar not found: " + request.defaultPayrollCalendarId()))
         );
 
-        return toResponse(repository.save(settings));
+        OrganizationSettingsResponse response = toResponse(repository.save(settings));
+        if (request.defaultCurrencyId() != null && !Objects.equals(previousCurrencyId, request.defaultCurrencyId())) {
+            // A new reporting target for FX ingestion.
+            eventPublisher.publishEvent(new CurrenciesInUseChangedEvent(TenantContext.getCurrentTenant()));
+        }
+        return response;
     }
 
     private OrganizationSettingsResponse toResponse(OrganizationSettings s) {
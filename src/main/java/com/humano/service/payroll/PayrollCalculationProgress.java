@@ -0,0 +1,30 @@
+package com.humano.service.payroll;
+
+/**
+ * Receives progress of one payroll calculation from {@link PayrollProcessingService}.
+ *
+ * <p>Called from the calculation threads (the orchestration thread or the parallel workers),
+ * possibly concurrently, so implementations must be thread-safe and cheap.
+ */
+public interface PayrollCalculationProgress {
+
+    /** Discards every update; used by the synchronous endpoints. */
+    PayrollCalculationProgress NONE = new PayrollCalculationProgress() {};
+
+    /** Whether {@link #started} needs a scope size (saves the count query when nobody listens). */
+    default boolean wantsTotal() {
+        return this != NONE;
+    }
+
+    /**
+     * The calculation is about to process its first chunk.
+     *
+     * @param total employees in the run's scope, or {@code -1} when not counted
+     * @param alreadyProcessed employees processed before the checkpoint being resumed from
+     * @param alreadyFailed employees that failed before that checkpoint
+     */
+    default void started(int total, int alreadyProcessed, int alreadyFailed) {}
+
+    /** A chunk has been calculated and written: {@code processed} succeeded (or were unchanged), {@code errors} failed. */
+    default void chunkCompleted(int processed, int errors) {}
+}
@@ -0,0 +1,151 @@
+package com.humano.service.payroll;
+
+import com.humano.domain.enumeration.hr.LeaveType;
+import com.humano.domain.enumeration.payroll.TaxCode;
+import com.humano.domain.hr.LeaveRequest;
+import com.humano.domain.payroll.Bonus;
+import com.humano.domain.payroll.Compensation;
+import com.humano.domain.payroll.Deduction;
+import com.humano.domain.payroll.EmployeeBenefit;
+import com.humano.domain.payroll.LeaveTypeRule;
+import com.humano.domain.payroll.OrganizationSettings;
+import com.humano.domain.payroll.PayRule;
+import com.humano.domain.payroll.PayrollInput;
+import com.humano.domain.payroll.TaxWithholding;
+import com.humano.domain.shared.Country;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Read-only, in-memory view of every dataset the per-employee payroll pipeline reads, for one
+ * slice of a run's employees and the run's period. Built by {@link PayrollDataSnapshotLoader}
+ * with a handful of set-based queries, so {@link PayrollProcessingService} no longer issues its
+ * ~10 per-employee lookups.
+ *
+ * <p>Each per-employee list carries exactly the rows (and ordering) the former per-employee
+ * query returned; an employee with no rows maps to an empty list. The entities are detached
+ * (their loading transaction is closed) and must be treated as read-only &mdash; they are used as
+ * values and as non-cascading FK targets only.
+ */
+public final class PayrollDataSnapshot {
+
+    /** Lookup key for tenant-global {@link LeaveTypeRule}s. */
+    record LeaveRuleKey(UUID countryId, LeaveType leaveType) {}
+
+    private final OrganizationSettings settings;
+    private final Map<UUID, Country> countryByEmployee;
+    private final Map<UUID, Compensation> compensationByEmployee;
+    private final Map<UUID, List<PayrollInput>> inputsByEmployee;
+    private final Map<UUID, List<Bonus>> bonusesByEmployee;
+    private final Map<UUID, List<Deduction>> deductionsByEmployee;
+    private final Map<UUID, List<EmployeeBenefit>> benefitsByEmployee;
+    private final Map<UUID, List<TaxWithholding>> withholdingsByEmployee;
+    private final Map<UUID, List<LeaveRequest>> approvedLeaveByEmployee;
+    private final Map<UUID, List<PayRule>> activeRulesByComponent;
+    private final Map<LeaveRuleKey, LeaveTypeRule> leaveRules;
+    private final Map<TaxBracketTable.Key, TaxBracketTable.Schedule> taxSchedules;
+    private final PayrollInputFingerprint.TableVersion taxBracketVersion;
+
+    PayrollDataSnapshot(
+        OrganizationSettings settings,
+        Map<UUID, Country> countryByEmployee,
+        Map<UUID, Compensation> compensationByEmployee,
+        Map<UUID, List<PayrollInput>> inputsByEmployee,
+        Map<UUID, List<Bonus>> bonusesByEmployee,
+        Map<UUID, List<Deduction>> deductionsByEmployee,
+        Map<UUID, List<EmployeeBenefit>> benefitsByEmployee,
+        Map<UUID, List<TaxWithholding>> withholdingsByEmployee,
+        Map<UUID, List<LeaveRequest>> approvedLeaveByEmployee,
+        Map<UUID, List<PayRule>> activeRulesByComponent,
+        Map<LeaveRuleKey, LeaveTypeRule> leaveRules,
+        Map<TaxBracketTable.Key, TaxBracketTable.Schedule> taxSchedules,
+        PayrollInputFingerprint.TableVersion taxBracketVersion
+    ) {
+        this.settings = settings;
+        this.countryByEmployee = Map.copyOf(countryByEmployee);
+        this.compensationByEmployee = Map.copyOf(compensationByEmployee);
+        this.inputsByEmployee = copyOfLists(inputsByEmployee);
+        this.bonusesByEmployee = copyOfLists(bonusesByEmployee);
+        this.deductionsByEmployee = copyOfLists(deductionsByEmployee);
+        this.benefitsByEmployee = copyOfLists(benefitsByEmployee);
+        this.withholdingsByEmployee = copyOfLists(withholdingsByEmployee);
+        this.approvedLeaveByEmployee = copyOfLists(approvedLeaveByEmployee);
+        this.activeRulesByComponent = copyOfLists(activeRulesByComponent);
+        this.leaveRules = Map.copyOf(leaveRules);
+        this.taxSchedules = Map.copyOf(taxSchedules);
+        this.taxBracketVersion = taxBracketVersion;
+    }
+
+    /** Company payroll policy, or transient defaults when the tenant has none saved. */
+    public OrganizationSettings settings() {
+        return settings;
+    }
+
+    /** The employee's country of employment, or {@code null} when none is set. */
+    public Country country(UUID employeeId) {
+        return countryByEmployee.get(employeeId);
+    }
+
+    /** The compensation active on the period end date (latest-starting, id tiebreak), or {@code null}. */
+    public Compensation compensation(UUID employeeId) {
+        return compensationByEmployee.get(employeeId);
+    }
+
+    /** Payroll inputs recorded for the employee in the run's period. */
+    public List<PayrollInput> inputs(UUID employeeId) {
+        return inputsByEmployee.getOrDefault(employeeId, List.of());
+    }
+
+    /** Unpaid bonuses awarded within the period. */
+    public List<Bonus> bonuses(UUID employeeId) {
+        return bonusesByEmployee.getOrDefault(employeeId, List.of());
+    }
+
+    /** Deductions whose effective window overlaps the period. */
+    public List<Deduction> deductions(UUID employeeId) {
+        return deductionsByEmployee.getOrDefault(employeeId, List.of());
+    }
+
+    /** ACTIVE benefits whose effective window overlaps the period. */
+    public List<EmployeeBenefit> benefits(UUID employeeId) {
+        return benefitsByEmployee.getOrDefault(employeeId, List.of());
+    }
+
+    /** Tax withholdings active on the period end date. */
+    public List<TaxWithholding> withholdings(UUID employeeId) {
+        return withholdingsByEmployee.getOrDefault(employeeId, List.of());
+    }
+
+    /** APPROVED leave requests overlapping the period. */
+    public List<LeaveRequest> approvedLeave(UUID employeeId) {
+        return approvedLeaveByEmployee.getOrDefault(employeeId, List.of());
+    }
+
+    /** Active {@link PayRule}s of a pay component, highest priority first. */
+    public List<PayRule> activeRules(UUID componentId) {
+        return activeRulesByComponent.getOrDefault(componentId, List.of());
+    }
+
+    /** The leave-type rule for a country, lowest id first when several match; {@code null} when none. */
+    public LeaveTypeRule leaveTypeRule(UUID countryId, LeaveType leaveType) {
+        return leaveRules.get(new LeaveRuleKey(countryId, leaveType));
+    }
+
+    /** The compiled tax brackets of a country and code active on the period end date; empty when none. */
+    public TaxBracketTable.Schedule taxSchedule(UUID countryId, TaxCode taxCode) {
+        return taxSchedules.getOrDefault(new TaxBracketTable.Key(countryId, taxCode), TaxBracketTable.Schedule.EMPTY);
+    }
+
+    /** The version of the {@link TaxBracketTable} {@link #taxSchedule} reads from. */
+    PayrollInputFingerprint.TableVersion taxBracketVersion() {
+        return taxBracketVersion;
+    }
+
+    private static <K, V> Map<K, List<V>> copyOfLists(Map<K, List<V>> source) {
+        Map<K, List<V>> copy = new HashMap<>(source.size() * 2);
+        source.forEach((key, values) -> copy.put(key, List.copyOf(values)));
+        return Map.copyOf(copy);
+    }
+}
@@ -0,0 +1,286 @@
+package com.humano.service.payroll;
+
+import com.humano.domain.enumeration.hr.LeaveStatus;
+import com.humano.domain.enumeration.payroll.BenefitStatus;
+import com.humano.domain.hr.LeaveRequest;
+import com.humano.domain.payroll.Bonus;
+import com.humano.domain.payroll.Compensation;
+import com.humano.domain.payroll.Deduction;
+import com.humano.domain.payroll.EmployeeBenefit;
+import com.humano.domain.payroll.LeaveTypeRule;
+import com.humano.domain.payroll.OrganizationSettings;
+import com.humano.domain.payroll.PayRule;
+import com.humano.domain.payroll.PayrollInput;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.payroll.TaxWithholding;
+import com.humano.domain.shared.Country;
+import com.humano.repository.hr.LeaveRequestRepository;
+import com.humano.repository.hr.projection.EmployeeCountryRow;
+import com.humano.repository.payroll.BonusRepository;
+import com.humano.repository.payroll.CompensationRepository;
+import com.humano.repository.payroll.DeductionRepository;
+import com.humano.repository.payroll.EmployeeBenefitRepository;
+import com.humano.repository.payroll.LeaveTypeRuleRepository;
+import com.humano.repository.payroll.OrganizationSettingsRepository;
+import com.humano.repository.payroll.PayRuleRepository;
+import com.humano.repository.payroll.PayrollInputRepository;
+import com.humano.repository.payroll.TaxWithholdingRepository;
+import com.humano.repository.shared.EmployeeRepository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Builds a {@link PayrollDataSnapshot} for a slice of a payroll run.
+ *
+ * <p>Every per-employee dataset of the calculation pipeline is fetched with one
+ * {@code employee_id IN (...)} query for the whole slice (compensation, inputs, bonuses,
+ * deductions, benefits, withholdings, approved leave), and the tenant-global ones
+ * (settings, active pay rules, leave-type rules) with one query each; the tax brackets on the
+ * period end date come from the tenant's compiled {@link TaxBracketTable}. A slice of N
+ * employees therefore costs ~11 round trips instead of ~10 × N.
+ *
+ * <p>The filters and orderings are the same as the per-employee queries they replace in
+ * {@link PayrollProcessingService}, so the pipeline's determinism contract is unchanged.
+ * Callers size the slice (the calculation chunk) so the {@code IN} lists stay bounded.
+ */
+@Service
+public class PayrollDataSnapshotLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollDataSnapshotLoader.class);
+
+    private final CompensationRepository compensationRepository;
+    private final PayrollInputRepository payrollInputRepository;
+    private final BonusRepository bonusRepository;
+    private final DeductionRepository deductionRepository;
+    private final EmployeeBenefitRepository employeeBenefitRepository;
+    private final TaxWithholdingRepository taxWithholdingRepository;
+    private final LeaveRequestRepository leaveRequestRepository;
+    private final LeaveTypeRuleRepository leaveTypeRuleRepository;
+    private final PayRuleRepository payRuleRepository;
+    private final TaxBracketTables taxBracketTables;
+    private final OrganizationSettingsRepository organizationSettingsRepository;
+    private final EmployeeRepository employeeRepository;
+
+    public PayrollDataSnapshotLoader(
+        CompensationRepository compensationRepository,
+        PayrollInputRepository payrollInputRepository,
+        BonusRepository bonusRepository,
+        DeductionRepository deductionRepository,
+        EmployeeBenefitRepository employeeBenefitRepository,
+        TaxWithholdingRepository taxWithholdingRepository,
+        LeaveRequestRepository leaveRequestRepository,
+        LeaveTypeRuleRepository leaveTypeRuleRepository,
+        PayRuleRepository payRuleRepository,
+        TaxBracketTables taxBracketTables,
+        OrganizationSettingsRepository organizationSettingsRepository,
+        EmployeeRepository employeeRepository
+    ) {
+        this.compensationRepository = compensationRepository;
+        this.payrollInputRepository = payrollInputRepository;
+        this.bonusRepository = bonusRepository;
+        this.deductionRepository = deductionRepository;
+        this.employeeBenefitRepository = employeeBenefitRepository;
+        this.taxWithholdingRepository = taxWithholdingRepository;
+        this.leaveRequestRepository = leaveRequestRepository;
+        this.leaveTypeRuleRepository = leaveTypeRuleRepository;
+        this.payRuleRepository = payRuleRepository;
+        this.taxBracketTables = taxBracketTables;
+        this.organizationSettingsRepository = organizationSettingsRepository;
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Loads the snapshot for {@code employeeIds} over {@code period}.
+     *
+     * <p>Runs in its own read-only transaction so the loaded graph is detached as soon as the
+     * snapshot is returned: it never accumulates in the run's orchestration persistence
+     * context, and worker threads can share it without touching a foreign session.
+     */
+    @Transactional(transactionManager = "tenantTransactionManager", readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public PayrollDataSnapshot load(PayrollPeriod period, Collection<UUID> employeeIds) {
+        LocalDate start = period.getStartDate();
+        LocalDate end = period.getEndDate();
+        UUID periodId = period.getId();
+
+        // Latest-starting active compensation per employee, id tiebreak — ordered in SQL and
+        // the first row per employee kept, matching the former per-employee LIMIT 1.
+        // The pipeline only needs each employee's country, so project it instead of loading the
+        // Employee graph (whose department/position/unit/manager associations are eager).
+        Map<UUID, Country> countries = new HashMap<>();
+        for (EmployeeCountryRow row : employeeRepository.findCountriesByEmployeeIds(employeeIds)) {
+            countries.put(row.employeeId(), row.country());
+        }
+
+        Map<UUID, Compensation> compensations = new HashMap<>();
+        for (Compensation c : compensationRepository.findAll(
+            (Specification<Compensation>) (root, query, cb) ->
+                cb.and(
+                    root.get("employee").get("id").in(employeeIds),
+                    cb.lessThanOrEqualTo(root.get("effectiveFrom"), end),
+                    cb.or(cb.isNull(root.get("effectiveTo")), cb.greaterThanOrEqualTo(root.get("effectiveTo"), end))
+                ),
+            Sort.by(Sort.Order.desc("effectiveFrom"), Sort.Order.asc("id"))
+        )) {
+            compensations.putIfAbsent(c.getEmployee().getId(), c);
+        }
+
+        Map<UUID, List<PayrollInput>> inputs = byEmployee(
+            payrollInputRepository.findAll(
+                (Specification<PayrollInput>) (root, query, cb) ->
+                    cb.and(root.get("employee").get("id").in(employeeIds), cb.equal(root.get("period").get("id"), periodId))
+            ),
+            i -> i.getEmployee().getId()
+        );
+
+        Map<UUID, List<Bonus>> bonuses = byEmployee(
+            bonusRepository
+                .findAll(
+                    (Specification<Bonus>) (root, query, cb) ->
+                        cb.and(
+                            root.get("employee").get("id").in(employeeIds),
+                            cb.between(root.get("awardDate"), start, end),
+                            cb.isFalse(root.get("isPaid"))
+                        )
+                )
+                .stream()
+                .sorted(
+                    Comparator.comparing(Bonus::getAwardDate, Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Bonus::getId)
+                )
+                .toList(),
+            b -> b.getEmployee().getId()
+        );
+
+        Map<UUID, List<Deduction>> deductions = byEmployee(
+            deductionRepository
+                .findAll(
+                    (Specification<Deduction>) (root, query, cb) ->
+                        cb.and(
+                            root.get("employee").get("id").in(employeeIds),
+                            cb.lessThanOrEqualTo(root.get("effectiveFrom"), end),
+                            cb.or(cb.isNull(root.get("effectiveTo")), cb.greaterThanOrEqualTo(root.get("effectiveTo"), start))
+                        )
+                )
+                .stream()
+                .sorted(
+                    Comparator.comparing(Deduction::getEffectiveFrom, Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(
+                        Deduction::getId
+                    )
+                )
+                .toList(),
+            d -> d.getEmployee().getId()
+        );
+
+        Map<UUID, List<EmployeeBenefit>> benefits = byEmployee(
+            employeeBenefitRepository
+                .findAll(
+                    (Specification<EmployeeBenefit>) (root, query, cb) ->
+                        cb.and(
+                            root.get("employee").get("id").in(employeeIds),
+                            cb.equal(root.get("status"), BenefitStatus.ACTIVE),
+                            cb.lessThanOrEqualTo(root.get("effectiveFrom"), end),
+                            cb.or(cb.isNull(root.get("effectiveTo")), cb.greaterThanOrEqualTo(root.get("effectiveTo"), start))
+                        )
+                )
+                .stream()
+                .sorted(Comparator.comparing(EmployeeBenefit::getType).thenComparing(EmployeeBenefit::getId))
+                .toList(),
+            b -> b.getEmployee().getId()
+        );
+
+        Map<UUID, List<TaxWithholding>> withholdings = byEmployee(
+            taxWithholdingRepository
+                .findAll(
+                    (Specification<TaxWithholding>) (root, query, cb) ->
+                        cb.and(
+                            root.get("employee").get("id").in(employeeIds),
+                            cb.lessThanOrEqualTo(root.get("effectiveFrom"), end),
+                            cb.or(cb.isNull(root.get("effectiveTo")), cb.greaterThanOrEqualTo(root.get("effectiveTo"), end))
+                        )
+                )
+                .stream()
+                .sorted(Comparator.comparing(TaxWithholding::getType).thenComparing(TaxWithholding::getId))
+                .toList(),
+            w -> w.getEmployee().getId()
+        );
+
+        // LeaveRequest.employee is LAZY; reading the id off the proxy does not initialise it.
+        Map<UUID, List<LeaveRequest>> approvedLeave = byEmployee(
+            leaveRequestRepository.findAll(
+                (Specification<LeaveRequest>) (root, query, cb) ->
+                    cb.and(
+                        root.get("employee").get("id").in(employeeIds),
+                        cb.equal(root.get("status"), LeaveStatus.APPROVED),
+                        cb.lessThanOrEqualTo(root.get("startDate"), end),
+                        cb.greaterThanOrEqualTo(root.get("endDate"), start)
+                    )
+            ),
+            r -> r.getEmployee().getId()
+        );
+
+        // Highest priority first; the sort is stable so equal priorities keep query order.
+        Map<UUID, List<PayRule>> rulesByComponent = byEmployee(
+            payRuleRepository
+                .findAll((Specification<PayRule>) (root, query, cb) -> cb.isTrue(root.get("active")))
+                .stream()
+                .sorted(Comparator.comparing((PayRule r) -> r.getPriority() != null ? r.getPriority() : 0).reversed())
+                .toList(),
+            r -> r.getPayComponent().getId()
+        );
+
+        // Deterministic single-rule pick per (country, leaveType): lowest id wins.
+        Map<PayrollDataSnapshot.LeaveRuleKey, LeaveTypeRule> leaveRules = new HashMap<>();
+        for (LeaveTypeRule rule : leaveTypeRuleRepository.findAll(Sort.by(Sort.Order.asc("id")))) {
+            if (rule.getCountry() != null) {
+                leaveRules.putIfAbsent(new PayrollDataSnapshot.LeaveRuleKey(rule.getCountry().getId(), rule.getLeaveType()), rule);
+            }
+        }
+
+        // Compiled once per tenant and shared across runs; see TaxBracketTables.
+        TaxBracketTable taxBrackets = taxBracketTables.current();
+        Map<TaxBracketTable.Key, TaxBracketTable.Schedule> taxSchedules = taxBrackets.schedules(end);
+
+        OrganizationSettings settings = organizationSettingsRepository.findAll().stream().findFirst().orElseGet(OrganizationSettings::new);
+
+        log.debug(
+            "Loaded payroll snapshot for period {}: {} employees, {} with compensation",
+            periodId,
+            employeeIds.size(),
+            compensations.size()
+        );
+        return new PayrollDataSnapshot(
+            settings,
+            countries,
+            compensations,
+            inputs,
+            bonuses,
+            deductions,
+            benefits,
+            withholdings,
+            approvedLeave,
+            rulesByComponent,
+            leaveRules,
+            taxSchedules,
+            taxBrackets.version()
+        );
+    }
+
+    /** Groups rows by key, keeping their incoming order within each group. */
+    private static <T> Map<UUID, List<T>> byEmployee(List<T> rows, Function<T, UUID> key) {
+        return rows.stream().collect(Collectors.groupingBy(key, LinkedHashMap::new, Collectors.toList()));
+    }
+}
@@ -1,5 +1,9 @@
 package com.humano.service.payroll;
 
+import com.humano.config.PayrollProperties;
+import com.humano.config.multitenancy.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -9,13 +13,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
@@ -61,10 +65,22 @@ import org.springframework.stereotype.Service;
  *       reflection, no DB.</li>
  *   <li><strong>Parsed-{@link Expression} cache.</strong> SpEL parsing isn't free; the
  *       same formula string fires once per employee × payroll run. We cache by formula
- *       text in a bounded LRU capped at {@link #CACHE_MAX_SIZE} entries — the least-recently-used
- *       entry is evicted on overflow, so a burst of one-off formulas can't drop the hot set.</li>
+ *       text in a {@link FormulaCache} (bounded Caffeine caches), namespaced per tenant and
+ *       capped at {@code humano.payroll.formula.cache-max-entries-per-tenant} entries each —
+ *       eviction favours frequently used formulas, so a burst of one-off formulas can't drop
+ *       the hot set, and one tenant's churn can't touch another tenant's.</li>
  * </ol>
  *
+ * <h2>Compiled mode</h2>
+ *
+ * With {@code humano.payroll.formula.compiled} on (the default), each cached formula is also
+ * turned into a {@link CompiledFormula}: a pre-resolved tree with direct calls into
+ * {@link Functions}, folded constants and slot-indexed variables whose whitelist check happens
+ * once at compile time. Evaluating it builds no {@link SimpleEvaluationContext}, copies no
+ * variable map and does no reflective dispatch. The length and forbidden-token checks still run
+ * on every call before the cache is consulted. Formulas (or operand types) outside the compiled
+ * subset transparently fall back to the interpreted path below, so results are identical.
+ *
  * <h2>What a formula can reach</h2>
  *
  * <p><strong>Variables</strong> (referenced as {@code #name}; bare names work too when
@@ -209,15 +225,6 @@ public class PayrollFormulaEngine {
      */
     private static final Pattern FORBIDDEN_TOKENS = Pattern.compile("T\\s*\\(|@");
 
-    /**
-     * Hard cap on the parsed-expression cache. The cache is a bounded LRU (see
-     * {@link #expressionCache}); reaching this size evicts the least-recently-used entry
-     * rather than clearing the whole cache. Reached only on tenants with thousands of distinct
-     * formula strings (formulas are reused per employee, so the cardinality is per-tenant
-     * pay-rule-count, not per-employee-run).
-     */
-    private static final int CACHE_MAX_SIZE = 1000;
-
     /**
      * Maximum accepted formula length. Tenant formulas are untrusted input; an absurdly long
      * expression is the cheapest DoS vector against the SpEL parser/evaluator (which has no
@@ -248,24 +255,30 @@ public class PayrollFormulaEngine {
     private final ExpressionParser parser = new SpelExpressionParser();
 
     /**
-     * Parsed-expression cache as a bounded LRU. Replaces a clear-the-whole-thing-on-overflow
-     * policy (which could drop every hot entry at once and cause a re-parse stampede).
-     * Access-ordered {@link LinkedHashMap} wrapped for thread-safety; the eldest
-     * (least-recently-used) entry is evicted once the size would exceed {@link #CACHE_MAX_SIZE}.
+     * Parsed-expression cache, one bounded Caffeine cache per tenant. Reads are lock-free, so
+     * parallel payroll workers never serialize on it (the former {@code synchronizedMap} around
+     * an access-ordered {@code LinkedHashMap} took a global monitor on every read).
      */
-    private final Map<String, Expression> expressionCache = Collections.synchronizedMap(
-        new LinkedHashMap<>(16, 0.75f, true) {
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
-                return size() > CACHE_MAX_SIZE;
-            }
-        }
-    );
+    private final FormulaCache<CachedFormula> expressionCache;
 
     private final Map<String, Method> functionRegistry;
 
+    /** Whether cached formulas are compiled (see "Compiled mode" above). */
+    private final boolean compiledMode;
+
+    /** Parsed expression plus its compiled form ({@code null} when not compilable or disabled). */
+    private record CachedFormula(Expression expression, CompiledFormula compiled) {}
+
+    /** Engine with default settings (compiled mode on); used outside the Spring context. */
     public PayrollFormulaEngine() {
+        this(new PayrollProperties(), new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public PayrollFormulaEngine(PayrollProperties payrollProperties, MeterRegistry meterRegistry) {
         this.functionRegistry = buildFunctionRegistry();
+        this.compiledMode = payrollProperties.getFormula().isCompiled();
+        this.expressionCache = new FormulaCache<>(payrollProperties.getFormula().getCacheMaxEntriesPerTenant(), meterRegistry);
     }
 
     /**
@@ -297,12 +310,37 @@ public class PayrollFormulaEngine {
             log.warn("Rejected formula containing forbidden tokens (T(...) or @bean): {}", formula);
             throw new SecurityException("Formula contains forbidden tokens (T(...) or @bean references)");
         }
-        Expression expression = expressionCache.computeIfAbsent(formula, parser::parseExpression);
+        CachedFormula cached = expressionCache.get(TenantContext.getCurrentTenant(), formula, this::parse);
+        if (cached.compiled() != null) {
+            try {
+                return cached.compiled().evaluate(variables, resultType);
+            } catch (CompiledFormula.Fallback fallback) {
+                // Operand types outside the compiled subset — evaluate interpreted below.
+            }
+        }
         SimpleEvaluationContext context = SimpleEvaluationContext.forReadOnlyDataBinding().build();
         functionRegistry.forEach(context::setVariable);
         CONSTANTS.forEach(context::setVariable);
         filterToAllowed(variables).forEach(context::setVariable);
-        return expression.getValue(context, resultType);
+        return cached.expression().getValue(context, resultType);
+    }
+
+    /** Parses {@code formula} and, in compiled mode, compiles it. Runs once per cache miss. */
+    private CachedFormula parse(String formula) {
+        Expression expression = parser.parseExpression(formula);
+        if (!compiledMode) {
+            return new CachedFormula(expression, null);
+        }
+        CompiledFormula compiled = CompiledFormula.compile(expression, this::isAllowedVariableName, CONSTANTS, functionRegistry.keySet());
+        if (compiled == null) {
+            log.debug("PayrollFormulaEngine: formula uses constructs outside the compiled subset; interpreting: {}", formula);
+        }
+        return new CachedFormula(expression, compiled);
+    }
+
+    /** Whitelist test shared by {@link #filterToAllowed} and the compiler. */
+    private boolean isAllowedVariableName(String name) {
+        return ALLOWED_VARIABLE_NAMES.contains(name) || ALLOWED_DYNAMIC_NAME.matcher(name).matches();
     }
 
     /**
@@ -386,7 +424,7 @@ public class PayrollFormulaEngine {
                 log.debug("PayrollFormulaEngine: caller-supplied '{}' shadows a reserved name; dropping", name);
                 continue;
             }
-            if (ALLOWED_VARIABLE_NAMES.contains(name) || ALLOWED_DYNAMIC_NAME.matcher(name).matches()) {
+            if (isAllowedVariableName(name)) {
                 filtered.put(name, e.getValue());
             } else {
                 log.debug("PayrollFormulaEngine: dropping non-whitelisted variable '{}'", name);
@@ -0,0 +1,126 @@
+package com.humano.service.payroll;
+
+import com.humano.domain.hr.LeaveRequest;
+import com.humano.domain.payroll.Compensation;
+import com.humano.domain.payroll.LeaveTypeRule;
+import com.humano.domain.payroll.PayComponent;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.domain.shared.AbstractAuditingEntity;
+import com.humano.domain.shared.Country;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * SHA-256 fingerprint of everything one employee's payroll result is calculated from, stored on
+ * {@code PayrollResult.inputHash} so a dirty-only recalculation can skip unchanged employees.
+ *
+ * <p>The run-level part reuses the idempotency-hash inputs of {@code PayrollRun.hash} (period,
+ * pay-rule version, reporting currency), plus the period's and the pay components' own
+ * versions. A table-wide version is a {@link TableVersion}: the row count as well as the latest
+ * modification, since deleting a row leaves the latter unchanged. The employee part covers
+ * every row the pipeline reads from the {@link PayrollDataSnapshot} as
+ * {@code (id, lastModifiedDate)} pairs, the version of the compiled {@link TaxBracketTable} the
+ * snapshot's schedules came from (not the database's, which a node's table may lag behind),
+ * plus the reporting rate. Any edit, insert or delete of
+ * any of them therefore changes the fingerprint; the fingerprint never has to be invalidated
+ * explicitly.
+ */
+final class PayrollInputFingerprint {
+
+    /** Bump when the fingerprint payload changes shape, so every stored hash reads as dirty. */
+    private static final int VERSION = 3;
+
+    private static final char DELIM = '|';
+
+    private PayrollInputFingerprint() {}
+
+    /** Version of a whole table: its row count and the latest modification of any row. */
+    record TableVersion(long rows, Instant lastModified) {
+        static TableVersion of(Collection<? extends AbstractAuditingEntity<UUID>> rows) {
+            Instant lastModified = rows
+                .stream()
+                .map(AbstractAuditingEntity::getLastModifiedDate)
+                .filter(Objects::nonNull)
+                .max(Instant::compareTo)
+                .orElse(null);
+            return new TableVersion(rows.size(), lastModified);
+        }
+
+        @Override
+        public String toString() {
+            return rows + "@" + lastModified;
+        }
+    }
+
+    /** The run-wide prefix, computed once per calculation. */
+    static String runInputs(PayrollRun run, TableVersion payRules, Collection<PayComponent> components) {
+        PayrollPeriod period = run.getPeriod();
+        StringBuilder payload = new StringBuilder();
+        payload.append('v').append(VERSION).append(DELIM);
+        payload.append(period.getId()).append(DELIM).append(period.getLastModifiedDate()).append(DELIM);
+        payload.append(payRules).append(DELIM);
+        payload.append(TableVersion.of(components)).append(DELIM);
+        payload.append(run.getReportingCurrency() != null ? run.getReportingCurrency().getId() : null);
+        return payload.toString();
+    }
+
+    /**
+     * The fingerprint of {@code employeeId}'s inputs in {@code snapshot}. {@code reportingRate}
+     * is the rate the employee would convert at, or {@code null} for a single-currency run.
+     */
+    static String of(String runInputs, UUID employeeId, PayrollDataSnapshot snapshot, ExchangeRateService.ReportingRate reportingRate) {
+        StringBuilder payload = new StringBuilder(512);
+        payload.append(runInputs).append(DELIM).append(employeeId);
+        Country country = snapshot.country(employeeId);
+        appendRow(payload, country);
+        appendRow(payload, snapshot.settings());
+        payload.append(DELIM).append(snapshot.taxBracketVersion());
+        Compensation compensation = snapshot.compensation(employeeId);
+        appendRow(payload, compensation);
+        appendRows(payload, snapshot.inputs(employeeId));
+        appendRows(payload, snapshot.bonuses(employeeId));
+        appendRows(payload, snapshot.deductions(employeeId));
+        appendRows(payload, snapshot.benefits(employeeId));
+        appendRows(payload, snapshot.withholdings(employeeId));
+        for (LeaveRequest leave : snapshot.approvedLeave(employeeId)) {
+            appendRow(payload, leave);
+            LeaveTypeRule rule = country != null ? snapshot.leaveTypeRule(country.getId(), leave.getLeaveType()) : null;
+            appendRow(payload, rule);
+        }
+        if (reportingRate != null) {
+            payload.append(DELIM).append(reportingRate.rate().toPlainString()).append('@').append(reportingRate.rateDate());
+        }
+        return sha256(payload);
+    }
+
+    private static void appendRows(StringBuilder payload, Collection<? extends AbstractAuditingEntity<UUID>> rows) {
+        payload.append(DELIM).append(rows.size());
+        for (AbstractAuditingEntity<UUID> row : rows) {
+            appendRow(payload, row);
+        }
+    }
+
+    private static void appendRow(StringBuilder payload, AbstractAuditingEntity<UUID> row) {
+        payload.append(DELIM);
+        if (row != null) {
+            payload.append(row.getId()).append('@').append(row.getLastModifiedDate());
+        }
+    }
+
+    private static String sha256(CharSequence payload) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(payload.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandated by every JVM (Java SE platform spec); fail loud if missing.
+            throw new IllegalStateException("SHA-256 not available on this JVM", e);
+        }
+    }
+}
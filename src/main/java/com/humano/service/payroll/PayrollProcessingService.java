@@ -1,19 +1,23 @@
 package com.humano.service.payroll;
 
 import com.humano.aop.audit.Auditable;
-import com.humano.domain.enumeration.hr.LeaveStatus;
+import com.humano.config.PayrollProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.config.multitenancy.TenantDataSourceProvider;
 import com.humano.domain.enumeration.hr.LeaveType;
 import com.humano.domain.enumeration.payroll.*;
 import com.humano.domain.hr.LeaveRequest;
 import com.humano.domain.payroll.*;
 import com.humano.domain.payroll.Currency;
+import com.humano.domain.shared.Country;
 import com.humano.domain.shared.Employee;
 import com.humano.dto.payroll.request.ApprovePayrollRunRequest;
 import com.humano.dto.payroll.request.InitiatePayrollRunRequest;
 import com.humano.dto.payroll.request.RecalculatePayrollRequest;
 import com.humano.dto.payroll.response.PayrollRunResponse;
 import com.humano.dto.payroll.response.PayrollRunSummaryResponse;
-import com.humano.repository.hr.LeaveRequestRepository;
+import com.humano.events.CurrenciesInUseChangedEvent;
+import com.humano.repository.hr.projection.PayrollScopeRow;
 import com.humano.repository.payroll.*;
 import com.humano.repository.payroll.CurrencyRepository;
 import com.humano.repository.shared.EmployeeRepository;
@@ -21,17 +25,25 @@ import com.humano.security.AuthorityPermissionService;
 import com.humano.security.PermissionsConstants;
 import com.humano.service.errors.BusinessRuleViolationException;
 import com.humano.service.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -47,10 +59,7 @@ import org.springframework.transaction.annotation.Transactional;
  * <h2>Per-employee calculation pipeline (contract)</h2>
  *
  * <pre>
- *   resolveResult(run, period, employee)
- *        │
- *        ▼
- *   Compensation comp = findActiveCompensation(employee, period.endDate)   // required
+ *   Compensation comp = snapshot.compensation(employee)  // active on period.endDate; required
  *        │
  *        ▼
  *   ┌─ Step  1 ─ Base salary
@@ -98,7 +107,7 @@ import org.springframework.transaction.annotation.Transactional;
  *   └─ Step 12 ─ EMPLOYER COST marker      = gross + Σ employer-charges + Σ benefit.employerCost
  *                + formula-driven EMPLOYER_CHARGE PayComponents → line each
  *
- *   persist(result + lines)
+ *   → PayrollResultWriter.Draft(totals + lines)   // persisted per chunk, see below
  * </pre>
  *
  * <p><strong>Determinism contract.</strong> Every collection that drives a line-producing
@@ -107,6 +116,12 @@ import org.springframework.transaction.annotation.Transactional;
  * every money value is rounded with {@link #MONEY_ROUNDING} at scale {@link #MONEY_SCALE}.
  * This is what gives the "stable across runs and human-readable" acceptance teeth.
  *
+ * <p><strong>Data access.</strong> The pipeline reads its per-employee inputs (compensation,
+ * inputs, bonuses, leave, deductions, withholdings, benefits) and the tenant-global rules it
+ * needs (pay rules, leave-type rules, tax brackets, settings) from a {@link PayrollDataSnapshot}
+ * prefetched once per calculation chunk by {@link PayrollDataSnapshotLoader} &mdash; not from
+ * per-employee queries.
+ *
  * <p><strong>Out-of-scope hooks (lanes guarded).</strong> Multi-currency conversion at
  * the run boundary is a future task. Idempotency-hash content should not be extended
  * without careful consideration. Don't widen here.
@@ -130,29 +145,33 @@ public class PayrollProcessingService {
     private final PayrollPeriodRepository payrollPeriodRepository;
     private final PayrollResultRepository payrollResultRepository;
     private final PayrollLineRepository payrollLineRepository;
-    private final PayrollInputRepository payrollInputRepository;
     private final PayComponentRepository payComponentRepository;
     private final PayRuleRepository payRuleRepository;
-    private final CompensationRepository compensationRepository;
-    private final OrganizationSettingsRepository organizationSettingsRepository;
     private final EmployeeRepository employeeRepository;
     private final CurrencyRepository currencyRepository;
-    private final BonusRepository bonusRepository;
-    private final DeductionRepository deductionRepository;
-    private final EmployeeBenefitRepository employeeBenefitRepository;
-    private final LeaveTypeRuleRepository leaveTypeRuleRepository;
-    private final LeaveRequestRepository leaveRequestRepository;
     private final TaxBracketRepository taxBracketRepository;
     private final TaxWithholdingRepository taxWithholdingRepository;
     private final PayrollFormulaEngine formulaEngine;
     private final DeductionService deductionService;
     private final BonusService bonusService;
-    private final TaxCalculationService taxCalculationService;
     private final ExchangeRateService exchangeRateService;
     private final AuthorityPermissionService authorityPermissionService;
 
-    /** Runs each employee's calculation in its own tenant {@code REQUIRES_NEW} transaction. */
-    private final PayrollEmployeeTransactionExecutor employeeTransactionExecutor;
+    /** Persists each chunk's calculated results + lines in one batched transaction. */
+    private final PayrollResultWriter resultWriter;
+
+    /** Prefetches each chunk's per-employee inputs in a few set-based queries. */
+    private final PayrollDataSnapshotLoader snapshotLoader;
+
+    /** Reads run scopes as keyset-paginated employee projections. */
+    private final PayrollScopeResolver scopeResolver;
+
+    /** Shared, tenant-aware worker pool for parallel calculation (see {@link #calculateInParallel}). */
+    private final AsyncTaskExecutor calculationExecutor;
+    private final PayrollProperties.Calculation calculationProperties;
+    private final TenantDataSourceProvider tenantDataSourceProvider;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     /** P3.4: maximum days a fallback rate may lag the payment date before the per-employee
      *  calculation fails with a {@code BusinessRuleViolationException}. */
@@ -164,53 +183,49 @@ public class PayrollProcessingService {
         PayrollPeriodRepository payrollPeriodRepository,
         PayrollResultRepository payrollResultRepository,
         PayrollLineRepository payrollLineRepository,
-        PayrollInputRepository payrollInputRepository,
         PayComponentRepository payComponentRepository,
         PayRuleRepository payRuleRepository,
-        CompensationRepository compensationRepository,
-        OrganizationSettingsRepository organizationSettingsRepository,
         EmployeeRepository employeeRepository,
         CurrencyRepository currencyRepository,
-        BonusRepository bonusRepository,
-        DeductionRepository deductionRepository,
-        EmployeeBenefitRepository employeeBenefitRepository,
-        LeaveTypeRuleRepository leaveTypeRuleRepository,
-        LeaveRequestRepository leaveRequestRepository,
         TaxBracketRepository taxBracketRepository,
         TaxWithholdingRepository taxWithholdingRepository,
         PayrollFormulaEngine formulaEngine,
         DeductionService deductionService,
         BonusService bonusService,
-        TaxCalculationService taxCalculationService,
         ExchangeRateService exchangeRateService,
         AuthorityPermissionService authorityPermissionService,
-        PayrollEmployeeTransactionExecutor employeeTransactionExecutor
+        PayrollResultWriter resultWriter,
+        PayrollDataSnapshotLoader snapshotLoader,
+        PayrollScopeResolver scopeResolver,
+        @Qualifier("payrollCalculationExecutor") AsyncTaskExecutor calculationExecutor,
+        PayrollProperties payrollProperties,
+        TenantDataSourceProvider tenantDataSourceProvider,
+        ApplicationEventPublisher eventPublisher,
+        MeterRegistry meterRegistry
     ) {
         this.payrollRunRepository = payrollRunRepository;
         this.payrollPeriodRepository = payrollPeriodRepository;
         this.payrollResultRepository = payrollResultRepository;
         this.payrollLineRepository = payrollLineRepository;
-        this.payrollInputRepository = payrollInputRepository;
         this.payComponentRepository = payComponentRepository;
         this.payRuleRepository = payRuleRepository;
-        this.compensationRepository = compensationRepository;
-        this.organizationSettingsRepository = organizationSettingsRepository;
         this.employeeRepository = employeeRepository;
         this.currencyRepository = currencyRepository;
-        this.bonusRepository = bonusRepository;
-        this.deductionRepository = deductionRepository;
-        this.employeeBenefitRepository = employeeBenefitRepository;
-        this.leaveTypeRuleRepository = leaveTypeRuleRepository;
-        this.leaveRequestRepository = leaveRequestRepository;
         this.taxBracketRepository = taxBracketRepository;
         this.taxWithholdingRepository = taxWithholdingRepository;
         this.formulaEngine = formulaEngine;
         this.deductionService = deductionService;
         this.bonusService = bonusService;
-        this.taxCalculationService = taxCalculationService;
         this.exchangeRateService = exchangeRateService;
         this.authorityPermissionService = authorityPermissionService;
-        this.employeeTransactionExecutor = employeeTransactionExecutor;
+        this.resultWriter = resultWriter;
+        this.snapshotLoader = snapshotLoader;
+        this.scopeResolver = scopeResolver;
+        this.calculationExecutor = calculationExecutor;
+        this.calculationProperties = payrollProperties.getCalculation();
+        this.tenantDataSourceProvider = tenantDataSourceProvider;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -247,17 +262,17 @@ public class PayrollProcessingService {
         // be processed.
         //
         // Breadcrumb: `request.excludedEmployeeIds()` is intentionally NOT in the
-        // hash today because `getEmployeesForScope` ignores it (and so does
+        // hash today because `PayrollScopeResolver` ignores it (and so does
         // `calculatePayroll`). The day exclusions / real scope filtering land, they
         // MUST be added to the hash here — otherwise two genuinely-different
         // SELECTED_EMPLOYEES runs (or "ALL minus X" vs. "ALL minus Y") will collapse to
         // one via the short-circuit below. Same caveat applies to non-ALL scopes:
-        // today `getEmployeesForScope` returns `findAll()` for them, so the hash
+        // today `PayrollScopeResolver` returns every employee for them, so the hash
         // overcounts; a future scope filter must also slot in here.
         String scope = request.scope() != null ? request.scope().name() : "ALL";
-        List<UUID> sortedEmployeeIds = getEmployeesForScope(scope, period)
+        List<UUID> sortedEmployeeIds = scopeResolver
+            .resolveIds(scope, period)
             .stream()
-            .map(Employee::getId)
             .sorted(Comparator.comparing(UUID::toString))
             .toList();
         Instant payRuleVersion = payRuleRepository.findMaxLastModifiedDate().orElse(null);
@@ -314,6 +329,10 @@ public class PayrollProcessingService {
                 .findById(request.reportingCurrencyId())
                 .orElseThrow(() -> new EntityNotFoundException("Currency (reporting)", request.reportingCurrencyId()));
             run.setReportingCurrency(reporting);
+            if (!payrollRunRepository.existsByReportingCurrency(reporting)) {
+                // A new reporting target for FX ingestion.
+                eventPublisher.publishEvent(new CurrenciesInUseChangedEvent(TenantContext.getCurrentTenant()));
+            }
         }
 
         // saveAndFlush so a unique-hash violation surfaces here (synchronously) rather than
@@ -345,31 +364,67 @@ public class PayrollProcessingService {
      * Calculates payroll for all employees in a run.
      *
      * <h3>Transaction model</h3>
-     * The orchestration here runs in one tenant transaction, but each employee is calculated
-     * in its <em>own</em> {@code REQUIRES_NEW} transaction via
-     * {@link PayrollEmployeeTransactionExecutor#calculateInNewTransaction}. That buys:
-     * <ul>
-     *   <li><strong>Genuine per-employee isolation.</strong> Previously a caught per-employee
-     *       failure was <em>not</em> truly isolated: rows already saved by the failing employee
-     *       (e.g. the {@link PayrollResult} persisted just before its lines threw) sat in the
-     *       shared persistence context and flushed at the final commit alongside everyone else
-     *       — a half-written result could be persisted. Now each employee fully commits or
-     *       fully rolls back, and a failure is recorded as a
-     *       {@link PayrollRunResponse.PayrollValidationError} without touching anyone else.</li>
-     *   <li><strong>Bounded memory.</strong> Each employee's heavy entity graph lives in its
-     *       own transaction-scoped persistence context (closed at that employee's commit), so
-     *       it never accumulates across thousands of employees in one giant context.</li>
-     * </ul>
+     * The orchestration here runs in one tenant transaction; the employees are processed in
+     * chunks, each in two phases:
+     * <ol>
+     *   <li><strong>Compute.</strong> Every employee of the chunk is calculated in memory against
+     *       the chunk's {@link PayrollDataSnapshot}, producing a {@link PayrollResultWriter.Draft}.
+     *       Nothing is written, so a failing employee (missing compensation, stale FX rate, ...)
+     *       is simply reported as a {@link PayrollRunResponse.PayrollValidationError} and left
+     *       out.</li>
+     *   <li><strong>Write.</strong> {@link PayrollResultWriter#write} persists the chunk's drafts
+     *       in one {@code REQUIRES_NEW} transaction with JDBC-batched inserts. If that
+     *       transaction fails, the chunk is written again one employee per transaction so only
+     *       the offending employee is reported and everyone else still commits.</li>
+     * </ol>
+     * An employee therefore still fully commits or fully rolls back (no half-written result),
+     * and no persistence context outlives its chunk, so memory stays bounded however large the
+     * scope is.
+     *
+     * <p><strong>Concurrency caveat.</strong> Per-chunk commits remove the implicit whole-run
+     * serialization. The writer does an unlocked find-or-create on {@code (run, employee)}; the
+     * durable guard against a concurrent double-calculate is the unique constraint
+     * {@code uc_payroll_result_run_employee} on {@code payroll_result(run_id, employee_id)} — a
+     * racing insert fails the chunk, and the per-employee retry surfaces it as an error instead
+     * of a duplicate row.
      *
-     * <p><strong>Concurrency caveat.</strong> Per-employee commits remove the implicit
-     * whole-run serialization. {@link #resolveResult} does an unlocked find-or-create on
-     * {@code (run, employee)}; the durable guard against a concurrent double-calculate is the
-     * unique constraint {@code uc_payroll_result_run_employee} on
-     * {@code payroll_result(run_id, employee_id)} — a racing insert fails and surfaces as a
-     * per-employee error instead of a duplicate row.
+     * <p>Rows written and write time are summed over the run and reported as rows per second
+     * ({@code payroll.calculation.write.throughput}).
+     *
+     * <h3>Scope paging</h3>
+     * The scope is never materialised: {@link PayrollScopeResolver} reads it in keyset pages of
+     * id/name/country/currency projections, and each page is cut into chunks on demand as the
+     * chunks are consumed (see {@link ChunkFeed}). Only the page in hand is held in memory, and
+     * the first chunk is calculated as soon as the first page is back.
+     *
+     * <h3>Checkpoints</h3>
+     * Chunks are numbered in scope (id) order. Whenever the completed chunks form a longer
+     * unbroken prefix, the last employee of that prefix and the running counts are committed on
+     * the run ({@link PayrollRun#getCheckpointEmployeeId()}) by {@link PayrollResultWriter#checkpoint}.
+     * If the node dies mid-run, calling this again resumes after the checkpoint instead of
+     * starting over; a completed calculation clears it. Every result also stores its
+     * {@link PayrollInputFingerprint}, which {@link #recalculatePayroll}'s dirty-only mode
+     * compares against.
+     *
+     * <h3>Parallel mode</h3>
+     * When {@code humano.payroll.calculation.parallelism} (or its per-tenant override) is above
+     * one and the scope is larger than a single chunk, the chunks are
+     * calculated by a bounded set of workers on the tenant-aware {@code payrollCalculationExecutor}
+     * (see {@link #calculateInParallel}). The effective worker count is capped by the tenant's
+     * Hikari pool so a run can never take every connection. Otherwise the sequential loop runs
+     * on the calling thread, exactly as before.
      */
     @Transactional(transactionManager = "tenantTransactionManager")
     public PayrollRunResponse calculatePayroll(UUID runId) {
+        return calculatePayroll(runId, PayrollCalculationProgress.NONE);
+    }
+
+    /**
+     * {@link #calculatePayroll(UUID)}, reporting progress to {@code progress} as chunks complete
+     * (used by background run jobs, see {@link PayrollRunJobService}).
+     */
+    @Transactional(transactionManager = "tenantTransactionManager")
+    public PayrollRunResponse calculatePayroll(UUID runId, PayrollCalculationProgress progress) {
         log.info("Calculating payroll for run: {}", runId);
 
         PayrollRun run = payrollRunRepository.findById(runId).orElseThrow(() -> new EntityNotFoundException("PayrollRun", runId));
@@ -378,86 +433,487 @@ public class PayrollProcessingService {
             throw new BusinessRuleViolationException("Can only calculate payroll for DRAFT or CALCULATED runs");
         }
 
-        List<Employee> employees = getEmployeesForScope(run.getScope(), run.getPeriod());
+        // A checkpoint is only left behind by a calculation that never finished: carry on after it.
+        UUID resumeAfter = run.getCheckpointEmployeeId();
+        if (resumeAfter != null) {
+            log.info(
+                "Resuming payroll calculation for run {} after employee {} ({} processed, {} errors so far)",
+                runId,
+                resumeAfter,
+                run.getProcessedCount(),
+                run.getErrorCount()
+            );
+        }
+        return runCalculation(run, resumeAfter, false, progress);
+    }
+
+    /**
+     * Calculates {@code run}'s scope from the top (or after {@code resumeAfter}), checkpointing as
+     * chunks commit, then marks the run CALCULATED and clears the checkpoint. With
+     * {@code dirtyOnly}, employees whose stored input fingerprint matches their current one are
+     * counted as processed without being recalculated or rewritten.
+     *
+     * <p>The managed {@code run} is not touched until the very end, so the orchestration
+     * transaction holds no lock on its row while the checkpoint transactions update it.
+     */
+    private PayrollRunResponse runCalculation(PayrollRun run, UUID resumeAfter, boolean dirtyOnly, PayrollCalculationProgress progress) {
+        UUID runId = run.getId();
 
         // Pay components are tenant-global config — load the lookup map ONCE for the whole
         // run instead of re-querying pay_component for every employee. The components are only
-        // read and used as non-cascading FK targets on emitted lines, so passing them into each
-        // per-employee transaction (where they are technically detached) is safe.
+        // read and used as non-cascading FK targets on emitted lines, so handing them to the
+        // chunk write transactions (where they are technically detached) is safe.
         Map<PayComponentCode, PayComponent> componentsByCode = loadComponentsByCode();
+        String runInputs = PayrollInputFingerprint.runInputs(
+            run,
+            new PayrollInputFingerprint.TableVersion(payRuleRepository.count(), payRuleRepository.findMaxLastModifiedDate().orElse(null)),
+            componentsByCode.values()
+        );
+        CalculationPlan plan = new CalculationPlan(componentsByCode, runInputs, dirtyOnly, progress);
+        RunCheckpoint checkpoint = resumeAfter != null
+            ? new RunCheckpoint(
+                runId,
+                resumeAfter,
+                Objects.requireNonNullElse(run.getProcessedCount(), 0),
+                Objects.requireNonNullElse(run.getErrorCount(), 0)
+            )
+            : new RunCheckpoint(runId, null, 0, 0);
+
+        // Scope rows are projections (id + display name is all the loop needs), so the worker
+        // threads never touch managed Employee instances. Reading the first page up front
+        // tells whether there is more than one chunk to share out.
+        ChunkFeed feed = new ChunkFeed(
+            scopeResolver.open(run.getScope(), run.getPeriod(), resumeAfter),
+            calculationProperties.getChunkSize()
+        );
+        int parallelism = resolveCalculationParallelism();
+        progress.started(
+            progress.wantsTotal() ? (int) scopeResolver.count(run.getScope()) : -1,
+            checkpoint.processed(),
+            checkpoint.errors()
+        );
 
-        List<PayrollRunResponse.PayrollValidationError> errors = new ArrayList<>();
-        int processedCount = 0;
-        for (Employee employee : employees) {
-            UUID employeeId = employee.getId();
-            try {
-                // REQUIRES_NEW: the executor suspends this orchestration transaction and runs
-                // the work in its own, so a failure rolls back only that employee. Run + employee
-                // are re-loaded inside that transaction (the instances above are managed by the
-                // orchestration context, hence detached for the new one).
-                employeeTransactionExecutor.runInNewTransaction(() -> {
-                    PayrollRun freshRun = payrollRunRepository
-                        .findById(runId)
-                        .orElseThrow(() -> new EntityNotFoundException("PayrollRun", runId));
-                    Employee freshEmployee = employeeRepository
-                        .findById(employeeId)
-                        .orElseThrow(() -> new EntityNotFoundException("Employee", employeeId));
-                    calculateEmployeePayroll(freshRun, freshRun.getPeriod(), freshEmployee, componentsByCode);
-                });
-                processedCount++;
-            } catch (Exception e) {
-                // Log the full throwable (stack trace), not just getMessage(), so a
-                // production calc failure is actually diagnosable. The catch stays broad on
-                // purpose — per-employee isolation means one employee's failure must not abort
-                // the run — but the diagnostics are no longer discarded.
-                log.error("Error calculating payroll for employee {}", employeeId, e);
-                String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
-                errors.add(
-                    new PayrollRunResponse.PayrollValidationError(
-                        employeeId,
-                        employee.getFirstName() + " " + employee.getLastName(),
-                        "CALCULATION_ERROR",
-                        message,
-                        "ERROR"
-                    )
-                );
-            }
-        }
+        CalculationOutcome outcome = parallelism > 1 && feed.hasMoreThanOneChunk()
+            ? calculateInParallel(run, feed, plan, checkpoint, parallelism)
+            : calculateSequentially(run, feed, plan, checkpoint);
+        List<PayrollRunResponse.PayrollValidationError> errors = outcome.errors();
 
         run.setStatus(RunStatus.CALCULATED);
+        run.setCheckpointEmployeeId(null);
+        run.setProcessedCount(checkpoint.processed());
+        run.setErrorCount(checkpoint.errors());
+        run.setCheckpointAt(Instant.now());
         run = payrollRunRepository.save(run);
 
-        log.info("Completed payroll calculation for run {}. Processed: {}, Errors: {}", runId, processedCount, errors.size());
+        recordWriteThroughput(runId, outcome);
+        log.info(
+            "Completed payroll calculation for run {}. Processed: {} (unchanged: {}), Errors: {}",
+            runId,
+            outcome.processed(),
+            outcome.unchanged(),
+            errors.size()
+        );
 
         return toRunResponse(run, errors);
     }
 
+    /**
+     * Computes one employee against the chunk's snapshot, returning its draft, or recording a
+     * validation error in {@code errors} and returning {@code null} when the calculation fails.
+     */
+    private PayrollResultWriter.Draft calculateOne(
+        PayrollRun run,
+        EmployeeRef employee,
+        Map<PayComponentCode, PayComponent> componentsByCode,
+        PayrollDataSnapshot snapshot,
+        List<PayrollRunResponse.PayrollValidationError> errors
+    ) {
+        try {
+            return calculateEmployeePayroll(run, run.getPeriod(), employee.id(), componentsByCode, snapshot);
+        } catch (Exception e) {
+            // Log the full throwable (stack trace), not just getMessage(), so a
+            // production calc failure is actually diagnosable. The catch stays broad on
+            // purpose — per-employee isolation means one employee's failure must not abort
+            // the run — but the diagnostics are no longer discarded.
+            log.error("Error calculating payroll for employee {}", employee.id(), e);
+            errors.add(calculationError(employee, e));
+            return null;
+        }
+    }
+
+    /**
+     * Calculates one chunk of the run on the current thread: prefetches the chunk's
+     * {@link PayrollDataSnapshot} in a handful of set-based queries, computes every employee
+     * against it, then writes the whole chunk in one batched transaction.
+     *
+     * <p>Each employee's {@link PayrollInputFingerprint} is computed from the snapshot and
+     * stored with the result; in dirty-only mode an employee whose stored fingerprint matches is
+     * skipped before any calculation.
+     *
+     * <p>Should the chunk write fail (e.g. a concurrent calculation won the unique
+     * {@code (run, employee)} insert), the drafts are written again one per transaction so the
+     * failure is pinned to the employee(s) that caused it.
+     */
+    private CalculationOutcome calculateChunk(PayrollRun run, List<EmployeeRef> chunk, CalculationPlan plan) {
+        UUID runId = run.getId();
+        UUID periodId = run.getPeriod().getId();
+        List<UUID> employeeIds = chunk.stream().map(EmployeeRef::id).toList();
+        PayrollDataSnapshot snapshot = snapshotLoader.load(run.getPeriod(), employeeIds);
+        Map<UUID, String> storedHashes = plan.dirtyOnly() ? resultWriter.inputHashes(runId, employeeIds) : Map.of();
+        Map<UUID, Optional<ExchangeRateService.ReportingRate>> ratesByCurrency = new HashMap<>();
+
+        List<PayrollRunResponse.PayrollValidationError> errors = new ArrayList<>();
+        Map<UUID, EmployeeRef> calculated = new LinkedHashMap<>();
+        List<PayrollResultWriter.Draft> drafts = new ArrayList<>(chunk.size());
+        int unchanged = 0;
+        for (EmployeeRef employee : chunk) {
+            String fingerprint = inputFingerprint(run, employee.id(), snapshot, plan.runInputs(), ratesByCurrency);
+            if (fingerprint != null && fingerprint.equals(storedHashes.get(employee.id()))) {
+                unchanged++;
+                continue;
+            }
+            PayrollResultWriter.Draft draft = calculateOne(run, employee, plan.componentsByCode(), snapshot, errors);
+            if (draft != null) {
+                draft.result().setInputHash(fingerprint);
+                drafts.add(draft);
+                calculated.put(employee.id(), employee);
+            }
+        }
+
+        long writeStart = System.nanoTime();
+        PayrollResultWriter.WriteStats written;
+        int processed;
+        try {
+            written = resultWriter.write(runId, periodId, drafts);
+            processed = drafts.size();
+        } catch (Exception chunkFailure) {
+            log.warn("Batched write of {} results for run {} failed, retrying per employee: {}", drafts.size(), runId, chunkFailure.getMessage());
+            written = PayrollResultWriter.WriteStats.EMPTY;
+            processed = 0;
+            for (PayrollResultWriter.Draft draft : drafts) {
+                try {
+                    written = written.plus(resultWriter.write(runId, periodId, List.of(draft)));
+                    processed++;
+                } catch (Exception e) {
+                    log.error("Error saving payroll for employee {}", draft.employeeId(), e);
+                    errors.add(calculationError(calculated.get(draft.employeeId()), e));
+                }
+            }
+        }
+        return new CalculationOutcome(processed + unchanged, unchanged, errors, written.rows(), System.nanoTime() - writeStart);
+    }
+
+    /**
+     * The employee's current {@link PayrollInputFingerprint}, or {@code null} when the reporting
+     * rate cannot be resolved (the employee is then always calculated, so the pipeline reports
+     * the rate problem). Rates are resolved once per compensation currency per chunk.
+     */
+    private String inputFingerprint(
+        PayrollRun run,
+        UUID employeeId,
+        PayrollDataSnapshot snapshot,
+        String runInputs,
+        Map<UUID, Optional<ExchangeRateService.ReportingRate>> ratesByCurrency
+    ) {
+        ExchangeRateService.ReportingRate rate = null;
+        Compensation compensation = snapshot.compensation(employeeId);
+        if (run.getReportingCurrency() != null && compensation != null) {
+            Optional<ExchangeRateService.ReportingRate> resolved = ratesByCurrency.computeIfAbsent(compensation.getCurrency().getId(), currencyId -> {
+                try {
+                    return Optional.of(
+                        exchangeRateService.getReportingRate(
+                            currencyId,
+                            run.getReportingCurrency().getId(),
+                            run.getPeriod().getPaymentDate(),
+                            maxExchangeRateStalenessDays
+                        )
+                    );
+                } catch (RuntimeException e) {
+                    return Optional.empty();
+                }
+            });
+            if (resolved.isEmpty()) {
+                return null;
+            }
+            rate = resolved.get();
+        }
+        return PayrollInputFingerprint.of(runInputs, employeeId, snapshot, rate);
+    }
+
+    private static PayrollRunResponse.PayrollValidationError calculationError(EmployeeRef employee, Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        return new PayrollRunResponse.PayrollValidationError(employee.id(), employee.displayName(), "CALCULATION_ERROR", message, "ERROR");
+    }
+
+    /**
+     * Logs and records the run's write throughput (rows of results + lines per second of time
+     * spent in {@link PayrollResultWriter}). In parallel mode the write time is summed across
+     * workers, so the figure is per-worker throughput.
+     */
+    private void recordWriteThroughput(UUID runId, CalculationOutcome outcome) {
+        if (outcome.rowsWritten() == 0 || outcome.writeNanos() <= 0) {
+            return;
+        }
+        double rowsPerSecond = outcome.rowsWritten() / (outcome.writeNanos() / 1_000_000_000d);
+        DistributionSummary.builder("payroll.calculation.write.throughput")
+            .baseUnit("rows/s")
+            .description("Rows of payroll results and lines written per second, per run")
+            .register(meterRegistry)
+            .record(rowsPerSecond);
+        log.info(
+            "Run {} wrote {} rows in {} ms ({} rows/s)",
+            runId,
+            outcome.rowsWritten(),
+            outcome.writeNanos() / 1_000_000,
+            Math.round(rowsPerSecond)
+        );
+    }
+
+    /** Sequential mode: calculates the chunks one after another on the calling thread. */
+    private CalculationOutcome calculateSequentially(PayrollRun run, ChunkFeed feed, CalculationPlan plan, RunCheckpoint checkpoint) {
+        List<CalculationOutcome> outcomes = new ArrayList<>();
+        for (ChunkFeed.Indexed chunk = feed.nextIndexed(); chunk != null; chunk = feed.nextIndexed()) {
+            CalculationOutcome outcome = calculateChunk(run, chunk.employees(), plan);
+            checkpoint.completed(chunk, outcome);
+            plan.progress().chunkCompleted(outcome.processed(), outcome.errors().size());
+            outcomes.add(outcome);
+        }
+        return CalculationOutcome.merge(outcomes);
+    }
+
+    /**
+     * Parallel mode: lets exactly {@code parallelism} workers on the shared
+     * {@code payrollCalculationExecutor} pull chunks from the feed until none are left. The worker count is what bounds this run's share of the tenant
+     * pool; the executor's own size bounds the node across tenants. A worker that finds the
+     * current page used up reads the next one itself, so scope reads overlap calculation.
+     *
+     * <p>Workers inherit the tenant through {@link com.humano.config.multitenancy.TenantAwareTaskDecorator}.
+     * Each chunk still writes in its own {@code REQUIRES_NEW} transaction, and outcomes are
+     * merged in chunk order so the error list reads in the same order as the sequential path.
+     * Workers only read {@code run} (its eager associations are loaded before they start).
+     */
+    private CalculationOutcome calculateInParallel(
+        PayrollRun run,
+        ChunkFeed feed,
+        CalculationPlan plan,
+        RunCheckpoint checkpoint,
+        int parallelism
+    ) {
+        UUID runId = run.getId();
+        log.info("Calculating run {} in parallel: {} workers, chunks of {}", runId, parallelism, feed.chunkSize);
+
+        Map<Integer, CalculationOutcome> outcomes = new ConcurrentHashMap<>();
+        List<Future<?>> futures = new ArrayList<>(parallelism);
+        for (int w = 0; w < parallelism; w++) {
+            futures.add(
+                calculationExecutor.submit(() -> {
+                    ChunkFeed.Indexed chunk;
+                    while ((chunk = feed.nextIndexed()) != null) {
+                        CalculationOutcome outcome = calculateChunk(run, chunk.employees(), plan);
+                        checkpoint.completed(chunk, outcome);
+                        plan.progress().chunkCompleted(outcome.processed(), outcome.errors().size());
+                        outcomes.put(chunk.index(), outcome);
+                    }
+                })
+            );
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new BusinessRuleViolationException("Payroll calculation for run " + runId + " was interrupted");
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Payroll calculation worker failed for run " + runId, e.getCause());
+        }
+        return CalculationOutcome.merge(new ArrayList<>(new TreeMap<>(outcomes).values()));
+    }
+
+    /**
+     * Effective calculation parallelism for the current tenant: the configured value (per-tenant
+     * override or default), capped so the workers plus the orchestration transaction plus
+     * {@code poolHeadroom} never exceed the tenant's Hikari pool.
+     */
+    private int resolveCalculationParallelism() {
+        String tenantId = TenantContext.getCurrentTenant();
+        int configured = calculationProperties.parallelismFor(tenantId);
+        if (configured <= 1) {
+            return 1;
+        }
+        int poolBound = tenantDataSourceProvider.getMaximumPoolSize(tenantId) - 1 - Math.max(0, calculationProperties.getPoolHeadroom());
+        return Math.max(1, Math.min(configured, poolBound));
+    }
+
+    /**
+     * Cuts a {@link PayrollScopeResolver.Cursor} into calculation chunks on demand: a page is
+     * read only once the previous one has been handed out in full. Shared by the workers, so
+     * {@link #nextIndexed()} is synchronized; chunk indexes follow scope (id) order.
+     */
+    private static final class ChunkFeed {
+
+        record Indexed(int index, List<EmployeeRef> employees) {}
+
+        private final PayrollScopeResolver.Cursor cursor;
+        private final int chunkSize;
+        private final Deque<List<EmployeeRef>> pending = new ArrayDeque<>();
+        private int nextIndex;
+
+        ChunkFeed(PayrollScopeResolver.Cursor cursor, int chunkSize) {
+            this.cursor = cursor;
+            this.chunkSize = Math.max(1, chunkSize);
+        }
+
+        /** Reads ahead at most one page to tell whether a second chunk exists. */
+        synchronized boolean hasMoreThanOneChunk() {
+            if (pending.isEmpty()) {
+                fill();
+            }
+            return pending.size() > 1 || (!pending.isEmpty() && !cursor.isExhausted());
+        }
+
+        /** The next chunk, or {@code null} once the scope is used up. */
+        synchronized Indexed nextIndexed() {
+            if (pending.isEmpty()) {
+                fill();
+            }
+            List<EmployeeRef> employees = pending.poll();
+            return employees != null ? new Indexed(nextIndex++, employees) : null;
+        }
+
+        private void fill() {
+            List<EmployeeRef> page = cursor.nextPage().stream().map(EmployeeRef::of).toList();
+            for (int from = 0; from < page.size(); from += chunkSize) {
+                pending.add(page.subList(from, Math.min(from + chunkSize, page.size())));
+            }
+        }
+    }
+
+    /**
+     * Tracks which chunks of a calculation have committed and advances the run's checkpoint
+     * over the longest unbroken prefix of them. Chunks finish out of order in parallel mode, so
+     * a chunk that completes early is parked until every chunk before it has completed too; a
+     * chunk whose worker failed never completes, and a later resume restarts from it.
+     */
+    private final class RunCheckpoint {
+
+        private record Completed(UUID lastEmployeeId, int processed, int errors) {}
+
+        private final UUID runId;
+        private final Map<Integer, Completed> parked = new HashMap<>();
+        private int nextIndex;
+        private UUID lastEmployeeId;
+        private int processed;
+        private int errors;
+
+        RunCheckpoint(UUID runId, UUID lastEmployeeId, int processed, int errors) {
+            this.runId = runId;
+            this.lastEmployeeId = lastEmployeeId;
+            this.processed = processed;
+            this.errors = errors;
+        }
+
+        synchronized void completed(ChunkFeed.Indexed chunk, CalculationOutcome outcome) {
+            List<EmployeeRef> employees = chunk.employees();
+            parked.put(
+                chunk.index(),
+                new Completed(employees.get(employees.size() - 1).id(), outcome.processed(), outcome.errors().size())
+            );
+            Completed next;
+            boolean advanced = false;
+            while ((next = parked.remove(nextIndex)) != null) {
+                nextIndex++;
+                lastEmployeeId = next.lastEmployeeId();
+                processed += next.processed();
+                errors += next.errors();
+                advanced = true;
+            }
+            if (advanced) {
+                resultWriter.checkpoint(runId, lastEmployeeId, processed, errors);
+            }
+        }
+
+        synchronized int processed() {
+            return processed;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+    }
+
+    /** Run-wide inputs every chunk of one calculation shares. */
+    private record CalculationPlan(
+        Map<PayComponentCode, PayComponent> componentsByCode,
+        String runInputs,
+        boolean dirtyOnly,
+        PayrollCalculationProgress progress
+    ) {}
+
+    /** Id + display name of an in-scope employee; all the orchestration loop needs. */
+    private record EmployeeRef(UUID id, String displayName) {
+        static EmployeeRef of(PayrollScopeRow row) {
+            return new EmployeeRef(row.id(), row.firstName() + " " + row.lastName());
+        }
+    }
+
+    /** Processed count, validation errors and write volume/time of a slice of a run. */
+    private record CalculationOutcome(
+        int processed,
+        int unchanged,
+        List<PayrollRunResponse.PayrollValidationError> errors,
+        long rowsWritten,
+        long writeNanos
+    ) {
+        /** Sums the slices, keeping their errors in slice order. */
+        static CalculationOutcome merge(List<CalculationOutcome> slices) {
+            List<PayrollRunResponse.PayrollValidationError> errors = new ArrayList<>();
+            int processed = 0;
+            int unchanged = 0;
+            long rows = 0;
+            long nanos = 0;
+            for (CalculationOutcome slice : slices) {
+                processed += slice.processed();
+                unchanged += slice.unchanged();
+                errors.addAll(slice.errors());
+                rows += slice.rowsWritten();
+                nanos += slice.writeNanos();
+            }
+            return new CalculationOutcome(processed, unchanged, errors, rows, nanos);
+        }
+    }
+
     /**
      * Calculates payroll for a single employee following the canonical §2.2 pipeline .
      * See the class-level sequence diagram for the contract.
+     *
+     * <p>Pure computation: reads only {@code snapshot} (plus the reporting FX rate) and
+     * returns the unsaved result and lines; {@link PayrollResultWriter} persists them.
      */
-    private PayrollResult calculateEmployeePayroll(
+    private PayrollResultWriter.Draft calculateEmployeePayroll(
         PayrollRun run,
         PayrollPeriod period,
-        Employee employee,
-        Map<PayComponentCode, PayComponent> componentsByCode
+        UUID employeeId,
+        Map<PayComponentCode, PayComponent> componentsByCode,
+        PayrollDataSnapshot snapshot
     ) {
-        log.debug("Calculating payroll for employee: {}", employee.getId());
+        log.debug("Calculating payroll for employee: {}", employeeId);
 
         // ---- Resolve compensation (required) ----
-        // Resolved BEFORE resolveResult so a missing-comp failure doesn't leave behind a
-        // recalc victim with its lines already deleted (resolveResult deletes existing
-        // lines on the recalc path).
-        Compensation compensation = findActiveCompensation(employee.getId(), period.getEndDate());
+        // A missing compensation fails the employee before anything is written, so a
+        // recalculation keeps the previous result + lines untouched.
+        Compensation compensation = snapshot.compensation(employeeId);
         if (compensation == null) {
-            throw new BusinessRuleViolationException("No active compensation found for employee " + employee.getId());
+            throw new BusinessRuleViolationException("No active compensation found for employee " + employeeId);
         }
 
         // ---- P3.4: pre-validate reporting rate (fail-fast for recalc safety) ----
-        // If the run has a reporting currency, fetch the rate NOW — before any line
-        // deletion in resolveResult. A stale/missing rate throws here and propagates to
-        // calculatePayroll's per-employee try/catch, which surfaces it as a
-        // PayrollValidationError. The result row + lines are untouched: clean failure.
+        // If the run has a reporting currency, fetch the rate NOW. A stale/missing rate throws
+        // here and propagates to calculateOne's per-employee try/catch, which surfaces it as a
+        // PayrollValidationError. No draft is produced, so the stored result row + lines are
+        // untouched: clean failure.
         ExchangeRateService.ReportingRate preResolvedRate = null;
         if (run.getReportingCurrency() != null) {
             preResolvedRate = exchangeRateService.getReportingRate(
@@ -468,21 +924,22 @@ public class PayrollProcessingService {
             );
         }
 
-        // ---- Resolve or create result, clear previous lines ----
-        PayrollResult result = resolveResult(run, period, employee);
+        // ---- Draft result (run/employee/period are attached by the writer) ----
+        PayrollResult result = new PayrollResult();
         result.setCurrency(compensation.getCurrency());
+        Country country = snapshot.country(employeeId);
 
         // ---- Pipeline state ----
         List<PayrollLine> lines = new ArrayList<>();
         SequenceCounter seq = new SequenceCounter();
-        OrganizationSettings settings = resolveSettings();
+        OrganizationSettings settings = snapshot.settings();
         BigDecimal baseSalary = calculateBaseSalary(compensation, period, settings).setScale(MONEY_SCALE, MONEY_ROUNDING);
-        List<PayrollInput> inputs = getPayrollInputs(employee.getId(), period.getId());
+        List<PayrollInput> inputs = snapshot.inputs(employeeId);
         // Loaded once and shared with step 8 (other-withholdings) below: buildCalculationContext
         // exposes each row's running YTD so capped formulas can reference it; step 8 emits the lines.
-        List<TaxWithholding> activeWithholdings = activeWithholdingsForPeriod(employee, period.getEndDate());
+        List<TaxWithholding> activeWithholdings = snapshot.withholdings(employeeId);
         Map<String, Object> context = buildCalculationContext(
-            employee,
+            employeeId,
             compensation,
             period,
             inputs,
@@ -559,18 +1016,7 @@ public class PayrollProcessingService {
         // Step 2b — Bonus rows (awardDate ∈ period AND !isPaid)
         // ============================================================
         PayComponent bonusComponent = componentsByCode.get(PayComponentCode.BONUS);
-        List<Bonus> activeBonuses = bonusRepository
-            .findAll(
-                (Specification<Bonus>) (root, query, cb) ->
-                    cb.and(
-                        cb.equal(root.get("employee").get("id"), employee.getId()),
-                        cb.between(root.get("awardDate"), period.getStartDate(), period.getEndDate()),
-                        cb.isFalse(root.get("isPaid"))
-                    )
-            )
-            .stream()
-            .sorted(Comparator.comparing(Bonus::getAwardDate, Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(Bonus::getId))
-            .toList();
+        List<Bonus> activeBonuses = snapshot.bonuses(employeeId);
         if (bonusComponent == null && !activeBonuses.isEmpty()) {
             log.warn("Step 2b — {} active bonus(es) found but no BONUS PayComponent seeded; lines skipped", activeBonuses.size());
         } else {
@@ -590,7 +1036,7 @@ public class PayrollProcessingService {
         // Step 2c — Formula-driven earning PayComponents (preserves the user-defined PayRule engine)
         // ============================================================
         for (PayComponent component : sortedComponentsByKind(componentsByCode.values(), Kind.EARNING, handledComponentIds)) {
-            BigDecimal amt = safeCalculateComponent(component, context, inputs, employee);
+            BigDecimal amt = safeCalculateComponent(component, context, inputs, employeeId, snapshot);
             if (amt == null || amt.signum() == 0) continue;
             amt = amt.setScale(MONEY_SCALE, MONEY_ROUNDING);
             String explain = "Step 2c — Earning '" + component.getCode() + "' via PayRule formula: " + fmt(amt);
@@ -611,29 +1057,19 @@ public class PayrollProcessingService {
         //   a silent earnings reduction. Reviewers should know this is deliberate.
         // ============================================================
         PayComponent leaveDeductionComponent = componentsByCode.get(PayComponentCode.DEDUCTION);
-        if (employee.getCountry() == null) {
-            log.debug("Step 3 — leave deductions skipped: employee {} has no country", employee.getId());
+        if (country == null) {
+            log.debug("Step 3 — leave deductions skipped: employee {} has no country", employeeId);
         } else if (leaveDeductionComponent == null) {
             log.debug("Step 3 — leave deductions skipped: no DEDUCTION PayComponent seeded");
         } else {
             int workDays = Math.max(1, calculateWorkDays(period));
             BigDecimal dailyRate = baseSalary.divide(BigDecimal.valueOf(workDays), RATE_SCALE, MONEY_ROUNDING);
-            Map<LeaveType, Integer> daysByType = aggregateApprovedLeaveDays(employee, period);
+            Map<LeaveType, Integer> daysByType = aggregateApprovedLeaveDays(snapshot.approvedLeave(employeeId), period);
             for (Map.Entry<LeaveType, Integer> entry : daysByType.entrySet().stream().sorted(Map.Entry.comparingByKey()).toList()) {
                 LeaveType lt = entry.getKey();
                 int days = entry.getValue();
-                Optional<LeaveTypeRule> ruleOpt = leaveTypeRuleRepository
-                    .findAll(
-                        (Specification<LeaveTypeRule>) (root, query, cb) ->
-                            cb.and(
-                                cb.equal(root.get("country").get("id"), employee.getCountry().getId()),
-                                cb.equal(root.get("leaveType"), lt)
-                            ),
-                        // Deterministic single-row pick (LIMIT 1, id tiebreak) pushed into SQL.
-                        PageRequest.of(0, 1, Sort.by(Sort.Order.asc("id")))
-                    )
-                    .stream()
-                    .findFirst();
+                // Deterministic single-rule pick (lowest id) resolved by the snapshot loader.
+                Optional<LeaveTypeRule> ruleOpt = Optional.ofNullable(snapshot.leaveTypeRule(country.getId(), lt));
                 if (
                     ruleOpt.isEmpty() ||
                     ruleOpt.get().getDeductionPercentage() == null ||
@@ -653,7 +1089,7 @@ public class PayrollProcessingService {
                     "Step 3 — Leave deduction (" +
                     lt +
                     ", country=" +
-                    employee.getCountry().getCode() +
+                    country.getCode() +
                     "): " +
                     days +
                     " days × dailyRate " +
@@ -692,7 +1128,7 @@ public class PayrollProcessingService {
         // ============================================================
         // Step 5 — Pre-tax deductions (Deduction.isPreTax = true)
         // ============================================================
-        List<Deduction> activeDeductions = activeDeductionsForPeriod(employee, period);
+        List<Deduction> activeDeductions = snapshot.deductions(employeeId);
         PayComponent generalDeductionComponent = componentsByCode.get(PayComponentCode.DEDUCTION);
         for (Deduction d : activeDeductions.stream().filter(d -> Boolean.TRUE.equals(d.getIsPreTax())).toList()) {
             BigDecimal amt = computeDeductionAmount(d, grossPay);
@@ -721,14 +1157,14 @@ public class PayrollProcessingService {
 
         // ============================================================
         // Step 7 — Income tax (progressive, country-aware)
-        //   Looks up the active TaxBracket rows for (employee.country, PIT, period.endDate)
+        //   Looks up the compiled TaxBracket schedule for (employee.country, PIT, period.endDate)
         //   and applies the spec'd progressive algorithm. The emitted line is tagged with
         //   lineCategory=INCOME_TAX and taxType=INCOME_TAX; those typed fields are the
         //   contract the post-time YTD reader (updateYearToDateOnPost) keys off.
         // ============================================================
         PayComponent taxPitComponent = componentsByCode.get(PayComponentCode.TAX_PIT);
-        if (employee.getCountry() == null) {
-            log.debug("Step 7 — income tax skipped: employee {} has no country", employee.getId());
+        if (country == null) {
+            log.debug("Step 7 — income tax skipped: employee {} has no country", employeeId);
         } else if (taxPitComponent == null) {
             log.warn("Step 7 — income tax skipped: no TAX_PIT PayComponent seeded");
         } else {
@@ -739,13 +1175,13 @@ public class PayrollProcessingService {
             // income computed on a different base than federal) are a separate follow-up coupled to #5.
             List<IncomeTaxComponent> incomeTaxes = computeIncomeTaxes(
                 taxableIncome,
-                code -> taxCalculationService.getActiveBracketsForCalculation(employee.getCountry().getId(), code, period.getEndDate()),
-                taxCalculationService::calculateProgressiveTax
+                code -> snapshot.taxSchedule(country.getId(), code),
+                (income, schedule) -> schedule.tax(income)
             );
             if (incomeTaxes.isEmpty()) {
                 log.debug(
                     "Step 7 — no active income-tax brackets for country {} on {}; taxableIncome={}",
-                    employee.getCountry().getCode(),
+                    country.getCode(),
                     period.getEndDate(),
                     fmt(taxableIncome)
                 );
@@ -755,7 +1191,7 @@ public class PayrollProcessingService {
                         "Step 7 — Income tax (" +
                         it.code() +
                         ", country=" +
-                        employee.getCountry().getCode() +
+                        country.getCode() +
                         ", taxableIncome=" +
                         fmt(taxableIncome) +
                         ", brackets=" +
@@ -820,7 +1256,7 @@ public class PayrollProcessingService {
         // Step 9 — Employee benefit costs
         // ============================================================
         PayComponent employerChargeComponent = componentsByCode.get(PayComponentCode.EMPLOYER_CHARGE);
-        List<EmployeeBenefit> activeBenefits = activeBenefitsForPeriod(employee, period);
+        List<EmployeeBenefit> activeBenefits = snapshot.benefits(employeeId);
         for (EmployeeBenefit b : activeBenefits) {
             BigDecimal employeeCost = nz(b.getEmployeeCost()).setScale(MONEY_SCALE, MONEY_ROUNDING);
             BigDecimal employerCost = nz(b.getEmployerCost()).setScale(MONEY_SCALE, MONEY_ROUNDING);
@@ -870,7 +1306,7 @@ public class PayrollProcessingService {
         }
         // Formula-driven DEDUCTION PayComponents in deterministic order
         for (PayComponent component : sortedComponentsByKind(componentsByCode.values(), Kind.DEDUCTION, handledComponentIds)) {
-            BigDecimal amt = safeCalculateComponent(component, context, inputs, employee);
+            BigDecimal amt = safeCalculateComponent(component, context, inputs, employeeId, snapshot);
             if (amt == null || amt.signum() == 0) continue;
             amt = amt.setScale(MONEY_SCALE, MONEY_ROUNDING).abs();
             String explain = "Step 10 — Deduction component '" + component.getCode() + "' via PayRule formula: " + fmt(amt);
@@ -893,7 +1329,7 @@ public class PayrollProcessingService {
         // Step 12 — EMPLOYER COST marker (+ formula-driven employer charges)
         // ============================================================
         for (PayComponent component : sortedComponentsByKind(componentsByCode.values(), Kind.EMPLOYER_CHARGE, handledComponentIds)) {
-            BigDecimal amt = safeCalculateComponent(component, context, inputs, employee);
+            BigDecimal amt = safeCalculateComponent(component, context, inputs, employeeId, snapshot);
             if (amt == null || amt.signum() == 0) continue;
             amt = amt.setScale(MONEY_SCALE, MONEY_ROUNDING);
             String explain = "Step 12 — Employer charge '" + component.getCode() + "' via PayRule formula: " + fmt(amt);
@@ -909,17 +1345,11 @@ public class PayrollProcessingService {
         result.setNet(netPay);
         result.setEmployerCost(employerCost);
         // P3.4 — Multi-currency conversion at the run boundary.
-        applyReportingConversion(run, result, period, preResolvedRate, grossPay, totalDeductions, netPay, employerCost);
-        result = payrollResultRepository.save(result);
-
-        for (PayrollLine line : lines) {
-            line.setResult(result);
-        }
-        payrollLineRepository.saveAll(lines);
+        applyReportingConversion(run, employeeId, result, period, preResolvedRate, grossPay, totalDeductions, netPay, employerCost);
 
         log.debug(
             "Pipeline done for employee {}: gross={}, taxable={}, taxWithheld={}, totalDeductions={}, net={}, employerCost={}, lines={}",
-            employee.getId(),
+            employeeId,
             fmt(grossPay),
             fmt(taxableIncome),
             fmt(taxWithheld),
@@ -928,7 +1358,7 @@ public class PayrollProcessingService {
             fmt(employerCost),
             lines.size()
         );
-        return result;
+        return new PayrollResultWriter.Draft(employeeId, result, lines);
     }
 
     /**
@@ -945,34 +1375,6 @@ public class PayrollProcessingService {
             .collect(Collectors.toMap(PayComponent::getCode, c -> c, (a, b) -> a));
     }
 
-    /**
-     * Loads-or-creates the per-employee {@link PayrollResult} for this run, and clears any
-     * existing {@link PayrollLine} rows from a prior recalculation.
-     */
-    private PayrollResult resolveResult(PayrollRun run, PayrollPeriod period, Employee employee) {
-        Optional<PayrollResult> existing = payrollResultRepository
-            .findAll(
-                (Specification<PayrollResult>) (root, query, cb) ->
-                    cb.and(cb.equal(root.get("run").get("id"), run.getId()), cb.equal(root.get("employee").get("id"), employee.getId()))
-            )
-            .stream()
-            .findFirst();
-        if (existing.isPresent()) {
-            PayrollResult result = existing.get();
-            final UUID resultId = result.getId();
-            List<PayrollLine> existingLines = payrollLineRepository.findAll(
-                (Specification<PayrollLine>) (root, query, cb) -> cb.equal(root.get("result").get("id"), resultId)
-            );
-            payrollLineRepository.deleteAll(existingLines);
-            return result;
-        }
-        PayrollResult result = new PayrollResult();
-        result.setRun(run);
-        result.setEmployee(employee);
-        result.setPayrollPeriod(period);
-        return result;
-    }
-
     /**
      * Approves a payroll run.
      */
@@ -1260,58 +1662,44 @@ public class PayrollProcessingService {
 
     /**
      * Recalculates payroll for specific employees or the entire run.
+     *
+     * <p>The run is first reset to DRAFT in its own committed transaction, as the results are
+     * rewritten chunk by chunk; it becomes CALCULATED again when the last chunk is written, and
+     * stays DRAFT if the recalculation fails. Always starts from the top of the scope; a
+     * checkpoint left by an interrupted calculation is superseded. With {@link RecalculatePayrollRequest#dirtyOnly()}, only
+     * employees whose inputs changed since their stored result (per {@link PayrollInputFingerprint})
+     * are recalculated and rewritten.
      */
+    @Transactional(transactionManager = "tenantTransactionManager")
     public PayrollRunResponse recalculatePayroll(RecalculatePayrollRequest request) {
+        return recalculatePayroll(request, PayrollCalculationProgress.NONE);
+    }
+
+    /**
+     * {@link #recalculatePayroll(RecalculatePayrollRequest)}, reporting progress to {@code progress}.
+     */
+    @Transactional(transactionManager = "tenantTransactionManager")
+    public PayrollRunResponse recalculatePayroll(RecalculatePayrollRequest request, PayrollCalculationProgress progress) {
         log.info("Recalculating payroll for run: {}", request.payrollRunId());
 
+        // Back to DRAFT first, committed before the run is loaded here: chunks commit as they are
+        // written, so a recalculation must never be seen as CALCULATED or APPROVED half-way.
+        if (!resultWriter.resetForRecalculation(request.payrollRunId())) {
+            payrollRunRepository
+                .findById(request.payrollRunId())
+                .orElseThrow(() -> new EntityNotFoundException("PayrollRun", request.payrollRunId()));
+            throw new BusinessRuleViolationException("Cannot recalculate posted payroll runs");
+        }
         PayrollRun run = payrollRunRepository
             .findById(request.payrollRunId())
             .orElseThrow(() -> new EntityNotFoundException("PayrollRun", request.payrollRunId()));
 
-        if (run.getStatus() == RunStatus.POSTED) {
-            throw new BusinessRuleViolationException("Cannot recalculate posted payroll runs");
-        }
-
-        // Reset status to DRAFT for recalculation
-        run.setStatus(RunStatus.DRAFT);
-        run = payrollRunRepository.save(run);
-
-        // Recalculate
-        return calculatePayroll(run.getId());
+        // runCalculation marks the run CALCULATED again once every chunk is written.
+        return runCalculation(run, null, request.dirtyOnly(), progress);
     }
 
     // Helper methods
 
-    private List<Employee> getEmployeesForScope(String scope, PayrollPeriod period) {
-        if ("ALL".equals(scope)) {
-            return employeeRepository.findAll(
-                (Specification<Employee>) (root, query, cb) ->
-                    cb.equal(root.get("status"), com.humano.domain.enumeration.hr.EmployeeStatus.ACTIVE)
-            );
-        }
-        // Handle other scopes (UNIT, DEPARTMENT, etc.)
-        return employeeRepository.findAll();
-    }
-
-    private Compensation findActiveCompensation(UUID employeeId, LocalDate asOfDate) {
-        return compensationRepository
-            .findAll(
-                (Specification<Compensation>) (root, query, cb) ->
-                    cb.and(
-                        cb.equal(root.get("employee").get("id"), employeeId),
-                        cb.lessThanOrEqualTo(root.get("effectiveFrom"), asOfDate),
-                        cb.or(cb.isNull(root.get("effectiveTo")), cb.greaterThanOrEqualTo(root.get("effectiveTo"), asOfDate))
-                    ),
-                // Push ORDER BY + LIMIT 1 into SQL instead of loading every active row and
-                // taking an arbitrary first. When overlapping compensations are active, the
-                // latest-starting one wins, with id as a stable tiebreaker — deterministic.
-                PageRequest.of(0, 1, Sort.by(Sort.Order.desc("effectiveFrom"), Sort.Order.asc("id")))
-            )
-            .stream()
-            .findFirst()
-            .orElse(null);
-    }
-
     private BigDecimal calculateBaseSalary(Compensation compensation, PayrollPeriod period, OrganizationSettings settings) {
         return switch (compensation.getBasis()) {
             case MONTHLY -> compensation.getBaseAmount();
@@ -1322,22 +1710,6 @@ public class PayrollProcessingService {
         };
     }
 
-    /**
-     * Current company payroll policy, or transient defaults (8h/40h/160h, 1.5× OT,
-     * MONTHLY) when none is saved — so behaviour is unchanged until a tenant sets it.
-     * Read per-employee because each calculation runs in its own {@code REQUIRES_NEW} tx.
-     */
-    private OrganizationSettings resolveSettings() {
-        return organizationSettingsRepository.findAll().stream().findFirst().orElseGet(OrganizationSettings::new);
-    }
-
-    private List<PayrollInput> getPayrollInputs(UUID employeeId, UUID periodId) {
-        return payrollInputRepository.findAll(
-            (Specification<PayrollInput>) (root, query, cb) ->
-                cb.and(cb.equal(root.get("employee").get("id"), employeeId), cb.equal(root.get("period").get("id"), periodId))
-        );
-    }
-
     /**
      * Builds the variable map passed to {@link PayrollFormulaEngine#evaluateFormula}.
      *
@@ -1349,7 +1721,7 @@ public class PayrollProcessingService {
      * keys.
      */
     private Map<String, Object> buildCalculationContext(
-        Employee employee,
+        UUID employeeId,
         Compensation compensation,
         PayrollPeriod period,
         List<PayrollInput> inputs,
@@ -1358,7 +1730,7 @@ public class PayrollProcessingService {
         List<TaxWithholding> activeWithholdings
     ) {
         Map<String, Object> context = new HashMap<>();
-        context.put("employeeId", employee.getId());
+        context.put("employeeId", employeeId);
         context.put("baseSalary", baseSalary);
         context.put("grossSalary", baseSalary);
         context.put("periodStartDate", period.getStartDate());
@@ -1400,7 +1772,12 @@ public class PayrollProcessingService {
         return context;
     }
 
-    private BigDecimal calculateComponent(PayComponent component, Map<String, Object> context, List<PayrollInput> inputs) {
+    private BigDecimal calculateComponent(
+        PayComponent component,
+        Map<String, Object> context,
+        List<PayrollInput> inputs,
+        PayrollDataSnapshot snapshot
+    ) {
         // Check for direct input first
         Optional<PayrollInput> directInput = inputs.stream().filter(i -> i.getComponent().getId().equals(component.getId())).findFirst();
 
@@ -1414,11 +1791,8 @@ public class PayrollProcessingService {
             }
         }
 
-        // Find applicable rule
-        List<PayRule> rules = payRuleRepository.findAll(
-            (Specification<PayRule>) (root, query, cb) ->
-                cb.and(cb.equal(root.get("payComponent").get("id"), component.getId()), cb.isTrue(root.get("active")))
-        );
+        // Find applicable rule (active rules prefetched per run slice, highest priority first)
+        List<PayRule> rules = snapshot.activeRules(component.getId());
 
         if (rules.isEmpty()) {
             // For BASIC component, return base salary
@@ -1428,13 +1802,6 @@ public class PayrollProcessingService {
             return null;
         }
 
-        // Sort by priority (higher priority first)
-        rules.sort((a, b) -> {
-            int pA = a.getPriority() != null ? a.getPriority() : 0;
-            int pB = b.getPriority() != null ? b.getPriority() : 0;
-            return Integer.compare(pB, pA);
-        });
-
         PayRule rule = rules.get(0);
 
         try {
@@ -1663,29 +2030,6 @@ public class PayrollProcessingService {
         );
     }
 
-    /**
-     * Active {@link Deduction} rows for an employee whose [effectiveFrom, effectiveTo]
-     * window overlaps the run's period. Sorted with a unique tiebreaker for determinism.
-     */
-    private List<Deduction> activeDeductionsForPeriod(Employee employee, PayrollPeriod period) {
-        return deductionRepository
-            .findAll(
-                (Specification<Deduction>) (root, query, cb) ->
-                    cb.and(
-                        cb.equal(root.get("employee").get("id"), employee.getId()),
-                        cb.lessThanOrEqualTo(root.get("effectiveFrom"), period.getEndDate()),
-                        cb.or(cb.isNull(root.get("effectiveTo")), cb.greaterThanOrEqualTo(root.get("effectiveTo"), period.getStartDate()))
-                    )
-            )
-            .stream()
-            .sorted(
-                Comparator.comparing(Deduction::getEffectiveFrom, Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(
-                    Deduction::getId
-                )
-            )
-            .toList();
-    }
-
     /**
      * P3.4 — converts {@code result}'s native totals into {@code run.reportingCurrency} and
      * persists them on the result alongside the rate + rate-date used. No-op when:
@@ -1707,6 +2051,7 @@ public class PayrollProcessingService {
      */
     private void applyReportingConversion(
         PayrollRun run,
+        UUID employeeId,
         PayrollResult result,
         PayrollPeriod period,
         ExchangeRateService.ReportingRate snapshot,
@@ -1729,7 +2074,7 @@ public class PayrollProcessingService {
         if (!period.getPaymentDate().equals(snapshot.rateDate())) {
             log.info(
                 "Reporting conversion fallback for employee {}: paymentDate={} but rate from {} (≤{} days stale)",
-                result.getEmployee().getId(),
+                employeeId,
                 period.getPaymentDate(),
                 snapshot.rateDate(),
                 maxExchangeRateStalenessDays
@@ -1763,47 +2108,28 @@ public class PayrollProcessingService {
      * order). Codes with no brackets, or a zero/negative computed tax, are skipped — so a PIT-only country
      * returns a single {@code INCOME_TAX} entry identical to the pre-iteration behaviour.
      *
-     * <p>Pure over its injected {@code bracketLookup} / {@code progressiveTax} functions so it is unit
+     * <p>Pure over its injected {@code scheduleLookup} / {@code progressiveTax} functions so it is unit
      * testable without the payroll/DB stack.
      */
     static List<IncomeTaxComponent> computeIncomeTaxes(
         BigDecimal taxableIncome,
-        Function<TaxCode, List<TaxBracket>> bracketLookup,
-        BiFunction<BigDecimal, List<TaxBracket>, BigDecimal> progressiveTax
+        Function<TaxCode, TaxBracketTable.Schedule> scheduleLookup,
+        BiFunction<BigDecimal, TaxBracketTable.Schedule, BigDecimal> progressiveTax
     ) {
         List<IncomeTaxComponent> result = new ArrayList<>();
         for (TaxCode code : INCOME_TAX_CODES) {
-            List<TaxBracket> brackets = bracketLookup.apply(code);
-            if (brackets == null || brackets.isEmpty()) {
+            TaxBracketTable.Schedule schedule = scheduleLookup.apply(code);
+            if (schedule == null || schedule.isEmpty()) {
                 continue;
             }
-            BigDecimal tax = progressiveTax.apply(taxableIncome, brackets);
+            BigDecimal tax = progressiveTax.apply(taxableIncome, schedule);
             if (tax != null && tax.signum() > 0) {
-                result.add(new IncomeTaxComponent(code, INCOME_TAX_LEDGER_TYPE.get(code), tax, brackets.size()));
+                result.add(new IncomeTaxComponent(code, INCOME_TAX_LEDGER_TYPE.get(code), tax, schedule.size()));
             }
         }
         return result;
     }
 
-    /**
-     * Active {@link TaxWithholding} rows for an employee at the given as-of date. Sorted
-     * by (type, id) for determinism.
-     */
-    private List<TaxWithholding> activeWithholdingsForPeriod(Employee employee, LocalDate asOfDate) {
-        return taxWithholdingRepository
-            .findAll(
-                (Specification<TaxWithholding>) (root, query, cb) ->
-                    cb.and(
-                        cb.equal(root.get("employee").get("id"), employee.getId()),
-                        cb.lessThanOrEqualTo(root.get("effectiveFrom"), asOfDate),
-                        cb.or(cb.isNull(root.get("effectiveTo")), cb.greaterThanOrEqualTo(root.get("effectiveTo"), asOfDate))
-                    )
-            )
-            .stream()
-            .sorted(Comparator.comparing(TaxWithholding::getType).thenComparing(TaxWithholding::getId))
-            .toList();
-    }
-
     /**
      * Computes the withheld amount for a {@link TaxWithholding} row: {@code rate% × gross}.
      * The rate is stored as a percentage 0..100 on the entity (see
@@ -1818,39 +2144,10 @@ public class PayrollProcessingService {
     }
 
     /**
-     * Active {@link EmployeeBenefit} rows for an employee whose effective window overlaps
-     * the period AND whose status is ACTIVE. Sorted by type then id.
+     * Aggregates the employee's approved-leave days per {@link LeaveType} that overlap the
+     * payroll period. Days outside the period window are excluded.
      */
-    private List<EmployeeBenefit> activeBenefitsForPeriod(Employee employee, PayrollPeriod period) {
-        return employeeBenefitRepository
-            .findAll(
-                (Specification<EmployeeBenefit>) (root, query, cb) ->
-                    cb.and(
-                        cb.equal(root.get("employee").get("id"), employee.getId()),
-                        cb.equal(root.get("status"), com.humano.domain.enumeration.payroll.BenefitStatus.ACTIVE),
-                        cb.lessThanOrEqualTo(root.get("effectiveFrom"), period.getEndDate()),
-                        cb.or(cb.isNull(root.get("effectiveTo")), cb.greaterThanOrEqualTo(root.get("effectiveTo"), period.getStartDate()))
-                    )
-            )
-            .stream()
-            .sorted(Comparator.comparing(EmployeeBenefit::getType).thenComparing(EmployeeBenefit::getId))
-            .toList();
-    }
-
-    /**
-     * Aggregates approved-leave days per {@link LeaveType} that overlap the payroll
-     * period. Days outside the period window are excluded.
-     */
-    private Map<LeaveType, Integer> aggregateApprovedLeaveDays(Employee employee, PayrollPeriod period) {
-        List<LeaveRequest> requests = leaveRequestRepository.findAll(
-            (Specification<LeaveRequest>) (root, query, cb) ->
-                cb.and(
-                    cb.equal(root.get("employee").get("id"), employee.getId()),
-                    cb.equal(root.get("status"), LeaveStatus.APPROVED),
-                    cb.lessThanOrEqualTo(root.get("startDate"), period.getEndDate()),
-                    cb.greaterThanOrEqualTo(root.get("endDate"), period.getStartDate())
-                )
-        );
+    private Map<LeaveType, Integer> aggregateApprovedLeaveDays(List<LeaveRequest> requests, PayrollPeriod period) {
         Map<LeaveType, Integer> result = new EnumMap<>(LeaveType.class);
         for (LeaveRequest r : requests) {
             LocalDate overlapStart = r.getStartDate().isAfter(period.getStartDate()) ? r.getStartDate() : period.getStartDate();
@@ -1890,12 +2187,13 @@ public class PayrollProcessingService {
         PayComponent component,
         Map<String, Object> context,
         List<PayrollInput> inputs,
-        Employee employee
+        UUID employeeId,
+        PayrollDataSnapshot snapshot
     ) {
         try {
-            return calculateComponent(component, context, inputs);
+            return calculateComponent(component, context, inputs, snapshot);
         } catch (Exception e) {
-            log.warn("Error calculating component {} for employee {}: {}", component.getCode(), employee.getId(), e.getMessage());
+            log.warn("Error calculating component {} for employee {}: {}", component.getCode(), employeeId, e.getMessage());
             return null;
         }
     }
@@ -0,0 +1,238 @@
+package com.humano.service.payroll;
+
+import com.humano.domain.enumeration.payroll.RunStatus;
+import com.humano.domain.payroll.PayrollLine;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.payroll.PayrollResult;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.domain.shared.Employee;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Write phase of payroll calculation: persists the calculated results and lines of a whole
+ * chunk of employees in one tenant transaction.
+ *
+ * <p>The drafts handed in are plain values built by {@link PayrollProcessingService}; they are
+ * never attached to a persistence context themselves. Every write creates fresh managed
+ * instances from them, so the same drafts can be written again (e.g. one employee at a time
+ * after a failed chunk) without tripping over ids assigned by the failed attempt.
+ *
+ * <p>Ids come from {@code @UuidGenerator} in memory at {@code persist}, so no insert needs a
+ * round trip to learn its key and Hibernate keeps every row in its JDBC batch
+ * ({@code hibernate.jdbc.batch_size}, ordered inserts). The persistence context is flushed
+ * and cleared once at the end of the chunk.
+ *
+ * <p>It also owns the small side reads/writes of a resumable calculation: the stored input
+ * fingerprints a dirty-only recalculation compares against, the run's checkpoint, and the
+ * reset of a run about to be recalculated.
+ */
+@Service
+public class PayrollResultWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollResultWriter.class);
+
+    @PersistenceContext(unitName = "tenant")
+    private EntityManager entityManager;
+
+    private final MeterRegistry meterRegistry;
+
+    public PayrollResultWriter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Calculated-but-unsaved output of one employee: the result totals (run, employee and
+     * period are left unset) and its lines in emission order.
+     */
+    record Draft(UUID employeeId, PayrollResult result, List<PayrollLine> lines) {}
+
+    /** Rows written by one {@link #write} call. */
+    record WriteStats(int results, int lines) {
+        static final WriteStats EMPTY = new WriteStats(0, 0);
+
+        int rows() {
+            return results + lines;
+        }
+
+        WriteStats plus(WriteStats other) {
+            return new WriteStats(results + other.results, lines + other.lines);
+        }
+    }
+
+    /**
+     * Writes {@code drafts} for {@code runId} in a brand-new tenant transaction.
+     *
+     * <p>Existing results of the same {@code (run, employee)} are found with one query and
+     * updated in place, keeping their ids stable for anything referencing them; their old lines
+     * go in one bulk delete. New results and every line are inserted in batches. Either the
+     * whole chunk commits or none of it does.
+     */
+    @Transactional(transactionManager = "tenantTransactionManager", propagation = Propagation.REQUIRES_NEW)
+    public WriteStats write(UUID runId, UUID periodId, Collection<Draft> drafts) {
+        if (drafts.isEmpty()) {
+            return WriteStats.EMPTY;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<UUID> employeeIds = drafts.stream().map(Draft::employeeId).toList();
+
+        Map<UUID, PayrollResult> existing = new HashMap<>();
+        for (PayrollResult r : entityManager
+            .createQuery("SELECT r FROM PayrollResult r WHERE r.run.id = :runId AND r.employee.id IN :employeeIds", PayrollResult.class)
+            .setParameter("runId", runId)
+            .setParameter("employeeIds", employeeIds)
+            .getResultList()) {
+            existing.put(r.getEmployee().getId(), r);
+        }
+        if (!existing.isEmpty()) {
+            List<UUID> resultIds = existing.values().stream().map(PayrollResult::getId).toList();
+            int deleted = entityManager
+                .createQuery("DELETE FROM PayrollLine l WHERE l.result.id IN :resultIds")
+                .setParameter("resultIds", resultIds)
+                .executeUpdate();
+            log.debug("Recalculation of run {}: cleared {} lines of {} existing results", runId, deleted, resultIds.size());
+        }
+
+        PayrollRun run = entityManager.getReference(PayrollRun.class, runId);
+        PayrollPeriod period = entityManager.getReference(PayrollPeriod.class, periodId);
+        int results = 0;
+        int lines = 0;
+        for (Draft draft : drafts) {
+            PayrollResult target = existing.get(draft.employeeId());
+            if (target == null) {
+                target = new PayrollResult();
+                target.setRun(run);
+                target.setEmployee(entityManager.getReference(Employee.class, draft.employeeId()));
+                target.setPayrollPeriod(period);
+                copyTotals(draft.result(), target);
+                entityManager.persist(target);
+            } else {
+                copyTotals(draft.result(), target);
+            }
+            results++;
+            for (PayrollLine line : draft.lines()) {
+                entityManager.persist(copyLine(line, target));
+                lines++;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        meterRegistry.counter("payroll.calculation.rows.written", "entity", "result").increment(results);
+        meterRegistry.counter("payroll.calculation.rows.written", "entity", "line").increment(lines);
+        sample.stop(meterRegistry.timer("payroll.calculation.write"));
+        return new WriteStats(results, lines);
+    }
+
+    /**
+     * The stored {@code input_hash} of each employee's existing result in {@code runId}, in one
+     * query. Employees without a result, or whose result predates fingerprinting, are absent.
+     */
+    @Transactional(transactionManager = "tenantTransactionManager", readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public Map<UUID, String> inputHashes(UUID runId, Collection<UUID> employeeIds) {
+        Map<UUID, String> hashes = new HashMap<>();
+        if (employeeIds.isEmpty()) {
+            return hashes;
+        }
+        for (Object[] row : entityManager
+            .createQuery(
+                "SELECT r.employee.id, r.inputHash FROM PayrollResult r WHERE r.run.id = :runId AND r.employee.id IN :employeeIds AND r.inputHash IS NOT NULL",
+                Object[].class
+            )
+            .setParameter("runId", runId)
+            .setParameter("employeeIds", employeeIds)
+            .getResultList()) {
+            hashes.put((UUID) row[0], (String) row[1]);
+        }
+        return hashes;
+    }
+
+    /**
+     * Moves the run back to DRAFT and drops its checkpoint, committed in its own transaction
+     * before a recalculation writes anything: results commit chunk by chunk, so until the run is
+     * CALCULATED again it must not look finished, nor be approved or posted.
+     *
+     * <p>Unlike {@link #checkpoint}, this bumps the run's {@code @Version}: an approval that read
+     * the run before the reset then fails its optimistic check instead of approving results that
+     * are being rewritten. POSTED runs are left alone.
+     *
+     * @return whether the run was reset; {@code false} when it does not exist or is POSTED
+     */
+    @Transactional(transactionManager = "tenantTransactionManager", propagation = Propagation.REQUIRES_NEW)
+    public boolean resetForRecalculation(UUID runId) {
+        int updated = entityManager
+            .createQuery(
+                "UPDATE PayrollRun r SET r.status = :draft, r.checkpointEmployeeId = null, r.version = r.version + 1 " +
+                "WHERE r.id = :runId AND r.status <> :posted"
+            )
+            .setParameter("draft", RunStatus.DRAFT)
+            .setParameter("posted", RunStatus.POSTED)
+            .setParameter("runId", runId)
+            .executeUpdate();
+        return updated == 1;
+    }
+
+    /**
+     * Commits the run's calculation checkpoint in its own transaction.
+     *
+     * <p>A bulk JPQL update, so the run's {@code @Version} is left alone and the orchestration
+     * transaction, which saves the run once at the end, never sees an optimistic-lock conflict
+     * with its own checkpoints.
+     */
+    @Transactional(transactionManager = "tenantTransactionManager", propagation = Propagation.REQUIRES_NEW)
+    public void checkpoint(UUID runId, UUID lastEmployeeId, int processed, int errors) {
+        entityManager
+            .createQuery(
+                "UPDATE PayrollRun r SET r.checkpointEmployeeId = :lastEmployeeId, r.processedCount = :processed, " +
+                "r.errorCount = :errors, r.checkpointAt = :now WHERE r.id = :runId"
+            )
+            .setParameter("lastEmployeeId", lastEmployeeId)
+            .setParameter("processed", processed)
+            .setParameter("errors", errors)
+            .setParameter("now", Instant.now())
+            .setParameter("runId", runId)
+            .executeUpdate();
+    }
+
+    private static void copyTotals(PayrollResult source, PayrollResult target) {
+        target.setCurrency(source.getCurrency());
+        target.setGross(source.getGross());
+        target.setTotalDeductions(source.getTotalDeductions());
+        target.setNet(source.getNet());
+        target.setEmployerCost(source.getEmployerCost());
+        target.setReportingGross(source.getReportingGross());
+        target.setReportingTotalDeductions(source.getReportingTotalDeductions());
+        target.setReportingNet(source.getReportingNet());
+        target.setReportingEmployerCost(source.getReportingEmployerCost());
+        target.setExchangeRate(source.getExchangeRate());
+        target.setExchangeRateDate(source.getExchangeRateDate());
+        target.setInputHash(source.getInputHash());
+    }
+
+    private static PayrollLine copyLine(PayrollLine source, PayrollResult result) {
+        PayrollLine line = new PayrollLine();
+        line.setResult(result);
+        line.setComponent(source.getComponent());
+        line.setQuantity(source.getQuantity());
+        line.setRate(source.getRate());
+        line.setAmount(source.getAmount());
+        line.setSequence(source.getSequence());
+        line.setExplain(source.getExplain());
+        line.setLineCategory(source.getLineCategory());
+        line.setTaxType(source.getTaxType());
+        return line;
+    }
+}
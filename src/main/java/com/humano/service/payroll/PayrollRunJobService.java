@@ -0,0 +1,315 @@
+package com.humano.service.payroll;
+
+import com.humano.config.PayrollProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.config.multitenancy.TenantDataSourceProvider;
+import com.humano.dto.payroll.request.RecalculatePayrollRequest;
+import com.humano.dto.payroll.response.PayrollRunJobResponse;
+import com.humano.dto.payroll.response.PayrollRunResponse;
+import com.humano.service.errors.BusinessRuleViolationException;
+import com.humano.service.errors.ConflictException;
+import com.humano.service.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Runs payroll calculations, and the rendering of a run's payslip PDFs, as background jobs so
+ * the HTTP request returns a job handle right away instead of holding a worker thread (and a
+ * transaction) for the whole run.
+ *
+ * <p>Jobs run on the tenant-aware {@code payrollJobExecutor}, which also carries the
+ * submitter's tenant and MDC; the security context is propagated explicitly so auditing sees
+ * the submitting user. Progress comes from {@link PayrollCalculationProgress} callbacks, and is
+ * exposed as a {@link PayrollRunJobResponse} snapshot (polling) and pushed as {@code progress}
+ * events to any {@link SseEmitter} subscribed to the job, followed by one {@code completed} or
+ * {@code failed} event.
+ *
+ * <p>Jobs live in this node's memory only and are forgotten {@code humano.payroll.jobs.retention}
+ * after they finish. A job lost to a restart is not lost work: the run's checkpoint survives, and
+ * submitting the calculation again resumes after it. At most one job per run is active at a
+ * time: submitting the same kind again while one is queued or running returns the existing job,
+ * and submitting another kind is rejected with a {@link ConflictException}.
+ *
+ * <p>Queuing a job warms the tenant's connection pool up, so a job that waits behind others
+ * does not find it closed for idleness when it starts.
+ */
+@Service
+public class PayrollRunJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollRunJobService.class);
+
+    private final Map<UUID, Job> jobs = new ConcurrentHashMap<>();
+    private final PayrollProcessingService processingService;
+    private final PayslipPdfBatchService pdfBatchService;
+    private final AsyncTaskExecutor jobExecutor;
+    private final TenantDataSourceProvider tenantDataSourceProvider;
+    private final PayrollProperties.Jobs jobProperties;
+    private final MeterRegistry meterRegistry;
+
+    public PayrollRunJobService(
+        PayrollProcessingService processingService,
+        PayslipPdfBatchService pdfBatchService,
+        @Qualifier("payrollJobExecutor") AsyncTaskExecutor jobExecutor,
+        TenantDataSourceProvider tenantDataSourceProvider,
+        PayrollProperties payrollProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.processingService = processingService;
+        this.pdfBatchService = pdfBatchService;
+        this.jobExecutor = jobExecutor;
+        this.tenantDataSourceProvider = tenantDataSourceProvider;
+        this.jobProperties = payrollProperties.getJobs();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Queues {@link PayrollProcessingService#calculatePayroll} for {@code runId}. */
+    public PayrollRunJobResponse submitCalculation(UUID runId) {
+        return submit(runId, PayrollRunJobResponse.Kind.CALCULATE, progress -> processingService.calculatePayroll(runId, progress));
+    }
+
+    /** Queues {@link PayrollProcessingService#recalculatePayroll} for the request's run. */
+    public PayrollRunJobResponse submitRecalculation(RecalculatePayrollRequest request) {
+        return submit(request.payrollRunId(), PayrollRunJobResponse.Kind.RECALCULATE, progress ->
+            processingService.recalculatePayroll(request, progress)
+        );
+    }
+
+    /** Queues {@link PayslipPdfBatchService#renderRun} for {@code runId}; the job has no result. */
+    public PayrollRunJobResponse submitPayslipPdfs(UUID runId) {
+        return submit(runId, PayrollRunJobResponse.Kind.PAYSLIP_PDFS, progress -> {
+            pdfBatchService.renderRun(runId, progress);
+            return null;
+        });
+    }
+
+    /** The current state of a job of the current tenant. */
+    public PayrollRunJobResponse getJob(UUID jobId) {
+        return find(jobId).snapshot();
+    }
+
+    /**
+     * Subscribes a Server-Sent Events stream to a job. The current state is sent immediately;
+     * a job that has already finished sends its final event and closes the stream.
+     */
+    public SseEmitter subscribe(UUID jobId) {
+        Job job = find(jobId);
+        SseEmitter emitter = new SseEmitter(jobProperties.getSseTimeout().toMillis());
+        job.emitters.add(emitter);
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+        PayrollRunJobResponse snapshot = job.snapshot();
+        if (job.isFinished()) {
+            sendFinal(emitter, snapshot);
+        } else {
+            send(emitter, "progress", snapshot);
+        }
+        return emitter;
+    }
+
+    private PayrollRunJobResponse submit(
+        UUID runId,
+        PayrollRunJobResponse.Kind kind,
+        Function<PayrollCalculationProgress, PayrollRunResponse> work
+    ) {
+        purgeExpired();
+        String tenantId = TenantContext.getCurrentTenant();
+        Job job;
+        synchronized (jobs) {
+            for (Job existing : jobs.values()) {
+                if (existing.runId.equals(runId) && Objects.equals(existing.tenantId, tenantId) && !existing.isFinished()) {
+                    if (existing.kind != kind) {
+                        throw new ConflictException(
+                            "PAYROLL_JOB_ACTIVE",
+                            "Payroll run " + runId + " already has an active " + existing.kind + " job " + existing.id
+                        );
+                    }
+                    log.info("Payroll run {} already has active {} job {}; returning it", runId, kind, existing.id);
+                    return existing.snapshot();
+                }
+            }
+            job = new Job(UUID.randomUUID(), tenantId, runId, kind);
+            jobs.put(job.id, job);
+        }
+        Job submitted = job;
+        try {
+            jobExecutor.execute(new DelegatingSecurityContextRunnable(() -> execute(submitted, work)));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            meterRegistry.counter("payroll.jobs", "outcome", "rejected").increment();
+            throw new BusinessRuleViolationException(
+                "PAYROLL_JOB_QUEUE_FULL",
+                "Too many payroll jobs are queued on this node; retry shortly"
+            );
+        }
+        if (tenantId != null) {
+            tenantDataSourceProvider.warmUp(List.of(tenantId));
+        }
+        log.info("Queued {} job {} for payroll run {}", kind, job.id, runId);
+        return job.snapshot();
+    }
+
+    private void execute(Job job, Function<PayrollCalculationProgress, PayrollRunResponse> work) {
+        job.startedAt = Instant.now();
+        job.status = PayrollRunJobResponse.Status.RUNNING;
+        job.broadcast("progress");
+        PayrollRunJobResponse.Status outcome = PayrollRunJobResponse.Status.FAILED;
+        try {
+            job.result = work.apply(job);
+            outcome = PayrollRunJobResponse.Status.SUCCEEDED;
+        } catch (RuntimeException e) {
+            log.error("Payroll job {} for run {} failed", job.id, job.runId, e);
+            job.failureMessage = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        } finally {
+            // finishedAt first: a reader that sees the final status also sees when it finished.
+            job.finishedAt = Instant.now();
+            job.status = outcome;
+            meterRegistry.counter("payroll.jobs", "outcome", outcome.name().toLowerCase()).increment();
+            meterRegistry.timer("payroll.jobs.duration", "kind", job.kind.name()).record(Duration.between(job.startedAt, job.finishedAt));
+            PayrollRunJobResponse snapshot = job.snapshot();
+            for (SseEmitter emitter : job.emitters) {
+                sendFinal(emitter, snapshot);
+            }
+        }
+    }
+
+    private Job find(UUID jobId) {
+        Job job = jobs.get(jobId);
+        // Another tenant's job id is indistinguishable from an unknown one.
+        if (job == null || !Objects.equals(job.tenantId, TenantContext.getCurrentTenant())) {
+            throw new EntityNotFoundException("PayrollRunJob", jobId);
+        }
+        return job;
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(jobProperties.getRetention());
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static void sendFinal(SseEmitter emitter, PayrollRunJobResponse snapshot) {
+        String event = snapshot.status() == PayrollRunJobResponse.Status.SUCCEEDED ? "completed" : "failed";
+        if (send(emitter, event, snapshot)) {
+            emitter.complete();
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, String event, PayrollRunJobResponse snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(snapshot));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client went away (or the emitter already timed out); its callbacks unsubscribe it.
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /** One job's mutable state; it is also the progress sink handed to the calculation. */
+    private static final class Job implements PayrollCalculationProgress {
+
+        final UUID id;
+        final String tenantId;
+        final UUID runId;
+        final PayrollRunJobResponse.Kind kind;
+        final Instant submittedAt = Instant.now();
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+        volatile PayrollRunJobResponse.Status status = PayrollRunJobResponse.Status.QUEUED;
+        volatile int total = -1;
+        volatile int alreadyProcessed;
+        volatile int alreadyFailed;
+        volatile Instant startedAt;
+        volatile Instant finishedAt;
+        volatile String failureMessage;
+        volatile PayrollRunResponse result;
+
+        Job(UUID id, String tenantId, UUID runId, PayrollRunJobResponse.Kind kind) {
+            this.id = id;
+            this.tenantId = tenantId;
+            this.runId = runId;
+            this.kind = kind;
+        }
+
+        boolean isFinished() {
+            return status == PayrollRunJobResponse.Status.SUCCEEDED || status == PayrollRunJobResponse.Status.FAILED;
+        }
+
+        @Override
+        public void started(int total, int alreadyProcessed, int alreadyFailed) {
+            this.total = total;
+            this.alreadyProcessed = alreadyProcessed;
+            this.alreadyFailed = alreadyFailed;
+            broadcast("progress");
+        }
+
+        @Override
+        public void chunkCompleted(int processed, int errors) {
+            this.processed.addAndGet(processed);
+            this.errors.addAndGet(errors);
+            broadcast("progress");
+        }
+
+        void broadcast(String event) {
+            if (emitters.isEmpty()) {
+                return;
+            }
+            PayrollRunJobResponse snapshot = snapshot();
+            for (SseEmitter emitter : emitters) {
+                send(emitter, event, snapshot);
+            }
+        }
+
+        PayrollRunJobResponse snapshot() {
+            int done = processed.get();
+            int failed = errors.get();
+            Double throughput = null;
+            Long etaSeconds = null;
+            Instant start = startedAt;
+            if (start != null && done + failed > 0) {
+                Instant end = finishedAt != null ? finishedAt : Instant.now();
+                double seconds = Math.max(0.001, Duration.between(start, end).toMillis() / 1000d);
+                throughput = (done + failed) / seconds;
+                if (total >= 0) {
+                    int remaining = Math.max(0, total - alreadyProcessed - alreadyFailed - done - failed);
+                    etaSeconds = finishedAt != null ? 0L : Math.round(remaining / throughput);
+                }
+            }
+            return new PayrollRunJobResponse(
+                id,
+                runId,
+                kind,
+                status,
+                total,
+                alreadyProcessed + done,
+                alreadyFailed + failed,
+                throughput,
+                etaSeconds,
+                submittedAt,
+                startedAt,
+                finishedAt,
+                failureMessage,
+                result
+            );
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.humano.service.payroll;
+
+import com.humano.config.PayrollProperties;
+import com.humano.domain.enumeration.hr.EmployeeStatus;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.repository.hr.projection.PayrollScopeRow;
+import com.humano.repository.shared.EmployeeRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves the employees of a payroll run's scope as keyset-paginated {@link PayrollScopeRow}
+ * projections.
+ *
+ * <p>Pages are {@code humano.payroll.calculation.scope-page-size} rows, ordered by id and
+ * fetched with {@code id > :lastId}, so every page costs the same index range scan however
+ * deep into the scope it is, and only one page is ever held in memory. Rows are constructor
+ * projections, not entities: nothing is attached to a persistence context and the eager
+ * {@code Employee} associations are never loaded.
+ *
+ * <p>Scope semantics are unchanged: {@code ALL} means every {@code ACTIVE} employee; any other
+ * scope is still unfiltered (all employees) until real scope filtering lands.
+ */
+@Service
+public class PayrollScopeResolver {
+
+    /** Keyset start: sorts before every time-based UUID, whatever the id column's storage. */
+    static final UUID FIRST_PAGE = new UUID(0L, 0L);
+
+    private final EmployeeRepository employeeRepository;
+    private final PayrollProperties.Calculation calculationProperties;
+
+    public PayrollScopeResolver(EmployeeRepository employeeRepository, PayrollProperties payrollProperties) {
+        this.employeeRepository = employeeRepository;
+        this.calculationProperties = payrollProperties.getCalculation();
+    }
+
+    /** Opens a cursor over {@code scope} for {@code period}; nothing is queried until the first page is read. */
+    public Cursor open(String scope, PayrollPeriod period) {
+        return open(scope, period, null);
+    }
+
+    /**
+     * Opens a cursor that starts after {@code resumeAfter} (a run checkpoint), or at the
+     * beginning of the scope when it is {@code null}.
+     */
+    public Cursor open(String scope, PayrollPeriod period, UUID resumeAfter) {
+        return new Cursor(
+            statusesFor(scope),
+            period.getEndDate(),
+            Math.max(1, calculationProperties.getScopePageSize()),
+            resumeAfter != null ? resumeAfter : FIRST_PAGE
+        );
+    }
+
+    /**
+     * Ids of every employee in {@code scope}, read page by page. Used for the run's idempotency
+     * hash, which needs the complete id set; ids are all that is retained.
+     */
+    public List<UUID> resolveIds(String scope, PayrollPeriod period) {
+        Cursor cursor = open(scope, period);
+        List<UUID> ids = new ArrayList<>();
+        for (List<PayrollScopeRow> page = cursor.nextPage(); !page.isEmpty(); page = cursor.nextPage()) {
+            for (PayrollScopeRow row : page) {
+                ids.add(row.id());
+            }
+        }
+        return ids;
+    }
+
+    /** Number of employees in {@code scope}; one count query, for progress reporting. */
+    public long count(String scope) {
+        return employeeRepository.countPayrollScope(statusesFor(scope));
+    }
+
+    private static Set<EmployeeStatus> statusesFor(String scope) {
+        // Handle other scopes (UNIT, DEPARTMENT, etc.) here once they are defined.
+        return "ALL".equals(scope) ? EnumSet.of(EmployeeStatus.ACTIVE) : EnumSet.allOf(EmployeeStatus.class);
+    }
+
+    /**
+     * Forward-only keyset cursor over one scope. {@link #nextPage()} is synchronized so the
+     * calculation workers can pull from a shared cursor; each call runs one short query.
+     */
+    public final class Cursor {
+
+        private final Set<EmployeeStatus> statuses;
+        private final LocalDate asOf;
+        private final int pageSize;
+        private UUID lastId;
+        private boolean exhausted;
+        private int rowsRead;
+
+        private Cursor(Set<EmployeeStatus> statuses, LocalDate asOf, int pageSize, UUID startAfter) {
+            this.statuses = statuses;
+            this.asOf = asOf;
+            this.pageSize = pageSize;
+            this.lastId = startAfter;
+        }
+
+        /** The next page in id order, or an empty list once the scope is exhausted. */
+        public synchronized List<PayrollScopeRow> nextPage() {
+            if (exhausted) {
+                return List.of();
+            }
+            List<PayrollScopeRow> page = employeeRepository.findPayrollScopePage(statuses, asOf, lastId, Limit.of(pageSize));
+            // A short page is the last one; skip the extra empty round trip.
+            exhausted = page.size() < pageSize;
+            if (!page.isEmpty()) {
+                lastId = page.get(page.size() - 1).id();
+                rowsRead += page.size();
+            }
+            return page;
+        }
+
+        /** Whether the last page has been read. */
+        public synchronized boolean isExhausted() {
+            return exhausted;
+        }
+
+        /** Rows returned so far. */
+        public synchronized int rowsRead() {
+            return rowsRead;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.humano.service.payroll;
+
+import com.humano.domain.payroll.PayslipNumberSequence;
+import com.humano.repository.payroll.PayslipNumberSequenceRepository;
+import com.humano.repository.payroll.PayslipRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out blocks of payslip numbers ({@code PS-yyyy-MM-NNNNN}) from the
+ * {@link PayslipNumberSequence} of the pay month.
+ *
+ * <p>Each reservation runs in its own short tenant transaction: the sequence row is locked,
+ * advanced by the whole block and committed before the caller inserts anything, so concurrent
+ * generations (other runs of the same month, single payslips) only ever wait for one row
+ * update, never for each other's inserts. A prefix seen for the first time is seeded from the
+ * highest number already stored under it; if two callers seed it at once, the loser's insert
+ * fails on the primary key and it simply uses the winner's row.
+ */
+@Service
+public class PayslipNumberAllocator {
+
+    private static final Logger log = LoggerFactory.getLogger(PayslipNumberAllocator.class);
+
+    @PersistenceContext(unitName = "tenant")
+    private EntityManager entityManager;
+
+    private final PayslipNumberSequenceRepository sequenceRepository;
+    private final PayslipRepository payslipRepository;
+    private final TransactionTemplate requiresNew;
+
+    public PayslipNumberAllocator(
+        PayslipNumberSequenceRepository sequenceRepository,
+        PayslipRepository payslipRepository,
+        @Qualifier("tenantTransactionManager") PlatformTransactionManager tenantTransactionManager
+    ) {
+        this.sequenceRepository = sequenceRepository;
+        this.payslipRepository = payslipRepository;
+        this.requiresNew = new TransactionTemplate(tenantTransactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Formats the payslip number {@code sequence} of {@code prefix}. */
+    public static String format(String prefix, long sequence) {
+        return String.format("PS-%s-%05d", prefix, sequence);
+    }
+
+    /**
+     * Reserves {@code count} consecutive numbers of {@code prefix} and returns the first; the
+     * caller owns {@code first .. first + count - 1}.
+     */
+    public long reserve(String prefix, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive: " + count);
+        }
+        if (!sequenceRepository.existsById(prefix)) {
+            seed(prefix);
+        }
+        Long first = requiresNew.execute(status ->
+            sequenceRepository
+                .findForUpdate(prefix)
+                .orElseThrow(() -> new IllegalStateException("Payslip number sequence " + prefix + " vanished"))
+                .reserve(count)
+        );
+        log.debug("Reserved payslip numbers {}..{} of {}", first, first + count - 1, prefix);
+        return first;
+    }
+
+    private void seed(String prefix) {
+        long next = highestStoredNumber(prefix) + 1;
+        try {
+            // persist, not save: save would merge over a row seeded (and reserved from) meanwhile.
+            requiresNew.executeWithoutResult(status -> {
+                entityManager.persist(new PayslipNumberSequence(prefix, next));
+                entityManager.flush();
+            });
+            log.info("Seeded payslip number sequence {} at {}", prefix, next);
+        } catch (PersistenceException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            log.debug("Payslip number sequence {} was seeded concurrently", prefix);
+        }
+    }
+
+    /** Whether {@code e} is the primary-key violation of a concurrent seed, not another failure. */
+    private static boolean isDuplicateKey(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
+    }
+
+    /** Highest number stored under {@code prefix} before the sequence existed, or {@code 0}. */
+    private long highestStoredNumber(String prefix) {
+        long max = 0;
+        for (String number : payslipRepository.findNumbersLike("PS-" + prefix + "-%")) {
+            String suffix = number.substring(number.lastIndexOf('-') + 1);
+            try {
+                max = Math.max(max, Long.parseLong(suffix));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring unparseable payslip number {} while seeding {}", number, prefix);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,275 @@
+package com.humano.service.payroll;
+
+import com.humano.config.PayrollProperties;
+import com.humano.domain.enumeration.payroll.RunStatus;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.repository.payroll.PayrollLineRepository;
+import com.humano.repository.payroll.PayrollRunRepository;
+import com.humano.repository.payroll.PayslipRepository;
+import com.humano.repository.payroll.projection.PayslipPdfLineRow;
+import com.humano.repository.payroll.projection.PayslipPdfRow;
+import com.humano.service.errors.BusinessRuleViolationException;
+import com.humano.service.errors.EntityNotFoundException;
+import com.humano.service.storage.FileStorageService;
+import com.humano.service.storage.StorageChecksums;
+import com.humano.service.storage.StorageFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Renders and stores the PDFs of every payslip of a run, for month-end runs where one
+ * {@link PayslipService#generateAndStorePdf} call per payslip is far too slow.
+ *
+ * <p>Only payslips without a stored PDF are rendered, so a job that failed or was interrupted
+ * resumes where it stopped when submitted again. The pending ids are cut into chunks of
+ * {@code humano.payroll.pdf.chunk-size}; workers on the CPU-sized {@code payslipPdfExecutor}
+ * pull chunks until none are left. Per chunk, a worker loads every payslip's data and lines as
+ * two projection queries in a short read-only transaction, renders each PDF straight into
+ * storage (no byte array per document, checksummed on the way), then records the references
+ * and checksums in one short write transaction. No transaction, and so no connection, is held while rendering.
+ *
+ * <p>A payslip that fails to render or store is logged and counted, and keeps no reference,
+ * so the rerun retries it. Outcomes are exported as {@code payroll.payslip.pdf{outcome}} and
+ * per-document render time as {@code payroll.payslip.pdf.render}.
+ */
+@Service
+public class PayslipPdfBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PayslipPdfBatchService.class);
+    private static final String PDF_STORAGE_DIRECTORY = "payslips";
+
+    private final PayrollRunRepository runRepository;
+    private final PayslipRepository payslipRepository;
+    private final PayrollLineRepository lineRepository;
+    private final PayslipPdfGenerator pdfGenerator;
+    private final StorageFactory storageFactory;
+    private final AsyncTaskExecutor pdfExecutor;
+    private final PayrollProperties.Pdf pdfProperties;
+    private final TransactionTemplate readTx;
+    private final TransactionTemplate writeTx;
+    private final Counter rendered;
+    private final Counter failed;
+    private final Timer renderTimer;
+
+    public PayslipPdfBatchService(
+        PayrollRunRepository runRepository,
+        PayslipRepository payslipRepository,
+        PayrollLineRepository lineRepository,
+        PayslipPdfGenerator pdfGenerator,
+        StorageFactory storageFactory,
+        @Qualifier("payslipPdfExecutor") AsyncTaskExecutor pdfExecutor,
+        @Qualifier("tenantTransactionManager") PlatformTransactionManager tenantTransactionManager,
+        PayrollProperties payrollProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.runRepository = runRepository;
+        this.payslipRepository = payslipRepository;
+        this.lineRepository = lineRepository;
+        this.pdfGenerator = pdfGenerator;
+        this.storageFactory = storageFactory;
+        this.pdfExecutor = pdfExecutor;
+        this.pdfProperties = payrollProperties.getPdf();
+        this.readTx = new TransactionTemplate(tenantTransactionManager);
+        this.readTx.setReadOnly(true);
+        this.writeTx = new TransactionTemplate(tenantTransactionManager);
+        this.rendered = meterRegistry.counter("payroll.payslip.pdf", "outcome", "rendered");
+        this.failed = meterRegistry.counter("payroll.payslip.pdf", "outcome", "failed");
+        this.renderTimer = meterRegistry.timer("payroll.payslip.pdf.render");
+    }
+
+    /**
+     * Renders and stores every missing PDF of {@code runId}, reporting to {@code progress} as
+     * chunks complete. The run must be {@code APPROVED} or {@code POSTED} and have payslips.
+     */
+    public void renderRun(UUID runId, PayrollCalculationProgress progress) {
+        List<UUID> pending = readTx.execute(status -> {
+            PayrollRun run = runRepository.findById(runId).orElseThrow(() -> new EntityNotFoundException("PayrollRun", runId));
+            if (run.getStatus() != RunStatus.APPROVED && run.getStatus() != RunStatus.POSTED) {
+                throw new BusinessRuleViolationException(
+                    "Can only render payslips for APPROVED or POSTED payroll runs. Current status: " + run.getStatus()
+                );
+            }
+            long total = payslipRepository.countByRunId(runId);
+            if (total == 0) {
+                throw new BusinessRuleViolationException("Payroll run " + runId + " has no payslips; generate them first");
+            }
+            List<UUID> ids = payslipRepository.findIdsWithoutPdfByRunId(runId);
+            progress.started((int) total, (int) total - ids.size(), 0);
+            return ids;
+        });
+        if (pending.isEmpty()) {
+            log.info("Every payslip of run {} already has a PDF", runId);
+            return;
+        }
+
+        int chunkSize = Math.max(1, pdfProperties.getChunkSize());
+        Queue<List<UUID>> chunks = new ConcurrentLinkedQueue<>();
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            chunks.add(pending.subList(from, Math.min(from + chunkSize, pending.size())));
+        }
+        // Resolved once on the job thread: the storage backend is per tenant, and the workers
+        // would otherwise each look it up.
+        FileStorageService storage = storageFactory.getStorageService();
+        String generatedAt = Instant.now().toString();
+        int workers = Math.min(chunks.size(), Math.max(1, pdfProperties.effectiveRenderThreads()));
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        Instant start = Instant.now();
+        log.info("Rendering {} payslip PDFs of run {}: {} workers, chunks of {}", pending.size(), runId, workers, chunkSize);
+
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            futures.add(
+                pdfExecutor.submit(() -> {
+                    List<UUID> chunk;
+                    while ((chunk = chunks.poll()) != null) {
+                        int stored = renderChunk(chunk, storage, generatedAt);
+                        ok.addAndGet(stored);
+                        errors.addAndGet(chunk.size() - stored);
+                        progress.chunkCompleted(stored, chunk.size() - stored);
+                    }
+                })
+            );
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new BusinessRuleViolationException("Payslip PDF rendering for run " + runId + " was interrupted");
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Payslip PDF worker failed for run " + runId, e.getCause());
+        }
+
+        double seconds = Math.max(0.001, Duration.between(start, Instant.now()).toMillis() / 1000d);
+        log.info(
+            "Rendered payslip PDFs of run {}: {} stored, {} failed in {}s ({} per second)",
+            runId,
+            ok.get(),
+            errors.get(),
+            String.format("%.1f", seconds),
+            String.format("%.1f", (ok.get() + errors.get()) / seconds)
+        );
+    }
+
+    /** Renders and stores one chunk; returns how many payslips now have a PDF reference. */
+    private int renderChunk(List<UUID> payslipIds, FileStorageService storage, String generatedAt) {
+        Map<UUID, PayslipPdfGenerator.PayslipPdfModel> models = readTx.execute(status -> loadModels(payslipIds, generatedAt));
+        Map<UUID, StoredPdf> references = new LinkedHashMap<>();
+        models.forEach((payslipId, model) -> {
+            Timer.Sample sample = Timer.start();
+            try {
+                MessageDigest digest = StorageChecksums.newSha256();
+                String reference = storage.store(
+                    StorageChecksums.digesting(out -> pdfGenerator.render(model, out), digest),
+                    PDF_STORAGE_DIRECTORY,
+                    model.payslipNumber() + ".pdf",
+                    "application/pdf"
+                );
+                references.put(payslipId, new StoredPdf(reference, StorageChecksums.hex(digest)));
+                rendered.increment();
+            } catch (Exception e) {
+                log.warn("Failed to render or store PDF for payslip {} ({})", payslipId, model.payslipNumber(), e);
+                failed.increment();
+            } finally {
+                sample.stop(renderTimer);
+            }
+        });
+        if (!references.isEmpty()) {
+            Instant now = Instant.now();
+            writeTx.executeWithoutResult(status ->
+                references.forEach((id, pdf) -> payslipRepository.updatePdfUrl(id, pdf.reference(), pdf.checksum(), now))
+            );
+        }
+        // A payslip deleted since the ids were read is neither rendered nor counted as stored.
+        failed.increment(payslipIds.size() - models.size());
+        return references.size();
+    }
+
+    private Map<UUID, PayslipPdfGenerator.PayslipPdfModel> loadModels(List<UUID> payslipIds, String generatedAt) {
+        List<PayslipPdfRow> rows = payslipRepository.findPdfRows(payslipIds);
+        Map<UUID, List<PayslipPdfLineRow>> linesByResult = new LinkedHashMap<>();
+        for (PayslipPdfLineRow line : lineRepository.findPdfLines(rows.stream().map(PayslipPdfRow::resultId).toList())) {
+            linesByResult.computeIfAbsent(line.resultId(), id -> new ArrayList<>()).add(line);
+        }
+        Map<UUID, PayslipPdfGenerator.PayslipPdfModel> models = new LinkedHashMap<>();
+        for (PayslipPdfRow row : rows) {
+            models.put(row.payslipId(), toModel(row, linesByResult.getOrDefault(row.resultId(), List.of()), generatedAt));
+        }
+        return models;
+    }
+
+    /** Same model as {@code PayslipService.buildPdfModel}, built from projections instead of entities. */
+    private static PayslipPdfGenerator.PayslipPdfModel toModel(PayslipPdfRow row, List<PayslipPdfLineRow> lines, String generatedAt) {
+        List<PayslipPdfGenerator.PayslipPdfModel.LineItem> earnings = new ArrayList<>();
+        List<PayslipPdfGenerator.PayslipPdfModel.LineItem> deductions = new ArrayList<>();
+        List<PayslipPdfGenerator.PayslipPdfModel.LineItem> employerCharges = new ArrayList<>();
+        for (PayslipPdfLineRow line : lines) {
+            PayslipPdfGenerator.PayslipPdfModel.LineItem item = new PayslipPdfGenerator.PayslipPdfModel.LineItem(
+                line.code().name(),
+                line.name(),
+                line.quantity(),
+                line.rate(),
+                line.amount(),
+                line.explain()
+            );
+            switch (line.kind()) {
+                case EARNING -> earnings.add(item);
+                case DEDUCTION -> deductions.add(item);
+                case EMPLOYER_CHARGE -> employerCharges.add(item);
+            }
+        }
+        return new PayslipPdfGenerator.PayslipPdfModel(
+            row.number(),
+            row.runId(),
+            row.firstName() + " " + row.lastName(),
+            row.login(),
+            row.departmentName(),
+            row.positionName(),
+            row.periodCode(),
+            row.periodStart(),
+            row.periodEnd(),
+            row.paymentDate(),
+            row.currencyCode() != null ? row.currencyCode().getCode() : null,
+            earnings,
+            deductions,
+            employerCharges,
+            row.gross(),
+            row.totalDeductions(),
+            row.net(),
+            row.reportingCurrencyCode() != null ? row.reportingCurrencyCode().getCode() : null,
+            row.reportingGross(),
+            row.reportingTotalDeductions(),
+            row.reportingNet(),
+            row.exchangeRate(),
+            row.exchangeRateDate(),
+            generatedAt
+        );
+    }
+
+    private record StoredPdf(String reference, String checksum) {}
+}
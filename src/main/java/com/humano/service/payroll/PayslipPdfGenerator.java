@@ -2,6 +2,7 @@ package com.humano.service.payroll;
 
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
@@ -38,6 +39,24 @@ public class PayslipPdfGenerator {
      * failure); callers should let it bubble — there is no useful per-line recovery.
      */
     public byte[] generate(PayslipPdfModel model) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(64 * 1024);
+        render(model, baos);
+        byte[] bytes = baos.toByteArray();
+        log.debug("Rendered payslip {} -> {} bytes", model.payslipNumber(), bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Renders the payslip as PDF into {@code out}, so the document can be written straight into
+     * storage instead of being held in memory first. Does not close {@code out}. Same failure
+     * contract as {@link #generate}.
+     *
+     * <p>Safe to call from many threads at once. The parsed template is reused across calls
+     * through Thymeleaf's template cache ({@code spring.thymeleaf.cache}, on outside dev), and the
+     * base-14 fonts are PDFBox singletons; each call only builds its own layout, since an
+     * OpenHTMLtoPDF renderer holds per-document state and cannot be shared.
+     */
+    public void render(PayslipPdfModel model, OutputStream out) {
         Context ctx = new Context();
         ctx.setVariable("model", model);
         String html;
@@ -47,15 +66,12 @@ public class PayslipPdfGenerator {
             throw new PdfGenerationException("Thymeleaf rendering failed for payslip " + model.payslipNumber(), e);
         }
         html = sanitizeForXmlAndBase14(html);
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream(64 * 1024)) {
+        try {
             PdfRendererBuilder builder = new PdfRendererBuilder();
             builder.useFastMode();
             builder.withHtmlContent(html, null);
-            builder.toStream(baos);
+            builder.toStream(out);
             builder.run();
-            byte[] bytes = baos.toByteArray();
-            log.debug("Rendered payslip {} -> {} bytes", model.payslipNumber(), bytes.length);
-            return bytes;
         } catch (Exception e) {
             throw new PdfGenerationException("OpenHTMLtoPDF rendering failed for payslip " + model.payslipNumber(), e);
         }
@@ -12,16 +12,16 @@ import com.humano.repository.shared.EmployeeRepository;
 import com.humano.service.errors.BusinessRuleViolationException;
 import com.humano.service.errors.EntityNotFoundException;
 import com.humano.service.storage.FileStorageService;
+import com.humano.service.storage.StorageChecksums;
 import com.humano.service.storage.StorageFactory;
-import java.io.ByteArrayInputStream;
+import com.humano.service.storage.StoredContent;
 import java.io.IOException;
-import java.io.InputStream;
 import java.math.BigDecimal;
+import java.security.MessageDigest;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,6 +41,8 @@ public class PayslipService {
 
     private static final Logger log = LoggerFactory.getLogger(PayslipService.class);
     private static final DateTimeFormatter PAYSLIP_NUMBER_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+    /** Result ids per line query when building many payslip responses; keeps IN lists bounded. */
+    private static final int LINE_QUERY_BATCH = 1000;
 
     private final PayslipRepository payslipRepository;
     private final PayrollResultRepository resultRepository;
@@ -49,6 +51,7 @@ public class PayslipService {
     private final EmployeeRepository employeeRepository;
     private final PayslipPdfGenerator pdfGenerator;
     private final StorageFactory storageFactory;
+    private final PayslipNumberAllocator numberAllocator;
 
     public PayslipService(
         PayslipRepository payslipRepository,
@@ -57,7 +60,8 @@ public class PayslipService {
         PayrollLineRepository lineRepository,
         EmployeeRepository employeeRepository,
         PayslipPdfGenerator pdfGenerator,
-        StorageFactory storageFactory
+        StorageFactory storageFactory,
+        PayslipNumberAllocator numberAllocator
     ) {
         this.payslipRepository = payslipRepository;
         this.resultRepository = resultRepository;
@@ -66,15 +70,23 @@ public class PayslipService {
         this.employeeRepository = employeeRepository;
         this.pdfGenerator = pdfGenerator;
         this.storageFactory = storageFactory;
+        this.numberAllocator = numberAllocator;
     }
 
     /**
      * Generates payslips for all employees in a completed payroll run.
+     *
+     * <p>Set-based: the run row is write-locked, the results still without a payslip are found
+     * in one anti-join query, their numbers come from one block reservation, and the payslips
+     * are inserted in JDBC batches. Concurrent calls for the same run queue on the run lock, so
+     * the later one finds nothing left to generate and returns an empty list; calling it again
+     * after a partial failure generates only what is missing.
      */
+    @Transactional(transactionManager = "tenantTransactionManager")
     public List<PayslipResponse> generatePayslipsForRun(UUID runId) {
         log.info("Generating payslips for payroll run: {}", runId);
 
-        PayrollRun run = runRepository.findById(runId).orElseThrow(() -> new EntityNotFoundException("PayrollRun", runId));
+        PayrollRun run = runRepository.findByIdForUpdate(runId).orElseThrow(() -> new EntityNotFoundException("PayrollRun", runId));
 
         if (
             run.getStatus() != com.humano.domain.enumeration.payroll.RunStatus.APPROVED &&
@@ -85,46 +97,37 @@ public class PayslipService {
             );
         }
 
-        // Get all results for this run
-        List<PayrollResult> results = resultRepository.findAll(
-            (Specification<PayrollResult>) (root, query, cb) -> cb.equal(root.get("run").get("id"), runId)
-        );
-
+        List<PayrollResult> results = resultRepository.findWithoutPayslipByRunId(runId);
         if (results.isEmpty()) {
-            throw new BusinessRuleViolationException("No payroll results found for run: " + runId);
+            if (resultRepository.countByRunId(runId) == 0) {
+                throw new BusinessRuleViolationException("No payroll results found for run: " + runId);
+            }
+            log.info("Every result of run {} already has a payslip", runId);
+            return List.of();
         }
 
-        PayrollPeriod period = run.getPeriod();
-        String periodPrefix = period.getEndDate().format(PAYSLIP_NUMBER_FORMAT);
-        AtomicLong sequence = new AtomicLong(getNextPayslipSequence(periodPrefix));
+        String periodPrefix = run.getPeriod().getEndDate().format(PAYSLIP_NUMBER_FORMAT);
+        long sequence = numberAllocator.reserve(periodPrefix, results.size());
 
-        List<Payslip> payslips = new ArrayList<>();
+        List<Payslip> payslips = new ArrayList<>(results.size());
         for (PayrollResult result : results) {
-            // Check if payslip already exists for this result
-            boolean exists = payslipRepository.exists(
-                (Specification<Payslip>) (root, query, cb) -> cb.equal(root.get("result").get("id"), result.getId())
-            );
-
-            if (exists) {
-                log.debug("Payslip already exists for result: {}", result.getId());
-                continue;
-            }
-
             Payslip payslip = new Payslip();
-            payslip.setNumber(generatePayslipNumber(periodPrefix, sequence.getAndIncrement()));
+            payslip.setNumber(PayslipNumberAllocator.format(periodPrefix, sequence++));
             payslip.setResult(result);
             payslips.add(payslip);
         }
 
-        List<Payslip> savedPayslips = payslipRepository.saveAll(payslips);
+        // Ids are generated in memory, so the flush sends these as hibernate.jdbc.batch_size batches.
+        List<Payslip> savedPayslips = payslipRepository.saveAllAndFlush(payslips);
         log.info("Generated {} payslips for run {}", savedPayslips.size(), runId);
 
-        return savedPayslips.stream().map(this::toResponse).toList();
+        return toResponses(savedPayslips);
     }
 
     /**
      * Generates a payslip for a single payroll result.
      */
+    @Transactional(transactionManager = "tenantTransactionManager")
     public PayslipResponse generatePayslip(UUID resultId) {
         log.debug("Generating payslip for result: {}", resultId);
 
@@ -132,6 +135,9 @@ public class PayslipService {
             .findById(resultId)
             .orElseThrow(() -> new EntityNotFoundException("PayrollResult", resultId));
 
+        // Same lock as generatePayslipsForRun, so the existence check below cannot race it.
+        runRepository.findByIdForUpdate(result.getRun().getId());
+
         // Check if payslip already exists
         Optional<Payslip> existing = payslipRepository
             .findAll((Specification<Payslip>) (root, query, cb) -> cb.equal(root.get("result").get("id"), resultId))
@@ -144,10 +150,10 @@ public class PayslipService {
 
         PayrollPeriod period = result.getPayrollPeriod();
         String periodPrefix = period.getEndDate().format(PAYSLIP_NUMBER_FORMAT);
-        long sequence = getNextPayslipSequence(periodPrefix);
+        long sequence = numberAllocator.reserve(periodPrefix, 1);
 
         Payslip payslip = new Payslip();
-        payslip.setNumber(generatePayslipNumber(periodPrefix, sequence));
+        payslip.setNumber(PayslipNumberAllocator.format(periodPrefix, sequence));
         payslip.setResult(result);
 
         payslip = payslipRepository.save(payslip);
@@ -294,6 +300,8 @@ public class PayslipService {
         Payslip payslip = payslipRepository.findById(payslipId).orElseThrow(() -> new EntityNotFoundException("Payslip", payslipId));
 
         payslip.setPdfUrl(pdfUrl);
+        // Content behind an externally set URL is unknown; no ETag until it is rendered here.
+        payslip.setPdfChecksumSha256(null);
         payslip = payslipRepository.save(payslip);
 
         log.info("Updated PDF URL for payslip {}", payslipId);
@@ -307,9 +315,6 @@ public class PayslipService {
     /** Subdirectory inside the per-tenant storage backend where rendered PDFs land. */
     private static final String PDF_STORAGE_DIRECTORY = "payslips";
 
-    /** Returned by {@link #downloadPdf} to carry both the stream and the filename header. */
-    public record PdfDownload(InputStream content, String filename) {}
-
     /**
      * Generates the PDF for {@code payslipId} via {@link PayslipPdfGenerator}, stores it
      * under {@code payslips/{number}.pdf} in the current tenant's storage backend (via
@@ -331,31 +336,37 @@ public class PayslipService {
         }
 
         PayslipPdfGenerator.PayslipPdfModel model = buildPdfModel(payslip);
-        byte[] pdfBytes = pdfGenerator.generate(model);
+        MessageDigest digest = StorageChecksums.newSha256();
         String reference;
-        try (InputStream in = new ByteArrayInputStream(pdfBytes)) {
-            reference = storage.store(in, PDF_STORAGE_DIRECTORY, payslip.getNumber() + ".pdf", "application/pdf");
+        try {
+            reference = storage.store(
+                StorageChecksums.digesting(out -> pdfGenerator.render(model, out), digest),
+                PDF_STORAGE_DIRECTORY,
+                payslip.getNumber() + ".pdf",
+                "application/pdf"
+            );
         } catch (IOException e) {
             throw new BusinessRuleViolationException("Failed to store payslip PDF: " + e.getMessage());
         }
 
         payslip.setPdfUrl(reference);
+        payslip.setPdfChecksumSha256(StorageChecksums.hex(digest));
         payslip = payslipRepository.save(payslip);
-        log.info("Generated + stored PDF for payslip {} → {} ({} bytes)", payslipId, reference, pdfBytes.length);
+        log.info("Generated + stored PDF for payslip {} → {}", payslipId, reference);
         return toResponse(payslip);
     }
 
     /**
-     * Returns the rendered PDF for {@code payslipId} as a stream. Generates + stores on
+     * Resolves the rendered PDF for {@code payslipId} for download. Generates + stores on
      * first call (when {@code pdfUrl} is null/blank or the stored file is missing); on
-     * subsequent calls streams the existing artifact.
+     * subsequent calls only metadata is read, and no content until the caller streams it.
      *
-     * <p>Caller (REST resource) is responsible for setting {@code Content-Type:
-     * application/pdf} and the {@code Content-Disposition} header — this method returns
-     * the suggested filename via the {@link PdfDownload} record.
+     * <p>The returned {@link StoredContent} carries the size and checksum the REST layer needs
+     * for {@code ETag}, conditional ({@code 304}) and {@code Range} responses, and the
+     * suggested {@code {number}.pdf} filename.
      */
     @Transactional
-    public PdfDownload downloadPdf(UUID payslipId) {
+    public StoredContent downloadPdf(UUID payslipId) {
         Payslip initial = payslipRepository.findById(payslipId).orElseThrow(() -> new EntityNotFoundException("Payslip", payslipId));
         FileStorageService storage = storageFactory.getStorageService();
         final Payslip current;
@@ -366,17 +377,17 @@ public class PayslipService {
             current = initial;
         }
         final String reference = current.getPdfUrl();
-        InputStream content;
-        try {
-            content = storage
-                .retrieve(reference)
-                .orElseThrow(() ->
-                    new BusinessRuleViolationException("PDF for payslip " + payslipId + " not found at reference " + reference)
-                );
-        } catch (IOException e) {
-            throw new BusinessRuleViolationException("Failed to retrieve payslip PDF: " + e.getMessage());
-        }
-        return new PdfDownload(content, current.getNumber() + ".pdf");
+        long size = storage
+            .size(reference)
+            .orElseThrow(() -> new BusinessRuleViolationException("PDF for payslip " + payslipId + " not found at reference " + reference));
+        return new StoredContent(
+            storage,
+            reference,
+            size,
+            "application/pdf",
+            current.getNumber() + ".pdf",
+            current.getPdfChecksumSha256()
+        );
     }
 
     /**
@@ -642,49 +653,44 @@ public class PayslipService {
         return payslipRepository.findAll(specification, pageable).map(this::toResponse);
     }
 
-    private String generatePayslipNumber(String periodPrefix, long sequence) {
-        return String.format("PS-%s-%05d", periodPrefix, sequence);
-    }
-
-    private long getNextPayslipSequence(String periodPrefix) {
-        String pattern = "PS-" + periodPrefix + "-%";
-        List<Payslip> existingPayslips = payslipRepository.findAll(
-            (Specification<Payslip>) (root, query, cb) -> cb.like(root.get("number"), pattern)
-        );
-
-        if (existingPayslips.isEmpty()) {
-            return 1;
-        }
-
-        return (
-            existingPayslips
-                .stream()
-                .map(p -> {
-                    String num = p.getNumber();
-                    String[] parts = num.split("-");
-                    return Long.parseLong(parts[parts.length - 1]);
-                })
-                .max(Long::compare)
-                .orElse(0L) +
-            1
-        );
-    }
-
     private PayslipResponse toResponse(Payslip payslip) {
-        PayrollResult result = payslip.getResult();
-        Employee employee = result.getEmployee();
-        PayrollPeriod period = result.getPayrollPeriod();
-        PayrollRun run = result.getRun();
-
+        UUID resultId = payslip.getResult().getId();
         // Get payroll lines for detailed breakdown
         List<PayrollLine> lines = lineRepository.findAll(
             (Specification<PayrollLine>) (root, query, cb) -> {
                 if (query != null) {
                     query.orderBy(cb.asc(root.get("sequence")));
                 }
-                return cb.equal(root.get("result").get("id"), result.getId());
+                return cb.equal(root.get("result").get("id"), resultId);
             }
         );
+        return toResponse(payslip, lines);
+    }
+
+    /**
+     * {@link #toResponse(Payslip)} for many payslips, reading all their lines in one query per
+     * {@link #LINE_QUERY_BATCH} payslips instead of one query each.
+     */
+    private List<PayslipResponse> toResponses(List<Payslip> payslips) {
+        Map<UUID, List<PayrollLine>> linesByResult = new HashMap<>();
+        for (int from = 0; from < payslips.size(); from += LINE_QUERY_BATCH) {
+            List<UUID> resultIds = payslips
+                .subList(from, Math.min(from + LINE_QUERY_BATCH, payslips.size()))
+                .stream()
+                .map(p -> p.getResult().getId())
+                .toList();
+            for (PayrollLine line : lineRepository.findWithComponentByResultIds(resultIds)) {
+                linesByResult.computeIfAbsent(line.getResult().getId(), id -> new ArrayList<>()).add(line);
+            }
+        }
+        return payslips.stream().map(p -> toResponse(p, linesByResult.getOrDefault(p.getResult().getId(), List.of()))).toList();
+    }
+
+    private PayslipResponse toResponse(Payslip payslip, List<PayrollLine> lines) {
+        PayrollResult result = payslip.getResult();
+        Employee employee = result.getEmployee();
+        PayrollPeriod period = result.getPayrollPeriod();
+        PayrollRun run = result.getRun();
 
         PayrollResultResponse details = buildResultDetails(result, run, period, lines);
 
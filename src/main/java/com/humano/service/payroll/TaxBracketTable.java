@@ -0,0 +1,240 @@
+package com.humano.service.payroll;
+
+import com.humano.domain.enumeration.payroll.TaxCode;
+import com.humano.domain.payroll.TaxBracket;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Immutable, compiled view of one tenant's {@link TaxBracket} rows.
+ * <p>
+ * Per (country, tax code) the validity dates of the rows cut the calendar into effective-date
+ * ranges; each range holds the {@link Schedule} of the brackets valid throughout it, compiled
+ * once. A lookup binary-searches the range start days, then the schedule's cumulative band
+ * bounds, instead of querying and sorting the brackets per calculation.
+ */
+public final class TaxBracketTable {
+
+    static final TaxBracketTable EMPTY = new TaxBracketTable(Map.of(), 0, new PayrollInputFingerprint.TableVersion(0, null));
+
+    /** The brackets of one country and tax code. */
+    public record Key(UUID countryId, TaxCode taxCode) {}
+
+    /** One band's share of an income: {@code amount} of it taxed at {@code rate}, plus {@code fixedPart}. */
+    public record Slice(BigDecimal lower, BigDecimal upper, BigDecimal rate, BigDecimal fixedPart, BigDecimal amount) {
+        public BigDecimal tax() {
+            return amount.multiply(rate).add(fixedPart);
+        }
+    }
+
+    private final Map<Key, Timeline> timelines;
+    private final int bracketCount;
+    private final PayrollInputFingerprint.TableVersion version;
+
+    private TaxBracketTable(Map<Key, Timeline> timelines, int bracketCount, PayrollInputFingerprint.TableVersion version) {
+        this.timelines = timelines;
+        this.bracketCount = bracketCount;
+        this.version = version;
+    }
+
+    /** Compiles every effective-date range of {@code brackets}. */
+    static TaxBracketTable compile(Collection<TaxBracket> brackets) {
+        Map<Key, List<TaxBracket>> byKey = new HashMap<>();
+        for (TaxBracket bracket : brackets) {
+            byKey.computeIfAbsent(new Key(bracket.getCountry().getId(), bracket.getTaxCode()), key -> new ArrayList<>()).add(bracket);
+        }
+        Map<Key, Timeline> timelines = new HashMap<>(byKey.size() * 2);
+        byKey.forEach((key, rows) -> timelines.put(key, Timeline.compile(rows)));
+        return new TaxBracketTable(Map.copyOf(timelines), brackets.size(), PayrollInputFingerprint.TableVersion.of(brackets));
+    }
+
+    /**
+     * The version of the rows this table was compiled from. A node can calculate with a table
+     * compiled before the latest bracket change reached it, so input fingerprints take the
+     * version from here rather than from the database.
+     */
+    PayrollInputFingerprint.TableVersion version() {
+        return version;
+    }
+
+    /** The schedule of ({@code countryId}, {@code taxCode}) on {@code date}; empty when no bracket is valid then. */
+    public Schedule schedule(UUID countryId, TaxCode taxCode, LocalDate date) {
+        Timeline timeline = timelines.get(new Key(countryId, taxCode));
+        return timeline != null ? timeline.on(date.toEpochDay()) : Schedule.EMPTY;
+    }
+
+    /** Every non-empty schedule on {@code date}. */
+    public Map<Key, Schedule> schedules(LocalDate date) {
+        long day = date.toEpochDay();
+        Map<Key, Schedule> schedules = new HashMap<>();
+        timelines.forEach((key, timeline) -> {
+            Schedule schedule = timeline.on(day);
+            if (!schedule.isEmpty()) {
+                schedules.put(key, schedule);
+            }
+        });
+        return schedules;
+    }
+
+    int bracketCount() {
+        return bracketCount;
+    }
+
+    /** The schedules of one key, by effective-date range: range {@code i} starts on {@code startDays[i]}. */
+    private record Timeline(long[] startDays, Schedule[] schedules) {
+        static Timeline compile(List<TaxBracket> rows) {
+            // A bracket valid to D stops applying on D + 1.
+            TreeSet<Long> boundaries = new TreeSet<>();
+            for (TaxBracket row : rows) {
+                boundaries.add(row.getValidFrom().toEpochDay());
+                if (row.getValidTo() != null) {
+                    boundaries.add(row.getValidTo().toEpochDay() + 1);
+                }
+            }
+            long[] startDays = boundaries.stream().mapToLong(Long::longValue).toArray();
+            Schedule[] schedules = new Schedule[startDays.length];
+            for (int i = 0; i < startDays.length; i++) {
+                long day = startDays[i];
+                List<TaxBracket> valid = rows
+                    .stream()
+                    .filter(row -> row.getValidFrom().toEpochDay() <= day)
+                    .filter(row -> row.getValidTo() == null || row.getValidTo().toEpochDay() >= day)
+                    .toList();
+                Schedule schedule = Schedule.of(valid);
+                // Consecutive ranges with the same brackets share one schedule.
+                schedules[i] = i > 0 && schedules[i - 1].brackets.equals(schedule.brackets) ? schedules[i - 1] : schedule;
+            }
+            return new Timeline(startDays, schedules);
+        }
+
+        Schedule on(long day) {
+            int index = Arrays.binarySearch(startDays, day);
+            if (index < 0) {
+                index = -index - 2; // the range starting before day
+            }
+            return index >= 0 ? schedules[index] : Schedule.EMPTY;
+        }
+    }
+
+    /**
+     * Brackets valid together, sorted by lower bound, with the running totals of a progressive
+     * calculation precomputed per band. Income is sliced across the bands by their widths
+     * ({@code upper - lower}) in order, exactly as {@link TaxCalculationService#calculateProgressiveTax}
+     * does: band {@code i} takes the income between {@code incomeFrom[i]} and {@code incomeTo[i]},
+     * and {@code taxBefore[i]} is the tax of all lower bands taken in full.
+     */
+    public static final class Schedule {
+
+        static final Schedule EMPTY = new Schedule(List.of());
+
+        private final List<TaxBracket> brackets;
+        private final BigDecimal[] lower;
+        private final BigDecimal[] upper;
+        private final BigDecimal[] rate;
+        private final BigDecimal[] fixedPart;
+        private final BigDecimal[] incomeFrom;
+        private final BigDecimal[] incomeTo;
+        /** One more entry than bands: the last is the tax of every band taken in full. */
+        private final BigDecimal[] taxBefore;
+
+        private Schedule(List<TaxBracket> brackets) {
+            this.brackets = brackets;
+            int size = brackets.size();
+            lower = new BigDecimal[size];
+            upper = new BigDecimal[size];
+            rate = new BigDecimal[size];
+            fixedPart = new BigDecimal[size];
+            incomeFrom = new BigDecimal[size];
+            incomeTo = new BigDecimal[size];
+            taxBefore = new BigDecimal[size + 1];
+            BigDecimal income = BigDecimal.ZERO;
+            BigDecimal tax = BigDecimal.ZERO;
+            for (int i = 0; i < size; i++) {
+                TaxBracket bracket = brackets.get(i);
+                lower[i] = bracket.getLower();
+                upper[i] = bracket.getUpper();
+                rate[i] = bracket.getRate();
+                fixedPart[i] = bracket.getFixedPart() != null ? bracket.getFixedPart() : BigDecimal.ZERO;
+                // Bounds are validated on write; an inverted band takes no income rather than breaking the order.
+                BigDecimal width = upper[i].subtract(lower[i]).max(BigDecimal.ZERO);
+                incomeFrom[i] = income;
+                income = income.add(width);
+                incomeTo[i] = income;
+                taxBefore[i] = tax;
+                tax = tax.add(width.multiply(rate[i])).add(fixedPart[i]);
+            }
+            taxBefore[size] = tax;
+        }
+
+        /** Compiles {@code brackets}, in any order. */
+        public static Schedule of(List<TaxBracket> brackets) {
+            if (brackets.isEmpty()) {
+                return EMPTY;
+            }
+            List<TaxBracket> sorted = new ArrayList<>(brackets);
+            sorted.sort(Comparator.comparing(TaxBracket::getLower).thenComparing(TaxBracket::getId, Comparator.nullsLast(UUID::compareTo)));
+            return new Schedule(List.copyOf(sorted));
+        }
+
+        public int size() {
+            return lower.length;
+        }
+
+        public boolean isEmpty() {
+            return lower.length == 0;
+        }
+
+        /** Tax on {@code taxableIncome}, scaled to 2 decimals (HALF_UP); 0 for null or non-positive income. */
+        public BigDecimal tax(BigDecimal taxableIncome) {
+            if (taxableIncome == null || taxableIncome.signum() <= 0 || isEmpty()) {
+                return BigDecimal.ZERO;
+            }
+            int band = band(taxableIncome);
+            BigDecimal tax = band == size()
+                ? taxBefore[band]
+                : taxBefore[band].add(taxableIncome.subtract(incomeFrom[band]).multiply(rate[band])).add(fixedPart[band]);
+            return tax.setScale(2, RoundingMode.HALF_UP);
+        }
+
+        /** The non-empty slices {@code taxableIncome} is cut into, lowest band first. */
+        public List<Slice> slices(BigDecimal taxableIncome) {
+            if (taxableIncome == null || taxableIncome.signum() <= 0 || isEmpty()) {
+                return List.of();
+            }
+            int last = Math.min(band(taxableIncome), size() - 1);
+            List<Slice> slices = new ArrayList<>(last + 1);
+            for (int i = 0; i <= last; i++) {
+                BigDecimal amount = taxableIncome.min(incomeTo[i]).subtract(incomeFrom[i]);
+                if (amount.signum() > 0) {
+                    slices.add(new Slice(lower[i], upper[i], rate[i], fixedPart[i], amount));
+                }
+            }
+            return slices;
+        }
+
+        /** The first band whose cumulative upper bound reaches {@code income}, or {@link #size()} past the last band. */
+        private int band(BigDecimal income) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (incomeTo[mid].compareTo(income) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
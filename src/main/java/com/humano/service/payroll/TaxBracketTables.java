@@ -0,0 +1,62 @@
+package com.humano.service.payroll;
+
+import com.humano.config.cache.CacheInvalidationBus;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.repository.payroll.TaxBracketRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-tenant {@link TaxBracketTable}, compiled from every bracket row of the tenant on first
+ * use.
+ * <p>
+ * A table is never modified: a {@link com.humano.events.TaxBracketsChangedEvent} drops the
+ * tenant's table on every node through {@link CacheInvalidationBus}, and the next lookup
+ * compiles its replacement. Readers holding the old table finish with it; lookups of the
+ * tenant arriving meanwhile wait for the new one. A table compiling while a change commits is
+ * dropped as soon as it is published, so it is never served.
+ * <p>
+ * Metrics: {@code tax.bracket.table.compile}.
+ */
+@Service
+public class TaxBracketTables {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TaxBracketTables.class);
+
+    public static final String CACHE_NAME = "tax-bracket-table";
+
+    private final Map<String, TaxBracketTable> tables = new ConcurrentHashMap<>();
+    private final TaxBracketRepository taxBracketRepository;
+    private final CacheInvalidationBus invalidationBus;
+    private final Timer compileTimer;
+
+    public TaxBracketTables(TaxBracketRepository taxBracketRepository, CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        this.taxBracketRepository = taxBracketRepository;
+        this.invalidationBus = invalidationBus;
+        this.compileTimer = meterRegistry.timer("tax.bracket.table.compile");
+        invalidationBus.subscribe(CACHE_NAME, tables::remove);
+    }
+
+    /** The current tenant's table. Call within a tenant transaction: a miss reads every bracket. */
+    public TaxBracketTable current() {
+        String tenant = TenantContext.getCurrentTenant();
+        // Compiling inside computeIfAbsent makes a concurrent invalidation wait for, then drop, the result.
+        return tables.computeIfAbsent(tenant != null ? tenant : TenantContext.MASTER, this::compile);
+    }
+
+    /** Drops the tenant's table on every node. Call once the bracket change has committed. */
+    public void bracketsChanged(String tenant) {
+        invalidationBus.publish(CACHE_NAME, tenant);
+    }
+
+    private TaxBracketTable compile(String tenant) {
+        TaxBracketTable table = compileTimer.record(() -> TaxBracketTable.compile(taxBracketRepository.findAll()));
+        LOG.debug("Compiled tax bracket table of tenant {}: {} brackets", tenant, table.bracketCount());
+        return table;
+    }
+}
@@ -1,11 +1,13 @@
 package com.humano.service.payroll;
 
+import com.humano.config.multitenancy.TenantContext;
 import com.humano.domain.enumeration.payroll.TaxCode;
 import com.humano.domain.payroll.TaxBracket;
 import com.humano.domain.shared.Country;
 import com.humano.dto.payroll.request.CreateTaxBracketRequest;
 import com.humano.dto.payroll.response.TaxBracketResponse;
 import com.humano.dto.payroll.response.TaxCalculationResponse;
+import com.humano.events.TaxBracketsChangedEvent;
 import com.humano.repository.payroll.CountryRepository;
 import com.humano.repository.payroll.TaxBracketRepository;
 import com.humano.service.errors.BusinessRuleViolationException;
@@ -17,6 +19,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,6 +27,8 @@ import org.springframework.transaction.annotation.Transactional;
 /**
  * Service for managing tax brackets and calculating progressive taxes.
  * Supports multiple countries and tax codes with date-effective brackets.
+ * Calculations read the tenant's compiled {@link TaxBracketTable}; every bracket change
+ * publishes a {@link TaxBracketsChangedEvent} so the table is recompiled once it commits.
  */
 @Service
 @Transactional
@@ -33,10 +38,19 @@ public class TaxCalculationService {
 
     private final TaxBracketRepository taxBracketRepository;
     private final CountryRepository countryRepository;
-
-    public TaxCalculationService(TaxBracketRepository taxBracketRepository, CountryRepository countryRepository) {
+    private final TaxBracketTables taxBracketTables;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TaxCalculationService(
+        TaxBracketRepository taxBracketRepository,
+        CountryRepository countryRepository,
+        TaxBracketTables taxBracketTables,
+        ApplicationEventPublisher eventPublisher
+    ) {
         this.taxBracketRepository = taxBracketRepository;
         this.countryRepository = countryRepository;
+        this.taxBracketTables = taxBracketTables;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -62,6 +76,7 @@ public class TaxCalculationService {
         bracket.setValidTo(request.validTo());
 
         bracket = taxBracketRepository.save(bracket);
+        publishBracketsChanged();
         log.info("Created tax bracket {} for {} in {}", bracket.getId(), request.taxCode(), country.getName());
 
         return toResponse(bracket);
@@ -69,8 +84,8 @@ public class TaxCalculationService {
 
     /**
      * Calculates progressive tax for a given taxable income (REST-facing entry point).
-     * Looks up the active brackets, delegates the math to {@link #calculateProgressiveTax},
-     * and assembles the per-bracket breakdown DTO.
+     * Looks up the schedule active on {@code asOfDate} (defaults to today if null) in the
+     * tenant's {@link TaxBracketTable} and assembles the per-bracket breakdown DTO.
      */
     @Transactional(readOnly = true)
     public TaxCalculationResponse calculateTax(
@@ -82,36 +97,26 @@ public class TaxCalculationService {
     ) {
         log.debug("Calculating {} tax for income {} in country {}", taxCode, taxableIncome, countryId);
 
-        List<TaxBracket> brackets = getActiveBracketsForCalculation(countryId, taxCode, asOfDate);
-        if (brackets.isEmpty()) {
+        LocalDate effectiveDate = asOfDate != null ? asOfDate : LocalDate.now();
+        TaxBracketTable.Schedule schedule = taxBracketTables.current().schedule(countryId, taxCode, effectiveDate);
+        if (schedule.isEmpty()) {
             throw new BusinessRuleViolationException("No active tax brackets found for " + taxCode + " in country " + countryId);
         }
 
-        BigDecimal totalTax = calculateProgressiveTax(taxableIncome, brackets);
+        BigDecimal totalTax = schedule.tax(taxableIncome);
 
-        // Per-bracket breakdown for the REST response — mirrors the slicing in
-        // calculateProgressiveTax so the response matches the total.
+        // Per-bracket breakdown for the REST response — the same slices the total is made of.
         List<TaxCalculationResponse.TaxBracketApplication> bracketBreakdown = new ArrayList<>();
-        BigDecimal remaining = taxableIncome == null ? BigDecimal.ZERO : taxableIncome;
-        for (TaxBracket bracket : brackets) {
-            if (remaining.compareTo(BigDecimal.ZERO) <= 0) break;
-            BigDecimal width = bracket.getUpper().subtract(bracket.getLower());
-            BigDecimal slice = remaining.min(width);
-            if (slice.compareTo(BigDecimal.ZERO) <= 0) continue;
-            BigDecimal sliceTax = slice
-                .multiply(bracket.getRate())
-                .add(bracket.getFixedPart() == null ? BigDecimal.ZERO : bracket.getFixedPart())
-                .setScale(2, RoundingMode.HALF_UP);
+        for (TaxBracketTable.Slice slice : schedule.slices(taxableIncome)) {
             bracketBreakdown.add(
                 new TaxCalculationResponse.TaxBracketApplication(
-                    bracket.getLower(),
-                    bracket.getUpper(),
-                    bracket.getRate().multiply(BigDecimal.valueOf(100)),
-                    slice,
-                    sliceTax
+                    slice.lower(),
+                    slice.upper(),
+                    slice.rate().multiply(BigDecimal.valueOf(100)),
+                    slice.amount(),
+                    slice.tax().setScale(2, RoundingMode.HALF_UP)
                 )
             );
-            remaining = remaining.subtract(slice);
         }
 
         BigDecimal effectiveTaxRate = taxableIncome != null && taxableIncome.compareTo(BigDecimal.ZERO) > 0
@@ -159,26 +164,16 @@ public class TaxCalculationService {
      *
      * <p>Returns 0 for null or non-positive {@code taxableIncome}, and for an empty
      * bracket list. Result is scaled to 2 decimals (HALF_UP).
+     *
+     * <p>Compiles the brackets on every call; repeated calculations should reuse a
+     * {@link TaxBracketTable.Schedule} from {@link TaxBracketTables}, which computes the same
+     * tax by binary search over precomputed band totals.
      */
     public BigDecimal calculateProgressiveTax(BigDecimal taxableIncome, List<TaxBracket> brackets) {
-        if (taxableIncome == null || taxableIncome.compareTo(BigDecimal.ZERO) <= 0 || brackets == null || brackets.isEmpty()) {
+        if (brackets == null) {
             return BigDecimal.ZERO;
         }
-        List<TaxBracket> sorted = new ArrayList<>(brackets);
-        sorted.sort(Comparator.comparing(TaxBracket::getLower));
-        BigDecimal remaining = taxableIncome;
-        BigDecimal tax = BigDecimal.ZERO;
-        for (TaxBracket bracket : sorted) {
-            if (remaining.compareTo(BigDecimal.ZERO) <= 0) break;
-            BigDecimal width = bracket.getUpper().subtract(bracket.getLower());
-            BigDecimal slice = remaining.min(width);
-            BigDecimal sliceTax = slice
-                .multiply(bracket.getRate())
-                .add(bracket.getFixedPart() == null ? BigDecimal.ZERO : bracket.getFixedPart());
-            tax = tax.add(sliceTax);
-            remaining = remaining.subtract(slice);
-        }
-        return tax.setScale(2, RoundingMode.HALF_UP);
+        return TaxBracketTable.Schedule.of(brackets).tax(taxableIncome);
     }
 
     /**
@@ -191,8 +186,8 @@ public class TaxCalculationService {
 
     /**
      * Returns the {@link TaxBracket} entities active for ({@code countryId, taxCode}) on
-     * {@code asOfDate} (defaults to today if null). Public so {@link PayrollProcessingService}
-     * step 7 can call it without duplicating the spec query.
+     * {@code asOfDate} (defaults to today if null), read from the database for the admin
+     * listing. Calculations use {@link TaxBracketTables} instead.
      */
     @Transactional(readOnly = true)
     public List<TaxBracket> getActiveBracketsForCalculation(UUID countryId, TaxCode taxCode, LocalDate asOfDate) {
@@ -231,8 +226,12 @@ public class TaxCalculationService {
         if (newUpper != null) bracket.setUpper(newUpper);
         if (newRate != null) bracket.setRate(newRate);
         if (newFixedPart != null) bracket.setFixedPart(newFixedPart);
+        if (bracket.getLower().compareTo(bracket.getUpper()) >= 0) {
+            throw new BusinessRuleViolationException("Lower bound must be less than upper bound");
+        }
 
         bracket = taxBracketRepository.save(bracket);
+        publishBracketsChanged();
         log.info("Updated tax bracket {}", bracketId);
 
         return toResponse(bracket);
@@ -248,6 +247,7 @@ public class TaxCalculationService {
 
         bracket.setValidTo(expirationDate);
         bracket = taxBracketRepository.save(bracket);
+        publishBracketsChanged();
 
         log.info("Expired tax bracket {} as of {}", bracketId, expirationDate);
         return toResponse(bracket);
@@ -296,6 +296,7 @@ public class TaxCalculationService {
         }
 
         List<TaxBracket> savedBrackets = taxBracketRepository.saveAll(newBrackets);
+        publishBracketsChanged();
         log.info("Copied {} tax brackets from {} to {} for country {}", savedBrackets.size(), sourceYear, targetYear, countryId);
 
         return savedBrackets.stream().map(this::toResponse).collect(Collectors.toList());
@@ -348,6 +349,10 @@ public class TaxCalculationService {
         }
     }
 
+    private void publishBracketsChanged() {
+        eventPublisher.publishEvent(new TaxBracketsChangedEvent(TenantContext.getCurrentTenant()));
+    }
+
     private TaxBracketResponse toResponse(TaxBracket bracket) {
         boolean isActive = bracket.getValidTo() == null || !bracket.getValidTo().isBefore(LocalDate.now());
 
@@ -35,19 +35,22 @@ public class TotalCompensationService {
     private final BonusRepository bonusRepository;
     private final EmployeeBenefitRepository benefitRepository;
     private final PayrollResultRepository resultRepository;
+    private final CompensationStatistics compensationStatistics;
 
     public TotalCompensationService(
         EmployeeRepository employeeRepository,
         CompensationRepository compensationRepository,
         BonusRepository bonusRepository,
         EmployeeBenefitRepository benefitRepository,
-        PayrollResultRepository resultRepository
+        PayrollResultRepository resultRepository,
+        CompensationStatistics compensationStatistics
     ) {
         this.employeeRepository = employeeRepository;
         this.compensationRepository = compensationRepository;
         this.bonusRepository = bonusRepository;
         this.benefitRepository = benefitRepository;
         this.resultRepository = resultRepository;
+        this.compensationStatistics = compensationStatistics;
     }
 
     /**
@@ -139,96 +142,45 @@ public class TotalCompensationService {
     }
 
     /**
-     * Gets department compensation summary.
+     * Gets department compensation summary, from the materialised {@link CompensationStatistics}.
      */
     public Map<String, Object> getDepartmentCompensationSummary(UUID departmentId, int year) {
-        List<Employee> employees = employeeRepository.findAll(
-            (Specification<Employee>) (root, query, cb) -> cb.equal(root.get("department").get("id"), departmentId)
-        );
-
-        List<TotalCompensationResponse> statements = employees.stream().map(e -> generateCompensationStatement(e.getId(), year)).toList();
-
-        BigDecimal totalBaseSalary = statements
-            .stream()
-            .map(TotalCompensationResponse::baseSalary)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalBonuses = statements.stream().map(TotalCompensationResponse::totalBonuses).reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalBenefits = statements
-            .stream()
-            .map(TotalCompensationResponse::totalBenefitsValue)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalCompensation = statements
-            .stream()
-            .map(TotalCompensationResponse::totalCompensation)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        CompensationStatistics.DepartmentSummary department = compensationStatistics.departmentSummary(departmentId, year);
 
-        BigDecimal avgCompensation = employees.isEmpty()
+        BigDecimal avgCompensation = department.employeeCount() == 0
             ? BigDecimal.ZERO
-            : totalCompensation.divide(BigDecimal.valueOf(employees.size()), 2, RoundingMode.HALF_UP);
-
-        // Find min and max
-        BigDecimal minCompensation = statements
-            .stream()
-            .map(TotalCompensationResponse::totalCompensation)
-            .min(Comparator.naturalOrder())
-            .orElse(BigDecimal.ZERO);
-
-        BigDecimal maxCompensation = statements
-            .stream()
-            .map(TotalCompensationResponse::totalCompensation)
-            .max(Comparator.naturalOrder())
-            .orElse(BigDecimal.ZERO);
+            : department.totalCompensation().divide(BigDecimal.valueOf(department.employeeCount()), 2, RoundingMode.HALF_UP);
 
         Map<String, Object> summary = new HashMap<>();
         summary.put("year", year);
-        summary.put("employeeCount", employees.size());
-        summary.put("totalBaseSalary", totalBaseSalary);
-        summary.put("totalBonuses", totalBonuses);
-        summary.put("totalBenefits", totalBenefits);
-        summary.put("totalCompensation", totalCompensation);
+        summary.put("employeeCount", department.employeeCount());
+        summary.put("totalBaseSalary", department.totalBaseSalary());
+        summary.put("totalBonuses", department.totalBonuses());
+        summary.put("totalBenefits", department.totalBenefits());
+        summary.put("totalCompensation", department.totalCompensation());
         summary.put("avgCompensation", avgCompensation);
-        summary.put("minCompensation", minCompensation);
-        summary.put("maxCompensation", maxCompensation);
-        summary.put("compensationRange", maxCompensation.subtract(minCompensation));
+        summary.put("minCompensation", department.minCompensation());
+        summary.put("maxCompensation", department.maxCompensation());
+        summary.put("compensationRange", department.maxCompensation().subtract(department.minCompensation()));
 
         return summary;
     }
 
     /**
-     * Gets compensation percentile for an employee.
+     * Gets compensation percentile for an employee among the tenant's other employees, from the
+     * materialised {@link CompensationStatistics}.
      */
     public Map<String, Object> getCompensationPercentile(UUID employeeId, int year) {
-        TotalCompensationResponse statement = generateCompensationStatement(employeeId, year);
-        BigDecimal employeeTotal = statement.totalCompensation();
-
-        // Get all employees' compensation
-        List<Employee> allEmployees = employeeRepository.findAll();
-        List<BigDecimal> allCompensations = allEmployees
-            .stream()
-            .filter(e -> !e.getId().equals(employeeId))
-            .map(e -> {
-                try {
-                    return generateCompensationStatement(e.getId(), year).totalCompensation();
-                } catch (Exception ex) {
-                    return BigDecimal.ZERO;
-                }
-            })
-            .sorted()
-            .toList();
-
-        // Calculate percentile
-        long belowCount = allCompensations.stream().filter(c -> c.compareTo(employeeTotal) < 0).count();
-
-        double percentile = allCompensations.isEmpty() ? 50.0 : (belowCount * 100.0) / allCompensations.size();
+        CompensationStatistics.Percentile percentile = compensationStatistics.percentile(employeeId, year);
+        if (percentile == null) {
+            throw new EntityNotFoundException("Employee", employeeId);
+        }
 
         Map<String, Object> result = new HashMap<>();
         result.put("employeeId", employeeId);
-        result.put("totalCompensation", employeeTotal);
-        result.put("percentile", BigDecimal.valueOf(percentile).setScale(1, RoundingMode.HALF_UP));
-        result.put("comparedTo", allCompensations.size());
+        result.put("totalCompensation", percentile.total());
+        result.put("percentile", BigDecimal.valueOf(percentile.percentile()).setScale(1, RoundingMode.HALF_UP));
+        result.put("comparedTo", percentile.comparedTo());
         result.put("year", year);
 
         return result;
@@ -253,11 +205,7 @@ public class TotalCompensationService {
         }
 
         Compensation comp = compensation.get();
-        return switch (comp.getBasis()) {
-            case ANNUAL -> comp.getBaseAmount();
-            case MONTHLY -> comp.getBaseAmount().multiply(BigDecimal.valueOf(12));
-            case HOURLY -> comp.getBaseAmount().multiply(BigDecimal.valueOf(2080)); // 40hrs * 52 weeks
-        };
+        return CompensationStatistics.annualBaseSalary(comp.getBasis(), comp.getBaseAmount());
     }
 
     private BigDecimal calculateTotalBonuses(UUID employeeId, LocalDate startDate, LocalDate endDate) {
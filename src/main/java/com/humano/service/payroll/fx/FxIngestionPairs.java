@@ -0,0 +1,108 @@
+package com.humano.service.payroll.fx;
+
+import com.humano.config.cache.CacheInvalidationBus;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.domain.enumeration.CurrencyCode;
+import com.humano.domain.payroll.Currency;
+import com.humano.domain.payroll.OrganizationSettings;
+import com.humano.repository.payroll.CompensationRepository;
+import com.humano.repository.payroll.OrganizationSettingsRepository;
+import com.humano.repository.payroll.PayrollRunRepository;
+import com.humano.service.payroll.fx.FxRateIngestionService.CurrencyPair;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-tenant set of the rate pairs FX ingestion has to price, with the currency ids each pair is
+ * stored under. Loaded on first use from the currencies in use (compensation currencies crossed
+ * with the default and run reporting currencies), so a nightly run with a warm cache needs no
+ * tenant query before fetching from the provider.
+ * <p>
+ * The set only changes when a currency comes into use: a compensation paid in a currency no
+ * other compensation uses, a new default currency, a run reporting in a new currency. The
+ * services making those changes publish {@code CurrenciesInUseChangedEvent}, whose listener calls
+ * {@link #currenciesChanged} to drop the tenant's set on every node through
+ * {@link CacheInvalidationBus}. A currency going out of use is not tracked; its pairs keep being
+ * priced until the set is next reloaded.
+ */
+@Service
+public class FxIngestionPairs {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FxIngestionPairs.class);
+
+    public static final String CACHE_NAME = "fx-ingestion-pairs";
+
+    private final Map<String, Map<CurrencyPair, FxRateSeriesCache.Pair>> tenants = new ConcurrentHashMap<>();
+    private final CompensationRepository compensationRepository;
+    private final PayrollRunRepository payrollRunRepository;
+    private final OrganizationSettingsRepository organizationSettingsRepository;
+    private final CacheInvalidationBus invalidationBus;
+
+    public FxIngestionPairs(
+        CompensationRepository compensationRepository,
+        PayrollRunRepository payrollRunRepository,
+        OrganizationSettingsRepository organizationSettingsRepository,
+        CacheInvalidationBus invalidationBus
+    ) {
+        this.compensationRepository = compensationRepository;
+        this.payrollRunRepository = payrollRunRepository;
+        this.organizationSettingsRepository = organizationSettingsRepository;
+        this.invalidationBus = invalidationBus;
+        invalidationBus.subscribe(CACHE_NAME, tenants::remove);
+    }
+
+    /**
+     * The pairs of {@code tenant} cached on this node, or {@code null} when none are (an empty
+     * map is a cached tenant that needs no pair).
+     */
+    public Map<CurrencyPair, FxRateSeriesCache.Pair> cached(String tenant) {
+        return tenants.get(tenant);
+    }
+
+    /** The current tenant's pairs, loaded from the currencies in use when not cached yet. */
+    @Transactional(transactionManager = "tenantTransactionManager", readOnly = true)
+    public Map<CurrencyPair, FxRateSeriesCache.Pair> current() {
+        String tenant = TenantContext.getCurrentTenant();
+        return tenants.computeIfAbsent(tenant != null ? tenant : TenantContext.MASTER, key -> load());
+    }
+
+    /** Drops the tenant's pairs on every node. Call once the currency change has committed. */
+    public void currenciesChanged(String tenant) {
+        invalidationBus.publish(CACHE_NAME, tenant);
+    }
+
+    private Map<CurrencyPair, FxRateSeriesCache.Pair> load() {
+        Map<CurrencyCode, Currency> sources = new HashMap<>();
+        compensationRepository
+            .findDistinctCurrencies()
+            .stream()
+            .filter(c -> c.getCode() != null)
+            .forEach(c -> sources.put(c.getCode(), c));
+
+        Map<CurrencyCode, Currency> targets = new HashMap<>();
+        organizationSettingsRepository
+            .findAll()
+            .stream()
+            .findFirst()
+            .map(OrganizationSettings::getDefaultCurrency)
+            .filter(c -> c.getCode() != null)
+            .ifPresent(c -> targets.put(c.getCode(), c));
+        payrollRunRepository
+            .findDistinctReportingCurrencies()
+            .stream()
+            .filter(c -> c.getCode() != null)
+            .forEach(c -> targets.put(c.getCode(), c));
+
+        Map<CurrencyPair, FxRateSeriesCache.Pair> pairs = new HashMap<>();
+        for (CurrencyPair pair : FxRateIngestionService.neededPairs(sources.keySet(), targets.keySet())) {
+            pairs.put(pair, new FxRateSeriesCache.Pair(sources.get(pair.from()).getId(), targets.get(pair.to()).getId()));
+        }
+        LOG.debug("Loaded {} FX ingestion pair(s) for tenant {}", pairs.size(), TenantContext.getCurrentTenant());
+        return Map.copyOf(pairs);
+    }
+}
@@ -1,23 +1,20 @@
 package com.humano.service.payroll.fx;
 
+import com.humano.config.multitenancy.TenantContext;
 import com.humano.config.multitenancy.TenantIteration;
 import com.humano.domain.enumeration.CurrencyCode;
-import com.humano.domain.payroll.Currency;
-import com.humano.domain.payroll.OrganizationSettings;
-import com.humano.repository.payroll.CompensationRepository;
-import com.humano.repository.payroll.CurrencyRepository;
-import com.humano.repository.payroll.OrganizationSettingsRepository;
-import com.humano.repository.payroll.PayrollRunRepository;
-import com.humano.service.payroll.ExchangeRateService;
+import com.humano.domain.enumeration.tenant.TenantStatus;
+import com.humano.repository.tenant.TenantRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -38,11 +35,17 @@ import org.springframework.transaction.annotation.Transactional;
  * <ol>
  *   <li><b>Usage-derived pairs.</b> Only the rate pairs a tenant actually needs are fetched —
  *       {@code distinct compensation currency} → {@code (default reporting currency ∪ run reporting
- *       currencies)} — not the whole currency catalog.</li>
+ *       currencies)} — not the whole currency catalog. Each tenant's pairs are cached in
+ *       {@link FxIngestionPairs} until a currency comes into use, so only tenants without a cached
+ *       set are queried before the fetch.</li>
  *   <li><b>Fetch once, write per tenant.</b> The union of needed pairs across all tenants is fetched
  *       from the provider a single time (grouped by base, one call per base), then persisted into each
- *       tenant DB via {@link TenantIteration}. Calling the provider per tenant would be N× redundant
- *       and risk a rate-limit ban on a keyless API.</li>
+ *       tenant DB by {@link FxRateWriter} with one multi-row upsert. Calling the provider per tenant
+ *       would be N× redundant and risk a rate-limit ban on a keyless API.</li>
+ *   <li><b>Adaptive fan-out.</b> Both tenant passes run through
+ *       {@link TenantIteration#forEachAdaptive}, in parallel under its node and per-database-server
+ *       limits. Per-tenant durations are reported as {@code tenant.iteration.duration} tagged
+ *       {@code job=fxPairDiscovery} and {@code job=fxRateIngestion}, and logged per tenant.</li>
  * </ol>
  *
  * <p><b>Verification note:</b> the live provider call is exercised only when enabled in a real
@@ -56,28 +59,25 @@ public class FxRateIngestionService {
 
     private final ObjectProvider<FxRateProvider> fxRateProvider;
     private final TenantIteration tenantIteration;
-    private final CompensationRepository compensationRepository;
-    private final PayrollRunRepository payrollRunRepository;
-    private final OrganizationSettingsRepository organizationSettingsRepository;
-    private final CurrencyRepository currencyRepository;
-    private final ExchangeRateService exchangeRateService;
+    private final TenantRepository tenantRepository;
+    private final FxIngestionPairs ingestionPairs;
+    private final FxRateWriter fxRateWriter;
+    private final FxRateSeriesCache fxRateSeriesCache;
 
     public FxRateIngestionService(
         ObjectProvider<FxRateProvider> fxRateProvider,
         TenantIteration tenantIteration,
-        CompensationRepository compensationRepository,
-        PayrollRunRepository payrollRunRepository,
-        OrganizationSettingsRepository organizationSettingsRepository,
-        CurrencyRepository currencyRepository,
-        ExchangeRateService exchangeRateService
+        TenantRepository tenantRepository,
+        FxIngestionPairs ingestionPairs,
+        FxRateWriter fxRateWriter,
+        FxRateSeriesCache fxRateSeriesCache
     ) {
         this.fxRateProvider = fxRateProvider;
         this.tenantIteration = tenantIteration;
-        this.compensationRepository = compensationRepository;
-        this.payrollRunRepository = payrollRunRepository;
-        this.organizationSettingsRepository = organizationSettingsRepository;
-        this.currencyRepository = currencyRepository;
-        this.exchangeRateService = exchangeRateService;
+        this.tenantRepository = tenantRepository;
+        this.ingestionPairs = ingestionPairs;
+        this.fxRateWriter = fxRateWriter;
+        this.fxRateSeriesCache = fxRateSeriesCache;
     }
 
     /** One foreign-exchange pair: {@code rate} stored is units of {@code to} per 1 unit of {@code from}. */
@@ -108,9 +108,27 @@ public class FxRateIngestionService {
             return;
         }
 
-        // Pass 1 — union of pairs every active tenant needs (read-only, per-tenant context).
-        Set<CurrencyPair> allPairs = ConcurrentHashMap.newKeySet();
-        tenantIteration.forEachActiveTenant(subdomain -> allPairs.addAll(currentTenantPairs()));
+        // Load the pair sets not cached yet; tenants with a cached set are not queried. The sets
+        // are kept as read or loaded here: an invalidation arriving meanwhile must not drop a
+        // tenant's pairs from this run.
+        List<String> tenants = tenantRepository.findSubdomainsByStatus(TenantStatus.ACTIVE);
+        Map<String, Map<CurrencyPair, FxRateSeriesCache.Pair>> pairsByTenant = new ConcurrentHashMap<>();
+        List<String> uncached = new ArrayList<>();
+        for (String tenant : tenants) {
+            Map<CurrencyPair, FxRateSeriesCache.Pair> cached = ingestionPairs.cached(tenant);
+            if (cached != null) {
+                pairsByTenant.put(tenant, cached);
+            } else {
+                uncached.add(tenant);
+            }
+        }
+        if (!uncached.isEmpty()) {
+            tenantIteration.forEachAdaptive("fxPairDiscovery", uncached, Function.identity(), tenant ->
+                pairsByTenant.put(tenant, ingestionPairs.current())
+            );
+        }
+        Set<CurrencyPair> allPairs = new HashSet<>();
+        pairsByTenant.values().forEach(pairs -> allPairs.addAll(pairs.keySet()));
         if (allPairs.isEmpty()) {
             log.info("FX ingestion: no in-use currency pairs across tenants; nothing to fetch");
             return;
@@ -125,35 +143,17 @@ public class FxRateIngestionService {
 
         // NOTE: server-local date. Tenant-timezone period boundaries are a separate concern (#9).
         LocalDate asOf = LocalDate.now();
-        tenantIteration.forEachActiveTenant(subdomain -> persistCurrentTenant(rates, asOf, provider.name()));
-        log.info("FX ingestion complete: provider '{}', {} of {} pairs priced", provider.name(), rates.size(), allPairs.size());
-    }
-
-    /** Source/target currencies in use for the tenant in the current {@code TenantContext}. */
-    private Set<CurrencyPair> currentTenantPairs() {
-        Set<CurrencyCode> sources = compensationRepository
-            .findDistinctCurrencies()
-            .stream()
-            .map(Currency::getCode)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-
-        Set<CurrencyCode> targets = new HashSet<>();
-        organizationSettingsRepository
-            .findAll()
-            .stream()
-            .findFirst()
-            .map(OrganizationSettings::getDefaultCurrency)
-            .map(Currency::getCode)
-            .ifPresent(targets::add);
-        payrollRunRepository
-            .findDistinctReportingCurrencies()
-            .stream()
-            .map(Currency::getCode)
-            .filter(Objects::nonNull)
-            .forEach(targets::add);
-
-        return neededPairs(sources, targets);
+        TenantIteration.Result result = tenantIteration.forEachAdaptive("fxRateIngestion", tenants, Function.identity(), tenant ->
+            persistCurrentTenant(rates, asOf, provider.name())
+        );
+        log.info(
+            "FX ingestion complete: provider '{}', {} of {} pairs priced, {} of {} tenants written",
+            provider.name(),
+            rates.size(),
+            allPairs.size(),
+            result.succeeded(),
+            result.total()
+        );
     }
 
     /**
@@ -174,29 +174,40 @@ public class FxRateIngestionService {
         return rates;
     }
 
-    /** Upserts the rows the current-context tenant needs, skipping pairs the provider didn't price. */
-    private void persistCurrentTenant(Map<CurrencyPair, BigDecimal> rates, LocalDate asOf, String source) {
-        Map<CurrencyCode, Currency> byCode = new HashMap<>();
-        int written = 0;
-        for (CurrencyPair pair : currentTenantPairs()) {
+    /**
+     * The provider rates the tenant's pairs need, keyed by the currency ids they are stored under.
+     * Pairs the provider didn't price are left out. Pure for unit testing.
+     */
+    static Map<FxRateSeriesCache.Pair, BigDecimal> tenantRates(
+        Map<CurrencyPair, FxRateSeriesCache.Pair> tenantPairs,
+        Map<CurrencyPair, BigDecimal> rates
+    ) {
+        Map<FxRateSeriesCache.Pair, BigDecimal> tenantRates = new HashMap<>();
+        tenantPairs.forEach((pair, ids) -> {
             BigDecimal rate = rates.get(pair);
-            if (rate == null) {
-                continue;
-            }
-            Currency from = byCode.computeIfAbsent(pair.from(), c -> currencyRepository.findByCode(c).orElse(null));
-            Currency to = byCode.computeIfAbsent(pair.to(), c -> currencyRepository.findByCode(c).orElse(null));
-            if (from == null || to == null) {
-                continue;
+            if (rate != null) {
+                tenantRates.put(ids, rate);
             }
-            exchangeRateService.upsertProviderRate(from, to, asOf, rate, source);
-            written++;
-        }
+        });
+        return tenantRates;
+    }
+
+    /**
+     * Upserts the rows the current-context tenant needs in one statement, then, once that has
+     * committed, refreshes the tenant's {@link FxRateSeriesCache} with the pairs written.
+     */
+    private void persistCurrentTenant(Map<CurrencyPair, BigDecimal> rates, LocalDate asOf, String source) {
+        long started = System.nanoTime();
+        Map<FxRateSeriesCache.Pair, BigDecimal> tenantRates = tenantRates(ingestionPairs.current(), rates);
+        int written = fxRateWriter.upsert(tenantRates, asOf, source);
         if (written > 0) {
-            log.debug(
-                "FX ingestion wrote {} rate(s) for tenant {}",
-                written,
-                com.humano.config.multitenancy.TenantContext.getCurrentTenant()
-            );
+            fxRateSeriesCache.refresh(tenantRates.keySet());
         }
+        log.debug(
+            "FX ingestion wrote {} rate(s) for tenant {} in {} ms",
+            written,
+            TenantContext.getCurrentTenant(),
+            (System.nanoTime() - started) / 1_000_000
+        );
     }
 }
@@ -0,0 +1,98 @@
+package com.humano.service.payroll.fx;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable rate history of one currency pair, indexed by day.
+ * <p>
+ * The stored rates are kept once per date in date order. A dense array spanning the first to the
+ * last rate date holds, for every day, the index of the latest rate on or before it, so an as-of
+ * lookup is one subtraction and one array read; days after the last rate resolve to the last
+ * rate. Should a date have several rows (the {@code (from, to, date)} unique key rules it out
+ * since the 20261019 migration) the most recently modified one is kept, ties going to the
+ * highest id: the same row that migration kept when it removed duplicates.
+ */
+public final class FxRateSeries {
+
+    static final FxRateSeries EMPTY = new FxRateSeries(new long[0], new BigDecimal[0], new UUID[0], new int[0]);
+
+    /** A stored rate: {@code rate} units of the target currency per unit of the source, on {@code date}. */
+    public record Rate(UUID id, LocalDate date, BigDecimal rate) {}
+
+    private final long[] days;
+    private final BigDecimal[] rates;
+    private final UUID[] ids;
+    /** Index into the arrays above of the latest rate on or before {@code days[0] + offset}. */
+    private final int[] latestByDay;
+
+    private FxRateSeries(long[] days, BigDecimal[] rates, UUID[] ids, int[] latestByDay) {
+        this.days = days;
+        this.rates = rates;
+        this.ids = ids;
+        this.latestByDay = latestByDay;
+    }
+
+    /** Builds the series from rates sorted by date, the preferred row of each date first. */
+    static FxRateSeries of(List<Rate> sorted) {
+        List<Rate> distinct = new ArrayList<>(sorted.size());
+        for (Rate rate : sorted) {
+            if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).date().equals(rate.date())) {
+                distinct.add(rate);
+            }
+        }
+        if (distinct.isEmpty()) {
+            return EMPTY;
+        }
+        int size = distinct.size();
+        long[] days = new long[size];
+        BigDecimal[] rates = new BigDecimal[size];
+        UUID[] ids = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            days[i] = distinct.get(i).date().toEpochDay();
+            rates[i] = distinct.get(i).rate();
+            ids[i] = distinct.get(i).id();
+        }
+        int[] latestByDay = new int[Math.toIntExact(days[size - 1] - days[0] + 1)];
+        int index = 0;
+        for (int offset = 0; offset < latestByDay.length; offset++) {
+            while (index + 1 < size && days[index + 1] <= days[0] + offset) {
+                index++;
+            }
+            latestByDay[offset] = index;
+        }
+        return new FxRateSeries(days, rates, ids, latestByDay);
+    }
+
+    /** The latest rate on or before {@code date}, or null if the pair had no rate yet. */
+    public Rate asOf(LocalDate date) {
+        int index = latestIndex(date.toEpochDay());
+        return index >= 0 ? new Rate(ids[index], LocalDate.ofEpochDay(days[index]), rates[index]) : null;
+    }
+
+    /** Days between {@code date} and the rate {@link #asOf} returns for it, or -1 when there is none. */
+    public long staleness(LocalDate date) {
+        int index = latestIndex(date.toEpochDay());
+        return index >= 0 ? date.toEpochDay() - days[index] : -1;
+    }
+
+    public boolean isEmpty() {
+        return days.length == 0;
+    }
+
+    /** Number of stored dates. */
+    public int size() {
+        return days.length;
+    }
+
+    private int latestIndex(long day) {
+        if (days.length == 0 || day < days[0]) {
+            return -1;
+        }
+        long offset = day - days[0];
+        return offset < latestByDay.length ? latestByDay[(int) offset] : days.length - 1;
+    }
+}
@@ -0,0 +1,120 @@
+package com.humano.service.payroll.fx;
+
+import com.humano.config.cache.CacheInvalidationBus;
+import com.humano.config.multitenancy.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Per-tenant, per-pair {@link FxRateSeries}, loaded on first use with one query over the pair's
+ * stored rates. A pair without rates is cached as an empty series, so repeated misses stay off
+ * the database too.
+ * <p>
+ * Once exchange rates of a tenant change, {@link #ratesChanged} drops all of the tenant's series
+ * on every node through {@link CacheInvalidationBus}; {@link #refresh} additionally reloads the
+ * given pairs here at once, as FX ingestion does for the pairs it just wrote.
+ * <p>
+ * Metrics: {@code fx.rate.series.requests{result}} (hit, miss), {@code fx.rate.series.load},
+ * {@code fx.rate.series.size}.
+ */
+@Service
+public class FxRateSeriesCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FxRateSeriesCache.class);
+
+    public static final String CACHE_NAME = "fx-rate-series";
+
+    /** Per date, the preferred row comes first: see {@link FxRateSeries}. */
+    private static final String RATES =
+        "SELECT r.id, r.date, r.rate FROM ExchangeRate r WHERE r.fromCcy.id = :from AND r.toCcy.id = :to " +
+        "ORDER BY r.date, r.audit.lastModifiedDate DESC NULLS LAST, r.id DESC";
+
+    /** A directed currency pair, by currency id. */
+    public record Pair(UUID fromCurrencyId, UUID toCurrencyId) {}
+
+    private final Map<String, Map<Pair, FxRateSeries>> tenants = new ConcurrentHashMap<>();
+    private final CacheInvalidationBus invalidationBus;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loadTimer;
+
+    @PersistenceContext(unitName = "tenant")
+    private EntityManager entityManager;
+
+    public FxRateSeriesCache(CacheInvalidationBus invalidationBus, MeterRegistry meterRegistry) {
+        this.invalidationBus = invalidationBus;
+        this.hits = meterRegistry.counter("fx.rate.series.requests", "result", "hit");
+        this.misses = meterRegistry.counter("fx.rate.series.requests", "result", "miss");
+        this.loadTimer = meterRegistry.timer("fx.rate.series.load");
+        Gauge.builder("fx.rate.series.size", this, FxRateSeriesCache::size)
+            .description("Cached exchange rate series across all tenants")
+            .register(meterRegistry);
+        invalidationBus.subscribe(CACHE_NAME, tenants::remove);
+    }
+
+    /** The current tenant's rates from {@code fromCurrencyId} to {@code toCurrencyId}. */
+    public FxRateSeries series(UUID fromCurrencyId, UUID toCurrencyId) {
+        String tenant = TenantContext.getCurrentTenant();
+        Map<Pair, FxRateSeries> series = tenants.computeIfAbsent(tenant != null ? tenant : TenantContext.MASTER, key ->
+            new ConcurrentHashMap<>()
+        );
+        Pair pair = new Pair(fromCurrencyId, toCurrencyId);
+        FxRateSeries cached = series.get(pair);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        return series.computeIfAbsent(pair, this::load);
+    }
+
+    /** Drops the tenant's series on every node. Call once the rate change has committed. */
+    public void ratesChanged(String tenant) {
+        invalidationBus.publish(CACHE_NAME, tenant);
+    }
+
+    /**
+     * Drops the current tenant's series on every node, then reloads {@code pairs} on this one.
+     * Call once the rate change has committed.
+     */
+    public void refresh(Collection<Pair> pairs) {
+        String tenant = TenantContext.getCurrentTenant();
+        ratesChanged(tenant != null ? tenant : TenantContext.MASTER);
+        pairs.forEach(pair -> series(pair.fromCurrencyId(), pair.toCurrencyId()));
+    }
+
+    private FxRateSeries load(Pair pair) {
+        FxRateSeries series = loadTimer.record(() -> {
+            List<FxRateSeries.Rate> rates = new ArrayList<>();
+            for (Object[] row : entityManager
+                .createQuery(RATES, Object[].class)
+                .setParameter("from", pair.fromCurrencyId())
+                .setParameter("to", pair.toCurrencyId())
+                .getResultList()) {
+                rates.add(new FxRateSeries.Rate((UUID) row[0], (LocalDate) row[1], (BigDecimal) row[2]));
+            }
+            return FxRateSeries.of(rates);
+        });
+        LOG.debug("Loaded exchange rate series {} -> {}: {} rates", pair.fromCurrencyId(), pair.toCurrencyId(), series.size());
+        return series;
+    }
+
+    private double size() {
+        return tenants.values().stream().mapToInt(Map::size).sum();
+    }
+}
@@ -0,0 +1,102 @@
+package com.humano.service.payroll.fx;
+
+import com.humano.config.Constants;
+import com.humano.domain.payroll.ExchangeRate;
+import com.humano.domain.shared.TimeBasedIds;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Write phase of FX ingestion: stores a day's provider rates of one tenant with one multi-row
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE} against the {@code (from_currency_id,
+ * to_currency_id, date)} unique key (per {@value #MAX_ROWS_PER_STATEMENT} pairs), instead of a
+ * read and a write per pair.
+ *
+ * <p>A pair already priced that day keeps its row and id; only rate, provenance and the
+ * last-modified audit columns change. New rows get a time-based id from {@link TimeBasedIds},
+ * as {@code @UuidGenerator} would assign, since the statement bypasses it, and are audited as
+ * {@link Constants#SYSTEM}. The statement is MySQL syntax (the row alias needs 8.0.19+), as the
+ * tenant databases are.
+ *
+ * <p>The statement declares {@link ExchangeRate} as the only entity it writes. Without that,
+ * Hibernate treats a native update as touching every table and invalidates every second-level
+ * cache region, of all tenants, on each tenant's upsert.
+ */
+@Service
+public class FxRateWriter {
+
+    /** Rows per statement, keeping the bind parameters well below MySQL's 65,535 limit. */
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final int RATE_SCALE = 6;
+
+    private static final String INSERT =
+        "INSERT INTO exchange_rate (id, from_currency_id, to_currency_id, date, rate, source, fetched_at, " +
+        "created_by, created_date, last_modified_by, last_modified_date) VALUES ";
+
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String ON_DUPLICATE_KEY =
+        " AS incoming ON DUPLICATE KEY UPDATE rate = incoming.rate, source = incoming.source, fetched_at = incoming.fetched_at, " +
+        "last_modified_by = incoming.last_modified_by, last_modified_date = incoming.last_modified_date";
+
+    @PersistenceContext(unitName = "tenant")
+    private EntityManager entityManager;
+
+    /**
+     * Upserts {@code rates} (units of the target currency per unit of the source) for
+     * {@code date} into the current tenant's database, in a brand-new tenant transaction.
+     *
+     * @return the number of pairs written
+     */
+    @Transactional(transactionManager = "tenantTransactionManager", propagation = Propagation.REQUIRES_NEW)
+    public int upsert(Map<FxRateSeriesCache.Pair, BigDecimal> rates, LocalDate date, String source) {
+        if (rates.isEmpty()) {
+            return 0;
+        }
+        Instant now = Instant.now();
+        List<Map.Entry<FxRateSeriesCache.Pair, BigDecimal>> rows = List.copyOf(rates.entrySet());
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            int to = Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT);
+            List<Map.Entry<FxRateSeriesCache.Pair, BigDecimal>> chunk = rows.subList(from, to);
+            Query statement = entityManager.createNativeQuery(statement(chunk.size()));
+            statement.unwrap(NativeQuery.class).addSynchronizedEntityClass(ExchangeRate.class);
+            int position = 1;
+            for (Map.Entry<FxRateSeriesCache.Pair, BigDecimal> row : chunk) {
+                statement
+                    .setParameter(position++, TimeBasedIds.next())
+                    .setParameter(position++, row.getKey().fromCurrencyId())
+                    .setParameter(position++, row.getKey().toCurrencyId())
+                    .setParameter(position++, date)
+                    .setParameter(position++, row.getValue().setScale(RATE_SCALE, RoundingMode.HALF_UP))
+                    .setParameter(position++, source)
+                    .setParameter(position++, now)
+                    .setParameter(position++, Constants.SYSTEM)
+                    .setParameter(position++, now)
+                    .setParameter(position++, Constants.SYSTEM)
+                    .setParameter(position++, now);
+            }
+            statement.executeUpdate();
+        }
+        return rows.size();
+    }
+
+    private static String statement(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT.length() + rows * (ROW.length() + 2) + ON_DUPLICATE_KEY.length()).append(INSERT);
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+        }
+        return sql.append(ON_DUPLICATE_KEY).toString();
+    }
+}
@@ -2,17 +2,23 @@ package com.humano.service.storage;
 
 import com.humano.domain.storage.FileBlob;
 import com.humano.repository.storage.FileBlobRepository;
-import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
- * DATABASE backend — stores bytes in the tenant DB's {@code file_blob} table via
+ * DATABASE backend — stores bytes in the tenant DB's {@code file_blob} and {@code file_blob_chunk} tables via
  * {@link FileBlobRepository}.
  * <p>
  * Tenant isolation is provided by the routing data source (the JPA repo participates in the
@@ -24,38 +30,87 @@ import org.springframework.web.multipart.MultipartFile;
  * content-type / directory passed to the {@code store(...)} overloads are ignored here; that
  * metadata belongs on {@code StoredFile}, not on the blob row.
  * <p>
+ * Bytes are kept in {@code file_blob_chunk} rows of at most {@value #CHUNK_BYTES} bytes. A write
+ * inserts the blob row, then one chunk at a time as the content arrives, in one tenant
+ * transaction, so an upload of any size holds one chunk in heap and no statement comes near
+ * the server's {@code max_allowed_packet}; the length need not be known up front. A read
+ * fetches one chunk per short primary-key query, so a download costs one pass over the blob
+ * whatever its size, and skipping (a range request's offset) just moves the next chunk's
+ * position.
+ * <p>
  * Instantiated by {@link StorageFactory}; intentionally not a Spring {@code @Component}.
  */
 public class DatabaseStorageService implements FileStorageService {
 
     private static final Logger log = LoggerFactory.getLogger(DatabaseStorageService.class);
 
+    /** Bytes per {@code file_blob_chunk} row. */
+    static final int CHUNK_BYTES = 256 * 1024;
+
     private final FileBlobRepository fileBlobRepository;
+    private final TransactionTemplate writeTx;
 
-    public DatabaseStorageService(FileBlobRepository fileBlobRepository) {
+    public DatabaseStorageService(FileBlobRepository fileBlobRepository, PlatformTransactionManager tenantTransactionManager) {
         this.fileBlobRepository = fileBlobRepository;
+        this.writeTx = new TransactionTemplate(tenantTransactionManager);
     }
 
     @Override
     public String store(MultipartFile file, String directory) throws IOException {
-        return persist(file.getBytes());
+        try (InputStream in = file.getInputStream()) {
+            return persist(in::transferTo, file.getSize());
+        }
     }
 
     @Override
     public String store(MultipartFile file, String directory, String filename) throws IOException {
-        return persist(file.getBytes());
+        return store(file, directory);
     }
 
     @Override
     public String store(InputStream inputStream, String directory, String filename, String contentType) throws IOException {
-        return persist(inputStream.readAllBytes());
+        return persist(inputStream::transferTo, -1);
+    }
+
+    @Override
+    public String store(InputStream inputStream, long sizeBytes, String directory, String filename, String contentType)
+        throws IOException {
+        return persist(inputStream::transferTo, sizeBytes);
     }
 
-    private String persist(byte[] bytes) {
-        FileBlob blob = new FileBlob();
-        blob.setContent(bytes);
-        blob.setSizeBytes(bytes.length);
-        FileBlob saved = fileBlobRepository.save(blob);
+    @Override
+    public String store(ContentWriter writer, String directory, String filename, String contentType) throws IOException {
+        return persist(writer, -1);
+    }
+
+    /**
+     * Writes the blob row and its chunks in one transaction (joining the caller's, if any).
+     * A {@code expectedBytes} of {@code -1} means the length is unknown; otherwise a stream of
+     * another length is rejected and nothing is stored.
+     */
+    private String persist(ContentWriter writer, long expectedBytes) throws IOException {
+        FileBlob saved;
+        try {
+            saved = writeTx.execute(status -> {
+                // Flushed now: the chunks' inserts reference the row.
+                FileBlob blob = fileBlobRepository.saveAndFlush(new FileBlob());
+                ChunkingOutputStream out = new ChunkingOutputStream(blob.getId());
+                try (out) {
+                    writer.writeTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (expectedBytes >= 0 && out.written != expectedBytes) {
+                    throw new StorageException(
+                        "Expected " + expectedBytes + " bytes for file_blob " + blob.getId() + ", got " + out.written
+                    );
+                }
+                blob.setSizeBytes(out.written);
+                return fileBlobRepository.save(blob);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
         log.debug("Stored file_blob id={} ({} bytes)", saved.getId(), saved.getSizeBytes());
         return saved.getId().toString();
     }
@@ -64,7 +119,14 @@ public class DatabaseStorageService implements FileStorageService {
     public Optional<InputStream> retrieve(String fileReference) {
         UUID id = parseId(fileReference);
         if (id == null) return Optional.empty();
-        return fileBlobRepository.findById(id).map(b -> new ByteArrayInputStream(b.getContent()));
+        return fileBlobRepository.findSizeById(id).map(size -> new ChunkedBlobInputStream(id, size));
+    }
+
+    @Override
+    public OptionalLong size(String fileReference) {
+        UUID id = parseId(fileReference);
+        if (id == null) return OptionalLong.empty();
+        return fileBlobRepository.findSizeById(id).map(OptionalLong::of).orElse(OptionalLong.empty());
     }
 
     @Override
@@ -72,7 +134,10 @@ public class DatabaseStorageService implements FileStorageService {
         UUID id = parseId(fileReference);
         if (id == null) return false;
         if (!fileBlobRepository.existsById(id)) return false;
-        fileBlobRepository.deleteById(id);
+        writeTx.executeWithoutResult(status -> {
+            fileBlobRepository.deleteChunks(id);
+            fileBlobRepository.deleteById(id);
+        });
         return true;
     }
 
@@ -96,4 +161,116 @@ public class DatabaseStorageService implements FileStorageService {
             return null;
         }
     }
+
+    /**
+     * Buffers one chunk and inserts it once full (or on close). Runs inside {@link #persist}'s
+     * transaction.
+     */
+    private final class ChunkingOutputStream extends OutputStream {
+
+        private final UUID id;
+        private final byte[] buffer = new byte[CHUNK_BYTES];
+        private int buffered;
+        private long written;
+
+        private ChunkingOutputStream(UUID id) {
+            this.id = id;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            while (length > 0) {
+                int count = Math.min(length, buffer.length - buffered);
+                System.arraycopy(bytes, offset, buffer, buffered, count);
+                buffered += count;
+                offset += count;
+                length -= count;
+                if (buffered == buffer.length) {
+                    insertBuffered();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            if (buffered > 0) {
+                insertBuffered();
+            }
+        }
+
+        private void insertBuffered() {
+            byte[] chunk = buffered == buffer.length ? buffer : Arrays.copyOf(buffer, buffered);
+            fileBlobRepository.insertChunk(id, written, chunk);
+            written += buffered;
+            buffered = 0;
+        }
+    }
+
+    /**
+     * Reads a blob chunk by chunk. Each refill is its own primary-key query (and, outside a
+     * transaction, its own short connection checkout), so a slow client never pins a connection
+     * for the whole download. Needs the tenant context bound while it is read.
+     */
+    private final class ChunkedBlobInputStream extends InputStream {
+
+        private final UUID id;
+        private final long size;
+        private long next;
+        private long chunkStart;
+        private byte[] chunk = new byte[0];
+
+        private ChunkedBlobInputStream(UUID id, long size) {
+            this.id = id;
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) return 0;
+            if (next >= size) return -1;
+            if (next < chunkStart || next >= chunkStart + chunk.length) {
+                fill();
+            }
+            int index = (int) (next - chunkStart);
+            int count = Math.min(length, chunk.length - index);
+            System.arraycopy(chunk, index, buffer, offset, count);
+            next += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, size - next));
+            next += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            long buffered = next >= chunkStart ? chunkStart + chunk.length - next : 0;
+            return (int) Math.max(0, buffered);
+        }
+
+        /** Loads the chunk holding byte {@code next}: the following one directly, any other after a lookup. */
+        private void fill() throws IOException {
+            Long start = next == chunkStart + chunk.length ? Long.valueOf(next) : fileBlobRepository.findChunkStart(id, next);
+            byte[] loaded = start != null ? fileBlobRepository.readChunk(id, start) : null;
+            if (loaded == null || start + loaded.length <= next) {
+                throw new EOFException("file_blob " + id + " ended at byte " + next + ", expected " + size);
+            }
+            chunkStart = start;
+            chunk = loaded;
+        }
+    }
 }
@@ -12,10 +12,12 @@ import com.humano.repository.tenant.TenantStorageConfigRepository;
 import com.humano.service.errors.EntityNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Base64;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,6 +38,11 @@ import org.springframework.web.multipart.MultipartFile;
  * The byte-handling {@link FileStorageService} stays a thin interface on purpose — it only
  * knows about bytes and {@code storageKey}s. Everything policy-shaped (size caps, MIME
  * allow-lists, visibility, ownership, soft-delete) lives here.
+ * <p>
+ * Uploads are single-pass and streaming: the multipart stream is wrapped in a
+ * {@link DigestInputStream} and handed to the backend with its length, so the SHA-256 is
+ * computed while the backend copies the bytes and no upload is ever held in heap, whatever its
+ * size.
  */
 @Service
 public class FileService {
@@ -107,12 +114,15 @@ public class FileService {
         FileStorageService backend = storageFactory.getStorageService();
         StorageBackendType backendType = activeDetails != null ? activeDetails.type() : StorageBackendType.FILESYSTEM;
 
-        // Hash before delegating so we can record the integrity checksum alongside bytes.
-        byte[] bytes = file.getBytes();
-        String sha256 = sha256Hex(bytes);
-
+        String contentType = file.getContentType() != null ? file.getContentType() : "application/octet-stream";
         String directory = directoryFor(context, ownerType, ownerId);
-        String storageKey = backend.store(file, directory);
+        // Hashed while the backend copies: one read of the upload, one buffer at a time.
+        MessageDigest digest = StorageChecksums.newSha256();
+        String storageKey;
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            storageKey = backend.store(in, file.getSize(), directory, storedFilename(file.getOriginalFilename()), contentType);
+        }
+        String sha256 = StorageChecksums.hex(digest);
 
         FileVisibility effectiveVisibility = visibility != null ? visibility : context.defaultVisibility();
 
@@ -121,7 +131,7 @@ public class FileService {
         sf.setOwnerType(ownerType);
         sf.setOwnerId(ownerId);
         sf.setOriginalFilename(safeFilename(file.getOriginalFilename()));
-        sf.setContentType(file.getContentType() != null ? file.getContentType() : "application/octet-stream");
+        sf.setContentType(contentType);
         sf.setSizeBytes(file.getSize());
         sf.setChecksumSha256(sha256);
         sf.setVisibility(effectiveVisibility);
@@ -165,6 +175,27 @@ public class FileService {
         return new FileDownload(in, sf.getContentType(), sf.getOriginalFilename(), sf.getSizeBytes());
     }
 
+    /**
+     * Resolve a stored file for an HTTP download without reading any content: size, type, name
+     * and checksum (the ETag) come from the {@link StoredFile} row, so a conditional request
+     * that is answered {@code 304} costs one metadata query.
+     */
+    @Transactional(value = "tenantTransactionManager", readOnly = true)
+    public StoredContent prepareDownload(UUID storedFileId) {
+        StoredFile sf = storedFileRepository
+            .findById(storedFileId)
+            .filter(f -> !f.isDeleted())
+            .orElseThrow(() -> EntityNotFoundException.create("StoredFile", storedFileId));
+        return new StoredContent(
+            storageFactory.getStorageService(),
+            sf.getStorageKey(),
+            sf.getSizeBytes(),
+            sf.getContentType(),
+            sf.getOriginalFilename(),
+            sf.getChecksumSha256()
+        );
+    }
+
     @Transactional(value = "tenantTransactionManager", readOnly = true)
     public Optional<StoredFile> findByPublicToken(String token) {
         if (token == null || token.isBlank()) return Optional.empty();
@@ -226,16 +257,12 @@ public class FileService {
         return Base64.getUrlEncoder().withoutPadding().encodeToString(buf);
     }
 
-    private static String sha256Hex(byte[] bytes) {
-        try {
-            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
-            StringBuilder hex = new StringBuilder(digest.length * 2);
-            for (byte b : digest) hex.append(String.format("%02x", b));
-            return hex.toString();
-        } catch (NoSuchAlgorithmException e) {
-            // SHA-256 is required by every JCA provider; absence is a JVM bug.
-            throw new StorageException("SHA-256 unavailable", e);
-        }
+    /** Backend name for an upload: unique, keeping the original extension. */
+    private static String storedFilename(String original) {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        String name = safeFilename(original);
+        String extension = name.contains(".") ? name.substring(name.lastIndexOf('.')) : "";
+        return UUID.randomUUID() + "-" + timestamp + extension;
     }
 
     /** Streamable result of {@link #download(UUID)}. */
@@ -2,10 +2,15 @@ package com.humano.service.storage;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Interface for file storage operations.
@@ -46,6 +51,45 @@ public interface FileStorageService {
      */
     String store(InputStream inputStream, String directory, String filename, String contentType) throws IOException;
 
+    /**
+     * Store content of a known length from an input stream. Backends that need the length up
+     * front to stream without buffering (the database backend binds it as a sized JDBC stream)
+     * override this; the default ignores it.
+     *
+     * @param inputStream the input stream containing exactly {@code sizeBytes} bytes
+     * @param sizeBytes the content length
+     * @param directory optional subdirectory path
+     * @param filename the name to use for the stored file
+     * @param contentType the content type of the file
+     * @return the file reference (path, URL, or identifier)
+     * @throws IOException if an I/O error occurs
+     */
+    default String store(InputStream inputStream, long sizeBytes, String directory, String filename, String contentType)
+        throws IOException {
+        return store(inputStream, directory, filename, contentType);
+    }
+
+    /**
+     * Store content produced by a writer, for content generated on the fly (e.g. rendered
+     * PDFs). The default implementation collects it in memory and delegates to
+     * {@link #store(InputStream, String, String, String)}; backends that can accept writes
+     * directly override it to stream.
+     *
+     * @param writer writes the file content; the stream is closed by the storage
+     * @param directory optional subdirectory path
+     * @param filename the name to use for the stored file
+     * @param contentType the content type of the file
+     * @return the file reference (path, URL, or identifier)
+     * @throws IOException if an I/O error occurs
+     */
+    default String store(ContentWriter writer, String directory, String filename, String contentType) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        writer.writeTo(buffer);
+        try (InputStream in = new ByteArrayInputStream(buffer.toByteArray())) {
+            return store(in, directory, filename, contentType);
+        }
+    }
+
     /**
      * Load a file as a resource.
      *
@@ -55,6 +99,43 @@ public interface FileStorageService {
      */
     Optional<InputStream> retrieve(String fileReference) throws IOException;
 
+    /**
+     * Size of a stored file, when the backend can tell without reading its content.
+     *
+     * @param fileReference the file reference (path, URL, or identifier)
+     * @return the size in bytes, or empty when the file is missing or its size unknown
+     */
+    default OptionalLong size(String fileReference) {
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Copy part of a stored file to {@code out}, for full and ranged downloads. The default
+     * skips through {@link #retrieve} and copies with a fixed buffer; backends that can seek
+     * or transfer natively override it.
+     *
+     * @param fileReference the file reference (path, URL, or identifier)
+     * @param offset first byte to copy
+     * @param length number of bytes to copy
+     * @param out destination; not closed
+     * @throws IOException if an I/O error occurs or the file is shorter than requested
+     */
+    default void transferTo(String fileReference, long offset, long length, OutputStream out) throws IOException {
+        try (InputStream in = retrieve(fileReference).orElseThrow(() -> new StorageException("No stored file at " + fileReference))) {
+            in.skipNBytes(offset);
+            byte[] buffer = new byte[64 * 1024];
+            long remaining = length;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Stored file " + fileReference + " ended " + remaining + " bytes early");
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
     /**
      * Delete a file from the storage.
      *
@@ -78,4 +159,10 @@ public interface FileStorageService {
      * @return the public URL to access the file
      */
     Optional<String> getUrl(String fileReference);
+
+    /** Produces file content into the stream handed over by the storage. */
+    @FunctionalInterface
+    interface ContentWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
 }
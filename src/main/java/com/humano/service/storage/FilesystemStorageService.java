@@ -1,14 +1,23 @@
 package com.humano.service.storage;
 
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,11 +31,20 @@ import org.springframework.web.multipart.MultipartFile;
  * <strong>relative</strong> to {@link #rootLocation} so the key survives root moves and stays
  * meaningful in {@link com.humano.domain.storage.StoredFile#getStorageKey()}. All reads / deletes
  * resolve the relative key against the current root.
+ * <p>
+ * Writes go to a {@code .part} sibling that is moved into place once complete, so a failed
+ * upload never leaves a truncated file under the final name. Stream content is copied with
+ * {@link FileChannel#transferFrom}, which moves it through one small transfer buffer whatever
+ * the file size; downloads go the other way with {@link FileChannel#transferTo} from the
+ * requested offset, so a range request reads only its range.
  */
 public class FilesystemStorageService implements FileStorageService {
 
     private static final Logger log = LoggerFactory.getLogger(FilesystemStorageService.class);
 
+    /** Upper bound on one {@code transferFrom} call; the JDK copies through its own small buffer. */
+    private static final long TRANSFER_CHUNK_BYTES = 1024 * 1024;
+
     private final Path rootLocation;
 
     public FilesystemStorageService(Path rootLocation) {
@@ -53,19 +71,56 @@ public class FilesystemStorageService implements FileStorageService {
         if (file.isEmpty()) {
             throw new StorageException("Failed to store empty file " + filename);
         }
-        Path destination = resolveSafe(directory, filename);
-        Files.createDirectories(destination.getParent());
         try (InputStream in = file.getInputStream()) {
-            Files.copy(in, destination, StandardCopyOption.REPLACE_EXISTING);
+            return store(in, directory, filename, file.getContentType());
         }
-        return toRelativeKey(destination);
     }
 
+    /** Copies the stream to disk; the stream is read to the end but not closed. */
     @Override
     public String store(InputStream inputStream, String directory, String filename, String contentType) throws IOException {
+        return writeAtomically(directory, filename, partial -> {
+            // Not closed: closing the channel would close the caller's stream.
+            ReadableByteChannel source = Channels.newChannel(inputStream);
+            try (
+                FileChannel target = FileChannel.open(
+                    partial,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING
+                )
+            ) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK_BYTES)) > 0) {
+                    position += transferred;
+                }
+            }
+        });
+    }
+
+    /** Streams the writer's output straight to disk. */
+    @Override
+    public String store(ContentWriter writer, String directory, String filename, String contentType) throws IOException {
+        return writeAtomically(directory, filename, partial -> {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                writer.writeTo(out);
+            }
+        });
+    }
+
+    /** Runs {@code write} against a {@code .part} sibling of the target, then moves it into place. */
+    private String writeAtomically(String directory, String filename, PartialWrite write) throws IOException {
         Path destination = resolveSafe(directory, filename);
         Files.createDirectories(destination.getParent());
-        Files.copy(inputStream, destination, StandardCopyOption.REPLACE_EXISTING);
+        Path partial = destination.resolveSibling(destination.getFileName() + ".part");
+        try {
+            write.writeTo(partial);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         return toRelativeKey(destination);
     }
 
@@ -75,6 +130,34 @@ public class FilesystemStorageService implements FileStorageService {
         return Files.exists(filePath) ? Optional.of(Files.newInputStream(filePath)) : Optional.empty();
     }
 
+    @Override
+    public OptionalLong size(String fileReference) {
+        try {
+            Path filePath = resolveKey(fileReference);
+            return Files.exists(filePath) ? OptionalLong.of(Files.size(filePath)) : OptionalLong.empty();
+        } catch (IOException e) {
+            log.warn("Could not read size of file: {}", fileReference, e);
+            return OptionalLong.empty();
+        }
+    }
+
+    @Override
+    public void transferTo(String fileReference, long offset, long length, OutputStream out) throws IOException {
+        try (FileChannel source = FileChannel.open(resolveKey(fileReference), StandardOpenOption.READ)) {
+            // Not closed: closing the channel would close the caller's stream.
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = offset;
+            long end = offset + length;
+            while (position < end) {
+                long transferred = source.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new EOFException("File " + fileReference + " ended at byte " + position + ", expected " + end);
+                }
+                position += transferred;
+            }
+        }
+    }
+
     @Override
     public boolean delete(String fileReference) {
         try {
@@ -127,4 +210,9 @@ public class FilesystemStorageService implements FileStorageService {
     private String getExtension(String filename) {
         return Optional.ofNullable(filename).filter(f -> f.contains(".")).map(f -> f.substring(f.lastIndexOf("."))).orElse("");
     }
+
+    @FunctionalInterface
+    private interface PartialWrite {
+        void writeTo(Path partial) throws IOException;
+    }
 }
@@ -0,0 +1,180 @@
+package com.humano.service.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * A backend holding connections (S3), as {@link StorageFactory} hands it out: every call, and
+ * every stream {@link #retrieve} returns until it is closed, holds a lease on the backend.
+ * {@link #retire()} (the tenant's config changed) closes the backend once the last lease is
+ * released, so uploads and downloads already running on it finish normally.
+ * <p>
+ * A caller that kept the service across the eviction and starts a new call once the backend
+ * is closed fails as on any closed client; the factory hands out the new backend by then.
+ */
+final class RetiringStorageService implements FileStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(RetiringStorageService.class);
+
+    private final FileStorageService backend;
+    private final AutoCloseable resources;
+    private final AtomicInteger leases = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean retired;
+
+    <T extends FileStorageService & AutoCloseable> RetiringStorageService(T backend) {
+        this.backend = backend;
+        this.resources = backend;
+    }
+
+    /** Closes the backend now if nothing uses it, otherwise when the last lease is released. */
+    void retire() {
+        retired = true;
+        if (leases.get() == 0) {
+            closeBackend();
+        }
+    }
+
+    @Override
+    public String store(MultipartFile file, String directory) throws IOException {
+        return leased(() -> backend.store(file, directory));
+    }
+
+    @Override
+    public String store(MultipartFile file, String directory, String filename) throws IOException {
+        return leased(() -> backend.store(file, directory, filename));
+    }
+
+    @Override
+    public String store(InputStream inputStream, String directory, String filename, String contentType) throws IOException {
+        return leased(() -> backend.store(inputStream, directory, filename, contentType));
+    }
+
+    @Override
+    public String store(InputStream inputStream, long sizeBytes, String directory, String filename, String contentType)
+        throws IOException {
+        return leased(() -> backend.store(inputStream, sizeBytes, directory, filename, contentType));
+    }
+
+    @Override
+    public String store(ContentWriter writer, String directory, String filename, String contentType) throws IOException {
+        return leased(() -> backend.store(writer, directory, filename, contentType));
+    }
+
+    /** The returned stream keeps its lease until it is closed. */
+    @Override
+    public Optional<InputStream> retrieve(String fileReference) throws IOException {
+        leases.incrementAndGet();
+        Optional<InputStream> content;
+        try {
+            content = backend.retrieve(fileReference);
+        } catch (IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+        if (content.isEmpty()) {
+            release();
+            return content;
+        }
+        return Optional.of(new LeasedInputStream(content.get()));
+    }
+
+    @Override
+    public OptionalLong size(String fileReference) {
+        return leasedUnchecked(() -> backend.size(fileReference));
+    }
+
+    @Override
+    public void transferTo(String fileReference, long offset, long length, OutputStream out) throws IOException {
+        leased(() -> {
+            backend.transferTo(fileReference, offset, length, out);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean delete(String fileReference) {
+        return leasedUnchecked(() -> backend.delete(fileReference));
+    }
+
+    @Override
+    public boolean exists(String fileReference) {
+        return leasedUnchecked(() -> backend.exists(fileReference));
+    }
+
+    @Override
+    public Optional<String> getUrl(String fileReference) {
+        return leasedUnchecked(() -> backend.getUrl(fileReference));
+    }
+
+    private <T> T leased(StorageCall<T> call) throws IOException {
+        leases.incrementAndGet();
+        try {
+            return call.run();
+        } finally {
+            release();
+        }
+    }
+
+    private <T> T leasedUnchecked(Supplier<T> call) {
+        leases.incrementAndGet();
+        try {
+            return call.get();
+        } finally {
+            release();
+        }
+    }
+
+    private void release() {
+        if (leases.decrementAndGet() == 0 && retired) {
+            closeBackend();
+        }
+    }
+
+    private void closeBackend() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            resources.close();
+            log.debug("Closed retired storage backend {}", backend.getClass().getSimpleName());
+        } catch (Exception e) {
+            log.warn("Could not close retired storage backend {}", backend.getClass().getSimpleName(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StorageCall<T> {
+        T run() throws IOException;
+    }
+
+    private final class LeasedInputStream extends FilterInputStream {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private LeasedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    release();
+                }
+            }
+        }
+    }
+}
@@ -1,63 +1,369 @@
 package com.humano.service.storage;
 
+import com.humano.config.StorageProperties;
+import com.humano.domain.tenant.storage.S3StorageDetails;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 /**
- * Placeholder implementation of FileStorageService for Amazon S3.
- * Full implementation to be added in the future.
+ * S3 backend, for AWS S3 and S3-compatible services (MinIO, Ceph, ...) selected by the
+ * tenant's {@link S3StorageDetails}. Instantiated per tenant by {@link StorageFactory}, so this
+ * is intentionally not a Spring {@code @Component}; the factory closes it when the tenant's
+ * config changes, once the requests running on it have finished ({@link RetiringStorageService}).
+ * <p>
+ * {@code storageKey} is the object key ({@code directory/filename}) inside the tenant's bucket.
+ * <ul>
+ *   <li>Connections: one {@link S3Client} per tenant over an Apache HTTP pool of
+ *   {@code humano.storage.s3.max-connections}, reused by every request.</li>
+ *   <li>Uploads below {@code multipart-threshold} are one PUT streamed from the source. Larger
+ *   or unsized ones are multipart: parts of {@code part-size} are read sequentially and
+ *   uploaded on the shared {@code storageTransferExecutor}, at most {@code upload-parallelism}
+ *   at a time, so an upload holds at most that many parts plus the one being read. A failed
+ *   upload is aborted so no orphaned parts are billed.</li>
+ *   <li>Reads stream the object body; ranged reads ask S3 for the range only.</li>
+ *   <li>{@link #getUrl} returns a pre-signed GET URL valid for {@code presigned-url-ttl}, so
+ *   clients can download without going through the application.</li>
+ * </ul>
  */
-/**
- * Stub for S3 storage. Not yet implemented. Intentionally not a Spring
- * {@code @Component} — instantiated on demand via {@code StorageFactory} when a
- * tenant's storage config selects S3, at which point this implementation will
- * throw {@link StorageException}.
- */
-public class S3StorageService implements FileStorageService {
+public class S3StorageService implements FileStorageService, AutoCloseable {
 
     private static final Logger log = LoggerFactory.getLogger(S3StorageService.class);
 
-    // Constructor to be implemented later
-    public S3StorageService() {
-        throw new StorageException("S3 storage is not implemented yet");
+    /** S3's floor for every part but the last. */
+    private static final long MIN_PART_BYTES = 5L * 1024 * 1024;
+
+    private final String bucket;
+    private final S3Client s3;
+    private final S3Presigner presigner;
+    private final Executor transferExecutor;
+    private final StorageProperties.S3 properties;
+    private final int partSize;
+    private final long multipartThreshold;
+
+    public S3StorageService(S3StorageDetails details, StorageProperties.S3 properties, Executor transferExecutor) {
+        this.bucket = details.bucket();
+        this.properties = properties;
+        this.transferExecutor = transferExecutor;
+        this.partSize = (int) Math.max(MIN_PART_BYTES, properties.getPartSize().toBytes());
+        this.multipartThreshold = Math.max(partSize, properties.getMultipartThreshold().toBytes());
+
+        Region region = Region.of(details.region());
+        AwsCredentialsProvider credentials = credentialsFor(details);
+        S3Configuration serviceConfiguration = S3Configuration.builder().pathStyleAccessEnabled(details.pathStyleAccess()).build();
+        S3ClientBuilder clientBuilder = S3Client.builder()
+            .region(region)
+            .credentialsProvider(credentials)
+            .serviceConfiguration(serviceConfiguration)
+            .httpClientBuilder(
+                ApacheHttpClient.builder()
+                    .maxConnections(Math.max(1, properties.getMaxConnections()))
+                    .connectionTimeout(properties.getConnectionTimeout())
+                    .socketTimeout(properties.getSocketTimeout())
+            );
+        S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+            .region(region)
+            .credentialsProvider(credentials)
+            .serviceConfiguration(serviceConfiguration);
+        if (details.endpoint() != null && !details.endpoint().isBlank()) {
+            URI endpoint = URI.create(details.endpoint());
+            clientBuilder.endpointOverride(endpoint);
+            presignerBuilder.endpointOverride(endpoint);
+        }
+        this.s3 = clientBuilder.build();
+        this.presigner = presignerBuilder.build();
+        log.info("Initialized S3 storage for bucket {} ({})", bucket, details.endpoint() != null ? details.endpoint() : region);
     }
 
     @Override
     public String store(MultipartFile file, String directory) throws IOException {
-        throw new StorageException("S3 storage is not implemented yet");
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
+        String filename = UUID.randomUUID() + "-" + timestamp + getExtension(file.getOriginalFilename());
+        return store(file, directory, filename);
     }
 
     @Override
     public String store(MultipartFile file, String directory, String filename) throws IOException {
-        throw new StorageException("S3 storage is not implemented yet");
+        if (file.isEmpty()) {
+            throw new StorageException("Failed to store empty file " + filename);
+        }
+        try (InputStream in = file.getInputStream()) {
+            return store(in, file.getSize(), directory, filename, file.getContentType());
+        }
     }
 
     @Override
     public String store(InputStream inputStream, String directory, String filename, String contentType) throws IOException {
-        throw new StorageException("S3 storage is not implemented yet");
+        String key = keyFor(directory, filename);
+        byte[] firstPart = inputStream.readNBytes(partSize);
+        if (firstPart.length < partSize) {
+            // The whole content fit in one part: a single PUT.
+            putObject(key, contentType, RequestBody.fromBytes(firstPart), firstPart.length);
+            return key;
+        }
+        return uploadMultipart(key, contentType, firstPart, inputStream);
     }
 
     @Override
-    public Optional<InputStream> retrieve(String fileReference) throws IOException {
-        throw new StorageException("S3 storage is not implemented yet");
+    public String store(InputStream inputStream, long sizeBytes, String directory, String filename, String contentType)
+        throws IOException {
+        if (sizeBytes >= multipartThreshold) {
+            return store(inputStream, directory, filename, contentType);
+        }
+        String key = keyFor(directory, filename);
+        putObject(key, contentType, RequestBody.fromInputStream(inputStream, sizeBytes), sizeBytes);
+        return key;
+    }
+
+    @Override
+    public Optional<InputStream> retrieve(String fileReference) {
+        try {
+            return Optional.of(s3.getObject(GetObjectRequest.builder().bucket(bucket).key(fileReference).build()));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        } catch (SdkException e) {
+            throw new StorageException("Could not read S3 object " + fileReference, e);
+        }
+    }
+
+    @Override
+    public OptionalLong size(String fileReference) {
+        try {
+            Long length = s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(fileReference).build()).contentLength();
+            return length != null ? OptionalLong.of(length) : OptionalLong.empty();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return OptionalLong.empty();
+            }
+            throw new StorageException("Could not stat S3 object " + fileReference, e);
+        } catch (SdkException e) {
+            throw new StorageException("Could not stat S3 object " + fileReference, e);
+        }
+    }
+
+    /** Asks S3 for exactly the requested range, then streams it. */
+    @Override
+    public void transferTo(String fileReference, long offset, long length, OutputStream out) throws IOException {
+        if (length <= 0) {
+            return;
+        }
+        GetObjectRequest request = GetObjectRequest.builder()
+            .bucket(bucket)
+            .key(fileReference)
+            .range("bytes=" + offset + "-" + (offset + length - 1))
+            .build();
+        try (ResponseInputStream<GetObjectResponse> in = s3.getObject(request)) {
+            in.transferTo(out);
+        } catch (NoSuchKeyException e) {
+            throw new StorageException("No stored file at " + fileReference, e);
+        } catch (SdkException e) {
+            throw new StorageException("Could not read S3 object " + fileReference, e);
+        }
     }
 
     @Override
     public boolean delete(String fileReference) {
-        throw new StorageException("S3 storage is not implemented yet");
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(fileReference).build());
+            return true;
+        } catch (SdkException e) {
+            log.error("Error deleting S3 object: {}", fileReference, e);
+            return false;
+        }
     }
 
     @Override
     public boolean exists(String fileReference) {
-        throw new StorageException("S3 storage is not implemented yet");
+        return size(fileReference).isPresent();
     }
 
+    /** A pre-signed GET URL, so the client downloads straight from the bucket. */
     @Override
     public Optional<String> getUrl(String fileReference) {
-        throw new StorageException("S3 storage is not implemented yet");
+        GetObjectPresignRequest request = GetObjectPresignRequest.builder()
+            .signatureDuration(properties.getPresignedUrlTtl())
+            .getObjectRequest(GetObjectRequest.builder().bucket(bucket).key(fileReference).build())
+            .build();
+        return Optional.of(presigner.presignGetObject(request).url().toString());
+    }
+
+    /** Releases the connection pool; called by {@link RetiringStorageService} once the retired backend is idle. */
+    @Override
+    public void close() {
+        s3.close();
+        presigner.close();
+    }
+
+    private void putObject(String key, String contentType, RequestBody body, long length) {
+        try {
+            PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentTypeOrDefault(contentType))
+                .contentLength(length)
+                .build();
+            s3.putObject(request, body);
+        } catch (SdkException e) {
+            throw new StorageException("Could not store S3 object " + key, e);
+        }
+    }
+
+    /**
+     * Multipart upload starting from an already-read {@code firstPart}. The source is read on
+     * the calling thread, one part at a time; parts upload concurrently on the transfer pool,
+     * and reading waits while {@code upload-parallelism} parts are in flight.
+     */
+    private String uploadMultipart(String key, String contentType, byte[] firstPart, InputStream rest) throws IOException {
+        String uploadId;
+        try {
+            uploadId = s3
+                .createMultipartUpload(
+                    CreateMultipartUploadRequest.builder().bucket(bucket).key(key).contentType(contentTypeOrDefault(contentType)).build()
+                )
+                .uploadId();
+        } catch (SdkException e) {
+            throw new StorageException("Could not start multipart upload of S3 object " + key, e);
+        }
+
+        Semaphore inFlight = new Semaphore(Math.max(1, properties.getUploadParallelism()));
+        AtomicBoolean partFailed = new AtomicBoolean();
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        try {
+            byte[] part = firstPart;
+            int partNumber = 1;
+            long total = 0;
+            // Stop reading the source as soon as a part fails; the join below surfaces the error.
+            while (part.length > 0 && !partFailed.get()) {
+                inFlight.acquire();
+                byte[] body = part;
+                int number = partNumber++;
+                CompletableFuture<CompletedPart> upload = CompletableFuture.supplyAsync(
+                    () -> uploadPart(key, uploadId, number, body),
+                    transferExecutor
+                );
+                upload.whenComplete((completed, error) -> {
+                    if (error != null) {
+                        partFailed.set(true);
+                    }
+                    inFlight.release();
+                });
+                parts.add(upload);
+                total += body.length;
+                part = rest.readNBytes(partSize);
+            }
+            List<CompletedPart> completed = new ArrayList<>(parts.size());
+            for (CompletableFuture<CompletedPart> upload : parts) {
+                completed.add(upload.join());
+            }
+            s3.completeMultipartUpload(
+                CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build()
+            );
+            log.debug("Stored S3 object {} in {} parts ({} bytes)", key, completed.size(), total);
+            return key;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(key, uploadId, parts);
+            throw new StorageException("Interrupted while uploading S3 object " + key, e);
+        } catch (CompletionException e) {
+            abort(key, uploadId, parts);
+            throw new StorageException("Could not upload part of S3 object " + key, e.getCause());
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId, parts);
+            throw e;
+        }
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, byte[] body) {
+        UploadPartRequest request = UploadPartRequest.builder()
+            .bucket(bucket)
+            .key(key)
+            .uploadId(uploadId)
+            .partNumber(partNumber)
+            .contentLength((long) body.length)
+            .build();
+        String eTag = s3.uploadPart(request, RequestBody.fromBytes(body)).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+
+    private void abort(String key, String uploadId, List<CompletableFuture<CompletedPart>> parts) {
+        parts.forEach(part -> part.cancel(false));
+        try {
+            s3.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(key).uploadId(uploadId).build());
+        } catch (SdkException e) {
+            // The bucket's lifecycle rule for incomplete uploads is the backstop.
+            log.warn("Could not abort multipart upload {} of S3 object {}", uploadId, key, e);
+        }
+    }
+
+    private static AwsCredentialsProvider credentialsFor(S3StorageDetails details) {
+        if (details.accessKeyId() == null || details.accessKeyId().isBlank()) {
+            // Instance profile, web identity, environment, ...
+            return DefaultCredentialsProvider.create();
+        }
+        return StaticCredentialsProvider.create(AwsBasicCredentials.create(details.accessKeyId(), details.secretAccessKey()));
+    }
+
+    private static String keyFor(String directory, String filename) {
+        String name = filename.replace('\\', '/');
+        if (name.startsWith("/") || name.contains("../")) {
+            throw new StorageException("Invalid object name: " + filename);
+        }
+        return directory != null && !directory.isBlank() ? directory + "/" + name : name;
+    }
+
+    private static String contentTypeOrDefault(String contentType) {
+        return contentType != null ? contentType : "application/octet-stream";
+    }
+
+    private String getExtension(String filename) {
+        return Optional.ofNullable(filename).filter(f -> f.contains(".")).map(f -> f.substring(f.lastIndexOf("."))).orElse("");
     }
 }
@@ -0,0 +1,39 @@
+package com.humano.service.storage;
+
+import java.io.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 helpers for content written to storage. The checksum is computed while the bytes
+ * are copied or generated, never in a second pass; it is what download ETags are made of.
+ */
+public final class StorageChecksums {
+
+    private StorageChecksums() {}
+
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required by every JCA provider; absence is a JVM bug.
+            throw new StorageException("SHA-256 unavailable", e);
+        }
+    }
+
+    /** Lower-case hex of {@code digest}'s result; completes (and resets) the digest. */
+    public static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** A writer that feeds everything {@code writer} produces to {@code digest} on its way out. */
+    public static FileStorageService.ContentWriter digesting(FileStorageService.ContentWriter writer, MessageDigest digest) {
+        return out -> {
+            // Not closed: the storage owns and closes the underlying stream.
+            DigestOutputStream digesting = new DigestOutputStream(out, digest);
+            writer.writeTo(digesting);
+            digesting.flush();
+        };
+    }
+}
@@ -1,8 +1,11 @@
 package com.humano.service.storage;
 
+import com.humano.config.StorageProperties;
+import com.humano.config.cache.CacheInvalidationBus;
 import com.humano.config.multitenancy.TenantIdResolver;
 import com.humano.domain.tenant.TenantStorageConfig;
 import com.humano.domain.tenant.storage.FilesystemStorageDetails;
+import com.humano.domain.tenant.storage.S3StorageDetails;
 import com.humano.domain.tenant.storage.StorageConfigDetails;
 import com.humano.repository.storage.FileBlobRepository;
 import com.humano.repository.tenant.TenantStorageConfigRepository;
@@ -12,28 +15,40 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 
 /**
  * Returns the {@link FileStorageService} for the current tenant, instantiated from the
  * tenant's active {@link TenantStorageConfig}.
  * <p>
- * Caches one service per tenant id; {@link #invalidate(UUID)} drops the cache entry so the
- * next call picks up a changed config (call from {@code TenantStorageConfigService} on
- * activate/deactivate/delete).
+ * Caches one service per tenant id; {@link #invalidate(UUID)} drops the cache entry on every
+ * node (through the {@link CacheInvalidationBus}) so the next call picks up a changed config
+ * (call from {@code TenantStorageConfigService} on activate/deactivate/delete). A backend
+ * holding connections (S3) is handed out as a {@link RetiringStorageService}: once evicted it
+ * is closed when the uploads and downloads still running on it have finished.
  */
 @Service
 public class StorageFactory {
 
+    /** Name under which tenants' storage backends are invalidated on the {@link CacheInvalidationBus}. */
+    public static final String CACHE_NAME = "tenant-storage";
+
     private static final Logger log = LoggerFactory.getLogger(StorageFactory.class);
 
     private final TenantStorageConfigRepository tenantStorageConfigRepository;
     private final TenantIdResolver tenantIdResolver;
     private final FileBlobRepository fileBlobRepository;
     private final String defaultFilesystemRootLocation;
+    private final StorageProperties storageProperties;
+    private final Executor storageTransferExecutor;
+    private final CacheInvalidationBus invalidationBus;
+    private final PlatformTransactionManager tenantTransactionManager;
 
     private final Map<UUID, FileStorageService> storageServiceCache = new ConcurrentHashMap<>();
 
@@ -41,12 +56,21 @@ public class StorageFactory {
         TenantStorageConfigRepository tenantStorageConfigRepository,
         TenantIdResolver tenantIdResolver,
         FileBlobRepository fileBlobRepository,
-        @Value("${app.file-storage.filesystem.root-location:./uploads}") String defaultFilesystemRootLocation
+        @Value("${app.file-storage.filesystem.root-location:./uploads}") String defaultFilesystemRootLocation,
+        StorageProperties storageProperties,
+        @Qualifier("storageTransferExecutor") Executor storageTransferExecutor,
+        CacheInvalidationBus invalidationBus,
+        @Qualifier("tenantTransactionManager") PlatformTransactionManager tenantTransactionManager
     ) {
         this.tenantStorageConfigRepository = tenantStorageConfigRepository;
         this.tenantIdResolver = tenantIdResolver;
         this.fileBlobRepository = fileBlobRepository;
         this.defaultFilesystemRootLocation = defaultFilesystemRootLocation;
+        this.storageProperties = storageProperties;
+        this.storageTransferExecutor = storageTransferExecutor;
+        this.invalidationBus = invalidationBus;
+        this.tenantTransactionManager = tenantTransactionManager;
+        invalidationBus.subscribe(CACHE_NAME, tenantId -> evict(UUID.fromString(tenantId)));
     }
 
     /**
@@ -64,10 +88,18 @@ public class StorageFactory {
         return storageServiceCache.computeIfAbsent(tenantId, this::build);
     }
 
-    /** Drop the cached service for {@code tenantId}; next {@link #getStorageService()} rebuilds. */
+    /** Drop the cached service for {@code tenantId} on every node; next {@link #getStorageService()} rebuilds. */
     public void invalidate(UUID tenantId) {
         if (tenantId == null) return;
-        storageServiceCache.remove(tenantId);
+        invalidationBus.publish(CACHE_NAME, tenantId.toString());
+    }
+
+    private void evict(UUID tenantId) {
+        FileStorageService removed = storageServiceCache.remove(tenantId);
+        if (removed instanceof RetiringStorageService retiring) {
+            log.debug("Retiring storage backend of tenant {}", tenantId);
+            retiring.retire();
+        }
     }
 
     private FileStorageService build(UUID tenantId) {
@@ -88,9 +120,11 @@ public class StorageFactory {
             throw new StorageException("TenantStorageConfig " + config.getId() + " has no backend details");
         }
         return switch (details.type()) {
-            case DATABASE -> new DatabaseStorageService(fileBlobRepository);
+            case DATABASE -> new DatabaseStorageService(fileBlobRepository, tenantTransactionManager);
             case FILESYSTEM -> new FilesystemStorageService(resolveFsRoot((FilesystemStorageDetails) details, config));
-            case S3 -> throw new StorageException("S3 storage not yet implemented");
+            case S3 -> new RetiringStorageService(
+                new S3StorageService((S3StorageDetails) details, storageProperties.getS3(), storageTransferExecutor)
+            );
             case AZURE -> throw new StorageException("Azure Blob storage not yet implemented");
         };
     }
@@ -0,0 +1,30 @@
+package com.humano.service.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A stored file resolved for download, before any byte is read: where the bytes are, plus the
+ * metadata HTTP needs to answer conditional and range requests. Opening one costs metadata
+ * lookups only, so a {@code 304 Not Modified} never touches the content.
+ *
+ * @param storage        backend holding the bytes
+ * @param storageKey     backend reference
+ * @param sizeBytes      content length
+ * @param contentType    MIME type to serve
+ * @param filename       suggested download name
+ * @param checksumSha256 hex SHA-256 of the content, the basis of the ETag; {@code null} when unknown
+ */
+public record StoredContent(
+    FileStorageService storage,
+    String storageKey,
+    long sizeBytes,
+    String contentType,
+    String filename,
+    String checksumSha256
+) {
+    /** Copies {@code length} bytes from {@code offset} to {@code out}. */
+    public void transferTo(long offset, long length, OutputStream out) throws IOException {
+        storage.transferTo(storageKey, offset, length, out);
+    }
+}
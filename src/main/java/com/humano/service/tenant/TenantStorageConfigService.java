@@ -99,7 +99,9 @@ public class TenantStorageConfigService {
                 requireNonBlank(request.s3Region(), "s3Region"),
                 request.s3AccessKey(),
                 request.s3SecretKey(),
-                request.maxFileSizeMb() != null ? request.maxFileSizeMb() * 1024L * 1024L : 5L * 1024 * 1024 * 1024
+                request.maxFileSizeMb() != null ? request.maxFileSizeMb() * 1024L * 1024L : 5L * 1024 * 1024 * 1024,
+                request.s3Endpoint(),
+                Boolean.TRUE.equals(request.s3PathStyleAccess())
             );
             case AZURE -> new AzureStorageDetails(
                 requireNonBlank(request.azureAccountName(), "azureAccountName"),
@@ -4,25 +4,31 @@ import com.humano.dto.payroll.request.ApprovePayrollRunRequest;
 import com.humano.dto.payroll.request.InitiatePayrollRunRequest;
 import com.humano.dto.payroll.request.RecalculatePayrollRequest;
 import com.humano.dto.payroll.response.PayrollResultResponse;
+import com.humano.dto.payroll.response.PayrollRunJobResponse;
 import com.humano.dto.payroll.response.PayrollRunResponse;
 import com.humano.dto.payroll.response.PayrollRunSummaryResponse;
 import com.humano.dto.payroll.response.PayslipResponse;
 import com.humano.security.PermissionsConstants;
 import com.humano.security.annotation.RequirePermission;
+import com.humano.service.errors.EntityNotFoundException;
 import com.humano.service.payroll.PayrollProcessingService;
+import com.humano.service.payroll.PayrollRunJobService;
 import com.humano.service.payroll.PayslipService;
+import com.humano.web.rest.util.DownloadResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Payroll run lifecycle : DRAFT &rarr; CALCULATED &rarr; APPROVED &rarr; POSTED.
@@ -40,6 +46,12 @@ import org.springframework.web.bind.annotation.*;
  *       {@link PayslipResource} is the canonical streaming endpoint; the route above is
  *       a thin alias so the acceptance URL works.</li>
  * </ul>
+ *
+ * <p>Long runs can be calculated in the background: {@code POST /{id}/calculate/async} (or
+ * {@code /recalculate/async}) answers {@code 202 Accepted} with a job handle, whose progress is
+ * polled at {@code GET /jobs/{jobId}} or streamed as Server-Sent Events from
+ * {@code GET /jobs/{jobId}/events} (see {@link PayrollRunJobService}). A run's payslip PDFs are
+ * rendered the same way from {@code POST /{id}/payslips/pdf/async}.
  */
 @RestController
 @RequestMapping("/api/payroll/runs")
@@ -49,10 +61,12 @@ public class PayrollRunResource {
 
     private final PayrollProcessingService processingService;
     private final PayslipService payslipService;
+    private final PayrollRunJobService jobService;
 
-    public PayrollRunResource(PayrollProcessingService processingService, PayslipService payslipService) {
+    public PayrollRunResource(PayrollProcessingService processingService, PayslipService payslipService, PayrollRunJobService jobService) {
         this.processingService = processingService;
         this.payslipService = payslipService;
+        this.jobService = jobService;
     }
 
     @PostMapping
@@ -69,6 +83,16 @@ public class PayrollRunResource {
         return ResponseEntity.ok(processingService.calculatePayroll(id));
     }
 
+    /**
+     * Calculates in the background; returns the job handle straight away.
+     */
+    @PostMapping("/{id}/calculate/async")
+    @RequirePermission(PermissionsConstants.PROCESS_PAYROLL)
+    public ResponseEntity<PayrollRunJobResponse> calculateAsync(@PathVariable UUID id) {
+        PayrollRunJobResponse job = jobService.submitCalculation(id);
+        return ResponseEntity.accepted().location(URI.create("/api/payroll/runs/jobs/" + job.jobId())).body(job);
+    }
+
     /**
      * Approves the run. Path id is authoritative; the body's {@code payrollRunId} is
      * overridden with {@code id} so they can't disagree.
@@ -97,11 +121,46 @@ public class PayrollRunResource {
             body.employeeIds(),
             body.recalculateAll(),
             body.componentsToRecalculate(),
-            body.reason()
+            body.reason(),
+            body.dirtyOnly()
         );
         return ResponseEntity.ok(processingService.recalculatePayroll(safe));
     }
 
+    /**
+     * Recalculates in the background. Path id is authoritative (see {@link #approve}).
+     */
+    @PostMapping("/{id}/recalculate/async")
+    @RequirePermission(PermissionsConstants.PROCESS_PAYROLL)
+    public ResponseEntity<PayrollRunJobResponse> recalculateAsync(@PathVariable UUID id, @Valid @RequestBody RecalculatePayrollRequest body) {
+        RecalculatePayrollRequest safe = new RecalculatePayrollRequest(
+            id,
+            body.employeeIds(),
+            body.recalculateAll(),
+            body.componentsToRecalculate(),
+            body.reason(),
+            body.dirtyOnly()
+        );
+        PayrollRunJobResponse job = jobService.submitRecalculation(safe);
+        return ResponseEntity.accepted().location(URI.create("/api/payroll/runs/jobs/" + job.jobId())).body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @RequirePermission(PermissionsConstants.PROCESS_PAYROLL)
+    public ResponseEntity<PayrollRunJobResponse> getJob(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(jobService.getJob(jobId));
+    }
+
+    /**
+     * Streams a job's progress: {@code progress} events, then one {@code completed} or
+     * {@code failed} event, after which the stream closes.
+     */
+    @GetMapping(path = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @RequirePermission(PermissionsConstants.PROCESS_PAYROLL)
+    public SseEmitter streamJob(@PathVariable UUID jobId) {
+        return jobService.subscribe(jobId);
+    }
+
     @GetMapping("/{id}/summary")
     @RequirePermission(PermissionsConstants.VIEW_PAYROLL_RUN)
     public ResponseEntity<PayrollRunSummaryResponse> summary(@PathVariable UUID id) {
@@ -120,6 +179,17 @@ public class PayrollRunResource {
         return ResponseEntity.ok(payslipService.generatePayslipsForRun(id));
     }
 
+    /**
+     * Renders and stores the PDFs of the run's payslips in the background; returns the job
+     * handle straight away. Payslips that already have a PDF are skipped.
+     */
+    @PostMapping("/{id}/payslips/pdf/async")
+    @RequirePermission(PermissionsConstants.GENERATE_PAYSLIPS)
+    public ResponseEntity<PayrollRunJobResponse> renderPayslipPdfsAsync(@PathVariable UUID id) {
+        PayrollRunJobResponse job = jobService.submitPayslipPdfs(id);
+        return ResponseEntity.accepted().location(URI.create("/api/payroll/runs/jobs/" + job.jobId())).body(job);
+    }
+
     /**
      * Returns the payslip metadata (JSON) for a given run + employee. The {@code pdfUrl}
      * field is populated once the PDF generator is implemented. To stream the actual PDF
@@ -143,22 +213,19 @@ public class PayrollRunResource {
      * P3.5 acceptance URL: streams the rendered PDF for a (run, employee) pair. Resolves
      * the payslip the same way {@link #payslipFor} does (404 when missing) and delegates
      * to {@link PayslipService#downloadPdf}, which generates-on-first-call and serves the
-     * cached artifact on subsequent calls.
+     * cached artifact on subsequent calls, with ETag and range support.
      */
     @GetMapping("/{id}/payslips/{employeeId}/pdf")
     @RequirePermission(PermissionsConstants.VIEW_PAYSLIPS)
-    public ResponseEntity<?> payslipPdfFor(@PathVariable UUID id, @PathVariable UUID employeeId) {
-        var slipOpt = payslipService.findByRunAndEmployee(id, employeeId);
-        if (slipOpt.isEmpty()) {
-            ProblemDetail pd = ProblemDetail.forStatus(404);
-            pd.setTitle("Payslip not found");
-            pd.setDetail("No payslip exists for run " + id + " and employee " + employeeId);
-            return ResponseEntity.status(404).body(pd);
-        }
-        PayslipService.PdfDownload download = payslipService.downloadPdf(slipOpt.get().id());
-        return ResponseEntity.ok()
-            .contentType(MediaType.APPLICATION_PDF)
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + download.filename() + "\"")
-            .body(new InputStreamResource(download.content()));
+    public void payslipPdfFor(
+        @PathVariable UUID id,
+        @PathVariable UUID employeeId,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        PayslipResponse slip = payslipService
+            .findByRunAndEmployee(id, employeeId)
+            .orElseThrow(() -> new EntityNotFoundException("No payslip exists for run " + id + " and employee " + employeeId));
+        DownloadResponses.write(payslipService.downloadPdf(slip.id()), request, response);
     }
 }
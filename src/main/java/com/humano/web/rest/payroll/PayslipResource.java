@@ -5,14 +5,16 @@ import com.humano.dto.payroll.response.PayslipResponse;
 import com.humano.security.PermissionsConstants;
 import com.humano.security.annotation.RequirePermission;
 import com.humano.service.payroll.PayslipService;
+import com.humano.web.rest.util.DownloadResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.Map;
 import java.util.UUID;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -89,14 +91,12 @@ public class PayslipResource {
      * recorded on {@code Payslip.pdfUrl}; subsequent calls stream the cached artifact.
      *
      * <p>Returns {@code Content-Type: application/pdf} with a {@code Content-Disposition:
-     * attachment; filename="{payslipNumber}.pdf"} header.
+     * attachment; filename="{payslipNumber}.pdf"} header, an {@code ETag} (the PDF's SHA-256)
+     * that makes re-downloads a {@code 304}, and byte-range support; see
+     * {@link DownloadResponses}.
      */
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<InputStreamResource> downloadPdf(@PathVariable UUID id) {
-        PayslipService.PdfDownload download = payslipService.downloadPdf(id);
-        return ResponseEntity.ok()
-            .contentType(MediaType.APPLICATION_PDF)
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + download.filename() + "\"")
-            .body(new InputStreamResource(download.content()));
+    public void downloadPdf(@PathVariable UUID id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DownloadResponses.write(payslipService.downloadPdf(id), request, response);
     }
 }
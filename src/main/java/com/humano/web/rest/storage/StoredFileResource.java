@@ -0,0 +1,49 @@
+package com.humano.web.rest.storage;
+
+import com.humano.security.annotation.RequireAdmin;
+import com.humano.service.storage.FileService;
+import com.humano.web.rest.util.DownloadResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Serves the content of {@link com.humano.domain.storage.StoredFile}s from the tenant's storage
+ * backend, with the stored SHA-256 as {@code ETag} and byte-range support; see
+ * {@link DownloadResponses}. A conditional request answered {@code 304} reads metadata only.
+ * <p>
+ * Authorization: {@link FileService#prepareDownload} does not check the caller against the
+ * file's owner, and files include payslips and employee documents, so the endpoint is kept to
+ * {@code ROLE_ADMIN} until owner-aware access checks exist.
+ */
+@RestController
+@RequestMapping("/api/files")
+@RequireAdmin
+public class StoredFileResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StoredFileResource.class);
+
+    private final FileService fileService;
+
+    public StoredFileResource(FileService fileService) {
+        this.fileService = fileService;
+    }
+
+    /**
+     * {@code GET /files/{id}/content} : the file's bytes as an attachment, honouring
+     * {@code If-None-Match}, {@code Range} and {@code If-Range}. {@code HEAD} answers the same
+     * headers without a body.
+     *
+     * @param id the StoredFile id
+     * @throws IOException if the content cannot be read or written
+     */
+    @GetMapping("/{id}/content")
+    public void download(@PathVariable UUID id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        LOG.debug("REST request to download StoredFile: {}", id);
+        DownloadResponses.write(fileService.prepareDownload(id), request, response);
+    }
+}
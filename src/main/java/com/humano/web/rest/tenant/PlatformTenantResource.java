@@ -14,6 +14,8 @@ import com.humano.service.multitenancy.TenantProvisioningService;
 import com.humano.service.tenant.TenantService;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -100,6 +102,25 @@ public class PlatformTenantResource {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Opens the tenant's connection pool ahead of expected traffic (e.g. before a payroll day) and
+     * keeps it open for {@code hold}, or {@code humano.multitenancy.pools.warm-up-hold} when absent.
+     * Affects this node only.
+     */
+    @PostMapping("/{id}/datasource/warm-up")
+    @RequirePermission(PermissionsConstants.SUSPEND_TENANT)
+    public TenantDetailResponse warmUp(@PathVariable("id") UUID id, @RequestParam(required = false) Duration hold) {
+        Tenant tenant = tenantRepository.findById(id).orElseThrow(() -> EntityNotFoundException.create("Tenant", id));
+        LOG.info("REST request to warm up DataSource of tenant {} (hold {})", tenant.getSubdomain(), hold);
+        if (hold != null) {
+            dataSourceProvider.warmUp(List.of(tenant.getSubdomain()), hold);
+        } else {
+            dataSourceProvider.warmUp(List.of(tenant.getSubdomain()));
+        }
+        ConnectionPoolStats stats = dataSourceProvider.getPoolStats().get(tenant.getSubdomain());
+        return new TenantDetailResponse(tenantService.toResponse(tenant), stats);
+    }
+
     @DeleteMapping("/{id}")
     @RequirePermission(PermissionsConstants.DEPROVISION_TENANT)
     public ResponseEntity<Void> deprovision(@PathVariable("id") UUID id) {
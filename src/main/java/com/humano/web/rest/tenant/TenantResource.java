@@ -129,6 +129,8 @@ public class TenantResource {
             request.s3Region(),
             request.s3AccessKey(),
             request.s3SecretKey(),
+            request.s3Endpoint(),
+            request.s3PathStyleAccess(),
             request.azureAccountName(),
             request.azureContainer(),
             request.azureConnectionString()
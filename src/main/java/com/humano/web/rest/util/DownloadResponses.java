@@ -0,0 +1,122 @@
+package com.humano.web.rest.util;
+
+import com.humano.service.storage.StoredContent;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Writes a {@link StoredContent} to the servlet response with HTTP caching and range support.
+ *
+ * <ul>
+ *   <li>The ETag is the content's SHA-256 (a strong validator); {@code If-None-Match} that
+ *   matches it is answered {@code 304 Not Modified} without reading any content.</li>
+ *   <li>{@code Cache-Control: private, no-cache} lets browsers keep the document but makes them
+ *   revalidate, which is exactly that cheap {@code 304}.</li>
+ *   <li>A single byte range is answered {@code 206 Partial Content} (guarded by
+ *   {@code If-Range}); an unsatisfiable one {@code 416}. Several ranges are answered with the
+ *   whole content, which RFC 9110 allows.</li>
+ *   <li>The body is copied by the backend's {@link StoredContent#transferTo}, from the range's
+ *   offset, on the request thread (so the tenant context is still bound).</li>
+ * </ul>
+ */
+public final class DownloadResponses {
+
+    private DownloadResponses() {}
+
+    /** Answers a {@code GET} or {@code HEAD} for {@code content} as an attachment. */
+    public static void write(StoredContent content, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = content.checksumSha256() != null ? "\"" + content.checksumSha256() + "\"" : null;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+        }
+
+        long size = content.sizeBytes();
+        long start = 0;
+        long length = size;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && rangeStillValid(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            List<HttpRange> ranges = parseRanges(rangeHeader);
+            if (ranges.size() == 1) {
+                long end;
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                } catch (IllegalArgumentException e) {
+                    start = size;
+                    end = size - 1;
+                }
+                // HttpRange clamps the end to the content but not the start: a range starting
+                // past the end (or any range of empty content) comes back with end < start.
+                if (start >= size || end < start) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                length = end - start + 1;
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        response.setContentType(content.contentType());
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(content.filename(), StandardCharsets.UTF_8).build().toString()
+        );
+        response.setContentLengthLong(length);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || length == 0) {
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        content.transferTo(start, length, out);
+        out.flush();
+    }
+
+    /** {@code If-None-Match} uses weak comparison: {@code W/} prefixes are ignored. */
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A range applies unless {@code If-Range} names another representation. Only strong ETags
+     * are compared; a date validator is treated as stale, which costs a full response at worst.
+     */
+    private static boolean rangeStillValid(String ifRange, String etag) {
+        return ifRange == null || (etag != null && ifRange.trim().equals(etag));
+    }
+
+    /** Malformed {@code Range} headers are ignored, as RFC 9110 requires. */
+    private static List<HttpRange> parseRanges(String rangeHeader) {
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.humano.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Two {@link CacheInvalidationBus}es over one {@link InProcessInvalidationTransport}, standing in
+ * for two nodes of a deployment.
+ */
+class CacheInvalidationBusTest {
+
+    private InProcessInvalidationTransport transport;
+    private CacheInvalidationBus nodeA;
+    private CacheInvalidationBus nodeB;
+    private final List<String> evictedOnA = new ArrayList<>();
+    private final List<String> evictedOnB = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transport = new InProcessInvalidationTransport();
+        nodeA = new CacheInvalidationBus(transport, new SimpleMeterRegistry());
+        nodeB = new CacheInvalidationBus(transport, new SimpleMeterRegistry());
+        nodeA.subscribe("permissions", evictedOnA::add);
+        nodeB.subscribe("permissions", evictedOnB::add);
+    }
+
+    @Test
+    void publishEvictsOnceOnEveryNode() {
+        nodeA.publish("permissions", "acme");
+
+        assertThat(evictedOnA).containsExactly("acme");
+        assertThat(evictedOnB).containsExactly("acme");
+    }
+
+    @Test
+    void otherCachesAreLeftAlone() {
+        List<String> storageEvictions = new ArrayList<>();
+        nodeB.subscribe("storage", storageEvictions::add);
+
+        nodeA.publish("permissions", "acme");
+
+        assertThat(storageEvictions).isEmpty();
+    }
+
+    @Test
+    void invalidationWithoutOriginIsAppliedEverywhere() {
+        transport.publish(new CacheInvalidation("permissions", "acme", null));
+
+        assertThat(evictedOnA).containsExactly("acme");
+        assertThat(evictedOnB).containsExactly("acme");
+    }
+
+    @Test
+    void failingHandlerDoesNotStopTheOthers() {
+        nodeB.subscribe("permissions", key -> {
+            throw new IllegalStateException("boom");
+        });
+        List<String> afterFailure = new ArrayList<>();
+        nodeB.subscribe("permissions", afterFailure::add);
+
+        nodeA.publish("permissions", "acme");
+
+        assertThat(evictedOnB).containsExactly("acme");
+        assertThat(afterFailure).containsExactly("acme");
+    }
+}
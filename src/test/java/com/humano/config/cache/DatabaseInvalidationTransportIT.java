@@ -0,0 +1,204 @@
+package com.humano.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.humano.IntegrationTest;
+import com.humano.config.CacheInvalidationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Two nodes, each a {@link CacheInvalidationBus} over its own {@link DatabaseInvalidationTransport},
+ * sharing the test's master database: what one publishes reaches the other through the
+ * {@code cache_version} poll, once per bump, and a change committed late is still picked up
+ * within {@code commit-grace} of the newest one a node has seen.
+ */
+@IntegrationTest
+class DatabaseInvalidationTransportIT {
+
+    @Autowired
+    @Qualifier("masterDataSource")
+    private DataSource masterDataSource;
+
+    private final List<Node> nodes = new ArrayList<>();
+    /** Unique per test, so rows of other tests and of the application's own bus are ignored. */
+    private String cache;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cache = "it-" + UUID.randomUUID().toString().substring(0, 8);
+        jdbcTemplate = new JdbcTemplate(masterDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(node -> node.transport().close());
+        inMasterTransaction(() -> jdbcTemplate.update("DELETE FROM cache_version WHERE cache_name = ?", cache));
+    }
+
+    @Test
+    void publishedKeyReachesTheOtherNodeOnce() {
+        Node a = startNode(Duration.ofSeconds(30));
+        Node b = startNode(Duration.ofSeconds(30));
+
+        a.bus().publish(cache, "acme");
+
+        awaitTrue(() -> b.received().contains("acme"));
+        waitForPolls(a, b);
+        assertThat(a.received()).as("applied locally, own bump ignored when polled").containsExactly("acme");
+        assertThat(b.received()).as("not delivered again while inside the grace window").containsExactly("acme");
+    }
+
+    @Test
+    void everyBumpIsDeliveredAgain() {
+        Node a = startNode(Duration.ofSeconds(30));
+        Node b = startNode(Duration.ofSeconds(30));
+
+        a.bus().publish(cache, "acme");
+        awaitTrue(() -> b.received().size() == 1);
+        a.bus().publish(cache, "acme");
+
+        awaitTrue(() -> b.received().size() == 2);
+        assertThat(b.received()).containsExactly("acme", "acme");
+    }
+
+    @Test
+    void firstPollDoesNotReplayEarlierInvalidations() {
+        Node a = startNode(Duration.ofSeconds(30));
+        a.bus().publish(cache, "before-start");
+
+        Node b = startNode(Duration.ofSeconds(30));
+        a.bus().publish(cache, "after-start");
+
+        awaitTrue(() -> b.received().contains("after-start"));
+        assertThat(b.received()).containsExactly("after-start");
+    }
+
+    @Test
+    void counterMovedByTwoNodesIsAppliedEverywhere() {
+        Node a = startNode(Duration.ofSeconds(30));
+        Node b = startNode(Duration.ofSeconds(30));
+        a.bus().publish(cache, "acme");
+        awaitTrue(() -> b.received().size() == 1);
+
+        // a and another node both bumped the row between two polls; only a's origin is left.
+        inMasterTransaction(() ->
+            jdbcTemplate.update(
+                "UPDATE cache_version SET version = version + 2, origin = ?, updated_at = CURRENT_TIMESTAMP(6) " +
+                "WHERE cache_name = ? AND cache_key = ?",
+                a.bus().getNodeId(),
+                cache,
+                "acme"
+            )
+        );
+
+        awaitTrue(() -> a.received().size() == 2 && b.received().size() == 2);
+    }
+
+    @Test
+    void lateCommitWithinTheGraceIsDelivered() {
+        Node a = startNode(Duration.ofSeconds(30));
+        Node b = startNode(Duration.ofSeconds(30));
+        a.bus().publish(cache, "fresh");
+        awaitTrue(() -> b.received().contains("fresh"));
+
+        insertStampedSecondsAgo("late", 2);
+
+        awaitTrue(() -> b.received().contains("late"));
+    }
+
+    @Test
+    void lateCommitPastTheGraceIsMissed() {
+        Node a = startNode(Duration.ZERO);
+        Node b = startNode(Duration.ZERO);
+        a.bus().publish(cache, "fresh");
+        awaitTrue(() -> b.received().contains("fresh"));
+
+        insertStampedSecondsAgo("late", 2);
+
+        waitForPolls(b);
+        assertThat(b.received()).containsExactly("fresh");
+    }
+
+    private Node startNode(Duration commitGrace) {
+        CacheInvalidationProperties properties = new CacheInvalidationProperties();
+        properties.setPollInterval(Duration.ofMillis(100));
+        properties.setCommitGrace(commitGrace);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DatabaseInvalidationTransport transport = new DatabaseInvalidationTransport(masterDataSource, properties, meterRegistry);
+        CacheInvalidationBus bus = new CacheInvalidationBus(transport, meterRegistry);
+        List<String> received = new CopyOnWriteArrayList<>();
+        bus.subscribe(cache, received::add);
+        Node node = new Node(transport, bus, meterRegistry, received);
+        nodes.add(node);
+        // The first poll only records the current counters.
+        waitForPolls(node);
+        return node;
+    }
+
+    /** A bump whose statement ran {@code seconds} ago but whose transaction only commits now. */
+    private void insertStampedSecondsAgo(String key, int seconds) {
+        inMasterTransaction(() ->
+            jdbcTemplate.update(
+                "INSERT INTO cache_version (cache_name, cache_key, version, origin, updated_at) " +
+                "VALUES (?, ?, 1, 'other-node', TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP(6)))",
+                cache,
+                key,
+                -seconds
+            )
+        );
+    }
+
+    /** The pool does not auto-commit, so each statement runs in its own committed transaction. */
+    private void inMasterTransaction(Runnable statement) {
+        new TransactionTemplate(new DataSourceTransactionManager(masterDataSource)).executeWithoutResult(status -> statement.run());
+    }
+
+    /** Waits until each node has completed a few more polls. */
+    private static void waitForPolls(Node... nodes) {
+        for (Node node : nodes) {
+            long target = node.polls() + 3;
+            awaitTrue(() -> node.polls() >= target);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met within 5s").isNegative();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted", e);
+            }
+        }
+    }
+
+    private record Node(
+        DatabaseInvalidationTransport transport,
+        CacheInvalidationBus bus,
+        SimpleMeterRegistry meterRegistry,
+        List<String> received
+    ) {
+        long polls() {
+            return meterRegistry.timer("cache.invalidation.poll").count();
+        }
+    }
+}
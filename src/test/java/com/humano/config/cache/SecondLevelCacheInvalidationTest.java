@@ -0,0 +1,142 @@
+package com.humano.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.config.SecondLevelCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Unit tests for {@link SecondLevelCacheInvalidation}'s coalescing: the entities a transaction
+ * writes reach the other nodes once each, after it commits, whatever the number of rows.
+ */
+class SecondLevelCacheInvalidationTest {
+
+    private static final String TAX_BRACKET = "com.humano.domain.payroll.TaxBracket";
+    private static final String CURRENCY = "com.humano.domain.payroll.Currency";
+
+    private final EventSource session = mock(EventSource.class);
+    private final ActionQueue actionQueue = mock(ActionQueue.class);
+    private final List<String> evictedOnOtherNode = new ArrayList<>();
+    private SecondLevelCacheInvalidation invalidation;
+
+    @BeforeEach
+    void setUp() {
+        InProcessInvalidationTransport transport = new InProcessInvalidationTransport();
+        new CacheInvalidationBus(transport, new SimpleMeterRegistry()).subscribe(
+            SecondLevelCacheInvalidation.CACHE_NAME,
+            evictedOnOtherNode::add
+        );
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(mock(SessionFactoryImplementor.class));
+        // Disabled: nothing is registered with Hibernate, the listener is driven by hand.
+        SecondLevelCacheProperties properties = new SecondLevelCacheProperties();
+        properties.setEnabled(false);
+        invalidation = new SecondLevelCacheInvalidation(
+            entityManagerFactory,
+            new CacheInvalidationBus(transport, new SimpleMeterRegistry()),
+            properties
+        );
+        when(session.getActionQueue()).thenReturn(actionQueue);
+    }
+
+    @Test
+    void everyEntityWrittenIsPublishedOnceAfterCommit() {
+        EntityPersister taxBrackets = persister(TAX_BRACKET, true);
+        for (int row = 0; row < 3; row++) {
+            invalidation.onPostInsert(insert(taxBrackets));
+        }
+        invalidation.onPostUpdate(update(taxBrackets));
+        invalidation.onPostDelete(delete(persister(CURRENCY, true)));
+
+        AfterTransactionCompletionProcess completion = registeredCompletion();
+        assertThat(evictedOnOtherNode).isEmpty();
+
+        completion.doAfterTransactionCompletion(true, session);
+
+        assertThat(evictedOnOtherNode).containsExactly(TAX_BRACKET, CURRENCY);
+    }
+
+    @Test
+    void nothingIsPublishedWhenTheTransactionRollsBack() {
+        invalidation.onPostInsert(insert(persister(TAX_BRACKET, true)));
+
+        registeredCompletion().doAfterTransactionCompletion(false, session);
+
+        assertThat(evictedOnOtherNode).isEmpty();
+    }
+
+    @Test
+    void nextTransactionOfTheSessionPublishesAgain() {
+        EntityPersister taxBrackets = persister(TAX_BRACKET, true);
+        invalidation.onPostInsert(insert(taxBrackets));
+        registeredCompletion().doAfterTransactionCompletion(true, session);
+
+        invalidation.onPostInsert(insert(taxBrackets));
+
+        ArgumentCaptor<AfterTransactionCompletionProcess> completions = ArgumentCaptor.forClass(AfterTransactionCompletionProcess.class);
+        verify(actionQueue, times(2)).registerProcess(completions.capture());
+        completions.getValue().doAfterTransactionCompletion(true, session);
+        assertThat(evictedOnOtherNode).containsExactly(TAX_BRACKET, TAX_BRACKET);
+    }
+
+    @Test
+    void entitiesWithoutACacheRegionAreIgnored() {
+        invalidation.onPostInsert(insert(persister("com.humano.domain.payroll.PayrollLine", false)));
+
+        verify(actionQueue, never()).registerProcess(any(AfterTransactionCompletionProcess.class));
+    }
+
+    private AfterTransactionCompletionProcess registeredCompletion() {
+        ArgumentCaptor<AfterTransactionCompletionProcess> completion = ArgumentCaptor.forClass(AfterTransactionCompletionProcess.class);
+        verify(actionQueue).registerProcess(completion.capture());
+        return completion.getValue();
+    }
+
+    private static EntityPersister persister(String entityName, boolean cached) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getEntityName()).thenReturn(entityName);
+        when(persister.canWriteToCache()).thenReturn(cached);
+        return persister;
+    }
+
+    private PostInsertEvent insert(EntityPersister persister) {
+        PostInsertEvent event = mock(PostInsertEvent.class);
+        when(event.getSession()).thenReturn(session);
+        when(event.getPersister()).thenReturn(persister);
+        return event;
+    }
+
+    private PostUpdateEvent update(EntityPersister persister) {
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getSession()).thenReturn(session);
+        when(event.getPersister()).thenReturn(persister);
+        return event;
+    }
+
+    private PostDeleteEvent delete(EntityPersister persister) {
+        PostDeleteEvent event = mock(PostDeleteEvent.class);
+        when(event.getSession()).thenReturn(session);
+        when(event.getPersister()).thenReturn(persister);
+        return event;
+    }
+}
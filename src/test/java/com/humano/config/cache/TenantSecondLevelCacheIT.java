@@ -0,0 +1,111 @@
+package com.humano.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import com.humano.IntegrationTest;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.config.multitenancy.TenantDataSourceProvider;
+import com.humano.domain.enumeration.CurrencyCode;
+import com.humano.repository.payroll.CurrencyRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Two tenants reading the same {@code currency} row through the second-level and query caches.
+ * Both tenants are routed to the test's tenant database; the row is then changed behind
+ * Hibernate's back, so a tenant that reads the new value cannot have been served the other
+ * tenant's cached entry.
+ */
+@IntegrationTest
+class TenantSecondLevelCacheIT {
+
+    private static final String ACME = "acme";
+    private static final String GLOBEX = "globex";
+
+    @MockitoBean
+    private TenantDataSourceProvider tenantDataSourceProvider;
+
+    @Autowired
+    @Qualifier("defaultTenantDataSource")
+    private DataSource tenantDatabase;
+
+    @Autowired
+    @Qualifier("tenantEntityManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("tenantTransactionManager")
+    private PlatformTransactionManager tenantTransactionManager;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    private JdbcTemplate jdbcTemplate;
+    private String euroName;
+
+    @BeforeEach
+    void setUp() {
+        when(tenantDataSourceProvider.getOrCreateDataSource(anyString())).thenReturn(tenantDatabase);
+        entityManagerFactory.getCache().evictAll();
+        jdbcTemplate = new JdbcTemplate(tenantDatabase);
+        euroName = jdbcTemplate.queryForObject("SELECT name FROM currency WHERE code = 'EUR'", String.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        updateBehindHibernate("UPDATE currency SET code = 'EUR', name = ? WHERE code IN ('EUR', 'ZZZ')", euroName);
+        entityManagerFactory.getCache().evictAll();
+        TenantContext.clear();
+    }
+
+    @Test
+    void tenantsDoNotReadEachOthersCachedEntities() {
+        UUID euroId = inTenant(ACME, () -> currencyRepository.findByCode(CurrencyCode.EUR).orElseThrow().getId());
+        inTenant(ACME, () -> currencyRepository.findById(euroId));
+
+        updateBehindHibernate("UPDATE currency SET name = 'Renamed euro' WHERE code = 'EUR'");
+
+        assertThat(inTenant(ACME, () -> currencyRepository.findById(euroId).orElseThrow().getName())).isEqualTo(euroName);
+        assertThat(inTenant(GLOBEX, () -> currencyRepository.findById(euroId).orElseThrow().getName())).isEqualTo("Renamed euro");
+    }
+
+    @Test
+    void tenantsDoNotReadEachOthersCachedQueryResults() {
+        assertThat(inTenant(ACME, () -> currencyRepository.findByCode(CurrencyCode.EUR))).isPresent();
+
+        updateBehindHibernate("UPDATE currency SET code = 'ZZZ' WHERE code = 'EUR'");
+
+        assertThat(inTenant(ACME, () -> currencyRepository.findByCode(CurrencyCode.EUR))).isPresent();
+        assertThat(inTenant(GLOBEX, () -> currencyRepository.findByCode(CurrencyCode.EUR))).isEmpty();
+    }
+
+    /** The pool does not auto-commit, so the statement runs in its own committed transaction. */
+    private void updateBehindHibernate(String sql, Object... args) {
+        new TransactionTemplate(new DataSourceTransactionManager(tenantDatabase)).executeWithoutResult(status ->
+            jdbcTemplate.update(sql, args)
+        );
+    }
+
+    private <T> T inTenant(String tenant, Supplier<T> work) {
+        TenantContext.setCurrentTenant(tenant);
+        try {
+            return new TransactionTemplate(tenantTransactionManager).execute(status -> work.get());
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
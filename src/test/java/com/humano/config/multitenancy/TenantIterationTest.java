@@ -0,0 +1,175 @@
+package com.humano.config.multitenancy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.humano.repository.tenant.TenantDatabaseConfigRepository;
+import com.humano.repository.tenant.TenantRepository;
+import com.humano.repository.tenant.projection.TenantDatabaseServerRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Unit tests for {@link TenantIteration#forEachAdaptive}: per-server slots, the per-tenant
+ * timeout (a straggler keeps its slots until it actually stops) and the tick budget, on a real
+ * thread pool with the database servers read from a stubbed repository.
+ */
+class TenantIterationTest {
+
+    private final TenantDatabaseConfigRepository databaseConfigRepository = mock(TenantDatabaseConfigRepository.class);
+    private final MultiTenantProperties properties = new MultiTenantProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        properties.setDefaultDbHost("db-default");
+        properties.setDefaultDbPort(3306);
+        when(databaseConfigRepository.findDatabaseServers()).thenReturn(
+            List.of(
+                new TenantDatabaseServerRow("acme", "db-a", 3306),
+                new TenantDatabaseServerRow("globex", "db-a", 3306),
+                new TenantDatabaseServerRow("initech", "db-a", 3306),
+                new TenantDatabaseServerRow("umbrella", "db-b", 3306)
+            )
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void runsOneUnitAtATimePerServerWhileOtherServersProceed() {
+        limits(8, 1, Duration.ofSeconds(10), Duration.ofSeconds(30));
+        Map<String, AtomicInteger> activeByServer = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> peakByServer = new ConcurrentHashMap<>();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        TenantIteration.Result result = iteration().forEachAdaptive(
+            "test",
+            List.of("acme", "globex", "initech", "umbrella"),
+            Function.identity(),
+            tenant -> {
+                String server = tenant.equals("umbrella") ? "db-b" : "db-a";
+                int onServer = activeByServer.computeIfAbsent(server, key -> new AtomicInteger()).incrementAndGet();
+                peakByServer.computeIfAbsent(server, key -> new AtomicInteger()).accumulateAndGet(onServer, Math::max);
+                peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                assertThat(TenantContext.getCurrentTenant()).isEqualTo(tenant);
+                sleep(100);
+                active.decrementAndGet();
+                activeByServer.get(server).decrementAndGet();
+            }
+        );
+
+        assertThat(result).isEqualTo(new TenantIteration.Result(4, 4, 0));
+        assertThat(peakByServer.get("db-a").get()).isEqualTo(1);
+        // umbrella's server was free, so it ran alongside the db-a tenants.
+        assertThat(peak.get()).isEqualTo(2);
+    }
+
+    @Test
+    void timedOutUnitFailsAndKeepsItsSlotsUntilItStops() {
+        limits(2, 2, Duration.ofMillis(200), Duration.ofSeconds(30));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        TenantIteration.Result result = iteration().forEachAdaptive("test", List.of("acme", "globex"), Function.identity(), tenant -> {
+            if (tenant.equals("acme")) {
+                // A straggler that ignores the interrupt until it is released.
+                while (true) {
+                    try {
+                        release.await();
+                        return;
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    }
+                }
+            }
+        });
+
+        assertThat(result).isEqualTo(new TenantIteration.Result(2, 1, 1));
+        assertThat(meterRegistry.counter("tenant.iteration.timeouts", "job", "test").count()).isEqualTo(1);
+        awaitTrue(interrupted::get);
+        assertThat(activeUnits()).isEqualTo(1);
+
+        release.countDown();
+
+        awaitTrue(() -> activeUnits() == 0);
+        awaitTrue(() -> meterRegistry.timer("tenant.iteration.duration", "job", "test", "outcome", "timeout").count() == 1);
+    }
+
+    @Test
+    void unitsNotStartedWithinTheTickBudgetAreSkipped() {
+        limits(1, 1, Duration.ofSeconds(10), Duration.ofMillis(500));
+
+        List<String> tenants = List.of("acme", "globex", "initech");
+
+        TenantIteration.Result result = iteration().forEachAdaptive("test", tenants, Function.identity(), tenant -> sleep(300));
+
+        // acme finishes, globex is still running when the budget runs out, initech never starts.
+        assertThat(result).isEqualTo(new TenantIteration.Result(3, 1, 2));
+        assertThat(meterRegistry.counter("tenant.iteration.skipped", "job", "test").count()).isEqualTo(1);
+    }
+
+    private TenantIteration iteration() {
+        return new TenantIteration(
+            mock(TenantRepository.class),
+            databaseConfigRepository,
+            mock(AsyncTaskExecutor.class),
+            executor,
+            mock(PlatformTransactionManager.class),
+            properties,
+            meterRegistry
+        );
+    }
+
+    private void limits(int maxConcurrency, int perServer, Duration tenantTimeout, Duration tickTimeout) {
+        MultiTenantProperties.Iteration iteration = properties.getIteration();
+        iteration.setMaxConcurrency(maxConcurrency);
+        iteration.setMaxConcurrencyPerServer(perServer);
+        iteration.setTenantTimeout(tenantTimeout);
+        iteration.setTickTimeout(tickTimeout);
+    }
+
+    private double activeUnits() {
+        return meterRegistry.get("tenant.iteration.active").gauge().value();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met within 5s").isNegative();
+            sleep(10);
+        }
+    }
+}
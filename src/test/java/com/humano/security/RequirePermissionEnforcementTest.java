@@ -3,12 +3,12 @@ package com.humano.security;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.humano.security.annotation.RequirePermission;
 import java.util.List;
+import java.util.Set;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,10 +37,10 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
  * </ol>
  * Uses a minimal method-security slice (no full app context, so it does not depend on the
  * application's integration-test harness) and mocks {@link AuthorityPermissionService} so the
- * per-tenant DB cache (unit-tested separately) is out of scope. The mock is stubbed on the
+ * per-tenant DB cache (unit-tested separately) is out of scope. The mock grants the
  * <em>literal</em> permission code: a passing "granted" case is only possible if {@code {value}}
  * was substituted to {@code UNIT_TEST_PERM} — otherwise the expression would query {@code "{value}"}
- * and the stub would not match.
+ * and the resolved permissions would not contain it.
  */
 @ExtendWith(SpringExtension.class)
 @ContextConfiguration(classes = RequirePermissionEnforcementTest.Config.class)
@@ -92,13 +92,13 @@ class RequirePermissionEnforcementTest {
 
     @Test
     void allowsWhenPermissionGranted() {
-        when(authorityPermissionService.hasPermission(any(), eq(TEST_PERMISSION))).thenReturn(true);
+        when(authorityPermissionService.resolve(any())).thenReturn(EffectivePermissions.of("tenant", 1, Set.of(TEST_PERMISSION)));
         assertThatCode(() -> guardedTestService.guarded()).doesNotThrowAnyException();
     }
 
     @Test
     void deniesWhenPermissionMissing() {
-        when(authorityPermissionService.hasPermission(any(), eq(TEST_PERMISSION))).thenReturn(false);
+        when(authorityPermissionService.resolve(any())).thenReturn(EffectivePermissions.of("tenant", 1, Set.of()));
         assertThatThrownBy(() -> guardedTestService.guarded()).isInstanceOf(AccessDeniedException.class);
     }
 
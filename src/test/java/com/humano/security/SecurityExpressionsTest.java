@@ -0,0 +1,86 @@
+package com.humano.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Unit tests for the per-authentication {@link EffectivePermissions} kept on the
+ * {@link AuthenticatedUser} principal by {@link SecurityExpressions}.
+ */
+class SecurityExpressionsTest {
+
+    private AuthorityPermissionService authorityPermissionService;
+    private SecurityExpressions securityExpressions;
+
+    @BeforeEach
+    void setUp() {
+        authorityPermissionService = mock(AuthorityPermissionService.class);
+        securityExpressions = new SecurityExpressions(authorityPermissionService);
+        AuthenticatedUser user = new AuthenticatedUser(
+            "hr",
+            "pw",
+            List.of(new SimpleGrantedAuthority(AuthoritiesConstants.HR_MANAGER)),
+            UUID.randomUUID()
+        );
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(user, "pw", user.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void resolvesOncePerAuthenticationWhileCurrent() {
+        when(authorityPermissionService.resolve(any())).thenReturn(
+            EffectivePermissions.of("acme", 1, Set.of(PermissionsConstants.VIEW_DASHBOARD, PermissionsConstants.READ_USER))
+        );
+        when(authorityPermissionService.isCurrent(any())).thenReturn(true);
+
+        assertThat(securityExpressions.hasPermission(PermissionsConstants.READ_USER)).isTrue();
+        assertThat(securityExpressions.hasAllPermissions(PermissionsConstants.VIEW_DASHBOARD, PermissionsConstants.READ_USER)).isTrue();
+        assertThat(securityExpressions.hasAnyPermission(PermissionsConstants.CREATE_USER)).isFalse();
+
+        verify(authorityPermissionService, times(1)).resolve(List.of(AuthoritiesConstants.HR_MANAGER));
+    }
+
+    @Test
+    void reResolvesAfterTheTenantCacheChanged() {
+        when(authorityPermissionService.resolve(any()))
+            .thenReturn(EffectivePermissions.of("acme", 1, Set.of(PermissionsConstants.READ_USER)))
+            .thenReturn(EffectivePermissions.of("acme", 2, Set.of()));
+        when(authorityPermissionService.isCurrent(any())).thenReturn(false);
+
+        assertThat(securityExpressions.hasPermission(PermissionsConstants.READ_USER)).isTrue();
+        assertThat(securityExpressions.hasPermission(PermissionsConstants.READ_USER)).isFalse();
+    }
+
+    @Test
+    void bitsetCoversEveryConstantAndKeepsTenantDefinedPermissions() {
+        EffectivePermissions permissions = EffectivePermissions.of(
+            "acme",
+            1,
+            Set.of(PermissionsConstants.VIEW_DASHBOARD, PermissionsConstants.APPROVE_PAYROLL, "CUSTOM_TENANT_PERMISSION")
+        );
+
+        assertThat(permissions.contains(PermissionsConstants.VIEW_DASHBOARD)).isTrue();
+        assertThat(permissions.contains(PermissionsConstants.APPROVE_PAYROLL)).isTrue();
+        assertThat(permissions.contains("CUSTOM_TENANT_PERMISSION")).isTrue();
+        assertThat(permissions.contains(PermissionsConstants.ACCESS_API)).isFalse();
+        assertThat(permissions.contains("UNKNOWN")).isFalse();
+    }
+}
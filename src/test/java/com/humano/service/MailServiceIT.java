@@ -183,6 +183,14 @@ class MailServiceIT {
         assertThat(message.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
     }
 
+    @Test
+    void testSendEmailSyncReportsOutcome() {
+        assertThat(mailService.sendEmailSync("john.doe@example.com", "testSubject", "testContent", false, false)).isTrue();
+
+        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+        assertThat(mailService.sendEmailSync("john.doe@example.com", "testSubject", "testContent", false, false)).isFalse();
+    }
+
     @Test
     void testSendEmailWithException() {
         doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
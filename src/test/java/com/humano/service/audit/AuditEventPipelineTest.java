@@ -0,0 +1,251 @@
+package com.humano.service.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.humano.config.AuditProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.domain.audit.AuditEvent;
+import com.humano.repository.audit.AuditEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Unit tests for {@link AuditEventPipeline}: overflow handling, batching on the writer thread,
+ * one insert per tenant and the row-by-row retry of a failed batch.
+ */
+class AuditEventPipelineTest {
+
+    private static final String BAD = "BAD_EVENT";
+
+    private final AuditEventRepository auditEventRepository = mock(AuditEventRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuditProperties auditProperties = new AuditProperties();
+    private final List<Insert> batchInserts = new CopyOnWriteArrayList<>();
+    private final List<String> singleInsertThreads = new CopyOnWriteArrayList<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private AuditEventPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        auditProperties.getPipeline().setShutdownTimeout(Duration.ofSeconds(5));
+        doAnswer(invocation -> {
+            List<AuditEvent> events = new ArrayList<>();
+            invocation.<Iterable<AuditEvent>>getArgument(0).forEach(events::add);
+            if (events.stream().anyMatch(e -> BAD.equals(e.getAction()))) {
+                throw new DataIntegrityViolationException("payload_json too long");
+            }
+            batchInserts.add(new Insert(TenantContext.getCurrentTenant(), events.size()));
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return events;
+        })
+            .when(auditEventRepository)
+            .saveAll(any());
+        doAnswer(invocation -> {
+            AuditEvent event = invocation.getArgument(0);
+            if (BAD.equals(event.getAction())) {
+                throw new DataIntegrityViolationException("payload_json too long");
+            }
+            singleInsertThreads.add(Thread.currentThread().getName());
+            return event;
+        })
+            .when(auditEventRepository)
+            .save(any(AuditEvent.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+        TenantContext.clear();
+    }
+
+    @Test
+    void eventsAreWrittenSynchronouslyBeforeStart() {
+        pipeline = newPipeline();
+
+        pipeline.submit(event("LOGIN"));
+
+        assertThat(singleInsertThreads).containsExactly(Thread.currentThread().getName());
+        assertThat(count("caller_written")).isEqualTo(1);
+    }
+
+    @Test
+    void fullBufferMakesTheCallerWriteItsOwnEvent() throws Exception {
+        auditProperties.getPipeline().setCapacity(2);
+        auditProperties.getPipeline().setMaxBatchSize(1);
+        startWithBlockedWriter();
+
+        pipeline.submit(event("QUEUED_1"));
+        pipeline.submit(event("QUEUED_2"));
+        pipeline.submit(event("OVERFLOW"));
+
+        assertThat(singleInsertThreads).containsExactly(Thread.currentThread().getName());
+        assertThat(count("caller_written")).isEqualTo(1);
+        release.countDown();
+        awaitTrue(() -> count("written") == 3);
+        assertThat(count("dropped")).isZero();
+    }
+
+    @Test
+    void fullBufferDropsTheEventUnderDropOverflow() throws Exception {
+        auditProperties.getPipeline().setCapacity(2);
+        auditProperties.getPipeline().setMaxBatchSize(1);
+        auditProperties.getPipeline().setOverflow(AuditProperties.Overflow.DROP);
+        startWithBlockedWriter();
+
+        pipeline.submit(event("QUEUED_1"));
+        pipeline.submit(event("QUEUED_2"));
+        pipeline.submit(event("OVERFLOW"));
+
+        assertThat(count("dropped")).isEqualTo(1);
+        verify(auditEventRepository, never()).save(any(AuditEvent.class));
+        release.countDown();
+        awaitTrue(() -> count("written") == 3);
+    }
+
+    @Test
+    void queuedEventsAreDrainedInBatchesOfAtMostMaxBatchSize() throws Exception {
+        auditProperties.getPipeline().setMaxBatchSize(3);
+        startWithBlockedWriter();
+
+        for (int i = 0; i < 7; i++) {
+            pipeline.submit(event("QUEUED_" + i));
+        }
+        release.countDown();
+
+        awaitTrue(() -> count("written") == 8);
+        assertThat(batchInserts).extracting(Insert::size).containsExactly(1, 3, 3, 1);
+    }
+
+    @Test
+    void singleEventIsFlushedWithoutWaitingForAFullBatch() {
+        pipeline = newPipeline();
+        pipeline.start();
+
+        pipeline.submit(event("LOGIN"));
+
+        awaitTrue(() -> count("written") == 1);
+        assertThat(batchInserts).containsExactly(new Insert(null, 1));
+        assertThat(meterRegistry.timer("audit.pipeline.lag").max(TimeUnit.MILLISECONDS)).isLessThan(1000);
+    }
+
+    @Test
+    void batchIsInsertedOncePerTenantUnderThatTenant() throws Exception {
+        startWithBlockedWriter();
+
+        submitAs("acme", event("A1"));
+        submitAs("globex", event("G1"));
+        submitAs("acme", event("A2"));
+        submitAs(null, event("NO_TENANT"));
+        release.countDown();
+
+        awaitTrue(() -> count("written") == 5);
+        assertThat(batchInserts.subList(1, batchInserts.size())).containsExactlyInAnyOrder(
+            new Insert("acme", 2),
+            new Insert("globex", 1),
+            new Insert(null, 1)
+        );
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRow() throws Exception {
+        startWithBlockedWriter();
+
+        pipeline.submit(event("OK_1"));
+        pipeline.submit(event(BAD));
+        pipeline.submit(event("OK_2"));
+        release.countDown();
+
+        awaitTrue(() -> count("written") + count("failed") == 4);
+        assertThat(count("written")).isEqualTo(3);
+        assertThat(count("failed")).isEqualTo(1);
+        assertThat(singleInsertThreads).containsOnly("humano-audit-writer").hasSize(2);
+    }
+
+    /** Starts the pipeline and parks the writer inside the insert of a first event. */
+    private void startWithBlockedWriter() throws InterruptedException {
+        release = new CountDownLatch(1);
+        pipeline = newPipeline();
+        pipeline.start();
+        pipeline.submit(event("BLOCKER"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).as("writer picked up the first event").isTrue();
+    }
+
+    private AuditEventPipeline newPipeline() {
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {}
+
+            @Override
+            public void rollback(TransactionStatus status) {}
+        };
+        return new AuditEventPipeline(auditEventRepository, auditProperties, transactionManager, meterRegistry);
+    }
+
+    private void submitAs(String tenant, AuditEvent event) {
+        if (tenant != null) {
+            TenantContext.setCurrentTenant(tenant);
+        } else {
+            TenantContext.clear();
+        }
+        try {
+            pipeline.submit(event);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("audit.pipeline.events", "outcome", outcome).count();
+    }
+
+    private static AuditEvent event(String action) {
+        AuditEvent event = new AuditEvent();
+        event.setAction(action);
+        event.setTargetType("Employee");
+        return event;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met within 5s").isNegative();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted", e);
+            }
+        }
+    }
+
+    private record Insert(String tenant, int size) {}
+}
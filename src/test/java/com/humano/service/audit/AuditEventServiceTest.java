@@ -0,0 +1,92 @@
+package com.humano.service.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.humano.config.AuditProperties;
+import com.humano.domain.audit.AuditEvent;
+import com.humano.repository.audit.AuditEventRepository;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Unit tests for {@link AuditEventService#recordAfterCommit}: the event reaches the pipeline only
+ * once the surrounding transaction commits, and never when it rolls back.
+ */
+class AuditEventServiceTest {
+
+    private final AuditEventRepository auditEventRepository = mock(AuditEventRepository.class);
+    private final AuditEventPipeline pipeline = mock(AuditEventPipeline.class);
+    private final AuditProperties auditProperties = new AuditProperties();
+    private AuditEventService auditEventService;
+
+    @BeforeEach
+    void setUp() {
+        auditEventService = new AuditEventService(auditEventRepository, pipeline, auditProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void eventIsSubmittedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        auditEventService.recordAfterCommit("COMPENSATION_ADJUSTED", "Compensation", "42", Map.of("from", 100, "to", 120));
+        verify(pipeline, never()).submit(any());
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        ArgumentCaptor<AuditEvent> submitted = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(pipeline).submit(submitted.capture());
+        assertThat(submitted.getValue().getAction()).isEqualTo("COMPENSATION_ADJUSTED");
+        assertThat(submitted.getValue().getTargetId()).isEqualTo("42");
+        verify(auditEventRepository, never()).save(any());
+    }
+
+    @Test
+    void eventIsNeverSubmittedWhenTheTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        auditEventService.recordAfterCommit("COMPENSATION_ADJUSTED", "Compensation", "42", Map.of());
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(),
+            TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+
+        verify(pipeline, never()).submit(any());
+        verify(auditEventRepository, never()).save(any());
+    }
+
+    @Test
+    void eventIsSubmittedAtOnceOutsideATransaction() {
+        auditEventService.recordAfterCommit("LOGIN", "User", "7", null);
+
+        verify(pipeline).submit(any(AuditEvent.class));
+    }
+
+    @Test
+    void disabledPipelineWritesInTheCallersTransaction() {
+        auditProperties.getPipeline().setEnabled(false);
+        auditEventService = new AuditEventService(auditEventRepository, pipeline, auditProperties);
+        TransactionSynchronizationManager.initSynchronization();
+
+        auditEventService.recordAfterCommit("LOGIN", "User", "7", null);
+
+        verify(auditEventRepository).save(any(AuditEvent.class));
+        verify(pipeline, never()).submit(any());
+    }
+}
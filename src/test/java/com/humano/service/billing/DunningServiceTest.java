@@ -0,0 +1,165 @@
+package com.humano.service.billing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.domain.billing.Invoice;
+import com.humano.domain.billing.Payment;
+import com.humano.domain.billing.Subscription;
+import com.humano.domain.enumeration.billing.InvoiceStatus;
+import com.humano.domain.enumeration.billing.PaymentStatus;
+import com.humano.domain.enumeration.billing.SubscriptionStatus;
+import com.humano.events.SubscriptionCancelledEvent;
+import com.humano.repository.billing.InvoiceRepository;
+import com.humano.repository.billing.SubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Unit tests for one {@link DunningService} step, over mocked repositories and a transaction
+ * manager that only counts open transactions: the payment retry must run outside them, and a
+ * retry that throws must still advance the counter and cancel an exhausted subscription.
+ */
+class DunningServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final SubscriptionRepository subscriptionRepository = mock(SubscriptionRepository.class);
+    private final InvoiceRepository invoiceRepository = mock(InvoiceRepository.class);
+    private final PaymentService paymentService = mock(PaymentService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final AtomicInteger openTransactions = new AtomicInteger();
+    private final Subscription subscription = new Subscription();
+    private final Payment failedPayment = new Payment();
+    private DunningService dunningService;
+
+    @BeforeEach
+    void setUp() {
+        subscription.setId(UUID.randomUUID());
+        subscription.setStatus(SubscriptionStatus.PAST_DUE);
+        failedPayment.setId(UUID.randomUUID());
+        failedPayment.setStatus(PaymentStatus.FAILED);
+        failedPayment.setExternalPaymentId("pi_123");
+        failedPayment.setAmount(new BigDecimal("49.00"));
+        failedPayment.setPaymentDate(Instant.now().minus(3, ChronoUnit.DAYS));
+        Invoice invoice = new Invoice();
+        invoice.setPayments(Set.of(failedPayment));
+        when(subscriptionRepository.findById(subscription.getId())).thenReturn(Optional.of(subscription));
+        when(invoiceRepository.findBySubscriptionIdAndStatus(subscription.getId(), InvoiceStatus.PENDING)).thenReturn(List.of(invoice));
+
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                openTransactions.incrementAndGet();
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                openTransactions.decrementAndGet();
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                openTransactions.decrementAndGet();
+            }
+        };
+        dunningService = new DunningService(
+            subscriptionRepository,
+            invoiceRepository,
+            paymentService,
+            null,
+            null,
+            eventPublisher,
+            null,
+            transactionManager,
+            new SimpleMeterRegistry(),
+            MAX_ATTEMPTS
+        );
+    }
+
+    @Test
+    void retryThatThrowsStillCancelsAnExhaustedSubscription() {
+        subscription.setDunningAttempt(MAX_ATTEMPTS - 1);
+        AtomicInteger transactionsDuringRetry = new AtomicInteger(-1);
+        when(paymentService.retryPayment(failedPayment.getId(), "pi_123")).thenAnswer(invocation -> {
+            transactionsDuringRetry.set(openTransactions.get());
+            throw new IllegalStateException("Can only retry failed payments");
+        });
+
+        DunningService.Outcome outcome = dunningService.processSubscription(subscription.getId());
+
+        assertThat(outcome).isEqualTo(DunningService.Outcome.CANCELLED);
+        assertThat(transactionsDuringRetry.get()).isZero();
+        assertThat(openTransactions.get()).isZero();
+        assertThat(subscription.getStatus()).isEqualTo(SubscriptionStatus.CANCELLED);
+        assertThat(subscription.getDunningAttempt()).isZero();
+        verify(eventPublisher).publishEvent(any(SubscriptionCancelledEvent.class));
+    }
+
+    @Test
+    void failedRetryBelowTheCapAdvancesTheCounter() {
+        when(paymentService.retryPayment(failedPayment.getId(), "pi_123")).thenThrow(new RuntimeException("card declined"));
+
+        DunningService.Outcome outcome = dunningService.processSubscription(subscription.getId());
+
+        assertThat(outcome).isEqualTo(DunningService.Outcome.ADVANCED);
+        assertThat(subscription.getStatus()).isEqualTo(SubscriptionStatus.PAST_DUE);
+        assertThat(subscription.getDunningAttempt()).isEqualTo(1);
+        assertThat(subscription.getLastDunningAt()).isNotNull();
+    }
+
+    @Test
+    void successfulRetryResetsTheCounter() {
+        subscription.setDunningAttempt(1);
+        when(paymentService.retryPayment(failedPayment.getId(), "pi_123")).thenAnswer(invocation -> {
+            // PaymentService's completion cascade reactivates the subscription.
+            subscription.setStatus(SubscriptionStatus.ACTIVE);
+            return null;
+        });
+
+        DunningService.Outcome outcome = dunningService.processSubscription(subscription.getId());
+
+        assertThat(outcome).isEqualTo(DunningService.Outcome.RETRIED_SUCCESS);
+        assertThat(subscription.getDunningAttempt()).isZero();
+    }
+
+    @Test
+    void subscriptionAlreadyProcessedTodayIsSkipped() {
+        subscription.setDunningAttempt(1);
+        subscription.setLastDunningAt(Instant.now());
+
+        DunningService.Outcome outcome = dunningService.processSubscription(subscription.getId());
+
+        assertThat(outcome).isEqualTo(DunningService.Outcome.SKIPPED);
+        assertThat(subscription.getDunningAttempt()).isEqualTo(1);
+        verify(paymentService, never()).retryPayment(any(), anyString());
+    }
+
+    @Test
+    void subscriptionNoLongerPastDueIsSkipped() {
+        subscription.setStatus(SubscriptionStatus.ACTIVE);
+
+        assertThat(dunningService.processSubscription(subscription.getId())).isEqualTo(DunningService.Outcome.SKIPPED);
+        verify(paymentService, never()).retryPayment(any(), anyString());
+    }
+}
@@ -0,0 +1,103 @@
+package com.humano.service.hr.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.humano.config.EmployeeSearchProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.domain.shared.Employee;
+import com.humano.repository.hr.projection.EmployeeSearchRow;
+import com.humano.repository.shared.EmployeeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Unit tests for {@link EmployeeSearchIndex#search}: the non-text filters apply before the
+ * {@code max-results} limit, so matches ranked below it are still found. The database check is
+ * replaced by a set of the employees the filter lets through.
+ */
+class EmployeeSearchIndexTest {
+
+    private static final int EMPLOYEES = 1500;
+    private static final int MAX_RESULTS = 1000;
+
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    /** Employee ids in rank order for the query "ann": same score, sorted by last name. */
+    private final List<UUID> ranked = new ArrayList<>();
+    private final Set<UUID> passingFilter = new HashSet<>();
+    private final List<Integer> checkedPages = new ArrayList<>();
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("acme");
+        List<EmployeeSearchRow> rows = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            UUID id = UUID.randomUUID();
+            ranked.add(id);
+            rows.add(new EmployeeSearchRow(id, "Ann", String.format("Lee%04d", i), null, "Analyst", Instant.now()));
+        }
+        when(employeeRepository.findSearchRows()).thenReturn(rows);
+        EmployeeSearchProperties properties = new EmployeeSearchProperties();
+        properties.setMaxResults(MAX_RESULTS);
+        searchIndex = new EmployeeSearchIndex(employeeRepository, properties, new SimpleMeterRegistry()) {
+            @Override
+            Set<UUID> matching(List<UUID> ids, Specification<Employee> filter) {
+                checkedPages.add(ids.size());
+                Set<UUID> passing = new HashSet<>(ids);
+                passing.retainAll(passingFilter);
+                return passing;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void filteredMatchesRankedBelowTheLimitAreFound() {
+        // A department holding only the 300 lowest-ranked matches.
+        passingFilter.addAll(ranked.subList(1200, EMPLOYEES));
+
+        List<UUID> results = searchIndex.search(query("ann"), null);
+
+        assertThat(results).containsExactlyElementsOf(ranked.subList(1200, EMPLOYEES));
+        assertThat(checkedPages).containsExactly(MAX_RESULTS, EMPLOYEES - MAX_RESULTS);
+    }
+
+    @Test
+    void limitAppliesToTheMatchesThatPassTheFilter() {
+        passingFilter.addAll(ranked);
+
+        List<UUID> results = searchIndex.search(query("ann"), null);
+
+        assertThat(results).containsExactlyElementsOf(ranked.subList(0, MAX_RESULTS));
+        assertThat(checkedPages).containsExactly(MAX_RESULTS);
+    }
+
+    @Test
+    void deletedEmployeeIsDroppedFromTheIndex() {
+        passingFilter.addAll(ranked);
+        searchIndex.search(query("ann"), null);
+
+        searchIndex.remove("acme", ranked.get(0));
+
+        assertThat(searchIndex.search(query("ann"), null)).first().isEqualTo(ranked.get(1));
+    }
+
+    private static EmployeeSearchIndex.TextQuery query(String query) {
+        return new EmployeeSearchIndex.TextQuery(query, null, null, null, null);
+    }
+}
@@ -0,0 +1,80 @@
+package com.humano.service.hr.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.humano.service.hr.search.EmployeeTextIndex.Clause;
+import com.humano.service.hr.search.EmployeeTextIndex.Field;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Latency check for {@link EmployeeTextIndex} at the size the employee search is sized for:
+ * typeahead queries over 100,000 employees, from one-letter prefixes matching most of the
+ * tenant to multi-word queries, must answer within 20 ms at the 99th percentile.
+ */
+class EmployeeTextIndexBenchmarkTest {
+
+    private static final int EMPLOYEES = 100_000;
+    private static final int QUERIES = 4_000;
+    private static final int MAX_RESULTS = 1_000;
+    private static final double P99_BUDGET_MILLIS = 20;
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William", "Elizabeth",
+        "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Renée", "Zoë", "Amir", "Yuki", "Olga", "Mohammed", "Fatima", "Chen", "Ana", "Luis",
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+    };
+    private static final String[] JOB_TITLES = {
+        "Software Engineer", "Payroll Manager", "Account Executive", "Marketing Lead", "HR Generalist",
+        "Data Analyst", "Sales Representative", "Product Manager", "Support Specialist", "Finance Controller",
+    };
+    private static final String[] TYPEAHEAD = {
+        "a", "j", "m", "s", "r", "x", "z", "jo", "joh", "john", "john s", "mar", "mari", "maria g",
+        "eng", "soft eng", "payroll", "smi", "smith j", "ren",
+    };
+
+    @Test
+    void typeaheadOverOneHundredThousandEmployeesStaysWithinBudget() {
+        Random random = new Random(42);
+        EmployeeTextIndex index = new EmployeeTextIndex();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            String firstName = pick(random, FIRST_NAMES);
+            String lastName = pick(random, LAST_NAMES) + (random.nextInt(4) == 0 ? "-" + pick(random, LAST_NAMES) : "");
+            String email = firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@acme.test";
+            index.put(UUID.randomUUID(), firstName, lastName, email, pick(random, JOB_TITLES));
+        }
+        for (int warmup = 0; warmup < 5; warmup++) {
+            for (String query : TYPEAHEAD) {
+                search(index, query);
+            }
+        }
+
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String query = pick(random, TYPEAHEAD);
+            long start = System.nanoTime();
+            search(index, query);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        double p99Millis = nanos[QUERIES * 99 / 100] / 1e6;
+        assertThat(p99Millis).as("p99 in ms, p50 %.2f ms", nanos[QUERIES / 2] / 1e6).isLessThan(P99_BUDGET_MILLIS);
+    }
+
+    private static List<UUID> search(EmployeeTextIndex index, String query) {
+        return index.search(List.of(Clause.in(query, Field.FIRST_NAME, Field.LAST_NAME, Field.JOB_TITLE)), MAX_RESULTS);
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,119 @@
+package com.humano.service.hr.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.humano.service.hr.search.EmployeeTextIndex.Clause;
+import com.humano.service.hr.search.EmployeeTextIndex.Field;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EmployeeTextIndexTest {
+
+    private static final UUID RENEE = UUID.randomUUID();
+    private static final UUID MARK = UUID.randomUUID();
+    private static final UUID MARIA = UUID.randomUUID();
+
+    private EmployeeTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new EmployeeTextIndex();
+        index.put(RENEE, "Renée", "O'Brien-Smith", "renee.smith@acme.test", "Payroll Manager");
+        index.put(MARK, "Mark", "Davies", "mark.davies@acme.test", "Software Engineer");
+        index.put(MARIA, "Maria", "Markovic", "maria.markovic@acme.test", "Marketing Lead");
+    }
+
+    @Test
+    void matchesWordPrefixesIgnoringCaseAndAccents() {
+        assertThat(search("REN")).containsExactly(RENEE);
+        assertThat(search("brien")).containsExactly(RENEE);
+        assertThat(search("smi")).containsExactly(RENEE);
+        assertThat(search("eng")).containsExactly(MARK);
+    }
+
+    @Test
+    void doesNotMatchInsideWords() {
+        assertThat(search("rien")).isEmpty();
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        assertThat(search("mar lead")).containsExactly(MARIA);
+        assertThat(search("mar payroll")).isEmpty();
+    }
+
+    @Test
+    void wholeWordMatchesRankAbovePrefixMatches() {
+        // "mark" is Mark's whole first name but only the start of Markovic and Marketing.
+        assertThat(search("mark")).containsExactly(MARK, MARIA);
+    }
+
+    @Test
+    void nameMatchesRankAboveJobTitleMatches() {
+        index.put(UUID.randomUUID(), "Lee", "Payne", "lee.payne@acme.test", "Analyst");
+        UUID payrollClerk = UUID.randomUUID();
+        index.put(payrollClerk, "Ann", "Lee", "ann.lee@acme.test", "Payroll Clerk");
+
+        List<UUID> results = search("pay");
+
+        assertThat(results).hasSize(3).last().isIn(RENEE, payrollClerk);
+    }
+
+    @Test
+    void fieldClausesOnlyMatchTheirField() {
+        assertThat(index.search(List.of(Clause.in("mark", Field.LAST_NAME)), 10)).containsExactly(MARIA);
+        assertThat(index.search(List.of(Clause.in("acme", Field.EMAIL), Clause.in("dav", Field.LAST_NAME)), 10)).containsExactly(MARK);
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsAnEmployee() {
+        index.put(MARK, "Mark", "Evans", "mark.evans@acme.test", "Software Engineer");
+        assertThat(search("davies")).isEmpty();
+        assertThat(search("evans")).containsExactly(MARK);
+
+        index.remove(MARK);
+        assertThat(search("mark")).containsExactly(MARIA);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void blankQueryMatchesNothing() {
+        assertThat(search("  ")).isEmpty();
+    }
+
+    @Test
+    void resultsAreLimited() {
+        assertThat(index.search(List.of(Clause.in("acme", Field.EMAIL)), 2)).hasSize(2);
+    }
+
+    @Test
+    void rankingHandsOutEveryMatchBestFirstAcrossPages() {
+        EmployeeTextIndex.Ranking ranking = index.search(List.of(Clause.in("mar", Field.FIRST_NAME, Field.LAST_NAME, Field.JOB_TITLE)));
+
+        assertThat(ranking.size()).isEqualTo(2);
+        assertThat(ranking.next(1)).containsExactly(MARK);
+        assertThat(ranking.isExhausted()).isFalse();
+        assertThat(ranking.next(5)).containsExactly(MARIA);
+        assertThat(ranking.isExhausted()).isTrue();
+        assertThat(ranking.next(5)).isEmpty();
+    }
+
+    @Test
+    void rankingOrdersEqualScoresByLastThenFirstName() {
+        index = new EmployeeTextIndex();
+        UUID zoeAdams = UUID.randomUUID();
+        UUID annBaker = UUID.randomUUID();
+        UUID bobAdams = UUID.randomUUID();
+        index.put(zoeAdams, "Zoe", "Adams", null, "Engineer");
+        index.put(annBaker, "Ann", "Baker", null, "Engineer");
+        index.put(bobAdams, "Bob", "Adams", null, "Engineer");
+
+        assertThat(search("engineer")).containsExactly(bobAdams, zoeAdams, annBaker);
+    }
+
+    private List<UUID> search(String query) {
+        return index.search(List.of(Clause.in(query, Field.FIRST_NAME, Field.LAST_NAME, Field.JOB_TITLE)), 10);
+    }
+}
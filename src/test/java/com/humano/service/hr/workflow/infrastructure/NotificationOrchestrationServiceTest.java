@@ -0,0 +1,182 @@
+package com.humano.service.hr.workflow.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.humano.domain.hr.EmployeeNotification;
+import com.humano.domain.shared.Employee;
+import com.humano.repository.hr.EmployeeNotificationRepository;
+import com.humano.repository.hr.projection.NotificationRecipientRow;
+import com.humano.repository.shared.EmployeeRepository;
+import com.humano.service.MailService;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Unit tests for {@link NotificationOrchestrationService}'s bulk dispatch: recipients are
+ * resolved in batches, the in-app rows are inserted with one {@code saveAll} and emails are
+ * queued only once the caller's transaction commits.
+ */
+class NotificationOrchestrationServiceTest {
+
+    private final EmployeeNotificationRepository notificationRepository = mock(EmployeeNotificationRepository.class);
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final MailService mailService = mock(MailService.class);
+    private final OutboundMailQueue mailQueue = mock(OutboundMailQueue.class);
+    private final Map<UUID, String> addresses = new LinkedHashMap<>();
+    private final List<Integer> lookupSizes = new ArrayList<>();
+    private NotificationOrchestrationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(employeeRepository.findNotificationRecipients(any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            lookupSizes.add(ids.size());
+            return ids
+                .stream()
+                .filter(addresses::containsKey)
+                .map(id -> new NotificationRecipientRow(id, addresses.get(id)))
+                .toList();
+        });
+        when(employeeRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            Employee employee = new Employee();
+            employee.setId(invocation.getArgument(0));
+            return employee;
+        });
+        service = new NotificationOrchestrationService(notificationRepository, employeeRepository, mailService, mailQueue);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void recipientsAreResolvedInBatchesAndInsertedWithOneSaveAll() {
+        List<UUID> ids = employees(2 * NotificationOrchestrationService.RECIPIENT_QUERY_BATCH + 500);
+
+        service.notifyTaskAssignment(ids, "Self-review", "Due Friday", UUID.randomUUID(), "ReviewCycle");
+
+        assertThat(lookupSizes).containsExactly(1000, 1000, 500);
+        List<EmployeeNotification> inserted = savedNotifications();
+        assertThat(inserted).hasSize(ids.size());
+        assertThat(inserted.get(0).getEmployee().getId()).isEqualTo(ids.get(0));
+        assertThat(inserted.get(0).getMessage()).isEqualTo("Self-review: Due Friday");
+        assertThat(inserted.get(0).getRead()).isFalse();
+        verify(mailQueue, times(ids.size())).enqueue(anyString(), any(), any());
+        verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(mailService);
+    }
+
+    @Test
+    void missingEmployeesAndMissingAddressesAreSkipped() {
+        UUID withAddress = employees(1).get(0);
+        UUID blankAddress = UUID.randomUUID();
+        addresses.put(blankAddress, " ");
+        UUID unknown = UUID.randomUUID();
+
+        service.notifyTaskAssignment(List.of(withAddress, blankAddress, unknown), "Self-review", "Due Friday", null, "ReviewCycle");
+
+        assertThat(savedNotifications())
+            .extracting(n -> n.getEmployee().getId())
+            .containsExactly(withAddress, blankAddress);
+        verify(mailQueue).enqueue(addresses.get(withAddress), "Self-review", "Self-review: Due Friday");
+        verify(mailQueue, times(1)).enqueue(anyString(), any(), any());
+    }
+
+    @Test
+    void perRecipientMessagesReachTheirRecipient() {
+        List<UUID> ids = employees(2);
+        Map<UUID, String> messages = new LinkedHashMap<>();
+        messages.put(ids.get(0), "Review Alice");
+        messages.put(ids.get(1), "Review Bob");
+
+        service.notifyTaskAssignment(messages, "Manager review", null, "ReviewCycle");
+
+        assertThat(savedNotifications())
+            .extracting(EmployeeNotification::getMessage)
+            .containsExactly("Manager review: Review Alice", "Manager review: Review Bob");
+        verify(mailQueue).enqueue(addresses.get(ids.get(1)), "Manager review", "Manager review: Review Bob");
+    }
+
+    @Test
+    void bulkNotificationIsInAppOnly() {
+        List<UUID> ids = employees(3);
+
+        service.sendBulkNotification(ids, "Office closed", "Monday is a holiday");
+
+        assertThat(savedNotifications()).hasSize(3);
+        verifyNoInteractions(mailQueue, mailService);
+    }
+
+    @Test
+    void emailsAreQueuedOnlyOnceTheTransactionCommits() {
+        List<UUID> ids = employees(2);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.notifyTaskAssignment(ids, "Self-review", "Due Friday", null, "ReviewCycle");
+        verify(mailQueue, never()).enqueue(anyString(), any(), any());
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+        verify(mailQueue, times(2)).enqueue(anyString(), any(), any());
+    }
+
+    @Test
+    void rolledBackTransactionQueuesNoEmail() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.notifyTaskAssignment(employees(2), "Self-review", "Due Friday", null, "ReviewCycle");
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(),
+            TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+
+        verify(mailQueue, never()).enqueue(anyString(), any(), any());
+    }
+
+    @Test
+    void emptyRecipientListDoesNothing() {
+        service.notifyTaskAssignment(List.of(), "Self-review", "Due Friday", null, "ReviewCycle");
+
+        verifyNoInteractions(employeeRepository, notificationRepository, mailQueue);
+    }
+
+    /** Creates {@code count} employees with an address each. */
+    private List<UUID> employees(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            addresses.put(id, "employee" + i + "@acme.test");
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<EmployeeNotification> savedNotifications() {
+        ArgumentCaptor<List<EmployeeNotification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(saved.capture());
+        return saved.getValue();
+    }
+}
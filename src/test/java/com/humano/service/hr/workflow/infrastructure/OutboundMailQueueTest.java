@@ -0,0 +1,196 @@
+package com.humano.service.hr.workflow.infrastructure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.config.NotificationProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.service.MailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Unit tests for {@link OutboundMailQueue}: coalescing per tenant and address, the digest size
+ * cap, the per-tick send budget and the fallbacks when the queue or the sender pool is full.
+ */
+class OutboundMailQueueTest {
+
+    private final MailService mailService = mock(MailService.class);
+    private final NotificationProperties notificationProperties = new NotificationProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Sent> sent = new ArrayList<>();
+    private boolean executorSaturated;
+    private OutboundMailQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        // Due on the first tick unless a test sets a window.
+        notificationProperties.getMail().setCoalesceWindow(Duration.ZERO);
+        doAnswer(invocation -> {
+            sent.add(new Sent(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+            return true;
+        })
+            .when(mailService)
+            .sendEmailSync(anyString(), anyString(), anyString(), anyBoolean(), anyBoolean());
+        TaskExecutor executor = task -> {
+            if (executorSaturated) {
+                throw new TaskRejectedException("sender pool full");
+            }
+            task.run();
+        };
+        queue = new OutboundMailQueue(mailService, executor, notificationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void notificationsToTheSameAddressAreSentAsOneDigest() {
+        TenantContext.setCurrentTenant("acme");
+        queue.enqueue("jane@acme.test", "Review started", "Fill in your self-review.");
+        queue.enqueue(" Jane@Acme.test ", "Goal assigned", "Ship the Q3 release.");
+
+        queue.dispatch();
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).to()).isEqualTo("jane@acme.test");
+        assertThat(sent.get(0).subject()).isEqualTo("You have 2 new notifications");
+        assertThat(sent.get(0).body()).isEqualTo("Review started\nFill in your self-review.\n\nGoal assigned\nShip the Q3 release.");
+        assertThat(count("queued")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+        assertThat(count("sent")).isEqualTo(1);
+    }
+
+    @Test
+    void singleNotificationKeepsItsSubjectAndBody() {
+        queue.enqueue("jane@acme.test", "Review started", "Fill in your self-review.");
+
+        queue.dispatch();
+
+        assertThat(sent).containsExactly(new Sent("jane@acme.test", "Review started", "Fill in your self-review."));
+    }
+
+    @Test
+    void sameAddressInAnotherTenantIsNotCoalesced() {
+        TenantContext.setCurrentTenant("acme");
+        queue.enqueue("jane@example.test", "Review started", "acme");
+        TenantContext.setCurrentTenant("globex");
+        queue.enqueue("jane@example.test", "Review started", "globex");
+
+        queue.dispatch();
+
+        assertThat(sent).extracting(Sent::body).containsExactly("acme", "globex");
+    }
+
+    @Test
+    void emailIsHeldForTheCoalesceWindow() {
+        notificationProperties.getMail().setCoalesceWindow(Duration.ofMinutes(5));
+        queue.enqueue("jane@acme.test", "Review started", "Fill in your self-review.");
+
+        queue.dispatch();
+
+        assertThat(sent).isEmpty();
+        assertThat(queue.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullDigestIsSentWithoutWaitingForTheWindowAndTheNextStartsANewEmail() {
+        notificationProperties.getMail().setCoalesceWindow(Duration.ofMinutes(5));
+        notificationProperties.getMail().setMaxItemsPerEmail(2);
+        queue.enqueue("jane@acme.test", "One", "1");
+        queue.enqueue("jane@acme.test", "Two", "2");
+        queue.enqueue("jane@acme.test", "Three", "3");
+
+        queue.dispatch();
+
+        assertThat(sent).extracting(Sent::subject).containsExactly("You have 2 new notifications");
+        assertThat(queue.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void eachTickSendsAtMostRatePerSecondEmailsOldestFirst() {
+        notificationProperties.getMail().setRatePerSecond(2);
+        for (int i = 1; i <= 5; i++) {
+            queue.enqueue("employee" + i + "@acme.test", "Announcement", "Body " + i);
+        }
+
+        queue.dispatch();
+        assertThat(sent).extracting(Sent::to).containsExactly("employee1@acme.test", "employee2@acme.test");
+
+        queue.dispatch();
+        queue.dispatch();
+        assertThat(sent)
+            .extracting(Sent::to)
+            .containsExactly(
+                "employee1@acme.test",
+                "employee2@acme.test",
+                "employee3@acme.test",
+                "employee4@acme.test",
+                "employee5@acme.test"
+            );
+        assertThat(queue.pendingCount()).isZero();
+    }
+
+    @Test
+    void emailsRefusedBySaturatedPoolAreRetriedFirstOnTheNextTick() {
+        queue.enqueue("a@acme.test", "Announcement", "a");
+        queue.enqueue("b@acme.test", "Announcement", "b");
+        executorSaturated = true;
+
+        queue.dispatch();
+        assertThat(sent).isEmpty();
+        assertThat(queue.pendingCount()).isEqualTo(2);
+
+        queue.enqueue("c@acme.test", "Announcement", "c");
+        executorSaturated = false;
+        queue.dispatch();
+
+        assertThat(sent).extracting(Sent::to).containsExactly("a@acme.test", "b@acme.test", "c@acme.test");
+    }
+
+    @Test
+    void fullQueueFallsBackToTheAsyncMailPath() {
+        notificationProperties.getMail().setMaxPending(1);
+        queue.enqueue("a@acme.test", "Announcement", "a");
+
+        queue.enqueue("b@acme.test", "Announcement", "b");
+
+        verify(mailService).sendEmail("b@acme.test", "Announcement", "b", false, false);
+        verify(mailService, never()).sendEmail(eq("a@acme.test"), anyString(), anyString(), anyBoolean(), anyBoolean());
+        assertThat(count("bypassed")).isEqualTo(1);
+        assertThat(queue.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void emailRefusedByTheMailServerCountsAsFailed() {
+        when(mailService.sendEmailSync(anyString(), anyString(), anyString(), anyBoolean(), anyBoolean())).thenReturn(false);
+        queue.enqueue("a@acme.test", "Announcement", "a");
+
+        queue.dispatch();
+
+        assertThat(count("failed")).isEqualTo(1);
+        assertThat(count("sent")).isZero();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("notification.mail", "outcome", outcome).count();
+    }
+
+    private record Sent(String to, String subject, String body) {}
+}
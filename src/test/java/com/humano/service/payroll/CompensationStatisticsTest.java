@@ -0,0 +1,168 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.humano.config.cache.CacheInvalidationBus;
+import com.humano.config.cache.InProcessInvalidationTransport;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.service.payroll.CompensationStatistics.DepartmentSummary;
+import com.humano.service.payroll.CompensationStatistics.EmployeeTotals;
+import com.humano.service.payroll.CompensationStatistics.Percentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CompensationStatistics}' incremental upkeep: after stale employees are
+ * reloaded, percentiles and department summaries must match a from-scratch computation over
+ * the same totals, as {@link TotalCompensationService} did with one statement per employee.
+ * The queries are replaced by an in-memory table of totals.
+ */
+class CompensationStatisticsTest {
+
+    private static final String TENANT = "acme";
+    private static final int YEAR = 2026;
+
+    private static final UUID ENGINEERING = UUID.randomUUID();
+    private static final UUID SALES = UUID.randomUUID();
+    private static final UUID FINANCE = UUID.randomUUID();
+
+    private final Map<UUID, EmployeeTotals> table = new HashMap<>();
+    private final List<Collection<UUID>> loads = new ArrayList<>();
+    private CompensationStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant(TENANT);
+        statistics = new CompensationStatistics(
+            new CacheInvalidationBus(new InProcessInvalidationTransport(), new SimpleMeterRegistry()),
+            new SimpleMeterRegistry()
+        ) {
+            @Override
+            Map<UUID, EmployeeTotals> load(int year, Collection<UUID> ids) {
+                loads.add(ids);
+                Map<UUID, EmployeeTotals> rows = new HashMap<>(table);
+                if (ids != null) {
+                    rows.keySet().retainAll(Set.copyOf(ids));
+                }
+                return rows;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void freshlyLoadedYearMatchesAFromScratchComputation() {
+        hire(ENGINEERING, 90_000, 5_000, 1_000);
+        hire(ENGINEERING, 90_000, 5_000, 1_000);
+        hire(SALES, 60_000, 20_000, 800);
+        hire(null, 70_000, 0, 0);
+
+        assertMatchesFromScratch();
+    }
+
+    @Test
+    void staleEmployeesAreReloadedToTheSameStatisticsAsAFromScratchComputation() {
+        UUID mover = hire(ENGINEERING, 100_000, 0, 2_000);
+        UUID tiedA = hire(ENGINEERING, 80_000, 10_000, 1_000);
+        UUID tiedB = hire(SALES, 85_000, 5_000, 1_000);
+        UUID raised = hire(SALES, 50_000, 0, 0);
+        UUID leaver = hire(SALES, 55_000, 0, 0);
+        UUID lone = hire(FINANCE, 120_000, 0, 0);
+        hire(null, 40_000, 0, 0);
+        assertMatchesFromScratch();
+
+        // A department change at the same total, a raise onto an existing tie, a leaver, a new
+        // hire joining the same tie, and the last member of a department leaving it.
+        table.put(mover, totals(SALES, 100_000, 0, 2_000));
+        table.put(raised, totals(SALES, 80_000, 10_000, 1_000));
+        table.remove(leaver);
+        UUID hired = hire(ENGINEERING, 91_000, 0, 0);
+        table.put(lone, totals(null, 120_000, 0, 0));
+        statistics.employeesChanged(TENANT, List.of(mover, raised, leaver, hired, lone));
+
+        assertMatchesFromScratch();
+        assertThat(statistics.percentile(leaver, YEAR)).isNull();
+        assertThat(loads.get(loads.size() - 1)).containsExactlyInAnyOrder(mover, raised, leaver, hired, lone);
+
+        // Breaking the tie again only moves the changed employee.
+        table.put(tiedA, totals(ENGINEERING, 80_000, 0, 1_000));
+        table.put(tiedB, totals(SALES, 85_000, 5_000, 1_000));
+        statistics.employeesChanged(TENANT, List.of(tiedA, tiedB));
+
+        assertMatchesFromScratch();
+        assertThat(loads).hasSize(3);
+    }
+
+    private void assertMatchesFromScratch() {
+        for (UUID employeeId : table.keySet()) {
+            assertThat(statistics.percentile(employeeId, YEAR)).as("percentile of %s", employeeId).isEqualTo(percentile(employeeId));
+        }
+        for (UUID departmentId : List.of(ENGINEERING, SALES, FINANCE, UUID.randomUUID())) {
+            assertThat(statistics.departmentSummary(departmentId, YEAR))
+                .as("summary of %s", departmentId)
+                .isEqualTo(departmentSummary(departmentId));
+        }
+    }
+
+    /** The employee's rank among all the others, as the per-statement endpoint computed it. */
+    private Percentile percentile(UUID employeeId) {
+        BigDecimal total = table.get(employeeId).total();
+        List<BigDecimal> others = table
+            .entrySet()
+            .stream()
+            .filter(entry -> !entry.getKey().equals(employeeId))
+            .map(entry -> entry.getValue().total())
+            .toList();
+        long below = others.stream().filter(other -> other.compareTo(total) < 0).count();
+        return new Percentile(total, below, others.size());
+    }
+
+    private DepartmentSummary departmentSummary(UUID departmentId) {
+        List<EmployeeTotals> members = table
+            .values()
+            .stream()
+            .filter(totals -> Objects.equals(totals.departmentId(), departmentId))
+            .toList();
+        return new DepartmentSummary(
+            members.size(),
+            members.stream().map(EmployeeTotals::baseSalary).reduce(BigDecimal.ZERO, BigDecimal::add),
+            members.stream().map(EmployeeTotals::bonuses).reduce(BigDecimal.ZERO, BigDecimal::add),
+            members.stream().map(EmployeeTotals::benefits).reduce(BigDecimal.ZERO, BigDecimal::add),
+            members.stream().map(EmployeeTotals::total).reduce(BigDecimal.ZERO, BigDecimal::add),
+            members.stream().map(EmployeeTotals::total).min(Comparator.naturalOrder()).orElse(BigDecimal.ZERO),
+            members.stream().map(EmployeeTotals::total).max(Comparator.naturalOrder()).orElse(BigDecimal.ZERO)
+        );
+    }
+
+    private UUID hire(UUID departmentId, long baseSalary, long bonuses, long benefits) {
+        UUID employeeId = UUID.randomUUID();
+        table.put(employeeId, totals(departmentId, baseSalary, bonuses, benefits));
+        return employeeId;
+    }
+
+    private static EmployeeTotals totals(UUID departmentId, long baseSalary, long bonuses, long benefits) {
+        return new EmployeeTotals(
+            departmentId,
+            BigDecimal.valueOf(baseSalary),
+            BigDecimal.valueOf(bonuses),
+            BigDecimal.valueOf(benefits),
+            BigDecimal.valueOf(baseSalary + bonuses + benefits)
+        );
+    }
+}
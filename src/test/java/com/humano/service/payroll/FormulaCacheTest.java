@@ -0,0 +1,90 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link FormulaCache}: per-tenant namespaces, the per-tenant cap and its
+ * eviction metric, and single loading under concurrent misses.
+ */
+class FormulaCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void loadsOncePerTenantAndKey() {
+        FormulaCache<String> cache = new FormulaCache<>(10, registry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("acme", "#a + 1", k -> "v" + loads.incrementAndGet());
+        cache.get("acme", "#a + 1", k -> "v" + loads.incrementAndGet());
+        cache.get("globex", "#a + 1", k -> "v" + loads.incrementAndGet());
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(registry.counter("payroll.formula.cache.requests", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(registry.counter("payroll.formula.cache.requests", "result", "miss").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void oneTenantsChurnDoesNotEvictAnotherTenantsEntries() {
+        FormulaCache<String> cache = new FormulaCache<>(10, registry);
+        for (int i = 0; i < 5; i++) {
+            cache.get("acme", "hot-" + i, k -> k);
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.get("globex", "churn-" + i, k -> k);
+        }
+
+        assertThat(cache.size("acme")).isEqualTo(5);
+        assertThat(cache.size("globex")).isLessThanOrEqualTo(10);
+        assertThat(registry.counter("payroll.formula.cache.evictions").count()).isPositive();
+    }
+
+    @Test
+    void capHoldsWithoutWaitingForBackgroundMaintenance() {
+        FormulaCache<String> cache = new FormulaCache<>(10, registry);
+        for (int i = 0; i < 50; i++) {
+            cache.get("acme", "formula-" + i, k -> k);
+        }
+
+        assertThat(cache.size("acme")).isEqualTo(10);
+        assertThat(registry.counter("payroll.formula.cache.evictions").count()).isEqualTo(40.0);
+        assertThat(registry.get("payroll.formula.cache.size").gauge().value()).isEqualTo(10.0);
+    }
+
+    @Test
+    void concurrentMissesOnOneFormulaLoadItOnce() throws Exception {
+        FormulaCache<String> cache = new FormulaCache<>(10, registry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] calls = new Future<?>[8];
+            for (int i = 0; i < calls.length; i++) {
+                calls[i] = workers.submit(() -> {
+                    start.await();
+                    return cache.get("acme", "#base * 0.1", k -> {
+                        loads.incrementAndGet();
+                        return k;
+                    });
+                });
+            }
+            start.countDown();
+            for (Future<?> call : calls) {
+                assertThat(call.get(10, TimeUnit.SECONDS)).isEqualTo("#base * 0.1");
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,243 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.domain.enumeration.hr.LeaveType;
+import com.humano.domain.payroll.Bonus;
+import com.humano.domain.payroll.Compensation;
+import com.humano.domain.payroll.LeaveTypeRule;
+import com.humano.domain.payroll.OrganizationSettings;
+import com.humano.domain.payroll.PayComponent;
+import com.humano.domain.payroll.PayRule;
+import com.humano.domain.payroll.PayrollInput;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.shared.Country;
+import com.humano.domain.shared.Employee;
+import com.humano.repository.hr.LeaveRequestRepository;
+import com.humano.repository.hr.projection.EmployeeCountryRow;
+import com.humano.repository.payroll.BonusRepository;
+import com.humano.repository.payroll.CompensationRepository;
+import com.humano.repository.payroll.DeductionRepository;
+import com.humano.repository.payroll.EmployeeBenefitRepository;
+import com.humano.repository.payroll.LeaveTypeRuleRepository;
+import com.humano.repository.payroll.OrganizationSettingsRepository;
+import com.humano.repository.payroll.PayRuleRepository;
+import com.humano.repository.payroll.PayrollInputRepository;
+import com.humano.repository.payroll.TaxWithholdingRepository;
+import com.humano.repository.shared.EmployeeRepository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Unit tests for {@link PayrollDataSnapshotLoader}: one query per dataset for the whole slice,
+ * with the rows split per employee (or per component) in the order the per-employee queries
+ * used to return them.
+ */
+class PayrollDataSnapshotLoaderTest {
+
+    private final CompensationRepository compensationRepository = mock(CompensationRepository.class);
+    private final PayrollInputRepository payrollInputRepository = mock(PayrollInputRepository.class);
+    private final BonusRepository bonusRepository = mock(BonusRepository.class);
+    private final DeductionRepository deductionRepository = mock(DeductionRepository.class);
+    private final EmployeeBenefitRepository employeeBenefitRepository = mock(EmployeeBenefitRepository.class);
+    private final TaxWithholdingRepository taxWithholdingRepository = mock(TaxWithholdingRepository.class);
+    private final LeaveRequestRepository leaveRequestRepository = mock(LeaveRequestRepository.class);
+    private final LeaveTypeRuleRepository leaveTypeRuleRepository = mock(LeaveTypeRuleRepository.class);
+    private final PayRuleRepository payRuleRepository = mock(PayRuleRepository.class);
+    private final TaxBracketTables taxBracketTables = mock(TaxBracketTables.class);
+    private final OrganizationSettingsRepository organizationSettingsRepository = mock(OrganizationSettingsRepository.class);
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final Employee alice = employee();
+    private final Employee bob = employee();
+    private final PayrollPeriod period = new PayrollPeriod();
+    private PayrollDataSnapshotLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        period.setId(UUID.randomUUID());
+        period.setStartDate(LocalDate.of(2026, 10, 1));
+        period.setEndDate(LocalDate.of(2026, 10, 31));
+        when(taxBracketTables.current()).thenReturn(TaxBracketTable.EMPTY);
+        loader = new PayrollDataSnapshotLoader(
+            compensationRepository,
+            payrollInputRepository,
+            bonusRepository,
+            deductionRepository,
+            employeeBenefitRepository,
+            taxWithholdingRepository,
+            leaveRequestRepository,
+            leaveTypeRuleRepository,
+            payRuleRepository,
+            taxBracketTables,
+            organizationSettingsRepository,
+            employeeRepository
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void everyDatasetIsReadOnceForTheWholeSlice() {
+        Country morocco = new Country();
+        morocco.setId(UUID.randomUUID());
+        when(employeeRepository.findCountriesByEmployeeIds(anyCollection())).thenReturn(
+            List.of(new EmployeeCountryRow(alice.getId(), morocco), new EmployeeCountryRow(bob.getId(), morocco))
+        );
+        PayrollInput aliceOvertime = input(alice);
+        PayrollInput bobOvertime = input(bob);
+        PayrollInput aliceBonusHours = input(alice);
+        when(payrollInputRepository.findAll(any(Specification.class))).thenReturn(List.of(aliceOvertime, bobOvertime, aliceBonusHours));
+
+        PayrollDataSnapshot snapshot = loader.load(period, List.of(alice.getId(), bob.getId()));
+
+        assertThat(snapshot.country(bob.getId())).isSameAs(morocco);
+        assertThat(snapshot.inputs(alice.getId())).containsExactly(aliceOvertime, aliceBonusHours);
+        assertThat(snapshot.inputs(bob.getId())).containsExactly(bobOvertime);
+        assertThat(snapshot.bonuses(bob.getId())).isEmpty();
+        verify(employeeRepository, times(1)).findCountriesByEmployeeIds(anyCollection());
+        verify(compensationRepository, times(1)).findAll(any(Specification.class), any(Sort.class));
+        verify(payrollInputRepository, times(1)).findAll(any(Specification.class));
+        verify(bonusRepository, times(1)).findAll(any(Specification.class));
+        verify(deductionRepository, times(1)).findAll(any(Specification.class));
+        verify(employeeBenefitRepository, times(1)).findAll(any(Specification.class));
+        verify(taxWithholdingRepository, times(1)).findAll(any(Specification.class));
+        verify(leaveRequestRepository, times(1)).findAll(any(Specification.class));
+        verify(payRuleRepository, times(1)).findAll(any(Specification.class));
+        verify(leaveTypeRuleRepository, times(1)).findAll(any(Sort.class));
+        verify(organizationSettingsRepository, times(1)).findAll();
+        verify(taxBracketTables, times(1)).current();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void firstCompensationReturnedPerEmployeeIsKept() {
+        Compensation aliceCurrent = compensation(alice, LocalDate.of(2026, 7, 1));
+        Compensation aliceFormer = compensation(alice, LocalDate.of(2025, 1, 1));
+        Compensation bobCurrent = compensation(bob, LocalDate.of(2024, 3, 1));
+        // Latest effectiveFrom first, as the query sorts.
+        when(compensationRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(
+            List.of(aliceCurrent, bobCurrent, aliceFormer)
+        );
+
+        PayrollDataSnapshot snapshot = loader.load(period, List.of(alice.getId(), bob.getId()));
+
+        assertThat(snapshot.compensation(alice.getId())).isSameAs(aliceCurrent);
+        assertThat(snapshot.compensation(bob.getId())).isSameAs(bobCurrent);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bonusesAreOrderedByAwardDateWithinEachEmployee() {
+        Bonus late = bonus(alice, LocalDate.of(2026, 10, 20));
+        Bonus early = bonus(alice, LocalDate.of(2026, 10, 5));
+        Bonus undated = bonus(alice, null);
+        when(bonusRepository.findAll(any(Specification.class))).thenReturn(List.of(undated, late, early));
+
+        PayrollDataSnapshot snapshot = loader.load(period, List.of(alice.getId()));
+
+        assertThat(snapshot.bonuses(alice.getId())).containsExactly(early, late, undated);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void activeRulesAreGroupedByComponentHighestPriorityFirst() {
+        PayComponent overtime = component();
+        PayComponent transport = component();
+        PayRule overtimeDefault = rule(overtime, null);
+        PayRule overtimeOverride = rule(overtime, 10);
+        PayRule transportFlat = rule(transport, 1);
+        when(payRuleRepository.findAll(any(Specification.class))).thenReturn(List.of(overtimeDefault, transportFlat, overtimeOverride));
+
+        PayrollDataSnapshot snapshot = loader.load(period, List.of(alice.getId()));
+
+        assertThat(snapshot.activeRules(overtime.getId())).containsExactly(overtimeOverride, overtimeDefault);
+        assertThat(snapshot.activeRules(transport.getId())).containsExactly(transportFlat);
+    }
+
+    @Test
+    void lowestIdLeaveRuleWinsPerCountryAndType() {
+        Country morocco = new Country();
+        morocco.setId(UUID.randomUUID());
+        LeaveTypeRule first = leaveRule(morocco, LeaveType.SICK);
+        LeaveTypeRule duplicate = leaveRule(morocco, LeaveType.SICK);
+        LeaveTypeRule countryless = leaveRule(null, LeaveType.VACATION);
+        // Ascending id, as the query sorts.
+        when(leaveTypeRuleRepository.findAll(any(Sort.class))).thenReturn(List.of(first, duplicate, countryless));
+
+        PayrollDataSnapshot snapshot = loader.load(period, List.of(alice.getId()));
+
+        assertThat(snapshot.leaveTypeRule(morocco.getId(), LeaveType.SICK)).isSameAs(first);
+        assertThat(snapshot.leaveTypeRule(morocco.getId(), LeaveType.VACATION)).isNull();
+    }
+
+    @Test
+    void tenantWithoutSavedSettingsGetsDefaults() {
+        assertThat(loader.load(period, List.of(alice.getId())).settings()).isNotNull();
+
+        OrganizationSettings saved = new OrganizationSettings();
+        when(organizationSettingsRepository.findAll()).thenReturn(List.of(saved));
+
+        assertThat(loader.load(period, List.of(alice.getId())).settings()).isSameAs(saved);
+    }
+
+    private static Employee employee() {
+        Employee employee = new Employee();
+        employee.setId(UUID.randomUUID());
+        return employee;
+    }
+
+    private static PayrollInput input(Employee employee) {
+        PayrollInput input = new PayrollInput();
+        input.setId(UUID.randomUUID());
+        input.setEmployee(employee);
+        return input;
+    }
+
+    private static Compensation compensation(Employee employee, LocalDate effectiveFrom) {
+        Compensation compensation = new Compensation();
+        compensation.setId(UUID.randomUUID());
+        compensation.setEmployee(employee);
+        compensation.setEffectiveFrom(effectiveFrom);
+        return compensation;
+    }
+
+    private static Bonus bonus(Employee employee, LocalDate awardDate) {
+        Bonus bonus = new Bonus();
+        bonus.setId(UUID.randomUUID());
+        bonus.setEmployee(employee);
+        bonus.setAwardDate(awardDate);
+        return bonus;
+    }
+
+    private static PayComponent component() {
+        PayComponent component = new PayComponent();
+        component.setId(UUID.randomUUID());
+        return component;
+    }
+
+    private static PayRule rule(PayComponent component, Integer priority) {
+        PayRule rule = new PayRule();
+        rule.setId(UUID.randomUUID());
+        rule.setPayComponent(component);
+        rule.setPriority(priority);
+        return rule;
+    }
+
+    private static LeaveTypeRule leaveRule(Country country, LeaveType leaveType) {
+        LeaveTypeRule rule = new LeaveTypeRule();
+        rule.setId(UUID.randomUUID());
+        rule.setCountry(country);
+        rule.setLeaveType(leaveType);
+        return rule;
+    }
+}
@@ -0,0 +1,114 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.humano.config.PayrollProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * Compiled mode must be a pure optimisation: for every formula shape the compiler covers, the
+ * result is identical to plain SpEL interpretation, and the sandbox still applies.
+ */
+class PayrollFormulaEngineCompiledModeTest {
+
+    private final PayrollFormulaEngine compiled = new PayrollFormulaEngine();
+    private final PayrollFormulaEngine interpreted = interpretedEngine();
+
+    private static PayrollFormulaEngine interpretedEngine() {
+        PayrollProperties properties = new PayrollProperties();
+        properties.getFormula().setCompiled(false);
+        return new PayrollFormulaEngine(properties, new SimpleMeterRegistry());
+    }
+
+    private static Map<String, Object> sampleVariables() {
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("grossSalary", new BigDecimal("10250.75"));
+        vars.put("baseSalary", new BigDecimal("9000.00"));
+        vars.put("workDays", 21);
+        vars.put("employeeYearsOfService", 7);
+        vars.put("employeeMaritalStatus", "MARRIED");
+        vars.put("employeeDependents", 2);
+        vars.put("employeeHireDate", LocalDate.of(2018, 3, 1));
+        vars.put("periodEndDate", LocalDate.of(2025, 6, 30));
+        vars.put("OT_QTY", new BigDecimal("12.5"));
+        vars.put("OT_RATE", new BigDecimal("45.10"));
+        vars.put("YTD_SOCIAL_SECURITY", new BigDecimal("8700"));
+        vars.put("SOCIAL_SECURITY_CAP", new BigDecimal("9000"));
+        vars.put("notWhitelisted", new BigDecimal("999"));
+        return vars;
+    }
+
+    private void assertSameResult(String formula) {
+        Map<String, Object> vars = sampleVariables();
+        BigDecimal expected = interpreted.evaluateFormula(formula, vars, BigDecimal.class);
+        BigDecimal actual = compiled.evaluateFormula(formula, vars, BigDecimal.class);
+        assertThat(actual).as(formula).isEqualTo(expected);
+    }
+
+    @Test
+    void compiledResultsMatchInterpretedResults() {
+        assertSameResult("#pct(#grossSalary, 6.2)");
+        assertSameResult("#cap(#pct(#grossSalary, 6.2), #threshold(#SOCIAL_SECURITY_CAP, #YTD_SOCIAL_SECURITY))");
+        assertSameResult("#OT_QTY * #OT_RATE * 1.5");
+        assertSameResult("#grossSalary / #workDays");
+        assertSameResult("#grossSalary / 3");
+        assertSameResult("#baseSalary * #WORKDAYS_IN_MONTH / #HOURS_IN_MONTH");
+        assertSameResult("#grossSalary % 7");
+        assertSameResult("-#grossSalary + 100");
+        assertSameResult("#round(#grossSalary / 12, 2)");
+        assertSameResult("#roundToIncrement(#grossSalary, 0.05)");
+        assertSameResult("#pct(#baseSalary, #min(5 * #employeeYearsOfService, 30))");
+        assertSameResult("#band(#max(0, #grossSalary - 1257), {{0, 3770, 0.20}, {3770, 11243, 0.40}, {11243, 9999999, 0.45}})");
+        assertSameResult("(#employeeMaritalStatus == 'MARRIED' and #employeeDependents > 0) ? #pct(#grossSalary, 22) : #pct(#grossSalary, 25)");
+        assertSameResult("#iif(#workDays >= 20 or #grossSalary < 0, #baseSalary, 0)");
+        assertSameResult("#yearsBetween(#employeeHireDate, #periodEndDate) * 100");
+        assertSameResult("#workDays / 4");
+        assertSameResult("#workDays * 2.5");
+        assertSameResult("!(#grossSalary != 10250.75) ? 1 : 0");
+    }
+
+    @Test
+    void unboundAndNonWhitelistedVariablesReadAsNull() {
+        assertSameResult("#notWhitelisted == null ? 1 : 2");
+        assertSameResult("#TAX_PIT == null ? #grossSalary : 0");
+        assertSameResult("#min(#missingValue, 5)");
+    }
+
+    @Test
+    void formulasOutsideTheCompiledSubsetStillEvaluate() {
+        // Indexers are not compiled at all; string concatenation falls back at evaluation time.
+        assertSameResult("{10, 20, 30}[1] + #workDays");
+        assertSameResult("('1' + '2') == '12' ? 3 : 4");
+    }
+
+    @Test
+    void typicalFormulasCompileToSlotIndexedTrees() {
+        CompiledFormula formula = CompiledFormula.compile(
+            new SpelExpressionParser().parseExpression("#pct(#grossSalary, 6.2) + #grossSalary + #notWhitelisted + #MONTHS_IN_YEAR"),
+            name -> name.equals("grossSalary"),
+            Map.of("MONTHS_IN_YEAR", BigDecimal.valueOf(12)),
+            Set.of("pct")
+        );
+        assertThat(formula).isNotNull();
+        assertThat(formula.slotCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sandboxStillRejectsForbiddenTokensAndOverlongFormulas() {
+        Map<String, Object> vars = sampleVariables();
+        assertThatThrownBy(() -> compiled.evaluateFormula("T(java.lang.Runtime).getRuntime().exec('id')", vars, BigDecimal.class))
+            .isInstanceOf(SecurityException.class);
+        assertThatThrownBy(() -> compiled.evaluateFormula("@someBean.value", vars, BigDecimal.class)).isInstanceOf(SecurityException.class);
+        assertThatThrownBy(() -> compiled.evaluateFormula("1+".repeat(1500) + "1", vars, BigDecimal.class)).isInstanceOf(
+            IllegalArgumentException.class
+        );
+    }
+}
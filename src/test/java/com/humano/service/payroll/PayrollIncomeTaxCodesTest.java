@@ -7,6 +7,7 @@ import com.humano.domain.enumeration.payroll.TaxType;
 import com.humano.domain.payroll.TaxBracket;
 import com.humano.service.payroll.PayrollProcessingService.IncomeTaxComponent;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
@@ -16,22 +17,28 @@ import org.junit.jupiter.api.Test;
 /**
  * Unit tests for {@link PayrollProcessingService#computeIncomeTaxes} — the multi-code income-tax
  * iteration behind step 7 (#2, bracket-based income tax beyond PIT). Drives the pure helper with
- * stubbed bracket-lookup / progressive-tax functions, so no payroll or DB stack is needed.
+ * stubbed schedule-lookup / progressive-tax functions, so no payroll or DB stack is needed.
  */
 class PayrollIncomeTaxCodesTest {
 
     private static final BigDecimal TAXABLE = new BigDecimal("50000");
 
     /** Stub progressive-tax: amount is deterministic from the bracket count so each code is distinguishable. */
-    private static final BiFunction<BigDecimal, List<TaxBracket>, BigDecimal> TAX_BY_BRACKET_COUNT = (income, brackets) ->
-        BigDecimal.valueOf(brackets.size() * 100L);
+    private static final BiFunction<BigDecimal, TaxBracketTable.Schedule, BigDecimal> TAX_BY_BRACKET_COUNT = (income, schedule) ->
+        BigDecimal.valueOf(schedule.size() * 100L);
 
-    private static List<TaxBracket> brackets(int n) {
-        return java.util.Collections.nCopies(n, new TaxBracket());
+    private static TaxBracketTable.Schedule brackets(int n) {
+        List<TaxBracket> brackets = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            brackets.add(
+                new TaxBracket().lower(BigDecimal.valueOf(i * 1000L)).upper(BigDecimal.valueOf((i + 1) * 1000L)).rate(BigDecimal.ONE)
+            );
+        }
+        return TaxBracketTable.Schedule.of(brackets);
     }
 
-    private static Function<TaxCode, List<TaxBracket>> lookup(Map<TaxCode, List<TaxBracket>> byCode) {
-        return code -> byCode.getOrDefault(code, List.of());
+    private static Function<TaxCode, TaxBracketTable.Schedule> lookup(Map<TaxCode, TaxBracketTable.Schedule> byCode) {
+        return code -> byCode.getOrDefault(code, TaxBracketTable.Schedule.EMPTY);
     }
 
     @Test
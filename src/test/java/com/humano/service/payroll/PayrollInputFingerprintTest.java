@@ -0,0 +1,96 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.humano.domain.payroll.PayComponent;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.service.payroll.PayrollInputFingerprint.TableVersion;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link PayrollInputFingerprint}'s table versions: a dirty-only recalculation
+ * must see employees as dirty after a pay rule, tax bracket or pay component is deleted, not
+ * just after one is edited. The tax-bracket version is the one of the compiled table the
+ * snapshot was built from.
+ */
+class PayrollInputFingerprintTest {
+
+    private static final Instant EDITED = Instant.parse("2026-10-01T08:00:00Z");
+    private static final UUID EMPLOYEE = UUID.randomUUID();
+
+    private final PayrollRun run = run();
+    private final List<PayComponent> components = List.of(component(EDITED), component(EDITED.minusSeconds(60)));
+
+    @Test
+    void unchangedInputsKeepTheFingerprint() {
+        String stored = fingerprint(new TableVersion(4, EDITED), new TableVersion(3, EDITED), components);
+
+        assertThat(fingerprint(new TableVersion(4, EDITED), new TableVersion(3, EDITED), components)).isEqualTo(stored);
+    }
+
+    @Test
+    void deletingATaxBracketMakesEmployeesDirty() {
+        String stored = fingerprint(new TableVersion(4, EDITED), new TableVersion(3, EDITED), components);
+
+        // The deleted bracket was not the latest edited one: only the row count tells.
+        assertThat(fingerprint(new TableVersion(4, EDITED), new TableVersion(2, EDITED), components)).isNotEqualTo(stored);
+    }
+
+    @Test
+    void deletingAPayRuleMakesEmployeesDirty() {
+        String stored = fingerprint(new TableVersion(4, EDITED), new TableVersion(3, EDITED), components);
+
+        assertThat(fingerprint(new TableVersion(3, EDITED), new TableVersion(3, EDITED), components)).isNotEqualTo(stored);
+    }
+
+    @Test
+    void deletingAPayComponentMakesEmployeesDirty() {
+        String stored = fingerprint(new TableVersion(4, EDITED), new TableVersion(3, EDITED), components);
+
+        assertThat(fingerprint(new TableVersion(4, EDITED), new TableVersion(3, EDITED), components.subList(0, 1))).isNotEqualTo(stored);
+    }
+
+    private String fingerprint(TableVersion payRules, TableVersion taxBrackets, List<PayComponent> payComponents) {
+        String runInputs = PayrollInputFingerprint.runInputs(run, payRules, payComponents);
+        return PayrollInputFingerprint.of(runInputs, EMPLOYEE, emptySnapshot(taxBrackets), null);
+    }
+
+    private static PayrollRun run() {
+        PayrollPeriod period = new PayrollPeriod();
+        period.setId(UUID.randomUUID());
+        PayrollRun run = new PayrollRun();
+        run.setId(UUID.randomUUID());
+        run.setPeriod(period);
+        return run;
+    }
+
+    private static PayComponent component(Instant lastModified) {
+        PayComponent component = new PayComponent();
+        component.setId(UUID.randomUUID());
+        component.setLastModifiedDate(lastModified);
+        return component;
+    }
+
+    private static PayrollDataSnapshot emptySnapshot(TableVersion taxBrackets) {
+        return new PayrollDataSnapshot(
+            null,
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            taxBrackets
+        );
+    }
+}
@@ -0,0 +1,306 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.config.PayrollProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.config.multitenancy.TenantDataSourceProvider;
+import com.humano.domain.enumeration.payroll.RunStatus;
+import com.humano.domain.payroll.OrganizationSettings;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.dto.payroll.response.PayrollRunResponse;
+import com.humano.repository.hr.projection.PayrollScopeRow;
+import com.humano.repository.payroll.CurrencyRepository;
+import com.humano.repository.payroll.PayComponentRepository;
+import com.humano.repository.payroll.PayRuleRepository;
+import com.humano.repository.payroll.PayrollLineRepository;
+import com.humano.repository.payroll.PayrollPeriodRepository;
+import com.humano.repository.payroll.PayrollResultRepository;
+import com.humano.repository.payroll.PayrollRunRepository;
+import com.humano.repository.payroll.TaxBracketRepository;
+import com.humano.repository.payroll.TaxWithholdingRepository;
+import com.humano.repository.shared.EmployeeRepository;
+import com.humano.security.AuthorityPermissionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Unit tests for {@link PayrollProcessingService#calculatePayroll}'s chunking: the scope is read
+ * in keyset pages, cut into chunks, and calculated either on the calling thread or by a worker
+ * count capped by the tenant's pool. The snapshot is empty, so every employee fails on its
+ * missing compensation, which makes the per-employee outcome visible in the error list.
+ */
+class PayrollProcessingServiceCalculationTest {
+
+    private static final int EMPLOYEES = 10;
+
+    private final PayrollRunRepository payrollRunRepository = mock(PayrollRunRepository.class);
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final PayrollResultWriter resultWriter = mock(PayrollResultWriter.class);
+    private final PayrollDataSnapshotLoader snapshotLoader = mock(PayrollDataSnapshotLoader.class);
+    private final AsyncTaskExecutor calculationExecutor = mock(AsyncTaskExecutor.class);
+    private final TenantDataSourceProvider tenantDataSourceProvider = mock(TenantDataSourceProvider.class);
+    private final PayrollProperties payrollProperties = new PayrollProperties();
+    private final ExecutorService workers = Executors.newFixedThreadPool(8);
+    private final List<PayrollScopeRow> scope = new ArrayList<>();
+    private final List<UUID> loaded = Collections.synchronizedList(new ArrayList<>());
+    private final PayrollRun run = new PayrollRun();
+    private PayrollProcessingService processingService;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("acme");
+        for (int i = 1; i <= EMPLOYEES; i++) {
+            scope.add(new PayrollScopeRow(new UUID(0L, i), "Employee", String.valueOf(i), null, null));
+        }
+        PayrollPeriod period = new PayrollPeriod();
+        period.setId(UUID.randomUUID());
+        period.setCode("2026-10");
+        period.setStartDate(LocalDate.of(2026, 10, 1));
+        period.setEndDate(LocalDate.of(2026, 10, 31));
+        run.setId(UUID.randomUUID());
+        run.setStatus(RunStatus.DRAFT);
+        run.setScope("ALL");
+        run.setPeriod(period);
+
+        PayrollProperties.Calculation calculation = payrollProperties.getCalculation();
+        calculation.setChunkSize(2);
+        calculation.setScopePageSize(4);
+        calculation.setPoolHeadroom(2);
+
+        when(payrollRunRepository.findById(run.getId())).thenReturn(Optional.of(run));
+        when(payrollRunRepository.save(any(PayrollRun.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(employeeRepository.findPayrollScopePage(anyCollection(), any(), any(), any())).thenAnswer(invocation -> {
+            UUID lastId = invocation.getArgument(2);
+            Limit limit = invocation.getArgument(3);
+            return scope.stream().filter(row -> row.id().compareTo(lastId) > 0).limit(limit.max()).toList();
+        });
+        when(snapshotLoader.load(any(), anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(1);
+            loaded.addAll(ids);
+            return emptySnapshot();
+        });
+        when(resultWriter.write(any(), any(), anyList())).thenReturn(PayrollResultWriter.WriteStats.EMPTY);
+        when(calculationExecutor.submit(any(Runnable.class))).thenAnswer(invocation ->
+            workers.submit((Runnable) invocation.getArgument(0))
+        );
+
+        processingService = new PayrollProcessingService(
+            payrollRunRepository,
+            mock(PayrollPeriodRepository.class),
+            mock(PayrollResultRepository.class),
+            mock(PayrollLineRepository.class),
+            mock(PayComponentRepository.class),
+            mock(PayRuleRepository.class),
+            employeeRepository,
+            mock(CurrencyRepository.class),
+            mock(TaxBracketRepository.class),
+            mock(TaxWithholdingRepository.class),
+            mock(PayrollFormulaEngine.class),
+            mock(DeductionService.class),
+            mock(BonusService.class),
+            mock(ExchangeRateService.class),
+            mock(AuthorityPermissionService.class),
+            resultWriter,
+            snapshotLoader,
+            new PayrollScopeResolver(employeeRepository, payrollProperties),
+            calculationExecutor,
+            payrollProperties,
+            tenantDataSourceProvider,
+            mock(ApplicationEventPublisher.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+        TenantContext.clear();
+    }
+
+    @Test
+    void sequentialModeCalculatesEveryChunkOnTheCallingThread() {
+        PayrollRunResponse response = processingService.calculatePayroll(run.getId());
+
+        verify(calculationExecutor, never()).submit(any(Runnable.class));
+        assertThat(response.validationErrors())
+            .extracting(PayrollRunResponse.PayrollValidationError::employeeId)
+            .containsExactlyElementsOf(ids());
+        assertThat(response.validationErrors().get(0).employeeName()).isEqualTo("Employee 1");
+        assertThat(response.validationErrors().get(0).message()).startsWith("No active compensation");
+        verify(resultWriter, times(5)).write(eq(run.getId()), eq(run.getPeriod().getId()), anyList());
+        verify(employeeRepository, times(3)).findPayrollScopePage(anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    void parallelModeRunsWorkersCappedByTheTenantPool() {
+        payrollProperties.getCalculation().setParallelism(8);
+        when(tenantDataSourceProvider.getMaximumPoolSize("acme")).thenReturn(6);
+
+        PayrollRunResponse response = processingService.calculatePayroll(run.getId());
+
+        // 6 connections - 1 for the orchestration transaction - 2 of headroom.
+        verify(calculationExecutor, times(3)).submit(any(Runnable.class));
+        assertThat(loaded).hasSize(EMPLOYEES).containsExactlyInAnyOrderElementsOf(ids());
+        verify(resultWriter, times(5)).write(eq(run.getId()), eq(run.getPeriod().getId()), anyList());
+        assertThat(run.getStatus()).isEqualTo(RunStatus.CALCULATED);
+        assertThat(run.getErrorCount()).isEqualTo(EMPLOYEES);
+        assertThat(response.validationErrors())
+            .as("merged in chunk order, as in sequential mode")
+            .extracting(PayrollRunResponse.PayrollValidationError::employeeId)
+            .containsExactlyElementsOf(ids());
+    }
+
+    @Test
+    void perTenantParallelismOverridesTheDefault() {
+        payrollProperties.getCalculation().setParallelism(8);
+        payrollProperties.getCalculation().setTenantParallelism(Map.of("acme", 2));
+        when(tenantDataSourceProvider.getMaximumPoolSize("acme")).thenReturn(20);
+
+        processingService.calculatePayroll(run.getId());
+
+        verify(calculationExecutor, times(2)).submit(any(Runnable.class));
+    }
+
+    @Test
+    void poolTooSmallForWorkersFallsBackToSequentialMode() {
+        payrollProperties.getCalculation().setParallelism(8);
+        when(tenantDataSourceProvider.getMaximumPoolSize("acme")).thenReturn(3);
+
+        PayrollRunResponse response = processingService.calculatePayroll(run.getId());
+
+        verify(calculationExecutor, never()).submit(any(Runnable.class));
+        assertThat(response.validationErrors()).hasSize(EMPLOYEES);
+    }
+
+    @Test
+    void singleChunkScopeIsNotSharedOut() {
+        payrollProperties.getCalculation().setParallelism(8);
+        payrollProperties.getCalculation().setChunkSize(EMPLOYEES);
+        payrollProperties.getCalculation().setScopePageSize(EMPLOYEES + 1);
+        when(tenantDataSourceProvider.getMaximumPoolSize("acme")).thenReturn(20);
+
+        processingService.calculatePayroll(run.getId());
+
+        verify(calculationExecutor, never()).submit(any(Runnable.class));
+        verify(resultWriter, times(1)).write(any(), any(), anyList());
+    }
+
+    @Test
+    void checkpointAdvancesOverCompletedChunksInScopeOrder() {
+        payrollProperties.getCalculation().setParallelism(8);
+        when(tenantDataSourceProvider.getMaximumPoolSize("acme")).thenReturn(6);
+
+        processingService.calculatePayroll(run.getId());
+
+        ArgumentCaptor<UUID> lastEmployee = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<Integer> errors = ArgumentCaptor.forClass(Integer.class);
+        verify(resultWriter, atLeastOnce()).checkpoint(eq(run.getId()), lastEmployee.capture(), anyInt(), errors.capture());
+        assertThat(lastEmployee.getAllValues()).isSorted().last().isEqualTo(scope.get(EMPLOYEES - 1).id());
+        assertThat(errors.getAllValues()).isSorted().last().isEqualTo(EMPLOYEES);
+        assertThat(run.getCheckpointEmployeeId()).as("cleared once the run is calculated").isNull();
+    }
+
+    @Test
+    void interruptedRunResumesAfterItsCheckpoint() {
+        payrollProperties.getCalculation().setParallelism(8);
+        when(tenantDataSourceProvider.getMaximumPoolSize("acme")).thenReturn(6);
+        run.setCheckpointEmployeeId(scope.get(3).id());
+        run.setProcessedCount(0);
+        run.setErrorCount(4);
+
+        PayrollRunResponse response = processingService.calculatePayroll(run.getId());
+
+        assertThat(loaded).containsExactlyInAnyOrderElementsOf(ids().subList(4, EMPLOYEES));
+        assertThat(response.validationErrors())
+            .extracting(PayrollRunResponse.PayrollValidationError::employeeId)
+            .containsExactlyElementsOf(ids().subList(4, EMPLOYEES));
+        assertThat(run.getErrorCount()).isEqualTo(EMPLOYEES);
+    }
+
+    @Test
+    void progressIsReportedOncePerChunkFromTheWorkers() {
+        payrollProperties.getCalculation().setParallelism(8);
+        when(tenantDataSourceProvider.getMaximumPoolSize("acme")).thenReturn(6);
+        when(employeeRepository.countPayrollScope(anyCollection())).thenReturn((long) EMPLOYEES);
+        List<Integer> started = new ArrayList<>();
+        AtomicInteger chunks = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        PayrollCalculationProgress progress = new PayrollCalculationProgress() {
+            @Override
+            public void started(int total, int alreadyProcessed, int alreadyFailed) {
+                started.addAll(List.of(total, alreadyProcessed, alreadyFailed));
+            }
+
+            @Override
+            public void chunkCompleted(int processed, int failed) {
+                chunks.incrementAndGet();
+                errors.addAndGet(failed);
+            }
+        };
+
+        processingService.calculatePayroll(run.getId(), progress);
+
+        assertThat(started).containsExactly(EMPLOYEES, 0, 0);
+        assertThat(chunks).hasValue(5);
+        assertThat(errors).hasValue(EMPLOYEES);
+    }
+
+    @Test
+    void silentProgressSkipsTheScopeCount() {
+        processingService.calculatePayroll(run.getId());
+
+        verify(employeeRepository, never()).countPayrollScope(anyCollection());
+    }
+
+    private List<UUID> ids() {
+        return scope.stream().map(PayrollScopeRow::id).toList();
+    }
+
+    private static PayrollDataSnapshot emptySnapshot() {
+        return new PayrollDataSnapshot(
+            new OrganizationSettings(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            Map.of(),
+            new PayrollInputFingerprint.TableVersion(0, null)
+        );
+    }
+}
@@ -0,0 +1,125 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.config.PayrollProperties;
+import com.humano.config.multitenancy.TenantDataSourceProvider;
+import com.humano.domain.enumeration.payroll.RunStatus;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.dto.payroll.request.RecalculatePayrollRequest;
+import com.humano.repository.payroll.CurrencyRepository;
+import com.humano.repository.payroll.PayComponentRepository;
+import com.humano.repository.payroll.PayRuleRepository;
+import com.humano.repository.payroll.PayrollLineRepository;
+import com.humano.repository.payroll.PayrollPeriodRepository;
+import com.humano.repository.payroll.PayrollResultRepository;
+import com.humano.repository.payroll.PayrollRunRepository;
+import com.humano.repository.payroll.TaxBracketRepository;
+import com.humano.repository.payroll.TaxWithholdingRepository;
+import com.humano.repository.shared.EmployeeRepository;
+import com.humano.security.AuthorityPermissionService;
+import com.humano.service.errors.BusinessRuleViolationException;
+import com.humano.service.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+/**
+ * Unit tests for {@link PayrollProcessingService#recalculatePayroll}'s status handling: the run
+ * is reset to DRAFT (through {@link PayrollResultWriter#resetForRecalculation}, its own
+ * transaction) before anything is calculated or written. The calculation is stopped where it
+ * opens the scope, which is all these tests need to see.
+ */
+class PayrollProcessingServiceRecalculationTest {
+
+    private final PayrollRunRepository payrollRunRepository = mock(PayrollRunRepository.class);
+    private final PayrollResultWriter resultWriter = mock(PayrollResultWriter.class);
+    private final PayrollScopeResolver scopeResolver = mock(PayrollScopeResolver.class);
+    private final PayrollRun run = new PayrollRun();
+    private PayrollProcessingService processingService;
+
+    @BeforeEach
+    void setUp() {
+        run.setId(UUID.randomUUID());
+        run.setStatus(RunStatus.APPROVED);
+        run.setScope("ALL");
+        PayrollPeriod period = new PayrollPeriod();
+        period.setId(UUID.randomUUID());
+        run.setPeriod(period);
+        when(payrollRunRepository.findById(run.getId())).thenReturn(Optional.of(run));
+        when(scopeResolver.open(anyString(), any(), any())).thenThrow(new IllegalStateException("calculation started"));
+
+        processingService = new PayrollProcessingService(
+            payrollRunRepository,
+            mock(PayrollPeriodRepository.class),
+            mock(PayrollResultRepository.class),
+            mock(PayrollLineRepository.class),
+            mock(PayComponentRepository.class),
+            mock(PayRuleRepository.class),
+            mock(EmployeeRepository.class),
+            mock(CurrencyRepository.class),
+            mock(TaxBracketRepository.class),
+            mock(TaxWithholdingRepository.class),
+            mock(PayrollFormulaEngine.class),
+            mock(DeductionService.class),
+            mock(BonusService.class),
+            mock(ExchangeRateService.class),
+            mock(AuthorityPermissionService.class),
+            resultWriter,
+            mock(PayrollDataSnapshotLoader.class),
+            scopeResolver,
+            mock(AsyncTaskExecutor.class),
+            new PayrollProperties(),
+            mock(TenantDataSourceProvider.class),
+            mock(ApplicationEventPublisher.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void runIsResetToDraftBeforeItIsLoadedAndCalculated() {
+        when(resultWriter.resetForRecalculation(run.getId())).thenReturn(true);
+
+        assertThatThrownBy(() -> processingService.recalculatePayroll(request())).hasMessage("calculation started");
+
+        InOrder order = inOrder(resultWriter, payrollRunRepository, scopeResolver);
+        order.verify(resultWriter).resetForRecalculation(run.getId());
+        order.verify(payrollRunRepository).findById(run.getId());
+        order.verify(scopeResolver).open(anyString(), any(), any());
+        verify(resultWriter, never()).write(any(), any(), any());
+    }
+
+    @Test
+    void postedRunIsNotRecalculated() {
+        run.setStatus(RunStatus.POSTED);
+        when(resultWriter.resetForRecalculation(run.getId())).thenReturn(false);
+
+        assertThatThrownBy(() -> processingService.recalculatePayroll(request())).isInstanceOf(BusinessRuleViolationException.class);
+
+        verify(scopeResolver, never()).open(anyString(), any(), any());
+    }
+
+    @Test
+    void unknownRunIsNotFound() {
+        RecalculatePayrollRequest request = new RecalculatePayrollRequest(UUID.randomUUID(), null, true, null, null, false);
+
+        assertThatThrownBy(() -> processingService.recalculatePayroll(request)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private RecalculatePayrollRequest request() {
+        return new RecalculatePayrollRequest(run.getId(), null, true, null, "rates corrected", false);
+    }
+}
@@ -0,0 +1,163 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.humano.domain.payroll.PayrollLine;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.payroll.PayrollResult;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.domain.shared.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Unit tests for {@link PayrollResultWriter#write}: a chunk is written with one lookup of the
+ * existing results, one bulk delete of their lines and one flush, and the drafts themselves are
+ * never persisted, so the same drafts can be written again.
+ */
+class PayrollResultWriterTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    @SuppressWarnings("unchecked")
+    private final TypedQuery<PayrollResult> existingQuery = mock(TypedQuery.class);
+    private final Query deleteLines = mock(Query.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Object> persisted = new ArrayList<>();
+    private final UUID runId = UUID.randomUUID();
+    private final UUID periodId = UUID.randomUUID();
+    private PayrollResultWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.createQuery(anyString(), eq(PayrollResult.class))).thenReturn(existingQuery);
+        when(existingQuery.setParameter(anyString(), any())).thenReturn(existingQuery);
+        when(entityManager.createQuery(anyString())).thenReturn(deleteLines);
+        when(deleteLines.setParameter(anyString(), any())).thenReturn(deleteLines);
+        when(entityManager.getReference(eq(Employee.class), any())).thenAnswer(invocation -> {
+            Employee employee = new Employee();
+            employee.setId(invocation.getArgument(1));
+            return employee;
+        });
+        when(entityManager.getReference(PayrollRun.class, runId)).thenReturn(new PayrollRun());
+        when(entityManager.getReference(PayrollPeriod.class, periodId)).thenReturn(new PayrollPeriod());
+        // Ids are generated in memory at persist, as @UuidGenerator does.
+        doAnswer(invocation -> {
+            Object entity = invocation.getArgument(0);
+            if (entity instanceof PayrollResult result) {
+                result.setId(UUID.randomUUID());
+            } else if (entity instanceof PayrollLine line) {
+                line.setId(UUID.randomUUID());
+            }
+            return persisted.add(entity);
+        })
+            .when(entityManager)
+            .persist(any());
+        writer = new PayrollResultWriter(meterRegistry);
+        ReflectionTestUtils.setField(writer, "entityManager", entityManager);
+    }
+
+    @Test
+    void newResultsAndTheirLinesAreInsertedAndFlushedOnce() {
+        PayrollResultWriter.Draft alice = draft(UUID.randomUUID(), "5000.00", 2);
+        PayrollResultWriter.Draft bob = draft(UUID.randomUUID(), "4200.00", 1);
+
+        PayrollResultWriter.WriteStats stats = writer.write(runId, periodId, List.of(alice, bob));
+
+        assertThat(stats).isEqualTo(new PayrollResultWriter.WriteStats(2, 3));
+        assertThat(stats.rows()).isEqualTo(5);
+        List<PayrollResult> results = persisted(PayrollResult.class);
+        assertThat(results).extracting(r -> r.getEmployee().getId()).containsExactly(alice.employeeId(), bob.employeeId());
+        assertThat(results).extracting(PayrollResult::getGross).containsExactly(new BigDecimal("5000.00"), new BigDecimal("4200.00"));
+        assertThat(persisted(PayrollLine.class))
+            .extracting(PayrollLine::getResult)
+            .containsExactly(results.get(0), results.get(0), results.get(1));
+        verify(entityManager, never()).createQuery(anyString());
+        InOrder order = inOrder(entityManager);
+        order.verify(entityManager, times(1)).flush();
+        order.verify(entityManager, times(1)).clear();
+        assertThat(meterRegistry.counter("payroll.calculation.rows.written", "entity", "result").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("payroll.calculation.rows.written", "entity", "line").count()).isEqualTo(3);
+        assertThat(meterRegistry.timer("payroll.calculation.write").count()).isEqualTo(1);
+    }
+
+    @Test
+    void existingResultIsUpdatedInPlaceAndItsOldLinesBulkDeleted() {
+        PayrollResultWriter.Draft alice = draft(UUID.randomUUID(), "5100.00", 2);
+        PayrollResult stored = new PayrollResult();
+        stored.setId(UUID.randomUUID());
+        Employee employee = new Employee();
+        employee.setId(alice.employeeId());
+        stored.setEmployee(employee);
+        stored.setGross(new BigDecimal("5000.00"));
+        when(existingQuery.getResultList()).thenReturn(List.of(stored));
+
+        PayrollResultWriter.WriteStats stats = writer.write(runId, periodId, List.of(alice));
+
+        assertThat(stats).isEqualTo(new PayrollResultWriter.WriteStats(1, 2));
+        assertThat(stored.getGross()).isEqualByComparingTo("5100.00");
+        assertThat(stored.getInputHash()).isEqualTo(alice.result().getInputHash());
+        assertThat(persisted(PayrollResult.class)).as("kept its id, not re-inserted").isEmpty();
+        assertThat(persisted(PayrollLine.class)).extracting(PayrollLine::getResult).containsOnly(stored);
+        verify(deleteLines).setParameter("resultIds", List.of(stored.getId()));
+        verify(deleteLines, times(1)).executeUpdate();
+    }
+
+    @Test
+    void draftsAreCopiedSoTheyCanBeWrittenAgain() {
+        PayrollResultWriter.Draft alice = draft(UUID.randomUUID(), "5000.00", 1);
+
+        writer.write(runId, periodId, List.of(alice));
+        writer.write(runId, periodId, List.of(alice));
+
+        assertThat(persisted).hasSize(4).noneMatch(entity -> entity == alice.result() || entity == alice.lines().get(0));
+        assertThat(persisted(PayrollResult.class)).extracting(PayrollResult::getId).doesNotHaveDuplicates();
+        assertThat(alice.result().getId()).isNull();
+        assertThat(alice.result().getRun()).isNull();
+    }
+
+    @Test
+    void emptyChunkTouchesNothing() {
+        assertThat(writer.write(runId, periodId, List.of())).isSameAs(PayrollResultWriter.WriteStats.EMPTY);
+
+        verifyNoInteractions(entityManager);
+    }
+
+    private static PayrollResultWriter.Draft draft(UUID employeeId, String gross, int lineCount) {
+        PayrollResult result = new PayrollResult();
+        result.setGross(new BigDecimal(gross));
+        result.setInputHash("hash-" + employeeId);
+        List<PayrollLine> lines = new ArrayList<>();
+        for (int i = 1; i <= lineCount; i++) {
+            PayrollLine line = new PayrollLine();
+            line.setSequence(i);
+            line.setAmount(new BigDecimal(gross));
+            lines.add(line);
+        }
+        return new PayrollResultWriter.Draft(employeeId, result, lines);
+    }
+
+    private <T> List<T> persisted(Class<T> type) {
+        return persisted.stream().filter(type::isInstance).map(type::cast).toList();
+    }
+}
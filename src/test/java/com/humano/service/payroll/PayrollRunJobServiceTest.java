@@ -0,0 +1,178 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.humano.config.PayrollProperties;
+import com.humano.config.multitenancy.TenantContext;
+import com.humano.config.multitenancy.TenantDataSourceProvider;
+import com.humano.dto.payroll.response.PayrollRunJobResponse;
+import com.humano.service.errors.BusinessRuleViolationException;
+import com.humano.service.errors.ConflictException;
+import com.humano.service.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Unit tests for {@link PayrollRunJobService}'s job bookkeeping and progress. Submitted jobs are
+ * held by a stub executor and only run when the test says so, so they can be observed while
+ * queued.
+ */
+class PayrollRunJobServiceTest {
+
+    private final PayrollProcessingService processingService = mock(PayrollProcessingService.class);
+    private final PayslipPdfBatchService pdfBatchService = mock(PayslipPdfBatchService.class);
+    private final AsyncTaskExecutor executor = mock(AsyncTaskExecutor.class);
+    private final Deque<Runnable> queued = new ArrayDeque<>();
+    private PayrollRunJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        TenantContext.setCurrentTenant("acme");
+        doAnswer(invocation -> queued.add(invocation.getArgument(0))).when(executor).execute(any(Runnable.class));
+        jobService = new PayrollRunJobService(
+            processingService,
+            pdfBatchService,
+            executor,
+            mock(TenantDataSourceProvider.class),
+            new PayrollProperties(),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void resubmittingTheSameKindReturnsTheActiveJob() {
+        UUID runId = UUID.randomUUID();
+
+        PayrollRunJobResponse first = jobService.submitCalculation(runId);
+        PayrollRunJobResponse second = jobService.submitCalculation(runId);
+
+        assertThat(second.jobId()).isEqualTo(first.jobId());
+        assertThat(queued).hasSize(1);
+    }
+
+    @Test
+    void anotherKindOnARunWithAnActiveJobIsRejected() {
+        UUID runId = UUID.randomUUID();
+        jobService.submitCalculation(runId);
+
+        assertThatThrownBy(() -> jobService.submitPayslipPdfs(runId)).isInstanceOf(ConflictException.class);
+        assertThat(queued).hasSize(1);
+    }
+
+    @Test
+    void calculationIsRejectedWhileThePdfJobIsActive() {
+        UUID runId = UUID.randomUUID();
+        jobService.submitPayslipPdfs(runId);
+
+        assertThatThrownBy(() -> jobService.submitCalculation(runId)).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void anotherKindIsQueuedOnceTheActiveJobHasFinished() {
+        UUID runId = UUID.randomUUID();
+        PayrollRunJobResponse calculation = jobService.submitCalculation(runId);
+        queued.poll().run();
+
+        PayrollRunJobResponse pdfs = jobService.submitPayslipPdfs(runId);
+
+        assertThat(pdfs.jobId()).isNotEqualTo(calculation.jobId());
+        assertThat(pdfs.kind()).isEqualTo(PayrollRunJobResponse.Kind.PAYSLIP_PDFS);
+        assertThat(pdfs.status()).isEqualTo(PayrollRunJobResponse.Status.QUEUED);
+    }
+
+    @Test
+    void jobsOfOtherRunsDoNotConflict() {
+        jobService.submitCalculation(UUID.randomUUID());
+
+        jobService.submitPayslipPdfs(UUID.randomUUID());
+
+        assertThat(queued).hasSize(2);
+    }
+
+    @Test
+    void progressReportedByTheCalculationIsVisibleWhileItRuns() {
+        UUID runId = UUID.randomUUID();
+        AtomicReference<PayrollRunJobResponse> midRun = new AtomicReference<>();
+        PayrollRunJobResponse submitted = jobService.submitCalculation(runId);
+        when(processingService.calculatePayroll(eq(runId), any())).thenAnswer(invocation -> {
+            PayrollCalculationProgress progress = invocation.getArgument(1);
+            // Resumed after a checkpoint that had 10 processed and 2 failed.
+            progress.started(100, 10, 2);
+            progress.chunkCompleted(20, 1);
+            midRun.set(jobService.getJob(submitted.jobId()));
+            progress.chunkCompleted(30, 0);
+            return null;
+        });
+
+        queued.poll().run();
+
+        assertThat(midRun.get().status()).isEqualTo(PayrollRunJobResponse.Status.RUNNING);
+        assertThat(midRun.get().total()).isEqualTo(100);
+        assertThat(midRun.get().processed()).isEqualTo(30);
+        assertThat(midRun.get().errors()).isEqualTo(3);
+        assertThat(midRun.get().throughput()).isPositive();
+        assertThat(midRun.get().etaSeconds()).isNotNull();
+        PayrollRunJobResponse finished = jobService.getJob(submitted.jobId());
+        assertThat(finished.status()).isEqualTo(PayrollRunJobResponse.Status.SUCCEEDED);
+        assertThat(finished.processed()).isEqualTo(60);
+        assertThat(finished.errors()).isEqualTo(3);
+        assertThat(finished.etaSeconds()).isZero();
+        assertThat(finished.finishedAt()).isNotNull();
+    }
+
+    @Test
+    void failedCalculationIsReportedWithItsMessage() {
+        UUID runId = UUID.randomUUID();
+        when(processingService.calculatePayroll(eq(runId), any())).thenThrow(
+            new BusinessRuleViolationException("Can only calculate payroll for DRAFT or CALCULATED runs")
+        );
+        PayrollRunJobResponse submitted = jobService.submitCalculation(runId);
+
+        queued.poll().run();
+
+        PayrollRunJobResponse failed = jobService.getJob(submitted.jobId());
+        assertThat(failed.status()).isEqualTo(PayrollRunJobResponse.Status.FAILED);
+        assertThat(failed.failureMessage()).isEqualTo("Can only calculate payroll for DRAFT or CALCULATED runs");
+        assertThat(failed.throughput()).isNull();
+    }
+
+    @Test
+    void jobOfAnotherTenantIsNotFound() {
+        PayrollRunJobResponse submitted = jobService.submitCalculation(UUID.randomUUID());
+
+        TenantContext.setCurrentTenant("globex");
+
+        assertThatThrownBy(() -> jobService.getJob(submitted.jobId())).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void jobRefusedByAFullQueueIsForgotten() {
+        UUID runId = UUID.randomUUID();
+        doThrow(new TaskRejectedException("queue full")).when(executor).execute(any(Runnable.class));
+
+        assertThatThrownBy(() -> jobService.submitCalculation(runId)).isInstanceOf(BusinessRuleViolationException.class);
+
+        doAnswer(invocation -> queued.add(invocation.getArgument(0))).when(executor).execute(any(Runnable.class));
+        assertThat(jobService.submitPayslipPdfs(runId).status()).isEqualTo(PayrollRunJobResponse.Status.QUEUED);
+    }
+}
@@ -0,0 +1,142 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.config.PayrollProperties;
+import com.humano.domain.enumeration.hr.EmployeeStatus;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.repository.hr.projection.PayrollScopeRow;
+import com.humano.repository.shared.EmployeeRepository;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Unit tests for {@link PayrollScopeResolver}: the scope is read in keyset pages that each start
+ * after the last id of the previous one, a short page ends the scan, and a cursor can start
+ * after a checkpoint.
+ */
+class PayrollScopeResolverTest {
+
+    private static final LocalDate PERIOD_END = LocalDate.of(2026, 10, 31);
+
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final PayrollProperties payrollProperties = new PayrollProperties();
+    private final List<PayrollScopeRow> scope = new ArrayList<>();
+    private final List<UUID> afterIds = new ArrayList<>();
+    private final PayrollPeriod period = new PayrollPeriod();
+    private PayrollScopeResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 1; i <= 7; i++) {
+            scope.add(new PayrollScopeRow(new UUID(0L, i), "Employee", String.valueOf(i), null, null));
+        }
+        period.setEndDate(PERIOD_END);
+        payrollProperties.getCalculation().setScopePageSize(3);
+        when(employeeRepository.findPayrollScopePage(anyCollection(), any(), any(), any())).thenAnswer(invocation -> {
+            UUID afterId = invocation.getArgument(2);
+            Limit limit = invocation.getArgument(3);
+            afterIds.add(afterId);
+            return scope.stream().filter(row -> row.id().compareTo(afterId) > 0).limit(limit.max()).toList();
+        });
+        resolver = new PayrollScopeResolver(employeeRepository, payrollProperties);
+    }
+
+    @Test
+    void pagesContinueAfterTheLastIdOfThePreviousPage() {
+        PayrollScopeResolver.Cursor cursor = resolver.open("ALL", period);
+
+        assertThat(cursor.nextPage()).extracting(PayrollScopeRow::id).containsExactlyElementsOf(ids(0, 3));
+        assertThat(cursor.nextPage()).extracting(PayrollScopeRow::id).containsExactlyElementsOf(ids(3, 6));
+        assertThat(cursor.isExhausted()).isFalse();
+        assertThat(cursor.nextPage()).extracting(PayrollScopeRow::id).containsExactlyElementsOf(ids(6, 7));
+
+        assertThat(afterIds).containsExactly(PayrollScopeResolver.FIRST_PAGE, scope.get(2).id(), scope.get(5).id());
+        assertThat(cursor.rowsRead()).isEqualTo(7);
+    }
+
+    @Test
+    void shortPageEndsTheScanWithoutAnotherQuery() {
+        PayrollScopeResolver.Cursor cursor = resolver.open("ALL", period);
+        cursor.nextPage();
+        cursor.nextPage();
+        cursor.nextPage();
+
+        assertThat(cursor.isExhausted()).isTrue();
+        assertThat(cursor.nextPage()).isEmpty();
+        assertThat(afterIds).hasSize(3);
+    }
+
+    @Test
+    void fullLastPageCostsOneEmptyQuery() {
+        scope.remove(6);
+        PayrollScopeResolver.Cursor cursor = resolver.open("ALL", period);
+
+        assertThat(cursor.nextPage()).hasSize(3);
+        assertThat(cursor.nextPage()).hasSize(3);
+        assertThat(cursor.nextPage()).isEmpty();
+
+        assertThat(cursor.isExhausted()).isTrue();
+        assertThat(afterIds).hasSize(3);
+    }
+
+    @Test
+    void cursorResumesAfterTheCheckpoint() {
+        PayrollScopeResolver.Cursor cursor = resolver.open("ALL", period, scope.get(3).id());
+
+        assertThat(cursor.nextPage()).extracting(PayrollScopeRow::id).containsExactlyElementsOf(ids(4, 7));
+        assertThat(afterIds).containsExactly(scope.get(3).id());
+    }
+
+    @Test
+    void pagesAreReadAsOfThePeriodEndWithTheConfiguredSize() {
+        resolver.open("ALL", period).nextPage();
+
+        ArgumentCaptor<Limit> limit = ArgumentCaptor.forClass(Limit.class);
+        verify(employeeRepository).findPayrollScopePage(eq(EnumSet.of(EmployeeStatus.ACTIVE)), eq(PERIOD_END), any(), limit.capture());
+        assertThat(limit.getValue().max()).isEqualTo(3);
+    }
+
+    @Test
+    void scopesOtherThanAllAreNotFilteredByStatus() {
+        resolver.open("DEPARTMENT", period).nextPage();
+        when(employeeRepository.countPayrollScope(anyCollection())).thenReturn(12L);
+
+        assertThat(resolver.count("DEPARTMENT")).isEqualTo(12);
+
+        verify(employeeRepository).findPayrollScopePage(eq(EnumSet.allOf(EmployeeStatus.class)), any(), any(), any());
+        verify(employeeRepository).countPayrollScope(EnumSet.allOf(EmployeeStatus.class));
+    }
+
+    @Test
+    void allCountsActiveEmployeesOnly() {
+        when(employeeRepository.countPayrollScope(EnumSet.of(EmployeeStatus.ACTIVE))).thenReturn(7L);
+
+        assertThat(resolver.count("ALL")).isEqualTo(7);
+    }
+
+    @Test
+    void resolveIdsReadsEveryPage() {
+        assertThat(resolver.resolveIds("ALL", period)).containsExactlyElementsOf(ids(0, 7));
+
+        verify(employeeRepository, times(3)).findPayrollScopePage(anyCollection(), any(), any(), any());
+    }
+
+    private List<UUID> ids(int from, int to) {
+        return scope.subList(from, to).stream().map(PayrollScopeRow::id).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.domain.payroll.PayslipNumberSequence;
+import com.humano.repository.payroll.PayslipNumberSequenceRepository;
+import com.humano.repository.payroll.PayslipRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Unit tests for {@link PayslipNumberAllocator}: blocks come from the locked sequence row, a new
+ * prefix is seeded after the highest stored number, and only a lost seed race is tolerated.
+ */
+class PayslipNumberAllocatorTest {
+
+    private static final String PREFIX = "2026-10";
+
+    private final PayslipNumberSequenceRepository sequenceRepository = mock(PayslipNumberSequenceRepository.class);
+    private final PayslipRepository payslipRepository = mock(PayslipRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private PayslipNumberAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {}
+
+            @Override
+            public void rollback(TransactionStatus status) {}
+        };
+        allocator = new PayslipNumberAllocator(sequenceRepository, payslipRepository, transactionManager);
+        ReflectionTestUtils.setField(allocator, "entityManager", entityManager);
+    }
+
+    @Test
+    void blockIsReservedFromTheLockedSequenceRow() {
+        PayslipNumberSequence sequence = new PayslipNumberSequence(PREFIX, 42);
+        when(sequenceRepository.existsById(PREFIX)).thenReturn(true);
+        when(sequenceRepository.findForUpdate(PREFIX)).thenReturn(Optional.of(sequence));
+
+        assertThat(allocator.reserve(PREFIX, 10)).isEqualTo(42);
+
+        assertThat(sequence.getNextValue()).isEqualTo(52);
+        verify(entityManager, never()).persist(any());
+    }
+
+    @Test
+    void newPrefixIsSeededAfterTheHighestStoredNumber() {
+        when(payslipRepository.findNumbersLike("PS-" + PREFIX + "-%")).thenReturn(
+            List.of("PS-2026-10-00007", "PS-2026-10-00012", "PS-2026-10-manual")
+        );
+        AtomicReference<PayslipNumberSequence> seeded = new AtomicReference<>();
+        doAnswer(invocation -> {
+            seeded.set(invocation.getArgument(0));
+            return null;
+        })
+            .when(entityManager)
+            .persist(any(PayslipNumberSequence.class));
+        when(sequenceRepository.findForUpdate(PREFIX)).thenAnswer(invocation -> Optional.of(seeded.get()));
+
+        assertThat(allocator.reserve(PREFIX, 3)).isEqualTo(13);
+
+        assertThat(seeded.get().getNextValue()).isEqualTo(16);
+    }
+
+    @Test
+    void loserOfASeedRaceUsesTheWinnersRow() {
+        doThrow(violation(ConstraintViolationException.ConstraintKind.UNIQUE)).when(entityManager).flush();
+        when(sequenceRepository.findForUpdate(PREFIX)).thenReturn(Optional.of(new PayslipNumberSequence(PREFIX, 20)));
+
+        assertThat(allocator.reserve(PREFIX, 5)).isEqualTo(20);
+    }
+
+    @Test
+    void otherConstraintViolationWhileSeedingPropagates() {
+        ConstraintViolationException notNull = violation(ConstraintViolationException.ConstraintKind.NOT_NULL);
+        doThrow(notNull).when(entityManager).flush();
+
+        assertThatThrownBy(() -> allocator.reserve(PREFIX, 5)).isSameAs(notNull);
+        verify(sequenceRepository, never()).findForUpdate(anyString());
+    }
+
+    @Test
+    void otherPersistenceFailureWhileSeedingPropagates() {
+        PersistenceException connectionLost = new PersistenceException("Communications link failure");
+        doThrow(connectionLost).when(entityManager).flush();
+
+        assertThatThrownBy(() -> allocator.reserve(PREFIX, 5)).isSameAs(connectionLost);
+        verify(sequenceRepository, never()).findForUpdate(anyString());
+    }
+
+    @Test
+    void nonPositiveCountIsRejected() {
+        assertThatThrownBy(() -> allocator.reserve(PREFIX, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ConstraintViolationException violation(ConstraintViolationException.ConstraintKind kind) {
+        return new ConstraintViolationException(
+            "could not execute statement",
+            new SQLException("constraint violated"),
+            "insert into payslip_number_sequence (next_value, prefix) values (?, ?)",
+            kind,
+            "pk_payslip_number_sequence"
+        );
+    }
+}
@@ -0,0 +1,281 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.config.PayrollProperties;
+import com.humano.domain.enumeration.payroll.Kind;
+import com.humano.domain.enumeration.payroll.PayComponentCode;
+import com.humano.domain.enumeration.payroll.RunStatus;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.repository.payroll.PayrollLineRepository;
+import com.humano.repository.payroll.PayrollRunRepository;
+import com.humano.repository.payroll.PayslipRepository;
+import com.humano.repository.payroll.projection.PayslipPdfLineRow;
+import com.humano.repository.payroll.projection.PayslipPdfRow;
+import com.humano.service.errors.BusinessRuleViolationException;
+import com.humano.service.storage.FileStorageService;
+import com.humano.service.storage.StorageChecksums;
+import com.humano.service.storage.StorageFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Unit tests for {@link PayslipPdfBatchService#renderRun}: only payslips without a PDF are
+ * rendered, chunk by chunk on a bounded number of workers, each PDF streamed into storage with
+ * its checksum, and a payslip that fails is left without a reference for the rerun.
+ */
+class PayslipPdfBatchServiceTest {
+
+    private final PayrollRunRepository runRepository = mock(PayrollRunRepository.class);
+    private final PayslipRepository payslipRepository = mock(PayslipRepository.class);
+    private final PayrollLineRepository lineRepository = mock(PayrollLineRepository.class);
+    private final PayslipPdfGenerator pdfGenerator = mock(PayslipPdfGenerator.class);
+    private final FileStorageService storage = mock(FileStorageService.class);
+    private final AsyncTaskExecutor pdfExecutor = mock(AsyncTaskExecutor.class);
+    private final PayrollProperties payrollProperties = new PayrollProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, byte[]> stored = new ConcurrentHashMap<>();
+    private final RecordingProgress progress = new RecordingProgress();
+    private final PayrollRun run = new PayrollRun();
+    private PayslipPdfBatchService batchService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        run.setId(UUID.randomUUID());
+        run.setStatus(RunStatus.APPROVED);
+        when(runRepository.findById(run.getId())).thenReturn(Optional.of(run));
+        when(payslipRepository.findPdfRows(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(this::row).toList();
+        });
+        when(lineRepository.findPdfLines(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> resultIds = invocation.getArgument(0);
+            return resultIds
+                .stream()
+                .map(id -> new PayslipPdfLineRow(id, PayComponentCode.BASIC, "Base salary", Kind.EARNING, null, null, BigDecimal.TEN, null))
+                .toList();
+        });
+        doAnswer(invocation -> {
+            PayslipPdfGenerator.PayslipPdfModel model = invocation.getArgument(0);
+            OutputStream out = invocation.getArgument(1);
+            out.write(("pdf " + model.payslipNumber()).getBytes(StandardCharsets.UTF_8));
+            return null;
+        })
+            .when(pdfGenerator)
+            .render(any(), any());
+        when(storage.store(any(FileStorageService.ContentWriter.class), anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            FileStorageService.ContentWriter writer = invocation.getArgument(0);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.writeTo(out);
+            String reference = invocation.getArgument(1) + "/" + invocation.getArgument(2);
+            stored.put(reference, out.toByteArray());
+            return reference;
+        });
+        // Workers run inline, one after the other; the first one drains the queue.
+        when(pdfExecutor.submit(any(Runnable.class))).thenAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return CompletableFuture.completedFuture(null);
+        });
+        StorageFactory storageFactory = mock(StorageFactory.class);
+        when(storageFactory.getStorageService()).thenReturn(storage);
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {}
+
+            @Override
+            public void rollback(TransactionStatus status) {}
+        };
+        payrollProperties.getPdf().setChunkSize(2);
+        payrollProperties.getPdf().setRenderThreads(4);
+        batchService = new PayslipPdfBatchService(
+            runRepository,
+            payslipRepository,
+            lineRepository,
+            pdfGenerator,
+            storageFactory,
+            pdfExecutor,
+            transactionManager,
+            payrollProperties,
+            meterRegistry
+        );
+    }
+
+    @Test
+    void missingPdfsAreRenderedInChunksAndStoredWithTheirChecksum() {
+        List<UUID> pending = ids(5);
+        when(payslipRepository.countByRunId(run.getId())).thenReturn(7L);
+        when(payslipRepository.findIdsWithoutPdfByRunId(run.getId())).thenReturn(pending);
+
+        batchService.renderRun(run.getId(), progress);
+
+        // 3 chunks of at most 2, so 3 workers although 4 threads are configured.
+        verify(pdfExecutor, times(3)).submit(any(Runnable.class));
+        verify(payslipRepository, times(3)).findPdfRows(anyCollection());
+        verify(lineRepository, times(3)).findPdfLines(anyCollection());
+        for (UUID id : pending) {
+            String reference = "payslips/" + number(id) + ".pdf";
+            assertThat(new String(stored.get(reference), StandardCharsets.UTF_8)).isEqualTo("pdf " + number(id));
+            verify(payslipRepository).updatePdfUrl(eq(id), eq(reference), eq(sha256(stored.get(reference))), any());
+        }
+        assertThat(progress.started).containsExactly(7, 2, 0);
+        assertThat(progress.chunks).hasValue(3);
+        assertThat(progress.processed).hasValue(5);
+        assertThat(progress.errors).hasValue(0);
+        assertThat(meterRegistry.counter("payroll.payslip.pdf", "outcome", "rendered").count()).isEqualTo(5);
+    }
+
+    @Test
+    void payslipThatFailsToRenderKeepsNoReference() {
+        List<UUID> pending = ids(2);
+        when(payslipRepository.countByRunId(run.getId())).thenReturn(2L);
+        when(payslipRepository.findIdsWithoutPdfByRunId(run.getId())).thenReturn(pending);
+        doAnswer(invocation -> {
+            PayslipPdfGenerator.PayslipPdfModel model = invocation.getArgument(0);
+            if (model.payslipNumber().equals(number(pending.get(0)))) {
+                throw new IllegalStateException("layout failed");
+            }
+            ((OutputStream) invocation.getArgument(1)).write(1);
+            return null;
+        })
+            .when(pdfGenerator)
+            .render(any(), any());
+
+        batchService.renderRun(run.getId(), progress);
+
+        verify(payslipRepository, never()).updatePdfUrl(eq(pending.get(0)), any(), any(), any());
+        verify(payslipRepository).updatePdfUrl(eq(pending.get(1)), any(), any(), any());
+        assertThat(progress.processed).hasValue(1);
+        assertThat(progress.errors).hasValue(1);
+        assertThat(meterRegistry.counter("payroll.payslip.pdf", "outcome", "failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void runWhosePdfsAreAllStoredRendersNothing() {
+        when(payslipRepository.countByRunId(run.getId())).thenReturn(3L);
+        when(payslipRepository.findIdsWithoutPdfByRunId(run.getId())).thenReturn(List.of());
+
+        batchService.renderRun(run.getId(), progress);
+
+        assertThat(progress.started).containsExactly(3, 3, 0);
+        verify(pdfExecutor, never()).submit(any(Runnable.class));
+    }
+
+    @Test
+    void unapprovedRunIsRejected() {
+        run.setStatus(RunStatus.CALCULATED);
+
+        assertThatThrownBy(() -> batchService.renderRun(run.getId(), progress)).isInstanceOf(BusinessRuleViolationException.class);
+
+        verify(payslipRepository, never()).findIdsWithoutPdfByRunId(any());
+    }
+
+    @Test
+    void runWithoutPayslipsIsRejected() {
+        when(payslipRepository.countByRunId(run.getId())).thenReturn(0L);
+
+        assertThatThrownBy(() -> batchService.renderRun(run.getId(), progress)).isInstanceOf(BusinessRuleViolationException.class);
+    }
+
+    private static List<UUID> ids(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            ids.add(new UUID(0L, i));
+        }
+        return ids;
+    }
+
+    private static String number(UUID payslipId) {
+        return "PS-2026-10-" + payslipId.getLeastSignificantBits();
+    }
+
+    private PayslipPdfRow row(UUID payslipId) {
+        return new PayslipPdfRow(
+            payslipId,
+            number(payslipId),
+            UUID.randomUUID(),
+            run.getId(),
+            "Employee",
+            String.valueOf(payslipId.getLeastSignificantBits()),
+            null,
+            null,
+            null,
+            "2026-10",
+            LocalDate.of(2026, 10, 1),
+            LocalDate.of(2026, 10, 31),
+            LocalDate.of(2026, 10, 31),
+            null,
+            BigDecimal.TEN,
+            BigDecimal.ZERO,
+            BigDecimal.TEN,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+    }
+
+    private static String sha256(byte[] content) {
+        MessageDigest digest = StorageChecksums.newSha256();
+        digest.update(content);
+        return StorageChecksums.hex(digest);
+    }
+
+    private static final class RecordingProgress implements PayrollCalculationProgress {
+
+        final List<Integer> started = new ArrayList<>();
+        final AtomicInteger chunks = new AtomicInteger();
+        final AtomicInteger processed = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+
+        @Override
+        public void started(int total, int alreadyProcessed, int alreadyFailed) {
+            started.addAll(List.of(total, alreadyProcessed, alreadyFailed));
+        }
+
+        @Override
+        public void chunkCompleted(int processed, int errors) {
+            chunks.incrementAndGet();
+            this.processed.addAndGet(processed);
+            this.errors.addAndGet(errors);
+        }
+    }
+}
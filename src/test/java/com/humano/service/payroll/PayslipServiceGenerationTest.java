@@ -0,0 +1,140 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.humano.domain.enumeration.payroll.RunStatus;
+import com.humano.domain.payroll.PayrollPeriod;
+import com.humano.domain.payroll.PayrollResult;
+import com.humano.domain.payroll.PayrollRun;
+import com.humano.domain.shared.Employee;
+import com.humano.dto.payroll.response.PayslipResponse;
+import com.humano.repository.payroll.PayrollLineRepository;
+import com.humano.repository.payroll.PayrollResultRepository;
+import com.humano.repository.payroll.PayrollRunRepository;
+import com.humano.repository.payroll.PayslipRepository;
+import com.humano.repository.shared.EmployeeRepository;
+import com.humano.service.errors.BusinessRuleViolationException;
+import com.humano.service.storage.StorageFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Unit tests for {@link PayslipService#generatePayslipsForRun}: the results still without a
+ * payslip are numbered from one block reservation and inserted in one batch, with no lookup per
+ * result.
+ */
+class PayslipServiceGenerationTest {
+
+    private final PayslipRepository payslipRepository = mock(PayslipRepository.class);
+    private final PayrollResultRepository resultRepository = mock(PayrollResultRepository.class);
+    private final PayrollRunRepository runRepository = mock(PayrollRunRepository.class);
+    private final PayrollLineRepository lineRepository = mock(PayrollLineRepository.class);
+    private final PayslipNumberAllocator numberAllocator = mock(PayslipNumberAllocator.class);
+    private final PayrollRun run = new PayrollRun();
+    private PayslipService payslipService;
+
+    @BeforeEach
+    void setUp() {
+        PayrollPeriod period = new PayrollPeriod();
+        period.setId(UUID.randomUUID());
+        period.setCode("2026-10");
+        period.setStartDate(LocalDate.of(2026, 10, 1));
+        period.setEndDate(LocalDate.of(2026, 10, 31));
+        run.setId(UUID.randomUUID());
+        run.setStatus(RunStatus.APPROVED);
+        run.setPeriod(period);
+        when(runRepository.findByIdForUpdate(run.getId())).thenReturn(Optional.of(run));
+        when(payslipRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        payslipService = new PayslipService(
+            payslipRepository,
+            resultRepository,
+            runRepository,
+            lineRepository,
+            mock(EmployeeRepository.class),
+            mock(PayslipPdfGenerator.class),
+            mock(StorageFactory.class),
+            numberAllocator
+        );
+    }
+
+    @Test
+    void resultsWithoutPayslipAreNumberedFromOneBlockAndInsertedTogether() {
+        List<PayrollResult> results = results(3);
+        when(resultRepository.findWithoutPayslipByRunId(run.getId())).thenReturn(results);
+        when(numberAllocator.reserve("2026-10", 3)).thenReturn(41L);
+
+        List<PayslipResponse> payslips = payslipService.generatePayslipsForRun(run.getId());
+
+        assertThat(payslips)
+            .extracting(PayslipResponse::number)
+            .containsExactly("PS-2026-10-00041", "PS-2026-10-00042", "PS-2026-10-00043");
+        List<UUID> resultIds = results.stream().map(PayrollResult::getId).toList();
+        assertThat(payslips).extracting(PayslipResponse::resultId).containsExactlyElementsOf(resultIds);
+        verify(numberAllocator, times(1)).reserve(anyString(), anyInt());
+        verify(payslipRepository, times(1)).saveAllAndFlush(anyList());
+        verify(lineRepository, times(1)).findWithComponentByResultIds(anyList());
+        verify(payslipRepository, never()).findAll(any(Specification.class));
+    }
+
+    @Test
+    void runWhoseResultsAllHavePayslipsGeneratesNothing() {
+        when(resultRepository.findWithoutPayslipByRunId(run.getId())).thenReturn(List.of());
+        when(resultRepository.countByRunId(run.getId())).thenReturn(5L);
+
+        assertThat(payslipService.generatePayslipsForRun(run.getId())).isEmpty();
+
+        verify(numberAllocator, never()).reserve(anyString(), anyInt());
+        verify(payslipRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void runWithoutResultsIsRejected() {
+        when(resultRepository.findWithoutPayslipByRunId(run.getId())).thenReturn(List.of());
+        when(resultRepository.countByRunId(run.getId())).thenReturn(0L);
+
+        assertThatThrownBy(() -> payslipService.generatePayslipsForRun(run.getId())).isInstanceOf(BusinessRuleViolationException.class);
+    }
+
+    @Test
+    void unapprovedRunIsRejectedBeforeAnyNumberIsReserved() {
+        run.setStatus(RunStatus.CALCULATED);
+
+        assertThatThrownBy(() -> payslipService.generatePayslipsForRun(run.getId())).isInstanceOf(BusinessRuleViolationException.class);
+
+        verify(numberAllocator, never()).reserve(anyString(), anyInt());
+        verify(resultRepository, never()).findWithoutPayslipByRunId(any());
+    }
+
+    private List<PayrollResult> results(int count) {
+        List<PayrollResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Employee employee = new Employee();
+            employee.setId(UUID.randomUUID());
+            employee.setFirstName("Employee");
+            employee.setLastName(String.valueOf(i));
+            PayrollResult result = new PayrollResult();
+            result.setId(UUID.randomUUID());
+            result.setRun(run);
+            result.setPayrollPeriod(run.getPeriod());
+            result.setEmployee(employee);
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,148 @@
+package com.humano.service.payroll;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.humano.domain.enumeration.payroll.TaxCode;
+import com.humano.domain.payroll.TaxBracket;
+import com.humano.domain.shared.Country;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TaxBracketTable}: the compiled schedule must compute exactly what the
+ * sort-and-slice loop it replaces computed, and the effective-date ranges must pick the brackets
+ * valid on the lookup date.
+ */
+class TaxBracketTableTest {
+
+    private static final Country COUNTRY = country();
+    private static final LocalDate JAN_2025 = LocalDate.of(2025, 1, 1);
+    private static final LocalDate JAN_2026 = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void taxMatchesTheSliceLoopForEveryBand() {
+        List<TaxBracket> brackets = List.of(
+            bracket("40000", "100000", "0.30", "0", JAN_2025, null),
+            bracket("0", "10000", "0", "0", JAN_2025, null),
+            bracket("10000", "40000", "0.20", "150", JAN_2025, null)
+        );
+        TaxBracketTable.Schedule schedule = TaxBracketTable.Schedule.of(brackets);
+
+        for (String income : List.of("-5", "0", "0.01", "9999.99", "10000", "10000.01", "40000", "65432.10", "100000", "250000")) {
+            BigDecimal value = new BigDecimal(income);
+            assertThat(schedule.tax(value)).as(income).isEqualByComparingTo(sliceLoop(value, brackets));
+        }
+        assertThat(schedule.tax(null)).isZero();
+    }
+
+    @Test
+    void taxMatchesTheSliceLoopOnRandomSchedules() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            List<TaxBracket> brackets = new ArrayList<>();
+            long lower = random.nextInt(3) * 500L;
+            for (int band = 0; band < 1 + random.nextInt(8); band++) {
+                long upper = lower + random.nextInt(20_000); // zero-width bands included
+                BigDecimal rate = BigDecimal.valueOf(random.nextInt(10_000), 4);
+                brackets.add(bracket(String.valueOf(lower), String.valueOf(upper), rate.toPlainString(), "0", JAN_2025, null));
+                lower = upper;
+            }
+            TaxBracketTable.Schedule schedule = TaxBracketTable.Schedule.of(brackets);
+            BigDecimal income = BigDecimal.valueOf(random.nextInt(200_000_00), 2);
+            assertThat(schedule.tax(income)).isEqualByComparingTo(sliceLoop(income, brackets));
+        }
+    }
+
+    @Test
+    void slicesAddUpToTheTax() {
+        TaxBracketTable.Schedule schedule = TaxBracketTable.Schedule.of(
+            List.of(bracket("0", "10000", "0.10", "0", JAN_2025, null), bracket("10000", "50000", "0.25", "0", JAN_2025, null))
+        );
+
+        List<TaxBracketTable.Slice> slices = schedule.slices(new BigDecimal("30000"));
+
+        assertThat(slices).extracting(TaxBracketTable.Slice::amount).containsExactly(new BigDecimal("10000"), new BigDecimal("20000"));
+        BigDecimal total = slices.stream().map(TaxBracketTable.Slice::tax).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(schedule.tax(new BigDecimal("30000"))).isEqualByComparingTo(total);
+    }
+
+    @Test
+    void picksTheBracketsValidOnTheLookupDate() {
+        TaxBracketTable table = TaxBracketTable.compile(
+            List.of(
+                bracket("0", "10000", "0.10", "0", JAN_2025, LocalDate.of(2025, 12, 31)),
+                bracket("0", "12000", "0.08", "0", JAN_2026, null),
+                bracket("10000", "50000", "0.20", "0", JAN_2025, LocalDate.of(2025, 12, 31))
+            )
+        );
+
+        assertThat(table.schedule(COUNTRY.getId(), TaxCode.PIT, LocalDate.of(2024, 12, 31)).isEmpty()).isTrue();
+        assertThat(table.schedule(COUNTRY.getId(), TaxCode.PIT, JAN_2025).size()).isEqualTo(2);
+        assertThat(table.schedule(COUNTRY.getId(), TaxCode.PIT, LocalDate.of(2025, 12, 31)).size()).isEqualTo(2);
+        assertThat(table.schedule(COUNTRY.getId(), TaxCode.PIT, JAN_2026).size()).isEqualTo(1);
+        assertThat(table.schedule(COUNTRY.getId(), TaxCode.PIT, LocalDate.of(2030, 6, 1)).tax(new BigDecimal("1000"))).isEqualByComparingTo(
+            "80.00"
+        );
+        assertThat(table.schedule(COUNTRY.getId(), TaxCode.STATE_PIT, JAN_2026).isEmpty()).isTrue();
+        assertThat(table.schedules(JAN_2026)).containsOnlyKeys(new TaxBracketTable.Key(COUNTRY.getId(), TaxCode.PIT));
+    }
+
+    @Test
+    void versionIsTheOneOfTheCompiledRows() {
+        TaxBracket edited = bracket("0", "10000", "0.10", "0", JAN_2025, null);
+        edited.setLastModifiedDate(Instant.parse("2026-10-01T08:00:00Z"));
+        TaxBracket older = bracket("10000", "50000", "0.20", "0", JAN_2025, null);
+        older.setLastModifiedDate(Instant.parse("2026-09-01T08:00:00Z"));
+
+        TaxBracketTable table = TaxBracketTable.compile(List.of(edited, older));
+
+        assertThat(table.version()).isEqualTo(new PayrollInputFingerprint.TableVersion(2, Instant.parse("2026-10-01T08:00:00Z")));
+        assertThat(TaxBracketTable.compile(List.of(edited)).version()).isNotEqualTo(table.version());
+    }
+
+    /** The sort-and-slice algorithm the compiled schedule replaces. */
+    private static BigDecimal sliceLoop(BigDecimal taxableIncome, List<TaxBracket> brackets) {
+        if (taxableIncome.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        List<TaxBracket> sorted = new ArrayList<>(brackets);
+        sorted.sort(Comparator.comparing(TaxBracket::getLower));
+        BigDecimal remaining = taxableIncome;
+        BigDecimal tax = BigDecimal.ZERO;
+        for (TaxBracket bracket : sorted) {
+            if (remaining.signum() <= 0) break;
+            BigDecimal slice = remaining.min(bracket.getUpper().subtract(bracket.getLower()));
+            tax = tax.add(slice.multiply(bracket.getRate())).add(bracket.getFixedPart());
+            remaining = remaining.subtract(slice);
+        }
+        return tax.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static TaxBracket bracket(String lower, String upper, String rate, String fixedPart, LocalDate validFrom, LocalDate validTo) {
+        TaxBracket bracket = new TaxBracket()
+            .country(COUNTRY)
+            .taxCode(TaxCode.PIT)
+            .lower(new BigDecimal(lower))
+            .upper(new BigDecimal(upper))
+            .rate(new BigDecimal(rate))
+            .fixedPart(new BigDecimal(fixedPart))
+            .validFrom(validFrom)
+            .validTo(validTo);
+        bracket.setId(UUID.randomUUID());
+        return bracket;
+    }
+
+    private static Country country() {
+        Country country = new Country();
+        country.setId(UUID.randomUUID());
+        return country;
+    }
+}
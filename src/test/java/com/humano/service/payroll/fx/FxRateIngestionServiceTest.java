@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -91,4 +92,26 @@ class FxRateIngestionServiceTest {
         assertThat(rates.get(new CurrencyPair(CurrencyCode.EUR, CurrencyCode.GBP))).isEqualByComparingTo("0.86");
         assertThat(rates.get(new CurrencyPair(CurrencyCode.JPY, CurrencyCode.USD))).isEqualByComparingTo("0.0064");
     }
+
+    @Test
+    void keysTheTenantsPricedPairsByTheirCurrencyIds() {
+        FxRateSeriesCache.Pair eurUsd = new FxRateSeriesCache.Pair(UUID.randomUUID(), UUID.randomUUID());
+        FxRateSeriesCache.Pair chfUsd = new FxRateSeriesCache.Pair(UUID.randomUUID(), eurUsd.toCurrencyId());
+        Map<CurrencyPair, FxRateSeriesCache.Pair> tenantPairs = Map.of(
+            new CurrencyPair(CurrencyCode.EUR, CurrencyCode.USD),
+            eurUsd,
+            new CurrencyPair(CurrencyCode.CHF, CurrencyCode.USD),
+            chfUsd
+        );
+        Map<CurrencyPair, BigDecimal> rates = Map.of(
+            new CurrencyPair(CurrencyCode.EUR, CurrencyCode.USD),
+            new BigDecimal("1.10"),
+            new CurrencyPair(CurrencyCode.GBP, CurrencyCode.USD),
+            new BigDecimal("1.27")
+        );
+
+        // CHF->USD was not priced and GBP->USD is another tenant's pair: only EUR->USD is written.
+        assertThat(FxRateIngestionService.tenantRates(tenantPairs, rates)).containsOnlyKeys(eurUsd);
+        assertThat(FxRateIngestionService.tenantRates(tenantPairs, rates).get(eurUsd)).isEqualByComparingTo("1.10");
+    }
 }
@@ -0,0 +1,70 @@
+package com.humano.service.payroll.fx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link FxRateSeries} — the day-indexed as-of lookup behind
+ * {@code ExchangeRateService.getReportingRate} and {@code convert}: exact date first, else the
+ * most recent earlier rate, with its staleness.
+ */
+class FxRateSeriesTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 6, 22);
+
+    private static final UUID FIRST = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID THIRD = UUID.fromString("00000000-0000-0000-0000-000000000003");
+    private static final UUID FOURTH = UUID.fromString("00000000-0000-0000-0000-000000000004");
+
+    private final FxRateSeries series = FxRateSeries.of(
+        List.of(
+            rate(FIRST, MONDAY, "1.08"),
+            rate(SECOND, MONDAY.plusDays(1), "1.09"),
+            rate(THIRD, MONDAY.plusDays(1), "1.50"), // duplicate date: the first (preferred) row wins
+            rate(FOURTH, MONDAY.plusDays(4), "1.10")
+        )
+    );
+
+    @Test
+    void returnsTheRateOfTheExactDate() {
+        assertThat(series.asOf(MONDAY.plusDays(1))).isEqualTo(rate(SECOND, MONDAY.plusDays(1), "1.09"));
+        assertThat(series.staleness(MONDAY.plusDays(1))).isZero();
+    }
+
+    @Test
+    void fallsBackToTheMostRecentEarlierRate() {
+        assertThat(series.asOf(MONDAY.plusDays(3))).isEqualTo(rate(SECOND, MONDAY.plusDays(1), "1.09"));
+        assertThat(series.staleness(MONDAY.plusDays(3))).isEqualTo(2);
+    }
+
+    @Test
+    void resolvesDatesAfterTheLastRateToTheLastRate() {
+        assertThat(series.asOf(MONDAY.plusDays(40))).isEqualTo(rate(FOURTH, MONDAY.plusDays(4), "1.10"));
+        assertThat(series.staleness(MONDAY.plusDays(40))).isEqualTo(36);
+    }
+
+    @Test
+    void hasNoRateBeforeTheFirstOne() {
+        assertThat(series.asOf(MONDAY.minusDays(1))).isNull();
+        assertThat(series.staleness(MONDAY.minusDays(1))).isEqualTo(-1);
+        assertThat(series.size()).isEqualTo(3);
+    }
+
+    @Test
+    void emptySeriesHasNoRate() {
+        FxRateSeries empty = FxRateSeries.of(List.of());
+
+        assertThat(empty.isEmpty()).isTrue();
+        assertThat(empty.asOf(MONDAY)).isNull();
+    }
+
+    private static FxRateSeries.Rate rate(UUID id, LocalDate date, String rate) {
+        return new FxRateSeries.Rate(id, date, new BigDecimal(rate));
+    }
+}
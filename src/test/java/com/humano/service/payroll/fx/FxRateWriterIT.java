@@ -0,0 +1,106 @@
+package com.humano.service.payroll.fx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.humano.IntegrationTest;
+import com.humano.domain.enumeration.CurrencyCode;
+import com.humano.domain.payroll.ExchangeRate;
+import com.humano.repository.payroll.CurrencyRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link FxRateWriter}'s {@code INSERT ... ON DUPLICATE KEY UPDATE} against
+ * the test MySQL container: a second upsert of the same pairs and date updates the rows in place,
+ * keeping their ids, and adds rows only for pairs not priced yet.
+ */
+@IntegrationTest
+class FxRateWriterIT {
+
+    /** Far from any date other tests price. */
+    private static final LocalDate DATE = LocalDate.of(2099, 1, 15);
+
+    @Autowired
+    private FxRateWriter fxRateWriter;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    @Qualifier("tenantTransactionManager")
+    private PlatformTransactionManager tenantTransactionManager;
+
+    @PersistenceContext(unitName = "tenant")
+    private EntityManager entityManager;
+
+    private FxRateSeriesCache.Pair eurToUsd;
+    private FxRateSeriesCache.Pair eurToGbp;
+
+    @BeforeEach
+    void setUp() {
+        UUID eur = currencyRepository.findByCode(CurrencyCode.EUR).orElseThrow().getId();
+        eurToUsd = new FxRateSeriesCache.Pair(eur, currencyRepository.findByCode(CurrencyCode.USD).orElseThrow().getId());
+        eurToGbp = new FxRateSeriesCache.Pair(eur, currencyRepository.findByCode(CurrencyCode.GBP).orElseThrow().getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        new TransactionTemplate(tenantTransactionManager).executeWithoutResult(status ->
+            entityManager.createQuery("DELETE FROM ExchangeRate r WHERE r.date = :date").setParameter("date", DATE).executeUpdate()
+        );
+    }
+
+    @Test
+    void secondUpsertUpdatesTheRatesInPlace() {
+        assertThat(fxRateWriter.upsert(Map.of(eurToUsd, new BigDecimal("1.0812")), DATE, "frankfurter")).isEqualTo(1);
+        ExchangeRate first = single(eurToUsd);
+
+        Map<FxRateSeriesCache.Pair, BigDecimal> next = Map.of(eurToUsd, new BigDecimal("1.0934"), eurToGbp, new BigDecimal("0.8421"));
+        assertThat(fxRateWriter.upsert(next, DATE, "ecb")).isEqualTo(2);
+
+        ExchangeRate updated = single(eurToUsd);
+        assertThat(updated.getId()).isEqualTo(first.getId());
+        assertThat(updated.getRate()).isEqualByComparingTo("1.0934");
+        assertThat(updated.getSource()).isEqualTo("ecb");
+        assertThat(updated.getFetchedAt()).isAfterOrEqualTo(first.getFetchedAt());
+        assertThat(single(eurToGbp).getRate()).isEqualByComparingTo("0.8421");
+    }
+
+    @Test
+    void repeatedUpsertOfTheSameRatesAddsNoRow() {
+        Map<FxRateSeriesCache.Pair, BigDecimal> rates = Map.of(eurToUsd, new BigDecimal("1.0812"), eurToGbp, new BigDecimal("0.8421"));
+
+        fxRateWriter.upsert(rates, DATE, "frankfurter");
+        fxRateWriter.upsert(rates, DATE, "frankfurter");
+
+        assertThat(rowsOn(DATE)).hasSize(2);
+    }
+
+    private ExchangeRate single(FxRateSeriesCache.Pair pair) {
+        List<ExchangeRate> rows = rowsOn(DATE)
+            .stream()
+            .filter(r -> r.getFromCcy().getId().equals(pair.fromCurrencyId()) && r.getToCcy().getId().equals(pair.toCurrencyId()))
+            .toList();
+        assertThat(rows).hasSize(1);
+        return rows.get(0);
+    }
+
+    private List<ExchangeRate> rowsOn(LocalDate date) {
+        String query = "SELECT r FROM ExchangeRate r JOIN FETCH r.fromCcy JOIN FETCH r.toCcy WHERE r.date = :date";
+        return new TransactionTemplate(tenantTransactionManager).execute(status ->
+            entityManager.createQuery(query, ExchangeRate.class).setParameter("date", date).getResultList()
+        );
+    }
+}
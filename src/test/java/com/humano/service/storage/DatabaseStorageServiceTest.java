@@ -0,0 +1,187 @@
+package com.humano.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.humano.domain.storage.FileBlob;
+import com.humano.repository.storage.FileBlobRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Unit tests for {@link DatabaseStorageService}'s chunked layout, over an in-memory
+ * {@code file_blob_chunk} table: content is written in bounded chunks and read back, whole or
+ * from an offset, with one chunk lookup per chunk; a failed write rolls its transaction back.
+ */
+class DatabaseStorageServiceTest {
+
+    private static final int SIZE = 2 * DatabaseStorageService.CHUNK_BYTES + 1000;
+
+    private final FileBlobRepository fileBlobRepository = mock(FileBlobRepository.class);
+    private final Map<UUID, FileBlob> blobs = new HashMap<>();
+    private final Map<UUID, TreeMap<Long, byte[]>> chunks = new HashMap<>();
+    private final AtomicInteger chunkReads = new AtomicInteger();
+    private final AtomicInteger commits = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+    private final byte[] content = new byte[SIZE];
+    private DatabaseStorageService storage;
+
+    @BeforeEach
+    void setUp() {
+        new Random(7).nextBytes(content);
+        when(fileBlobRepository.saveAndFlush(any(FileBlob.class))).thenAnswer(invocation -> {
+            FileBlob blob = invocation.getArgument(0);
+            blob.setId(UUID.randomUUID());
+            blobs.put(blob.getId(), blob);
+            return blob;
+        });
+        when(fileBlobRepository.save(any(FileBlob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fileBlobRepository.findSizeById(any())).thenAnswer(invocation ->
+            Optional.ofNullable(blobs.get(invocation.<UUID>getArgument(0))).map(FileBlob::getSizeBytes)
+        );
+        doAnswer(invocation -> {
+            // The service reuses its buffer, as a JDBC driver would be free to once bound.
+            byte[] chunk = invocation.<byte[]>getArgument(2).clone();
+            chunks.computeIfAbsent(invocation.getArgument(0), id -> new TreeMap<>()).put(invocation.getArgument(1), chunk);
+            return null;
+        })
+            .when(fileBlobRepository)
+            .insertChunk(any(), anyLong(), any());
+        when(fileBlobRepository.readChunk(any(), anyLong())).thenAnswer(invocation -> {
+            chunkReads.incrementAndGet();
+            return chunks.get(invocation.<UUID>getArgument(0)).get(invocation.<Long>getArgument(1));
+        });
+        when(fileBlobRepository.findChunkStart(any(), anyLong())).thenAnswer(invocation ->
+            chunks.get(invocation.<UUID>getArgument(0)).floorKey(invocation.getArgument(1))
+        );
+
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                commits.incrementAndGet();
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                rollbacks.incrementAndGet();
+            }
+        };
+        storage = new DatabaseStorageService(fileBlobRepository, transactionManager);
+    }
+
+    @Test
+    void contentIsStoredInBoundedChunksAndReadBackWhole() throws Exception {
+        String key = storage.store(new ByteArrayInputStream(content), SIZE, "payslips", "a.pdf", "application/pdf");
+
+        TreeMap<Long, byte[]> stored = chunks.get(UUID.fromString(key));
+        assertThat(stored.keySet()).containsExactly(0L, (long) DatabaseStorageService.CHUNK_BYTES, 2L * DatabaseStorageService.CHUNK_BYTES);
+        assertThat(stored.lastEntry().getValue()).hasSize(1000);
+        assertThat(storage.size(key).getAsLong()).isEqualTo(SIZE);
+        try (InputStream in = storage.retrieve(key).orElseThrow()) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+        assertThat(chunkReads.get()).isEqualTo(3);
+    }
+
+    @Test
+    void contentOfUnknownLengthIsSized() throws Exception {
+        String key = storage.store(out -> out.write(content), "payslips", "a.pdf", "application/pdf");
+
+        assertThat(storage.size(key).getAsLong()).isEqualTo(SIZE);
+    }
+
+    @Test
+    void rangeFromTheMiddleReadsOnlyTheChunksItCovers() throws Exception {
+        String key = storage.store(new ByteArrayInputStream(content), SIZE, "payslips", "a.pdf", "application/pdf");
+        long offset = DatabaseStorageService.CHUNK_BYTES + 10;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        storage.transferTo(key, offset, 100, out);
+
+        byte[] expected = new byte[100];
+        System.arraycopy(content, (int) offset, expected, 0, 100);
+        assertThat(out.toByteArray()).isEqualTo(expected);
+        assertThat(chunkReads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void contentShorterThanDeclaredIsRejectedAndRolledBack() {
+        assertThatThrownBy(() -> storage.store(new ByteArrayInputStream(content), SIZE + 1, "payslips", "a.pdf", "application/pdf"))
+            .isInstanceOf(StorageException.class)
+            .hasMessageContaining("Expected " + (SIZE + 1) + " bytes");
+
+        assertThat(rollbacks.get()).isEqualTo(1);
+        assertThat(commits.get()).isZero();
+    }
+
+    @Test
+    void failingWriterSurfacesItsIOExceptionAndRollsBack() {
+        IOException failure = new IOException("upload aborted");
+
+        assertThatThrownBy(() ->
+            storage.store(
+                out -> {
+                    out.write(content, 0, DatabaseStorageService.CHUNK_BYTES + 1);
+                    throw failure;
+                },
+                "payslips",
+                "a.pdf",
+                "application/pdf"
+            )
+        ).isSameAs(failure);
+
+        assertThat(rollbacks.get()).isEqualTo(1);
+        assertThat(commits.get()).isZero();
+    }
+
+    @Test
+    void emptyContentStoresNoChunk() throws Exception {
+        String key = storage.store(new ByteArrayInputStream(new byte[0]), 0, "payslips", "empty.txt", "text/plain");
+
+        assertThat(chunks.get(UUID.fromString(key))).isNull();
+        assertThat(storage.size(key).getAsLong()).isZero();
+        try (InputStream in = storage.retrieve(key).orElseThrow()) {
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void deleteRemovesTheChunksBeforeTheBlobRow() throws Exception {
+        String key = storage.store(new ByteArrayInputStream(content), SIZE, "payslips", "a.pdf", "application/pdf");
+        UUID id = UUID.fromString(key);
+        when(fileBlobRepository.existsById(id)).thenReturn(true);
+
+        assertThat(storage.delete(key)).isTrue();
+
+        InOrder order = inOrder(fileBlobRepository);
+        order.verify(fileBlobRepository).deleteChunks(id);
+        order.verify(fileBlobRepository).deleteById(id);
+    }
+}
@@ -0,0 +1,92 @@
+package com.humano.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link RetiringStorageService}: a retired backend is closed once, and only
+ * when no call or open download stream is still using it.
+ */
+class RetiringStorageServiceTest {
+
+    private final S3StorageService backend = mock(S3StorageService.class);
+    private RetiringStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RetiringStorageService(backend);
+    }
+
+    @Test
+    void idleBackendIsClosedWhenRetired() throws Exception {
+        service.retire();
+
+        verify(backend).close();
+    }
+
+    @Test
+    void callInFlightKeepsTheBackendOpenUntilItEnds() throws Exception {
+        doAnswer(invocation -> {
+            service.retire();
+            verify(backend, never()).close();
+            return null;
+        })
+            .when(backend)
+            .transferTo(eq("payslips/a.pdf"), anyLong(), anyLong(), any());
+
+        service.transferTo("payslips/a.pdf", 0, 10, new ByteArrayOutputStream());
+
+        verify(backend).close();
+    }
+
+    @Test
+    void failedCallReleasesItsLease() throws Exception {
+        when(backend.delete("payslips/a.pdf")).thenThrow(new StorageException("bucket gone"));
+
+        assertThatThrownBy(() -> service.delete("payslips/a.pdf")).isInstanceOf(StorageException.class);
+        service.retire();
+
+        verify(backend).close();
+    }
+
+    @Test
+    void openDownloadStreamKeepsTheBackendOpenUntilClosed() throws Exception {
+        when(backend.retrieve("payslips/a.pdf")).thenReturn(Optional.of(new ByteArrayInputStream(new byte[] { 1, 2, 3 })));
+
+        InputStream in = service.retrieve("payslips/a.pdf").orElseThrow();
+        service.retire();
+        assertThat(in.readAllBytes()).containsExactly(1, 2, 3);
+        verify(backend, never()).close();
+
+        in.close();
+        in.close();
+
+        verify(backend, times(1)).close();
+    }
+
+    @Test
+    void missingObjectHoldsNoLease() throws Exception {
+        when(backend.retrieve("payslips/missing.pdf")).thenReturn(Optional.empty());
+
+        assertThat(service.retrieve("payslips/missing.pdf")).isEmpty();
+        service.retire();
+
+        verify(backend).close();
+    }
+}
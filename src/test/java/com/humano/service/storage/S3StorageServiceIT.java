@@ -0,0 +1,191 @@
+package com.humano.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.humano.config.StorageProperties;
+import com.humano.domain.tenant.storage.S3StorageDetails;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * {@link S3StorageService} against a MinIO container: single-PUT and multipart round trips,
+ * ranged reads and pre-signed URLs. Also logs upload/download throughput next to the
+ * filesystem backend for the same payload.
+ */
+@Testcontainers
+class S3StorageServiceIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(S3StorageServiceIT.class);
+    private static final String BUCKET = "humano-it";
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-12-18T13-15-44Z");
+
+    private static ExecutorService transferExecutor;
+    private static S3StorageService storage;
+
+    @BeforeAll
+    static void createBucket() {
+        try (
+            S3Client admin = S3Client.builder()
+                .region(Region.US_EAST_1)
+                .endpointOverride(URI.create(MINIO.getS3URL()))
+                .forcePathStyle(true)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(MINIO.getUserName(), MINIO.getPassword())))
+                .build()
+        ) {
+            admin.createBucket(b -> b.bucket(BUCKET));
+        }
+        StorageProperties.S3 properties = new StorageProperties.S3();
+        properties.setMultipartThreshold(DataSize.ofMegabytes(5));
+        properties.setPartSize(DataSize.ofMegabytes(5));
+        transferExecutor = Executors.newFixedThreadPool(4);
+        S3StorageDetails details = new S3StorageDetails(
+            BUCKET,
+            "us-east-1",
+            MINIO.getUserName(),
+            MINIO.getPassword(),
+            Long.MAX_VALUE,
+            MINIO.getS3URL(),
+            true
+        );
+        storage = new S3StorageService(details, properties, transferExecutor);
+    }
+
+    @AfterAll
+    static void close() {
+        storage.close();
+        transferExecutor.shutdownNow();
+    }
+
+    @Test
+    void smallObjectIsOneRoundTrip() throws IOException {
+        byte[] content = randomBytes(64 * 1024);
+
+        String key = storage.store(new ByteArrayInputStream(content), content.length, "docs", "small.bin", "application/pdf");
+
+        assertThat(key).isEqualTo("docs/small.bin");
+        assertThat(storage.exists(key)).isTrue();
+        assertThat(storage.size(key)).hasValue(content.length);
+        assertThat(readAll(storage.retrieve(key))).isEqualTo(content);
+        assertThat(storage.delete(key)).isTrue();
+        assertThat(storage.exists(key)).isFalse();
+        assertThat(storage.retrieve(key)).isEmpty();
+    }
+
+    @Test
+    void largeObjectGoesMultipart() throws IOException {
+        byte[] content = randomBytes(20 * 1024 * 1024 + 123);
+
+        String key = storage.store(new ByteArrayInputStream(content), content.length, "docs", "large.bin", null);
+
+        assertThat(storage.size(key)).hasValue(content.length);
+        assertThat(readAll(storage.retrieve(key))).isEqualTo(content);
+    }
+
+    @Test
+    void unsizedStreamGoesMultipartOnlyWhenLarge() throws IOException {
+        byte[] small = randomBytes(1024);
+        byte[] large = randomBytes(11 * 1024 * 1024);
+
+        String smallKey = storage.store(new ByteArrayInputStream(small), "docs", "unsized-small.bin", null);
+        String largeKey = storage.store(new ByteArrayInputStream(large), "docs", "unsized-large.bin", null);
+
+        assertThat(readAll(storage.retrieve(smallKey))).isEqualTo(small);
+        assertThat(readAll(storage.retrieve(largeKey))).isEqualTo(large);
+    }
+
+    @Test
+    void transferToReadsOnlyTheRange() throws IOException {
+        byte[] content = randomBytes(300_000);
+        String key = storage.store(new ByteArrayInputStream(content), content.length, "docs", "ranged.bin", null);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        storage.transferTo(key, 100_000, 50_000, out);
+
+        assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(content, 100_000, 150_000));
+    }
+
+    @Test
+    void presignedUrlDownloadsWithoutCredentials() throws Exception {
+        byte[] content = randomBytes(4096);
+        String key = storage.store(new ByteArrayInputStream(content), content.length, "docs", "presigned.bin", null);
+
+        String url = storage.getUrl(key).orElseThrow();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient()
+            .send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).isEqualTo(content);
+    }
+
+    @Test
+    void logsThroughputAgainstFilesystemBackend(@TempDir Path root) throws IOException {
+        byte[] content = randomBytes(64 * 1024 * 1024);
+        FilesystemStorageService filesystem = new FilesystemStorageService(root);
+
+        LOG.info("64 MiB upload: s3 {} MB/s, filesystem {} MB/s", uploadRate(storage, content), uploadRate(filesystem, content));
+        LOG.info(
+            "64 MiB download: s3 {} MB/s, filesystem {} MB/s",
+            downloadRate(storage, "bench/payload.bin", content.length),
+            downloadRate(filesystem, "bench/payload.bin", content.length)
+        );
+        assertThat(Files.size(root.resolve("bench/payload.bin"))).isEqualTo(content.length);
+    }
+
+    private static long uploadRate(FileStorageService backend, byte[] content) throws IOException {
+        long start = System.nanoTime();
+        backend.store(new ByteArrayInputStream(content), content.length, "bench", "payload.bin", null);
+        return megabytesPerSecond(content.length, System.nanoTime() - start);
+    }
+
+    private static long downloadRate(FileStorageService backend, String key, long length) throws IOException {
+        long start = System.nanoTime();
+        backend.transferTo(key, 0, length, OutputStream.nullOutputStream());
+        return megabytesPerSecond(length, System.nanoTime() - start);
+    }
+
+    private static long megabytesPerSecond(long bytes, long nanos) {
+        return bytes * 1_000_000_000L / Math.max(1, nanos) / (1024 * 1024);
+    }
+
+    private static byte[] readAll(Optional<InputStream> stream) throws IOException {
+        try (InputStream in = stream.orElseThrow()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,192 @@
+package com.humano.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.humano.service.storage.FileStorageService;
+import com.humano.service.storage.StoredContent;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for {@link DownloadResponses}: conditional ({@code 304}) and range ({@code 206},
+ * {@code 416}, {@code If-Range}) handling over a ten-byte file held by a stub backend.
+ */
+class DownloadResponsesTest {
+
+    private static final String KEY = "blob-1";
+    private static final String CHECKSUM = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final String ETAG = "\"" + CHECKSUM + "\"";
+    private static final byte[] BYTES = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileStorageService storage = mock(FileStorageService.class);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/1/content");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        doAnswer(invocation -> {
+            long offset = invocation.getArgument(1);
+            long length = invocation.getArgument(2);
+            OutputStream out = invocation.getArgument(3);
+            out.write(BYTES, (int) offset, (int) length);
+            return null;
+        })
+            .when(storage)
+            .transferTo(eq(KEY), anyLong(), anyLong(), any(OutputStream.class));
+    }
+
+    @Test
+    void wholeFileIsServedWithValidators() throws Exception {
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(BYTES);
+        assertThat(response.getContentLengthLong()).isEqualTo(BYTES.length);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("private, no-cache");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).startsWith("attachment").contains("digits.txt");
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModifiedWithoutReadingContent() throws Exception {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + ETAG);
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        verify(storage, never()).transferTo(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void staleIfNoneMatchIsServedInFull() throws Exception {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(BYTES);
+    }
+
+    @Test
+    void singleRangeIsPartialContent() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void suffixRangeIsTheLastBytes() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    void rangeBeyondTheEndIsNotSatisfiable() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
+        verify(storage, never()).transferTo(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void rangeIsHonouredWhenIfRangeMatches() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+    }
+
+    @Test
+    void rangeIsIgnoredWhenIfRangeNamesAnotherVersion() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(BYTES);
+    }
+
+    @Test
+    void ifRangeDateIsTreatedAsStale() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-");
+        request.addHeader(HttpHeaders.IF_RANGE, "Wed, 21 Oct 2026 07:28:00 GMT");
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(BYTES);
+    }
+
+    @Test
+    void severalRangesAreServedInFull() throws Exception {
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(BYTES);
+    }
+
+    @Test
+    void headAnswersHeadersWithoutABody() throws Exception {
+        request.setMethod("HEAD");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        DownloadResponses.write(content(CHECKSUM), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        verify(storage, never()).transferTo(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void contentWithoutChecksumHasNoETagAndIsNeverNotModified() throws Exception {
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-0");
+        request.addHeader(HttpHeaders.IF_RANGE, ETAG);
+
+        DownloadResponses.write(content(null), request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(BYTES);
+    }
+
+    private StoredContent content(String checksum) {
+        return new StoredContent(storage, KEY, BYTES.length, "text/plain", "digits.txt", checksum);
+    }
+}